@@ -2,22 +2,43 @@ package com.argenischacon.inventory_sales_api.audit;
 
 import jakarta.persistence.Column;
 import jakarta.persistence.Entity;
+import jakarta.persistence.GeneratedValue;
+import jakarta.persistence.GenerationType;
+import jakarta.persistence.Id;
+import jakarta.persistence.SequenceGenerator;
 import jakarta.persistence.Table;
 import lombok.Getter;
 import lombok.Setter;
-import org.hibernate.envers.DefaultRevisionEntity;
 import org.hibernate.envers.RevisionEntity;
+import org.hibernate.envers.RevisionNumber;
+import org.hibernate.envers.RevisionTimestamp;
 
+import java.util.Date;
+
+// Same columns as DefaultRevisionEntity, but with an explicit pooled sequence so revisions can be batched
 @Entity
 @Table(name = "revisions")
 @RevisionEntity(CustomRevisionListener.class)
 @Getter
 @Setter
-public class CustomRevisionEntity extends DefaultRevisionEntity implements Comparable<CustomRevisionEntity> {
+public class CustomRevisionEntity implements Comparable<CustomRevisionEntity> {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "revisions_seq")
+    @SequenceGenerator(name = "revisions_seq", sequenceName = "revisions_seq", allocationSize = 50)
+    @RevisionNumber
+    private int id;
+
+    @RevisionTimestamp
+    private long timestamp;
 
     @Column(name = "username")
     private String username;
 
+    public Date getRevisionDate() {
+        return new Date(timestamp);
+    }
+
     @Override
     public int compareTo(CustomRevisionEntity o) {
         return Integer.compare(this.getId(), o.getId());
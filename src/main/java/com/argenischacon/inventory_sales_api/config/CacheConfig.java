@@ -0,0 +1,53 @@
+package com.argenischacon.inventory_sales_api.config;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.annotation.EnableCaching;
+import org.springframework.cache.caffeine.CaffeineCacheManager;
+import org.springframework.cache.transaction.TransactionAwareCacheManagerProxy;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.Ordered;
+import org.springframework.transaction.annotation.EnableTransactionManagement;
+
+import java.time.Duration;
+import java.util.List;
+
+/**
+ * Local caches of catalog response DTOs, bounded by size and time. Evictions and puts made inside a transaction
+ * are deferred until it commits, so a rolled back write keeps the cache. A read that loaded the row before a write
+ * committed does not put it after the write's eviction ({@link EvictionGuardedCaffeineCache}). Transactions wrap
+ * the caching aspect, so a cached read misses inside its own transaction and its put waits for the commit.
+ * Hit, miss and eviction counts are published as cache.* metrics.
+ */
+@Configuration
+@EnableCaching
+@EnableTransactionManagement(order = Ordered.LOWEST_PRECEDENCE - 1)
+public class CacheConfig {
+    public static final String CATEGORIES = "categories";
+    public static final String CATEGORY_PAGES = "categoryPages";
+    public static final String PRODUCTS = "products";
+    public static final String PRODUCT_PAGES = "productPages";
+
+    @Bean
+    public CacheManager cacheManager(
+            @Value("${app.cache.catalog.max-size:10000}") long maxSize,
+            @Value("${app.cache.catalog.ttl:10m}") Duration ttl
+    ) {
+        CaffeineCacheManager cacheManager = new CaffeineCacheManager() {
+            @Override
+            protected org.springframework.cache.Cache adaptCaffeineCache(String name, Cache<Object, Object> cache) {
+                return new EvictionGuardedCaffeineCache(name, cache, isAllowNullValues());
+            }
+        };
+        cacheManager.setCacheNames(List.of(CATEGORIES, CATEGORY_PAGES, PRODUCTS, PRODUCT_PAGES));
+        cacheManager.setCaffeine(Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfterWrite(ttl)
+                .recordStats());
+        cacheManager.setAllowNullValues(false);
+        return new TransactionAwareCacheManagerProxy(cacheManager);
+    }
+}
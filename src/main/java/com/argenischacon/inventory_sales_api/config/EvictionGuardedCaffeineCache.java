@@ -0,0 +1,98 @@
+package com.argenischacon.inventory_sales_api.config;
+
+import org.springframework.cache.caffeine.CaffeineCache;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Caffeine cache that drops a put when an eviction happened since the miss that led to it. A read that loaded the
+ * row before a write committed would otherwise cache the old value after the write's eviction, until the TTL.
+ * A miss and its put run on the same thread (the caching aspect, or its after-commit callback), so the eviction count
+ * seen at each miss is kept per thread and per key. Inside a transaction the snapshots live until it completes, so a
+ * loader that throws or a put deferred to after commit never reads a snapshot of another miss. Any eviction in the
+ * cache counts, which at worst skips an unrelated fill.
+ */
+class EvictionGuardedCaffeineCache extends CaffeineCache {
+    private final AtomicLong evictions = new AtomicLong();
+    private final ThreadLocal<Map<Object, Long>> evictionsAtMiss = ThreadLocal.withInitial(HashMap::new);
+
+    EvictionGuardedCaffeineCache(String name, com.github.benmanes.caffeine.cache.Cache<Object, Object> cache,
+                                 boolean allowNullValues) {
+        super(name, cache, allowNullValues);
+    }
+
+    @Override
+    protected Object lookup(Object key) {
+        Object value = super.lookup(key);
+        if (value == null) {
+            rememberMiss(key);
+        }
+        return value;
+    }
+
+    @Override
+    public void put(Object key, Object value) {
+        // After commit the transaction's synchronizations are still active; its completion forgets the snapshot
+        Long seen = TransactionSynchronizationManager.isSynchronizationActive()
+                ? evictionsAtMiss.get().get(key)
+                : forget(key);
+        if (seen != null && seen != evictions.get()) {
+            return;
+        }
+        super.put(key, value);
+    }
+
+    @Override
+    public void evict(Object key) {
+        evictions.incrementAndGet();
+        super.evict(key);
+    }
+
+    @Override
+    public boolean evictIfPresent(Object key) {
+        evictions.incrementAndGet();
+        return super.evictIfPresent(key);
+    }
+
+    @Override
+    public void clear() {
+        evictions.incrementAndGet();
+        super.clear();
+    }
+
+    @Override
+    public boolean invalidate() {
+        evictions.incrementAndGet();
+        return super.invalidate();
+    }
+
+    private void rememberMiss(Object key) {
+        Map<Object, Long> misses = evictionsAtMiss.get();
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            misses.put(key, evictions.get());
+            return;
+        }
+        // A second miss of the same key in the transaction keeps the older, stricter snapshot
+        if (misses.putIfAbsent(key, evictions.get()) == null) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCompletion(int status) {
+                    forget(key);
+                }
+            });
+        }
+    }
+
+    private Long forget(Object key) {
+        Map<Object, Long> misses = evictionsAtMiss.get();
+        Long seen = misses.remove(key);
+        if (misses.isEmpty()) {
+            evictionsAtMiss.remove();
+        }
+        return seen;
+    }
+}
@@ -0,0 +1,35 @@
+package com.argenischacon.inventory_sales_api.config;
+
+import com.argenischacon.inventory_sales_api.dto.CategoryResponseDTO;
+import com.argenischacon.inventory_sales_api.dto.CustomerResponseDTO;
+import com.argenischacon.inventory_sales_api.dto.ProductResponseDTO;
+import com.argenischacon.inventory_sales_api.dto.SaleResponseDTO;
+import com.fasterxml.jackson.annotation.JsonFilter;
+import com.fasterxml.jackson.databind.ser.impl.SimpleBeanPropertyFilter;
+import com.fasterxml.jackson.databind.ser.impl.SimpleFilterProvider;
+import org.springframework.boot.autoconfigure.jackson.Jackson2ObjectMapperBuilderCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Marks the top-level response DTOs with the {@link #FIELDS_FILTER} property filter through mix-ins, so the DTOs stay
+ * plain for other mappers. The default filter writes every property; a {@code ?fields=} request swaps it per response.
+ */
+@Configuration
+public class JacksonConfig {
+    public static final String FIELDS_FILTER = "fields";
+
+    @JsonFilter(FIELDS_FILTER)
+    interface FieldsFilterMixIn {
+    }
+
+    @Bean
+    public Jackson2ObjectMapperBuilderCustomizer fieldsFilterCustomizer() {
+        return builder -> builder
+                .mixIn(CategoryResponseDTO.class, FieldsFilterMixIn.class)
+                .mixIn(CustomerResponseDTO.class, FieldsFilterMixIn.class)
+                .mixIn(ProductResponseDTO.class, FieldsFilterMixIn.class)
+                .mixIn(SaleResponseDTO.class, FieldsFilterMixIn.class)
+                .filters(new SimpleFilterProvider().setDefaultFilter(SimpleBeanPropertyFilter.serializeAll()));
+    }
+}
@@ -42,6 +42,15 @@ public final class OpenApiExamples {
                 }
                 """;
 
+        public static final String ERROR_400_INVALID_CURSOR = """
+                {
+                    "timestamp": "2024-08-01T12:00:50.000Z",
+                    "status": 400,
+                    "error": "Bad Request",
+                    "message": "Invalid pagination cursor."
+                }
+                """;
+
         public static final String ERROR_401_UNAUTHORIZED = """
                 {
                   "timestamp": "2024-08-01T12:01:00.000Z",
@@ -166,6 +175,32 @@ public final class OpenApiExamples {
                 }
                 """;
 
+        public static final String ERROR_400_INVALID_SEARCH = """
+                {
+                    "timestamp": "2024-08-01T14:00:45.000Z",
+                    "status": 400,
+                    "error": "Bad Request",
+                    "message": "Validation failed.",
+                    "details": {
+                        "minPrice": "Minimum price must not be negative",
+                        "sortBy": "Sort field must be one of: id, name, unitPrice, stock"
+                    }
+                }
+                """;
+
+        public static final String ERROR_400_INVALID_TEXT_QUERY = """
+                {
+                    "timestamp": "2024-08-01T14:00:50.000Z",
+                    "status": 400,
+                    "error": "Bad Request",
+                    "message": "Validation failed.",
+                    "details": {
+                        "q": "Query is required",
+                        "limit": "Limit must be at most 100"
+                    }
+                }
+                """;
+
         public static final String ERROR_404_NOT_FOUND = """
                 {
                   "timestamp": "2024-08-01T14:02:00.000Z",
@@ -215,6 +250,54 @@ public final class OpenApiExamples {
                 }
                 """;
 
+        public static final String ERROR_400_BATCH_VALIDATION_FAILED = """
+                {
+                    "timestamp": "2024-08-01T15:00:45.000Z",
+                    "status": 400,
+                    "error": "Bad Request",
+                    "message": "Validation failed.",
+                    "details": {
+                        "sales": "Must have at least one sale",
+                        "sales[0].customerId": "Customer ID is required"
+                    }
+                }
+                """;
+
+        public static final String ERROR_400_INVALID_FILTER = """
+                {
+                    "timestamp": "2024-08-01T15:01:00.000Z",
+                    "status": 400,
+                    "error": "Bad Request",
+                    "message": "Validation failed.",
+                    "details": {
+                        "sortBy": "Sort field must be one of: id, date, total, lineCount"
+                    }
+                }
+                """;
+
+        public static final String ERROR_400_INVALID_EXPORT = """
+                {
+                    "timestamp": "2024-08-01T15:01:30.000Z",
+                    "status": 400,
+                    "error": "Bad Request",
+                    "message": "Validation failed.",
+                    "details": {
+                        "format": "Export format must be ndjson or csv"
+                    }
+                }
+                """;
+
+        public static final String EXPORT_NDJSON = """
+                {"id":1,"date":"2024-08-01","customerId":1,"customerDni":"12345678","total":1999.98,"lines":[{"id":1,"productId":2,"productName":"Smart TV","quantity":2,"unitPrice":999.99}]}
+                {"id":2,"date":"2024-08-01","customerId":3,"customerDni":"87654321","total":49.90,"lines":[{"id":2,"productId":5,"productName":"HDMI cable","quantity":1,"unitPrice":49.90}]}
+                """;
+
+        public static final String EXPORT_CSV = """
+                sale_id,date,customer_id,customer_dni,sale_total,detail_id,product_id,product_name,quantity,unit_price
+                1,2024-08-01,1,12345678,1999.98,1,2,Smart TV,2,999.99
+                2,2024-08-01,3,87654321,49.90,2,5,HDMI cable,1,49.90
+                """;
+
         public static final String ERROR_404_NOT_FOUND = """
                 {
                   "timestamp": "2024-08-01T15:02:00.000Z",
@@ -233,6 +316,24 @@ public final class OpenApiExamples {
                 }
                 """;
 
+        public static final String ERROR_409_IDEMPOTENCY_KEY_IN_USE = """
+                {
+                  "timestamp": "2024-08-01T15:03:15.000Z",
+                  "status": 409,
+                  "error": "Conflict",
+                  "message": "A request with this Idempotency-Key is still being processed. Please retry later."
+                }
+                """;
+
+        public static final String ERROR_422_IDEMPOTENCY_KEY_REUSED = """
+                {
+                  "timestamp": "2024-08-01T15:03:30.000Z",
+                  "status": 422,
+                  "error": "Unprocessable Entity",
+                  "message": "Idempotency-Key was already used with a different request payload."
+                }
+                """;
+
         public static final String ERROR_404_DETAIL_NOT_IN_SALE = """
                 {
                   "timestamp": "2024-08-01T15:04:00.000Z",
@@ -271,6 +372,36 @@ public final class OpenApiExamples {
                   "message": "Invalid credentials."
                 }
                 """;
+
+        public static final String ERROR_400_REFRESH_TOKEN_REQUIRED = """
+                {
+                    "timestamp": "2024-08-01T16:02:00.000Z",
+                    "status": 400,
+                    "error": "Bad Request",
+                    "message": "Validation failed.",
+                    "details": {
+                        "refreshToken": "Refresh token is required"
+                    }
+                }
+                """;
+
+        public static final String ERROR_401_INVALID_REFRESH_TOKEN = """
+                {
+                  "timestamp": "2024-08-01T16:02:30.000Z",
+                  "status": 401,
+                  "error": "Unauthorized",
+                  "message": "Invalid or expired refresh token."
+                }
+                """;
+
+        public static final String ERROR_503_BUSY = """
+                {
+                  "timestamp": "2024-08-01T16:01:30.000Z",
+                  "status": 503,
+                  "error": "Service Unavailable",
+                  "message": "Too many logins are being processed. Please retry shortly."
+                }
+                """;
     }
 
     /**
@@ -3,12 +3,13 @@ package com.argenischacon.inventory_sales_api.controller;
 import com.argenischacon.inventory_sales_api.controller.api.AuthAPI;
 import com.argenischacon.inventory_sales_api.dto.AuthRequestDTO;
 import com.argenischacon.inventory_sales_api.dto.AuthResponseDTO;
+import com.argenischacon.inventory_sales_api.dto.RefreshTokenRequestDTO;
 import com.argenischacon.inventory_sales_api.exception.ErrorResponse;
-import com.argenischacon.inventory_sales_api.security.JwtUtils;
+import com.argenischacon.inventory_sales_api.security.CredentialVerifier;
+import com.argenischacon.inventory_sales_api.security.TokenService;
 import lombok.RequiredArgsConstructor;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
-import org.springframework.security.authentication.AuthenticationManager;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
 import org.springframework.security.core.Authentication;
 import org.springframework.security.core.AuthenticationException;
@@ -19,17 +20,16 @@ import java.time.LocalDateTime;
 @RestController
 @RequiredArgsConstructor
 public class AuthController implements AuthAPI {
-    private final AuthenticationManager authenticationManager;
-    private final JwtUtils jwtUtils;
+    private final CredentialVerifier credentialVerifier;
+    private final TokenService tokenService;
 
     @Override
     public ResponseEntity<AuthResponseDTO> login(AuthRequestDTO authRequest) {
         try {
-            Authentication authentication = authenticationManager.authenticate(
+            Authentication authentication = credentialVerifier.authenticate(
                     new UsernamePasswordAuthenticationToken(authRequest.username(), authRequest.password()));
 
-            String token = jwtUtils.generateToken(authentication);
-            return ResponseEntity.ok(new AuthResponseDTO(token));
+            return ResponseEntity.ok(tokenService.issue(authentication));
 
         } catch (AuthenticationException e) {
             ErrorResponse errorResponse = ErrorResponse.builder()
@@ -41,4 +41,16 @@ public class AuthController implements AuthAPI {
             return new ResponseEntity(errorResponse, HttpStatus.UNAUTHORIZED);
         }
     }
+
+    @Override
+    public ResponseEntity<AuthResponseDTO> refresh(RefreshTokenRequestDTO refreshRequest) {
+        return ResponseEntity.ok(tokenService.refresh(refreshRequest.refreshToken()));
+    }
+
+    @Override
+    public ResponseEntity<Void> logout(String authorization, RefreshTokenRequestDTO logoutRequest) {
+        String accessToken = authorization != null && authorization.startsWith("Bearer ") ? authorization.substring(7) : null;
+        tokenService.logout(accessToken, logoutRequest.refreshToken());
+        return ResponseEntity.noContent().build();
+    }
 }
@@ -3,13 +3,15 @@ package com.argenischacon.inventory_sales_api.controller;
 import com.argenischacon.inventory_sales_api.controller.api.CategoryAPI;
 import com.argenischacon.inventory_sales_api.dto.CategoryRequestDTO;
 import com.argenischacon.inventory_sales_api.dto.CategoryResponseDTO;
+import com.argenischacon.inventory_sales_api.dto.FieldsQueryDTO;
+import com.argenischacon.inventory_sales_api.dto.PageQueryDTO;
+import com.argenischacon.inventory_sales_api.dto.PageResponseDTO;
 import com.argenischacon.inventory_sales_api.service.CategoryService;
 import lombok.RequiredArgsConstructor;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
-
-import java.util.List;
+import org.springframework.web.context.request.WebRequest;
 
 @RestController
 @RequiredArgsConstructor
@@ -35,12 +37,18 @@ public class CategoryController implements CategoryAPI {
     }
 
     @Override
-    public ResponseEntity<CategoryResponseDTO> findById(Long id){
+    public ResponseEntity<CategoryResponseDTO> findById(Long id, FieldsQueryDTO fields, WebRequest request){
+        if (ConditionalRequests.notModified(request, categoryService.findChangeStamp(id))) {
+            return null;
+        }
         return ResponseEntity.ok(categoryService.findById(id));
     }
 
     @Override
-    public ResponseEntity<List<CategoryResponseDTO>> findAll(){
-        return ResponseEntity.ok(categoryService.findAll());
+    public ResponseEntity<PageResponseDTO<CategoryResponseDTO>> findAll(PageQueryDTO pageQuery, FieldsQueryDTO fields, WebRequest request) {
+        if (ConditionalRequests.notModified(request, categoryService.findChangeStamp())) {
+            return null;
+        }
+        return ResponseEntity.ok(categoryService.findAll(pageQuery));
     }
 }
@@ -0,0 +1,39 @@
+package com.argenischacon.inventory_sales_api.controller;
+
+import com.argenischacon.inventory_sales_api.repository.ChangeStamp;
+import org.springframework.web.context.request.WebRequest;
+
+import java.time.Instant;
+import java.time.ZoneId;
+
+/**
+ * Conditional GET support for the read endpoints. The validators come from a {@link ChangeStamp}, so a client whose
+ * copy is current gets a 304 before the response DTO is loaded or serialised.
+ */
+final class ConditionalRequests {
+
+    private ConditionalRequests() {
+    }
+
+    /**
+     * Checks If-None-Match / If-Modified-Since against the stamp. When true, the 304 status has been set and the
+     * handler must return {@code null}; otherwise the ETag header, and Last-Modified when the stamp falls on a whole
+     * second, are already on the response.
+     */
+    static boolean notModified(WebRequest request, ChangeStamp stamp) {
+        // Nothing to validate: a missing resource (left to the 404 path) or an empty collection
+        if (stamp.lastModified() == null) {
+            return false;
+        }
+        Instant instant = stamp.lastModified().atZone(ZoneId.systemDefault()).toInstant();
+        long lastModified = instant.toEpochMilli();
+        // Weak: equal stamps mean equal content, not byte-identical bodies
+        String etag = "W/\"" + stamp.count() + "-" + lastModified + "\"";
+        // HTTP dates have whole seconds: a stamp with a fraction would be sent truncated, and a later write in the
+        // same second would still match it. Only the ETag validates such a stamp, and no Last-Modified is sent
+        if (instant.getNano() != 0) {
+            return request.checkNotModified(etag);
+        }
+        return request.checkNotModified(etag, lastModified);
+    }
+}
@@ -3,13 +3,15 @@ package com.argenischacon.inventory_sales_api.controller;
 import com.argenischacon.inventory_sales_api.controller.api.CustomerAPI;
 import com.argenischacon.inventory_sales_api.dto.CustomerRequestDTO;
 import com.argenischacon.inventory_sales_api.dto.CustomerResponseDTO;
+import com.argenischacon.inventory_sales_api.dto.FieldsQueryDTO;
+import com.argenischacon.inventory_sales_api.dto.PageQueryDTO;
+import com.argenischacon.inventory_sales_api.dto.PageResponseDTO;
 import com.argenischacon.inventory_sales_api.service.CustomerService;
 import lombok.RequiredArgsConstructor;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.RestController;
-
-import java.util.List;
+import org.springframework.web.context.request.WebRequest;
 
 @RestController
 @RequiredArgsConstructor
@@ -35,12 +37,18 @@ public class CustomerController implements CustomerAPI {
     }
 
     @Override
-    public ResponseEntity<CustomerResponseDTO> findById(Long id) {
+    public ResponseEntity<CustomerResponseDTO> findById(Long id, FieldsQueryDTO fields, WebRequest request) {
+        if (ConditionalRequests.notModified(request, customerService.findChangeStamp(id))) {
+            return null;
+        }
         return ResponseEntity.ok(customerService.findById(id));
     }
 
     @Override
-    public ResponseEntity<List<CustomerResponseDTO>> findAll() {
-        return ResponseEntity.ok(customerService.findAll());
+    public ResponseEntity<PageResponseDTO<CustomerResponseDTO>> findAll(PageQueryDTO pageQuery, FieldsQueryDTO fields, WebRequest request) {
+        if (ConditionalRequests.notModified(request, customerService.findChangeStamp())) {
+            return null;
+        }
+        return ResponseEntity.ok(customerService.findAll(pageQuery));
     }
 }
@@ -0,0 +1,46 @@
+package com.argenischacon.inventory_sales_api.controller;
+
+import com.argenischacon.inventory_sales_api.config.JacksonConfig;
+import com.argenischacon.inventory_sales_api.dto.FieldsQueryDTO;
+import com.fasterxml.jackson.databind.ser.impl.SimpleBeanPropertyFilter;
+import com.fasterxml.jackson.databind.ser.impl.SimpleFilterProvider;
+import org.springframework.core.MethodParameter;
+import org.springframework.http.MediaType;
+import org.springframework.http.converter.HttpMessageConverter;
+import org.springframework.http.converter.json.MappingJacksonValue;
+import org.springframework.http.server.ServerHttpRequest;
+import org.springframework.http.server.ServerHttpResponse;
+import org.springframework.http.server.ServletServerHttpRequest;
+import org.springframework.web.bind.annotation.RestControllerAdvice;
+import org.springframework.web.servlet.mvc.method.annotation.AbstractMappingJacksonResponseBodyAdvice;
+
+import java.util.Arrays;
+import java.util.Set;
+
+/**
+ * Applies {@code ?fields=} to the JSON of the endpoints that accept a {@link FieldsQueryDTO}: only the requested
+ * properties of each item are written. Page metadata and nested objects are written whole.
+ */
+@RestControllerAdvice
+public class FieldsResponseAdvice extends AbstractMappingJacksonResponseBodyAdvice {
+
+    @Override
+    public boolean supports(MethodParameter returnType, Class<? extends HttpMessageConverter<?>> converterType) {
+        return super.supports(returnType, converterType)
+                && Arrays.asList(returnType.getExecutable().getParameterTypes()).contains(FieldsQueryDTO.class);
+    }
+
+    @Override
+    protected void beforeBodyWriteInternal(MappingJacksonValue bodyContainer, MediaType contentType,
+                                           MethodParameter returnType, ServerHttpRequest request,
+                                           ServerHttpResponse response) {
+        if (!(request instanceof ServletServerHttpRequest servletRequest)) {
+            return;
+        }
+        Set<String> fields = FieldsQueryDTO.parse(servletRequest.getServletRequest().getParameter("fields"));
+        if (fields != null) {
+            bodyContainer.setFilters(new SimpleFilterProvider()
+                    .addFilter(JacksonConfig.FIELDS_FILTER, SimpleBeanPropertyFilter.filterOutAllExcept(fields)));
+        }
+    }
+}
@@ -1,13 +1,19 @@
 package com.argenischacon.inventory_sales_api.controller;
 
 import com.argenischacon.inventory_sales_api.controller.api.ProductAPI;
+import com.argenischacon.inventory_sales_api.dto.FieldsQueryDTO;
+import com.argenischacon.inventory_sales_api.dto.PageQueryDTO;
+import com.argenischacon.inventory_sales_api.dto.PageResponseDTO;
 import com.argenischacon.inventory_sales_api.dto.ProductRequestDTO;
 import com.argenischacon.inventory_sales_api.dto.ProductResponseDTO;
+import com.argenischacon.inventory_sales_api.dto.ProductSearchDTO;
+import com.argenischacon.inventory_sales_api.dto.ProductTextQueryDTO;
 import com.argenischacon.inventory_sales_api.service.ProductService;
 import lombok.RequiredArgsConstructor;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.context.request.WebRequest;
 
 import java.util.List;
 
@@ -35,12 +41,29 @@ public class ProductController implements ProductAPI {
     }
 
     @Override
-    public ResponseEntity<ProductResponseDTO> findById(Long id) {
+    public ResponseEntity<ProductResponseDTO> findById(Long id, FieldsQueryDTO fields, WebRequest request) {
+        if (ConditionalRequests.notModified(request, productService.findChangeStamp(id))) {
+            return null;
+        }
         return ResponseEntity.ok(productService.findById(id));
     }
 
     @Override
-    public ResponseEntity<List<ProductResponseDTO>> findAll() {
-        return ResponseEntity.ok(productService.findAll());
+    public ResponseEntity<PageResponseDTO<ProductResponseDTO>> findAll(PageQueryDTO pageQuery, FieldsQueryDTO fields, WebRequest request) {
+        if (ConditionalRequests.notModified(request, productService.findChangeStamp())) {
+            return null;
+        }
+        return ResponseEntity.ok(productService.findAll(pageQuery));
+    }
+
+    @Override
+    public ResponseEntity<PageResponseDTO<ProductResponseDTO>> search(ProductSearchDTO filter, PageQueryDTO pageQuery,
+                                                                      FieldsQueryDTO fields) {
+        return ResponseEntity.ok(productService.search(filter, pageQuery, fields));
+    }
+
+    @Override
+    public ResponseEntity<List<ProductResponseDTO>> searchText(ProductTextQueryDTO query, FieldsQueryDTO fields) {
+        return ResponseEntity.ok(productService.searchText(query));
     }
 }
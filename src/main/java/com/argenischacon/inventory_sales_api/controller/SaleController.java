@@ -1,27 +1,59 @@
 package com.argenischacon.inventory_sales_api.controller;
 
 import com.argenischacon.inventory_sales_api.controller.api.SaleAPI;
+import com.argenischacon.inventory_sales_api.dto.FieldsQueryDTO;
+import com.argenischacon.inventory_sales_api.dto.PageQueryDTO;
+import com.argenischacon.inventory_sales_api.dto.PageResponseDTO;
+import com.argenischacon.inventory_sales_api.dto.SaleBatchRequestDTO;
+import com.argenischacon.inventory_sales_api.dto.SaleBatchResponseDTO;
+import com.argenischacon.inventory_sales_api.dto.SaleExportFilterDTO;
+import com.argenischacon.inventory_sales_api.dto.SaleFilterDTO;
 import com.argenischacon.inventory_sales_api.dto.SaleRequestDTO;
 import com.argenischacon.inventory_sales_api.dto.SaleResponseDTO;
+import com.argenischacon.inventory_sales_api.service.IdempotencyService;
+import com.argenischacon.inventory_sales_api.service.SaleExportService;
 import com.argenischacon.inventory_sales_api.service.SaleService;
 import lombok.RequiredArgsConstructor;
+import org.springframework.http.ContentDisposition;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.context.request.WebRequest;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
-import java.util.List;
+import java.nio.charset.StandardCharsets;
 
 @RestController
 @RequiredArgsConstructor
 public class SaleController implements SaleAPI {
 
+    private static final String IDEMPOTENT_REPLAYED_HEADER = "Idempotent-Replayed";
+    private static final MediaType TEXT_CSV = new MediaType("text", "csv", StandardCharsets.UTF_8);
+
     private final SaleService saleService;
+    private final IdempotencyService idempotencyService;
+    private final SaleExportService saleExportService;
+
+    @Override
+    public ResponseEntity<SaleResponseDTO> create(String idempotencyKey, SaleRequestDTO dto){
+        if (idempotencyKey == null) {
+            return ResponseEntity.status(HttpStatus.CREATED).
+                    body(saleService.create(dto));
+        }
+
+        IdempotencyService.Result<SaleResponseDTO> result = idempotencyService.execute(
+                idempotencyKey, dto, SaleResponseDTO.class, storeResponse -> saleService.create(dto, storeResponse));
+        return ResponseEntity.status(HttpStatus.CREATED)
+                .header(IDEMPOTENT_REPLAYED_HEADER, String.valueOf(result.replayed()))
+                .body(result.body());
+    }
 
     @Override
-    public ResponseEntity<SaleResponseDTO> create(SaleRequestDTO dto){
-        return ResponseEntity.status(HttpStatus.CREATED).
-                body(saleService.create(dto));
+    public ResponseEntity<SaleBatchResponseDTO> createBatch(SaleBatchRequestDTO dto){
+        return ResponseEntity.ok(saleService.createBatch(dto));
     }
 
     @Override
@@ -36,12 +68,31 @@ public class SaleController implements SaleAPI {
     }
 
     @Override
-    public ResponseEntity<SaleResponseDTO> findById(Long id){
-        return ResponseEntity.ok(saleService.findById(id));
+    public ResponseEntity<SaleResponseDTO> findById(Long id, FieldsQueryDTO fields, WebRequest request){
+        if (ConditionalRequests.notModified(request, saleService.findChangeStamp(id))) {
+            return null;
+        }
+        return ResponseEntity.ok(saleService.findById(id, fields));
+    }
+
+    @Override
+    public ResponseEntity<StreamingResponseBody> export(SaleExportFilterDTO filter){
+        MediaType mediaType = filter.isCsv() ? TEXT_CSV : MediaType.APPLICATION_NDJSON;
+        String fileName = filter.isCsv() ? "sales.csv" : "sales.ndjson";
+        // Written on an async thread; the service opens its own read-only transaction there
+        StreamingResponseBody body = out -> saleExportService.export(filter, out);
+        return ResponseEntity.ok()
+                .contentType(mediaType)
+                .header(HttpHeaders.CONTENT_DISPOSITION, ContentDisposition.attachment().filename(fileName).build().toString())
+                .body(body);
     }
 
     @Override
-    public ResponseEntity<List<SaleResponseDTO>> findAll(){
-        return ResponseEntity.ok(saleService.findAll());
+    public ResponseEntity<PageResponseDTO<SaleResponseDTO>> findAll(SaleFilterDTO filter, PageQueryDTO pageQuery,
+                                                                    FieldsQueryDTO fields, WebRequest request){
+        if (ConditionalRequests.notModified(request, saleService.findChangeStamp())) {
+            return null;
+        }
+        return ResponseEntity.ok(saleService.findAll(filter, pageQuery, fields));
     }
 }
@@ -1,22 +1,27 @@
 package com.argenischacon.inventory_sales_api.controller;
 
 import com.argenischacon.inventory_sales_api.controller.api.SaleDetailAPI;
+import com.argenischacon.inventory_sales_api.dto.PageQueryDTO;
+import com.argenischacon.inventory_sales_api.dto.PageResponseDTO;
 import com.argenischacon.inventory_sales_api.dto.SaleDetailResponseDTO;
 import com.argenischacon.inventory_sales_api.service.SaleDetailService;
 import lombok.RequiredArgsConstructor;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.RestController;
 
-import java.util.List;
-
 @RestController
 @RequiredArgsConstructor
 public class SaleDetailController implements SaleDetailAPI {
 
+    private static final String TOTAL_COUNT_HEADER = "X-Total-Count";
+
     private final SaleDetailService saleDetailService;
 
     @Override
-    public ResponseEntity<List<SaleDetailResponseDTO>> findBySaleId(Long saleId) {
-        return ResponseEntity.ok(saleDetailService.findBySaleId(saleId));
+    public ResponseEntity<PageResponseDTO<SaleDetailResponseDTO>> findBySaleId(Long saleId, PageQueryDTO pageQuery) {
+        SaleDetailService.LinePage lines = saleDetailService.findBySaleId(saleId, pageQuery);
+        return ResponseEntity.ok()
+                .header(TOTAL_COUNT_HEADER, String.valueOf(lines.totalCount()))
+                .body(lines.page());
     }
 }
@@ -3,9 +3,11 @@ package com.argenischacon.inventory_sales_api.controller.api;
 import com.argenischacon.inventory_sales_api.config.OpenApiExamples;
 import com.argenischacon.inventory_sales_api.dto.AuthRequestDTO;
 import com.argenischacon.inventory_sales_api.dto.AuthResponseDTO;
+import com.argenischacon.inventory_sales_api.dto.RefreshTokenRequestDTO;
 import com.argenischacon.inventory_sales_api.exception.ErrorResponse;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.Parameter;
+import io.swagger.v3.oas.annotations.headers.Header;
 import io.swagger.v3.oas.annotations.media.Content;
 import io.swagger.v3.oas.annotations.media.ExampleObject;
 import io.swagger.v3.oas.annotations.media.Schema;
@@ -16,6 +18,7 @@ import jakarta.validation.Valid;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestHeader;
 import org.springframework.web.bind.annotation.RequestMapping;
 
 @Tag(name = "Authentication", description = "Endpoint for user authentication")
@@ -40,8 +43,55 @@ public interface AuthAPI {
                     mediaType = "application/json",
                     schema = @Schema(implementation = ErrorResponse.class),
                     examples = @ExampleObject(value = OpenApiExamples.Auth.ERROR_401_INVALID_CREDENTIALS)
-            ))
+            )),
+            @ApiResponse(responseCode = "503", description = "Service Unavailable - Too many logins in progress; retry after the Retry-After header",
+                    headers = @Header(name = "Retry-After", description = "Seconds to wait before retrying", schema = @Schema(type = "integer")),
+                    content = @Content(
+                            mediaType = "application/json",
+                            schema = @Schema(implementation = ErrorResponse.class),
+                            examples = @ExampleObject(value = OpenApiExamples.Auth.ERROR_503_BUSY)
+                    ))
     })
     @PostMapping("/login")
     ResponseEntity<AuthResponseDTO> login(@Parameter(description = "User credentials for login", required = true) @Valid @RequestBody AuthRequestDTO authRequest);
-}
\ No newline at end of file
+
+    @Operation(
+            summary = "Refresh Tokens",
+            description = "Exchanges a refresh token for a new access token and refresh token without verifying the password again. The presented refresh token is revoked, so each one can be used only once."
+    )
+    @ApiResponses({
+            @ApiResponse(responseCode = "200", description = "OK - New token pair issued", content = @Content(
+                    schema = @Schema(implementation = AuthResponseDTO.class),
+                    mediaType = "application/json"
+            )),
+            @ApiResponse(responseCode = "400", description = "Bad Request - Invalid input data", content = @Content(
+                    mediaType = "application/json",
+                    schema = @Schema(implementation = ErrorResponse.class),
+                    examples = @ExampleObject(value = OpenApiExamples.Auth.ERROR_400_REFRESH_TOKEN_REQUIRED)
+            )),
+            @ApiResponse(responseCode = "401", description = "Unauthorized - Invalid, expired, revoked or already used refresh token", content = @Content(
+                    mediaType = "application/json",
+                    schema = @Schema(implementation = ErrorResponse.class),
+                    examples = @ExampleObject(value = OpenApiExamples.Auth.ERROR_401_INVALID_REFRESH_TOKEN)
+            ))
+    })
+    @PostMapping("/refresh")
+    ResponseEntity<AuthResponseDTO> refresh(@Parameter(description = "Refresh token to exchange", required = true) @Valid @RequestBody RefreshTokenRequestDTO refreshRequest);
+
+    @Operation(
+            summary = "Logout",
+            description = "Revokes the refresh token in the body and, when sent, the access token in the Authorization header. Revoked tokens are rejected even before they expire."
+    )
+    @ApiResponses({
+            @ApiResponse(responseCode = "204", description = "No Content - Tokens revoked"),
+            @ApiResponse(responseCode = "400", description = "Bad Request - Invalid input data", content = @Content(
+                    mediaType = "application/json",
+                    schema = @Schema(implementation = ErrorResponse.class),
+                    examples = @ExampleObject(value = OpenApiExamples.Auth.ERROR_400_REFRESH_TOKEN_REQUIRED)
+            ))
+    })
+    @PostMapping("/logout")
+    ResponseEntity<Void> logout(
+            @Parameter(description = "Bearer access token to revoke") @RequestHeader(value = "Authorization", required = false) String authorization,
+            @Parameter(description = "Refresh token to revoke", required = true) @Valid @RequestBody RefreshTokenRequestDTO logoutRequest);
+}
@@ -3,10 +3,12 @@ package com.argenischacon.inventory_sales_api.controller.api;
 import com.argenischacon.inventory_sales_api.config.OpenApiExamples;
 import com.argenischacon.inventory_sales_api.dto.CategoryRequestDTO;
 import com.argenischacon.inventory_sales_api.dto.CategoryResponseDTO;
+import com.argenischacon.inventory_sales_api.dto.FieldsQueryDTO;
+import com.argenischacon.inventory_sales_api.dto.PageQueryDTO;
+import com.argenischacon.inventory_sales_api.dto.PageResponseDTO;
 import com.argenischacon.inventory_sales_api.exception.ErrorResponse;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.Parameter;
-import io.swagger.v3.oas.annotations.media.ArraySchema;
 import io.swagger.v3.oas.annotations.media.Content;
 import io.swagger.v3.oas.annotations.media.ExampleObject;
 import io.swagger.v3.oas.annotations.media.Schema;
@@ -15,11 +17,11 @@ import io.swagger.v3.oas.annotations.responses.ApiResponses;
 import io.swagger.v3.oas.annotations.security.SecurityRequirement;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import jakarta.validation.Valid;
+import org.springdoc.core.annotations.ParameterObject;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.*;
-
-import java.util.List;
+import org.springframework.web.context.request.WebRequest;
 
 @Tag(name = "Categories", description = "Endpoints for managing categories")
 @RequestMapping("/api/v1/categories")
@@ -144,7 +146,8 @@ public interface CategoryAPI {
     )
     @ApiResponses({
             @ApiResponse(responseCode = "200", description = "OK - Category found", content = @Content(schema = @Schema(implementation = CategoryResponseDTO.class), mediaType = "application/json")),
-            @ApiResponse(responseCode = "400", description = "Bad Request - Invalid ID format", content = @Content(
+            @ApiResponse(responseCode = "304", description = "Not Modified - The category has not changed since the ETag or date sent in If-None-Match / If-Modified-Since", content = @Content),
+            @ApiResponse(responseCode = "400", description = "Bad Request - Invalid ID format or fields", content = @Content(
                     mediaType = "application/json",
                     schema = @Schema(implementation = ErrorResponse.class),
                     examples = @ExampleObject(value = OpenApiExamples.CommonErrors.ERROR_400_TYPE_MISMATCH)
@@ -161,14 +164,21 @@ public interface CategoryAPI {
             ))
     })
     @GetMapping("/{id}")
-    ResponseEntity<CategoryResponseDTO> findById(@Parameter(description = "ID of the category to be retrieved", required = true) @PathVariable Long id);
+    ResponseEntity<CategoryResponseDTO> findById(@Parameter(description = "ID of the category to be retrieved", required = true) @PathVariable Long id,
+                                                 @ParameterObject @Valid FieldsQueryDTO fields, WebRequest request);
 
     @Operation(
             summary = "Find all categories",
-            description = "Retrieves a list of all categories. Accessible by any authenticated user."
+            description = "Retrieves categories ordered by id, one page at a time. Follow nextCursor for the next page, or pass a page number for offset pagination. Accessible by any authenticated user."
     )
     @ApiResponses({
-            @ApiResponse(responseCode = "200", description = "Ok - Successfully retrieved list of categories", content = { @Content(array = @ArraySchema(schema = @Schema(implementation = CategoryResponseDTO.class)), mediaType = "application/json") }),
+            @ApiResponse(responseCode = "200", description = "Ok - Successfully retrieved a page of categories", content = { @Content(schema = @Schema(implementation = PageResponseDTO.class), mediaType = "application/json") }),
+            @ApiResponse(responseCode = "304", description = "Not Modified - No category has changed since the ETag or date sent in If-None-Match / If-Modified-Since", content = @Content),
+            @ApiResponse(responseCode = "400", description = "Bad Request - Invalid cursor, page or fields parameters", content = @Content(
+                    mediaType = "application/json",
+                    schema = @Schema(implementation = ErrorResponse.class),
+                    examples = @ExampleObject(value = OpenApiExamples.CommonErrors.ERROR_400_INVALID_CURSOR)
+            )),
             @ApiResponse(responseCode = "401", description = "Unauthorized - Authentication required or invalid token", content = @Content(
                     mediaType = "application/json",
                     schema = @Schema(implementation = ErrorResponse.class),
@@ -176,5 +186,6 @@ public interface CategoryAPI {
             ))
     })
     @GetMapping
-    ResponseEntity<List<CategoryResponseDTO>> findAll();
+    ResponseEntity<PageResponseDTO<CategoryResponseDTO>> findAll(@ParameterObject @Valid PageQueryDTO pageQuery,
+                                                                 @ParameterObject @Valid FieldsQueryDTO fields, WebRequest request);
 }
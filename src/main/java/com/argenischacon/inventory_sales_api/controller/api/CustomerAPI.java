@@ -3,10 +3,12 @@ package com.argenischacon.inventory_sales_api.controller.api;
 import com.argenischacon.inventory_sales_api.config.OpenApiExamples;
 import com.argenischacon.inventory_sales_api.dto.CustomerRequestDTO;
 import com.argenischacon.inventory_sales_api.dto.CustomerResponseDTO;
+import com.argenischacon.inventory_sales_api.dto.FieldsQueryDTO;
+import com.argenischacon.inventory_sales_api.dto.PageQueryDTO;
+import com.argenischacon.inventory_sales_api.dto.PageResponseDTO;
 import com.argenischacon.inventory_sales_api.exception.ErrorResponse;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.Parameter;
-import io.swagger.v3.oas.annotations.media.ArraySchema;
 import io.swagger.v3.oas.annotations.media.Content;
 import io.swagger.v3.oas.annotations.media.ExampleObject;
 import io.swagger.v3.oas.annotations.media.Schema;
@@ -15,6 +17,7 @@ import io.swagger.v3.oas.annotations.responses.ApiResponses;
 import io.swagger.v3.oas.annotations.security.SecurityRequirement;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import jakarta.validation.Valid;
+import org.springdoc.core.annotations.ParameterObject;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.DeleteMapping;
@@ -24,8 +27,7 @@ import org.springframework.web.bind.annotation.PostMapping;
 import org.springframework.web.bind.annotation.PutMapping;
 import org.springframework.web.bind.annotation.RequestBody;
 import org.springframework.web.bind.annotation.RequestMapping;
-
-import java.util.List;
+import org.springframework.web.context.request.WebRequest;
 
 @Tag(name = "Customers", description = "Endpoints for managing customers")
 @RequestMapping("/api/v1/customers")
@@ -153,7 +155,8 @@ public interface CustomerAPI {
                     schema = @Schema(implementation = CustomerResponseDTO.class),
                     mediaType = "application/json"
             )),
-            @ApiResponse(responseCode = "400", description = "Bad Request - Invalid ID format", content = @Content(
+            @ApiResponse(responseCode = "304", description = "Not Modified - The customer has not changed since the ETag or date sent in If-None-Match / If-Modified-Since", content = @Content),
+            @ApiResponse(responseCode = "400", description = "Bad Request - Invalid ID format or fields", content = @Content(
                     mediaType = "application/json",
                     schema = @Schema(implementation = ErrorResponse.class),
                     examples = @ExampleObject(value = OpenApiExamples.CommonErrors.ERROR_400_TYPE_MISMATCH)
@@ -170,17 +173,24 @@ public interface CustomerAPI {
             ))
     })
     @GetMapping("/{id}")
-    ResponseEntity<CustomerResponseDTO> findById(@Parameter(description = "ID of the customer to be retrieved", required = true) @PathVariable Long id);
+    ResponseEntity<CustomerResponseDTO> findById(@Parameter(description = "ID of the customer to be retrieved", required = true) @PathVariable Long id,
+                                                 @ParameterObject @Valid FieldsQueryDTO fields, WebRequest request);
 
     @Operation(
             summary = "Find all customers",
-            description = "Retrieves a list of all customers. Accessible by any authenticated user."
+            description = "Retrieves customers ordered by id, one page at a time. Follow nextCursor for the next page, or pass a page number for offset pagination. Accessible by any authenticated user."
     )
     @ApiResponses({
-            @ApiResponse(responseCode = "200", description = "OK - Successfully retrieved list of customers", content = {@Content(
-                    array = @ArraySchema(schema = @Schema(implementation = CustomerResponseDTO.class)),
+            @ApiResponse(responseCode = "200", description = "OK - Successfully retrieved a page of customers", content = {@Content(
+                    schema = @Schema(implementation = PageResponseDTO.class),
                     mediaType = "application/json"
             )}),
+            @ApiResponse(responseCode = "304", description = "Not Modified - No customer has changed since the ETag or date sent in If-None-Match / If-Modified-Since", content = @Content),
+            @ApiResponse(responseCode = "400", description = "Bad Request - Invalid cursor, page or fields parameters", content = @Content(
+                    mediaType = "application/json",
+                    schema = @Schema(implementation = ErrorResponse.class),
+                    examples = @ExampleObject(value = OpenApiExamples.CommonErrors.ERROR_400_INVALID_CURSOR)
+            )),
             @ApiResponse(responseCode = "401", description = "Unauthorized - Authentication required", content = @Content(
                     mediaType = "application/json",
                     schema = @Schema(implementation = ErrorResponse.class),
@@ -188,5 +198,6 @@ public interface CustomerAPI {
             ))
     })
     @GetMapping
-    ResponseEntity<List<CustomerResponseDTO>> findAll();
+    ResponseEntity<PageResponseDTO<CustomerResponseDTO>> findAll(@ParameterObject @Valid PageQueryDTO pageQuery,
+                                                                 @ParameterObject @Valid FieldsQueryDTO fields, WebRequest request);
 }
\ No newline at end of file
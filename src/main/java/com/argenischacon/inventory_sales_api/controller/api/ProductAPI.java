@@ -1,8 +1,13 @@
 package com.argenischacon.inventory_sales_api.controller.api;
 
 import com.argenischacon.inventory_sales_api.config.OpenApiExamples;
+import com.argenischacon.inventory_sales_api.dto.FieldsQueryDTO;
+import com.argenischacon.inventory_sales_api.dto.PageQueryDTO;
+import com.argenischacon.inventory_sales_api.dto.PageResponseDTO;
 import com.argenischacon.inventory_sales_api.dto.ProductRequestDTO;
 import com.argenischacon.inventory_sales_api.dto.ProductResponseDTO;
+import com.argenischacon.inventory_sales_api.dto.ProductSearchDTO;
+import com.argenischacon.inventory_sales_api.dto.ProductTextQueryDTO;
 import com.argenischacon.inventory_sales_api.exception.ErrorResponse;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.Parameter;
@@ -15,9 +20,11 @@ import io.swagger.v3.oas.annotations.responses.ApiResponses;
 import io.swagger.v3.oas.annotations.security.SecurityRequirement;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import jakarta.validation.Valid;
+import org.springdoc.core.annotations.ParameterObject;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
 
 import java.util.List;
 
@@ -161,7 +168,8 @@ public interface ProductAPI {
                     schema = @Schema(implementation = ProductResponseDTO.class),
                     mediaType = "application/json"
             )),
-            @ApiResponse(responseCode = "400", description = "Bad Request - Invalid ID format", content = @Content(
+            @ApiResponse(responseCode = "304", description = "Not Modified - The product has not changed since the ETag or date sent in If-None-Match / If-Modified-Since", content = @Content),
+            @ApiResponse(responseCode = "400", description = "Bad Request - Invalid ID format or fields", content = @Content(
                     mediaType = "application/json",
                     schema = @Schema(implementation = ErrorResponse.class),
                     examples = @ExampleObject(value = OpenApiExamples.CommonErrors.ERROR_400_TYPE_MISMATCH)
@@ -178,17 +186,24 @@ public interface ProductAPI {
             ))
     })
     @GetMapping("/{id}")
-    ResponseEntity<ProductResponseDTO> findById(@Parameter(description = "ID of the product to be retrieved", required = true) @PathVariable Long id);
+    ResponseEntity<ProductResponseDTO> findById(@Parameter(description = "ID of the product to be retrieved", required = true) @PathVariable Long id,
+                                                @ParameterObject @Valid FieldsQueryDTO fields, WebRequest request);
 
     @Operation(
             summary = "Find all products",
-            description = "Retrieves a list of all products. Accessible by any authenticated user."
+            description = "Retrieves products ordered by id, one page at a time. Follow nextCursor for the next page, or pass a page number for offset pagination. Accessible by any authenticated user."
     )
     @ApiResponses({
-            @ApiResponse(responseCode = "200", description = "OK - Successfully retrieved list of products", content = {@Content(
-                    array = @ArraySchema(schema = @Schema(implementation = ProductResponseDTO.class)),
+            @ApiResponse(responseCode = "200", description = "OK - Successfully retrieved a page of products", content = {@Content(
+                    schema = @Schema(implementation = PageResponseDTO.class),
                     mediaType = "application/json"
             )}),
+            @ApiResponse(responseCode = "304", description = "Not Modified - No product has changed since the ETag or date sent in If-None-Match / If-Modified-Since", content = @Content),
+            @ApiResponse(responseCode = "400", description = "Bad Request - Invalid cursor, page or fields parameters", content = @Content(
+                    mediaType = "application/json",
+                    schema = @Schema(implementation = ErrorResponse.class),
+                    examples = @ExampleObject(value = OpenApiExamples.CommonErrors.ERROR_400_INVALID_CURSOR)
+            )),
             @ApiResponse(responseCode = "401", description = "Unauthorized - Authentication required", content = @Content(
                     mediaType = "application/json",
                     schema = @Schema(implementation = ErrorResponse.class),
@@ -196,5 +211,58 @@ public interface ProductAPI {
             ))
     })
     @GetMapping
-    ResponseEntity<List<ProductResponseDTO>> findAll();
+    ResponseEntity<PageResponseDTO<ProductResponseDTO>> findAll(@ParameterObject @Valid PageQueryDTO pageQuery,
+                                                                @ParameterObject @Valid FieldsQueryDTO fields, WebRequest request);
+
+    @Operation(
+            summary = "Search products",
+            description = "Retrieves products filtered by category, price range, stock and name prefix, sorted by id, name, unit price or stock. Follow nextCursor for the next page (with the same sort), or pass a page number for offset pagination. Accessible by any authenticated user."
+    )
+    @ApiResponses({
+            @ApiResponse(responseCode = "200", description = "OK - Successfully retrieved a page of matching products", content = {@Content(
+                    schema = @Schema(implementation = PageResponseDTO.class),
+                    mediaType = "application/json"
+            )}),
+            @ApiResponse(responseCode = "400", description = "Bad Request - Invalid filter, sort, cursor, page or fields parameters", content = @Content(
+                    mediaType = "application/json",
+                    schema = @Schema(implementation = ErrorResponse.class),
+                    examples = {
+                            @ExampleObject(name = "Invalid Filter", value = OpenApiExamples.Product.ERROR_400_INVALID_SEARCH),
+                            @ExampleObject(name = "Invalid Cursor", value = OpenApiExamples.CommonErrors.ERROR_400_INVALID_CURSOR)
+                    }
+            )),
+            @ApiResponse(responseCode = "401", description = "Unauthorized - Authentication required", content = @Content(
+                    mediaType = "application/json",
+                    schema = @Schema(implementation = ErrorResponse.class),
+                    examples = @ExampleObject(value = OpenApiExamples.CommonErrors.ERROR_401_UNAUTHORIZED)
+            ))
+    })
+    @GetMapping("/search")
+    ResponseEntity<PageResponseDTO<ProductResponseDTO>> search(@ParameterObject @Valid ProductSearchDTO filter,
+                                                               @ParameterObject @Valid PageQueryDTO pageQuery,
+                                                               @ParameterObject @Valid FieldsQueryDTO fields);
+
+    @Operation(
+            summary = "Full-text search of products",
+            description = "Searches product names and descriptions with an in-memory index. Every word of the query must match a word of the product, or from two characters on its beginning; accents and case are ignored. Results are ranked with exact and name matches first. Accessible by any authenticated user."
+    )
+    @ApiResponses({
+            @ApiResponse(responseCode = "200", description = "OK - Matching products, best match first", content = @Content(
+                    mediaType = "application/json",
+                    array = @ArraySchema(schema = @Schema(implementation = ProductResponseDTO.class))
+            )),
+            @ApiResponse(responseCode = "400", description = "Bad Request - Missing query or invalid limit", content = @Content(
+                    mediaType = "application/json",
+                    schema = @Schema(implementation = ErrorResponse.class),
+                    examples = @ExampleObject(value = OpenApiExamples.Product.ERROR_400_INVALID_TEXT_QUERY)
+            )),
+            @ApiResponse(responseCode = "401", description = "Unauthorized - Authentication required", content = @Content(
+                    mediaType = "application/json",
+                    schema = @Schema(implementation = ErrorResponse.class),
+                    examples = @ExampleObject(value = OpenApiExamples.CommonErrors.ERROR_401_UNAUTHORIZED)
+            ))
+    })
+    @GetMapping("/search/text")
+    ResponseEntity<List<ProductResponseDTO>> searchText(@ParameterObject @Valid ProductTextQueryDTO query,
+                                                        @ParameterObject @Valid FieldsQueryDTO fields);
 }
@@ -1,12 +1,18 @@
 package com.argenischacon.inventory_sales_api.controller.api;
 
 import com.argenischacon.inventory_sales_api.config.OpenApiExamples;
+import com.argenischacon.inventory_sales_api.dto.FieldsQueryDTO;
+import com.argenischacon.inventory_sales_api.dto.PageQueryDTO;
+import com.argenischacon.inventory_sales_api.dto.PageResponseDTO;
+import com.argenischacon.inventory_sales_api.dto.SaleBatchRequestDTO;
+import com.argenischacon.inventory_sales_api.dto.SaleBatchResponseDTO;
+import com.argenischacon.inventory_sales_api.dto.SaleExportFilterDTO;
+import com.argenischacon.inventory_sales_api.dto.SaleFilterDTO;
 import com.argenischacon.inventory_sales_api.dto.SaleRequestDTO;
 import com.argenischacon.inventory_sales_api.dto.SaleResponseDTO;
 import com.argenischacon.inventory_sales_api.exception.ErrorResponse;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.Parameter;
-import io.swagger.v3.oas.annotations.media.ArraySchema;
 import io.swagger.v3.oas.annotations.media.Content;
 import io.swagger.v3.oas.annotations.media.ExampleObject;
 import io.swagger.v3.oas.annotations.media.Schema;
@@ -15,11 +21,12 @@ import io.swagger.v3.oas.annotations.responses.ApiResponses;
 import io.swagger.v3.oas.annotations.security.SecurityRequirement;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import jakarta.validation.Valid;
+import org.springdoc.core.annotations.ParameterObject;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.*;
-
-import java.util.List;
+import org.springframework.web.context.request.WebRequest;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
 @Tag(name = "Sales", description = "Endpoints for managing sales")
 @RequestMapping("/api/v1/sales")
@@ -28,7 +35,7 @@ public interface SaleAPI {
 
     @Operation(
             summary = "Create a new sale",
-            description = "Creates a new sale, including its details. This operation updates product stock. Accessible by any authenticated user."
+            description = "Creates a new sale, including its details. This operation updates product stock. Send an Idempotency-Key header to make retries safe: a repeated key returns the original sale without changing stock again. Accessible by any authenticated user."
     )
     @ApiResponses({
             @ApiResponse(responseCode = "201", description = "Created - Sale created successfully", content = @Content(
@@ -56,15 +63,52 @@ public interface SaleAPI {
                             @ExampleObject(name = "Product Not Found", value = OpenApiExamples.Product.ERROR_404_NOT_FOUND)
                     }
             )),
-            @ApiResponse(responseCode = "409", description = "Conflict - Insufficient stock for a product", content = @Content(
+            @ApiResponse(responseCode = "409", description = "Conflict - Insufficient stock for a product, or a request with the same Idempotency-Key is still in progress", content = @Content(
                     mediaType = "application/json",
                     schema = @Schema(implementation = ErrorResponse.class),
-                    examples = @ExampleObject(value = OpenApiExamples.Sale.ERROR_409_INSUFFICIENT_STOCK)
+                    examples = {
+                            @ExampleObject(name = "Insufficient Stock", value = OpenApiExamples.Sale.ERROR_409_INSUFFICIENT_STOCK),
+                            @ExampleObject(name = "Idempotency Key In Use", value = OpenApiExamples.Sale.ERROR_409_IDEMPOTENCY_KEY_IN_USE)
+                    }
+            )),
+            @ApiResponse(responseCode = "422", description = "Unprocessable Entity - Idempotency-Key is invalid or was used with a different payload", content = @Content(
+                    mediaType = "application/json",
+                    schema = @Schema(implementation = ErrorResponse.class),
+                    examples = @ExampleObject(value = OpenApiExamples.Sale.ERROR_422_IDEMPOTENCY_KEY_REUSED)
             ))
     })
     @PostMapping
     @PreAuthorize("hasRole('USER')")
-    ResponseEntity<SaleResponseDTO> create(@Parameter(description = "Sale object to be created", required = true) @Valid @RequestBody SaleRequestDTO dto);
+    ResponseEntity<SaleResponseDTO> create(
+            @Parameter(description = "Client-generated key that makes retries of this request safe; a repeated key returns the original response") @RequestHeader(value = "Idempotency-Key", required = false) String idempotencyKey,
+            @Parameter(description = "Sale object to be created", required = true) @Valid @RequestBody SaleRequestDTO dto);
+
+    @Operation(
+            summary = "Create sales in bulk",
+            description = "Creates up to 5000 sales in a single transaction and reports the outcome of each one. Sales that reference unknown customers or products, or exceed the remaining stock, are rejected individually while the rest are created. Accessible by any authenticated user."
+    )
+    @ApiResponses({
+            @ApiResponse(responseCode = "200", description = "OK - Batch processed, see the per-sale results", content = @Content(
+                    schema = @Schema(implementation = SaleBatchResponseDTO.class),
+                    mediaType = "application/json"
+            )),
+            @ApiResponse(responseCode = "400", description = "Bad Request - Invalid input data", content = @Content(
+                    mediaType = "application/json",
+                    schema = @Schema(implementation = ErrorResponse.class),
+                    examples = {
+                            @ExampleObject(name = "Validation Failed", value = OpenApiExamples.Sale.ERROR_400_BATCH_VALIDATION_FAILED),
+                            @ExampleObject(name = "Malformed JSON", value = OpenApiExamples.CommonErrors.ERROR_400_MALFORMED_JSON)
+                    }
+            )),
+            @ApiResponse(responseCode = "401", description = "Unauthorized - Authentication required", content = @Content(
+                    mediaType = "application/json",
+                    schema = @Schema(implementation = ErrorResponse.class),
+                    examples = @ExampleObject(value = OpenApiExamples.CommonErrors.ERROR_401_UNAUTHORIZED)
+            ))
+    })
+    @PostMapping("/batch")
+    @PreAuthorize("hasRole('USER')")
+    ResponseEntity<SaleBatchResponseDTO> createBatch(@Parameter(description = "Sales to be created", required = true) @Valid @RequestBody SaleBatchRequestDTO dto);
 
     @Operation(
             summary = "Update an existing sale",
@@ -146,7 +190,8 @@ public interface SaleAPI {
                     schema = @Schema(implementation = SaleResponseDTO.class),
                     mediaType = "application/json"
             )),
-            @ApiResponse(responseCode = "400", description = "Bad Request - Invalid ID format", content = @Content(
+            @ApiResponse(responseCode = "304", description = "Not Modified - The sale has not changed since the ETag or date sent in If-None-Match / If-Modified-Since", content = @Content),
+            @ApiResponse(responseCode = "400", description = "Bad Request - Invalid ID format or fields", content = @Content(
                     mediaType = "application/json",
                     schema = @Schema(implementation = ErrorResponse.class),
                     examples = @ExampleObject(value = OpenApiExamples.CommonErrors.ERROR_400_TYPE_MISMATCH)
@@ -164,17 +209,48 @@ public interface SaleAPI {
     })
     @GetMapping("/{id}")
     @PreAuthorize("hasRole('USER')")
-    ResponseEntity<SaleResponseDTO> findById(@Parameter(description = "ID of the sale to be retrieved", required = true) @PathVariable Long id);
+    ResponseEntity<SaleResponseDTO> findById(@Parameter(description = "ID of the sale to be retrieved", required = true) @PathVariable Long id,
+                                             @ParameterObject @Valid FieldsQueryDTO fields, WebRequest request);
+
+    @Operation(
+            summary = "Export sales",
+            description = "Streams every sale in the optional date range, ordered by id. ndjson writes one sale with its lines per line; csv writes one row per sale detail. The response is written while the database is read, so exports of any size use constant memory. Accessible by any authenticated user."
+    )
+    @ApiResponses({
+            @ApiResponse(responseCode = "200", description = "OK - Export streamed", content = {
+                    @Content(mediaType = "application/x-ndjson", examples = @ExampleObject(value = OpenApiExamples.Sale.EXPORT_NDJSON)),
+                    @Content(mediaType = "text/csv", examples = @ExampleObject(value = OpenApiExamples.Sale.EXPORT_CSV))
+            }),
+            @ApiResponse(responseCode = "400", description = "Bad Request - Invalid format or date", content = @Content(
+                    mediaType = "application/json",
+                    schema = @Schema(implementation = ErrorResponse.class),
+                    examples = @ExampleObject(value = OpenApiExamples.Sale.ERROR_400_INVALID_EXPORT)
+            )),
+            @ApiResponse(responseCode = "401", description = "Unauthorized - Authentication required", content = @Content(
+                    mediaType = "application/json",
+                    schema = @Schema(implementation = ErrorResponse.class),
+                    examples = @ExampleObject(value = OpenApiExamples.CommonErrors.ERROR_401_UNAUTHORIZED)
+            ))
+    })
+    @GetMapping("/export")
+    @PreAuthorize("hasRole('USER')")
+    ResponseEntity<StreamingResponseBody> export(@ParameterObject @Valid SaleExportFilterDTO filter);
 
     @Operation(
             summary = "Find all sales",
-            description = "Retrieves a list of all sales. Accessible by any authenticated user."
+            description = "Retrieves sales one page at a time, optionally filtered by total amount and line count and sorted by id, date, total or line count. Follow nextCursor for the next page (with the same sort), or pass a page number for offset pagination. Accessible by any authenticated user."
     )
     @ApiResponses({
-            @ApiResponse(responseCode = "200", description = "OK - Successfully retrieved list of sales", content = {@Content(
-                    array = @ArraySchema(schema = @Schema(implementation = SaleResponseDTO.class)),
+            @ApiResponse(responseCode = "200", description = "OK - Successfully retrieved a page of sales", content = {@Content(
+                    schema = @Schema(implementation = PageResponseDTO.class),
                     mediaType = "application/json"
             )}),
+            @ApiResponse(responseCode = "304", description = "Not Modified - No sale has changed since the ETag or date sent in If-None-Match / If-Modified-Since", content = @Content),
+            @ApiResponse(responseCode = "400", description = "Bad Request - Invalid filter, sort, cursor, page or fields parameters", content = @Content(
+                    mediaType = "application/json",
+                    schema = @Schema(implementation = ErrorResponse.class),
+                    examples = @ExampleObject(value = OpenApiExamples.Sale.ERROR_400_INVALID_FILTER)
+            )),
             @ApiResponse(responseCode = "401", description = "Unauthorized - Authentication required", content = @Content(
                     mediaType = "application/json",
                     schema = @Schema(implementation = ErrorResponse.class),
@@ -183,5 +259,8 @@ public interface SaleAPI {
     })
     @GetMapping
     @PreAuthorize("hasRole('USER')")
-    ResponseEntity<List<SaleResponseDTO>> findAll();
+    ResponseEntity<PageResponseDTO<SaleResponseDTO>> findAll(@ParameterObject @Valid SaleFilterDTO filter,
+                                                              @ParameterObject @Valid PageQueryDTO pageQuery,
+                                                              @ParameterObject @Valid FieldsQueryDTO fields,
+                                                              WebRequest request);
 }
\ No newline at end of file
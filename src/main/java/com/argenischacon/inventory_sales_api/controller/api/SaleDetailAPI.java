@@ -1,11 +1,13 @@
 package com.argenischacon.inventory_sales_api.controller.api;
 
 import com.argenischacon.inventory_sales_api.config.OpenApiExamples;
+import com.argenischacon.inventory_sales_api.dto.PageQueryDTO;
+import com.argenischacon.inventory_sales_api.dto.PageResponseDTO;
 import com.argenischacon.inventory_sales_api.dto.SaleDetailResponseDTO;
 import com.argenischacon.inventory_sales_api.exception.ErrorResponse;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.Parameter;
-import io.swagger.v3.oas.annotations.media.ArraySchema;
+import io.swagger.v3.oas.annotations.headers.Header;
 import io.swagger.v3.oas.annotations.media.Content;
 import io.swagger.v3.oas.annotations.media.ExampleObject;
 import io.swagger.v3.oas.annotations.media.Schema;
@@ -13,28 +15,30 @@ import io.swagger.v3.oas.annotations.responses.ApiResponse;
 import io.swagger.v3.oas.annotations.responses.ApiResponses;
 import io.swagger.v3.oas.annotations.security.SecurityRequirement;
 import io.swagger.v3.oas.annotations.tags.Tag;
+import jakarta.validation.Valid;
+import org.springdoc.core.annotations.ParameterObject;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.GetMapping;
 import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.RequestMapping;
 
-import java.util.List;
-
 @Tag(name = "Sale Details", description = "Endpoints for retrieving sale details")
 @RequestMapping("/api/v1/sale-details")
 @SecurityRequirement(name = "bearerAuth")
 public interface SaleDetailAPI {
 
     @Operation(
-            summary = "Find all details for a specific sale",
-            description = "Retrieves a list of all line items (details) associated with a given sale ID. Accessible by any authenticated user."
+            summary = "Find the details of a specific sale",
+            description = "Retrieves the line items (details) of a given sale ordered by id, one page at a time. Follow nextCursor for the next page, or pass a page number for offset pagination. The X-Total-Count header carries the sale's total number of lines. Accessible by any authenticated user."
     )
     @ApiResponses({
-            @ApiResponse(responseCode = "200", description = "OK - Successfully retrieved list of sale details", content = @Content(
-                    array = @ArraySchema(schema = @Schema(implementation = SaleDetailResponseDTO.class)),
-                    mediaType = "application/json"
-            )),
-            @ApiResponse(responseCode = "400", description = "Bad Request - Invalid ID format", content = @Content(
+            @ApiResponse(responseCode = "200", description = "OK - Successfully retrieved a page of sale details",
+                    headers = @Header(name = "X-Total-Count", description = "Total number of lines of the sale", schema = @Schema(type = "integer")),
+                    content = @Content(
+                            schema = @Schema(implementation = PageResponseDTO.class),
+                            mediaType = "application/json"
+                    )),
+            @ApiResponse(responseCode = "400", description = "Bad Request - Invalid ID format, cursor or page parameters", content = @Content(
                     mediaType = "application/json",
                     schema = @Schema(implementation = ErrorResponse.class),
                     examples = @ExampleObject(value = OpenApiExamples.CommonErrors.ERROR_400_TYPE_MISMATCH)
@@ -51,5 +55,6 @@ public interface SaleDetailAPI {
             ))
     })
     @GetMapping("/{saleId}")
-    ResponseEntity<List<SaleDetailResponseDTO>> findBySaleId(@Parameter(description = "ID of the sale to retrieve details for", required = true, example = "1") @PathVariable Long saleId);
+    ResponseEntity<PageResponseDTO<SaleDetailResponseDTO>> findBySaleId(@Parameter(description = "ID of the sale to retrieve details for", required = true, example = "1") @PathVariable Long saleId,
+                                                                        @ParameterObject @Valid PageQueryDTO pageQuery);
 }
\ No newline at end of file
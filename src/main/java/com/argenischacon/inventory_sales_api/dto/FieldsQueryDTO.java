@@ -0,0 +1,43 @@
+package com.argenischacon.inventory_sales_api.dto;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import jakarta.validation.constraints.Pattern;
+import jakarta.validation.constraints.Size;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.Arrays;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+@Schema(description = "Sparse fieldset: the top-level properties of each returned item")
+public class FieldsQueryDTO {
+
+    @Schema(description = "Comma-separated properties to return; id is always returned and unknown names are ignored. "
+            + "Every property is returned when omitted", example = "id,name,unitPrice,stock")
+    @Size(max = 255, message = "Fields must be at most 255 characters")
+    @Pattern(regexp = "[A-Za-z]+(,[A-Za-z]+)*", message = "Fields must be a comma-separated list of property names")
+    private String fields;
+
+    // Requested property names plus id, or null when every property is returned
+    public static Set<String> parse(String fields) {
+        if (fields == null || fields.isBlank()) {
+            return null;
+        }
+        Set<String> names = Arrays.stream(fields.split(","))
+                .map(String::trim)
+                .filter(name -> !name.isEmpty())
+                .collect(Collectors.toSet());
+        names.add("id");
+        return names;
+    }
+
+    public boolean includes(String property) {
+        Set<String> names = parse(fields);
+        return names == null || names.contains(property);
+    }
+}
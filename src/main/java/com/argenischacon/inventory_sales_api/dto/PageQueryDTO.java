@@ -0,0 +1,25 @@
+package com.argenischacon.inventory_sales_api.dto;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import jakarta.validation.constraints.Min;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+@Schema(description = "Pagination options for list endpoints: follow nextCursor, or request a page number as a fallback")
+public class PageQueryDTO {
+
+    @Schema(description = "Opaque cursor returned as nextCursor by the previous page", example = "MTA")
+    private String cursor;
+
+    @Schema(description = "Zero-based page number (offset pagination, used when no cursor is given)", example = "0")
+    @Min(value = 0, message = "Page must not be negative")
+    private Integer page;
+
+    @Schema(description = "Maximum number of items per page (capped by the server)", example = "20")
+    @Min(value = 1, message = "Size must be at least 1")
+    private Integer size;
+}
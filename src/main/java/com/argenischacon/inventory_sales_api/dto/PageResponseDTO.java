@@ -0,0 +1,30 @@
+package com.argenischacon.inventory_sales_api.dto;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+@Schema(description = "A page of results")
+public class PageResponseDTO<T> {
+
+    @Schema(description = "Items of this page")
+    private List<T> content;
+
+    @Schema(description = "Page size used for this request", example = "20")
+    private int size;
+
+    @Schema(description = "Page number when offset pagination was requested", example = "0", nullable = true)
+    private Integer page;
+
+    @Schema(description = "Cursor for the next page, absent on the last page", example = "MjA", nullable = true)
+    private String nextCursor;
+
+    @Schema(description = "Whether more items are available", example = "true")
+    private boolean hasNext;
+}
@@ -37,4 +37,11 @@ public class ProductResponseDTO {
 
     @Schema(description = "Nested data for the category associated with the product")
     private CategoryNestedDTO category;
+
+    // Used by JPQL constructor expressions, which cannot build the nested category
+    public ProductResponseDTO(Long id, String name, String description, BigDecimal unitPrice, Integer stock,
+                              LocalDateTime createdAt, LocalDateTime updatedAt, Long categoryId, String categoryName) {
+        this(id, name, description, unitPrice, stock, createdAt, updatedAt,
+                categoryId != null ? new CategoryNestedDTO(categoryId, categoryName) : null);
+    }
 }
@@ -0,0 +1,49 @@
+package com.argenischacon.inventory_sales_api.dto;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import jakarta.validation.constraints.Min;
+import jakarta.validation.constraints.Pattern;
+import jakarta.validation.constraints.PositiveOrZero;
+import jakarta.validation.constraints.Size;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+@Schema(description = "Filter and sort options for searching Products")
+public class ProductSearchDTO {
+
+    @Schema(description = "Only products of this category", example = "1")
+    private Long categoryId;
+
+    @Schema(description = "Only products with a unit price greater than or equal to this amount", example = "100.00")
+    @PositiveOrZero(message = "Minimum price must not be negative")
+    private BigDecimal minPrice;
+
+    @Schema(description = "Only products with a unit price less than or equal to this amount", example = "1500.00")
+    @PositiveOrZero(message = "Maximum price must not be negative")
+    private BigDecimal maxPrice;
+
+    @Schema(description = "true for products with stock, false for products out of stock", example = "true")
+    private Boolean inStock;
+
+    @Schema(description = "Low-stock threshold: only products with at most this many units", example = "5")
+    @Min(value = 0, message = "Maximum stock must not be negative")
+    private Integer maxStock;
+
+    @Schema(description = "Case-insensitive prefix of the product name", example = "smart")
+    @Size(max = 255, message = "Name prefix must be at most 255 characters")
+    private String name;
+
+    @Schema(description = "Field to sort by", example = "unitPrice", allowableValues = {"id", "name", "unitPrice", "stock"})
+    @Pattern(regexp = "id|name|unitPrice|stock", message = "Sort field must be one of: id, name, unitPrice, stock")
+    private String sortBy = "id";
+
+    @Schema(description = "Sort direction", example = "asc", allowableValues = {"asc", "desc"})
+    @Pattern(regexp = "(?i)asc|desc", message = "Sort direction must be asc or desc")
+    private String direction = "asc";
+}
@@ -0,0 +1,27 @@
+package com.argenischacon.inventory_sales_api.dto;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import jakarta.validation.constraints.Max;
+import jakarta.validation.constraints.Min;
+import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.Size;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+@Schema(description = "Full-text query over product name and description")
+public class ProductTextQueryDTO {
+
+    @Schema(description = "Words to search for; every word must match, the last ones may be prefixes", example = "smart tv 4k")
+    @NotBlank(message = "Query is required")
+    @Size(max = 200, message = "Query must be at most 200 characters")
+    private String q;
+
+    @Schema(description = "Maximum number of results", example = "20")
+    @Min(value = 1, message = "Limit must be at least 1")
+    @Max(value = 100, message = "Limit must be at most 100")
+    private Integer limit = 20;
+}
@@ -0,0 +1,40 @@
+package com.argenischacon.inventory_sales_api.dto;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+@Schema(description = "Outcome of a single sale within a batch")
+public class SaleBatchItemResultDTO {
+
+    public enum Status { CREATED, FAILED }
+
+    @Schema(description = "Position of the sale in the request list", example = "0")
+    private int index;
+
+    @Schema(description = "Whether the sale was created or rejected", example = "CREATED")
+    private Status status;
+
+    @Schema(description = "Identifier of the created sale", example = "1", nullable = true)
+    private Long saleId;
+
+    @Schema(description = "Total amount of the created sale", example = "1999.98", nullable = true)
+    private BigDecimal total;
+
+    @Schema(description = "Reason the sale was rejected", example = "Product with id 999 not found.", nullable = true)
+    private String error;
+
+    public static SaleBatchItemResultDTO created(int index, Long saleId, BigDecimal total) {
+        return new SaleBatchItemResultDTO(index, Status.CREATED, saleId, total, null);
+    }
+
+    public static SaleBatchItemResultDTO failed(int index, String error) {
+        return new SaleBatchItemResultDTO(index, Status.FAILED, null, null, error);
+    }
+}
@@ -0,0 +1,24 @@
+package com.argenischacon.inventory_sales_api.dto;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.Size;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+@Schema(description = "Data transfer object for creating several Sales in a single request")
+public class SaleBatchRequestDTO {
+
+    @Schema(description = "Sales to be created, processed in order")
+    @NotEmpty(message = "Must have at least one sale")
+    @Size(max = 5000, message = "A batch can contain at most 5000 sales")
+    @Valid
+    private List<SaleRequestDTO> sales;
+}
@@ -0,0 +1,24 @@
+package com.argenischacon.inventory_sales_api.dto;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+@Schema(description = "Data transfer object for batch Sale creation responses")
+public class SaleBatchResponseDTO {
+
+    @Schema(description = "Number of sales created", example = "2")
+    private int created;
+
+    @Schema(description = "Number of sales rejected", example = "1")
+    private int failed;
+
+    @Schema(description = "Per-sale results, in request order")
+    private List<SaleBatchItemResultDTO> results;
+}
@@ -0,0 +1,58 @@
+package com.argenischacon.inventory_sales_api.dto;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+@Schema(description = "One line of the NDJSON sales export")
+public class SaleExportDTO {
+
+    @Schema(description = "Unique identifier for the sale", example = "1")
+    private Long id;
+
+    @Schema(description = "Date of the sale", example = "2024-08-01")
+    private LocalDate date;
+
+    @Schema(description = "Identifier of the customer", example = "1")
+    private Long customerId;
+
+    @Schema(description = "DNI of the customer", example = "12345678")
+    private String customerDni;
+
+    @Schema(description = "Total amount of the sale", example = "1999.98")
+    private BigDecimal total;
+
+    @Schema(description = "Detail lines of the sale")
+    private List<Line> lines = new ArrayList<>();
+
+    @Data
+    @AllArgsConstructor
+    @NoArgsConstructor
+    @Schema(description = "One detail line of an exported sale")
+    public static class Line {
+
+        @Schema(description = "Unique identifier for the sale detail", example = "1")
+        private Long id;
+
+        @Schema(description = "Identifier of the product", example = "2")
+        private Long productId;
+
+        @Schema(description = "Name of the product", example = "Smart TV")
+        private String productName;
+
+        @Schema(description = "Quantity of the product sold", example = "2")
+        private Integer quantity;
+
+        @Schema(description = "Unit price of the product at the time of the sale", example = "999.99")
+        private BigDecimal unitPrice;
+    }
+}
@@ -0,0 +1,33 @@
+package com.argenischacon.inventory_sales_api.dto;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import jakarta.validation.constraints.Pattern;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.springframework.format.annotation.DateTimeFormat;
+
+import java.time.LocalDate;
+
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+@Schema(description = "Format and date range for exporting Sales")
+public class SaleExportFilterDTO {
+
+    @Schema(description = "Output format: one JSON sale per line, or one CSV row per sale detail", example = "ndjson", allowableValues = {"ndjson", "csv"})
+    @Pattern(regexp = "(?i)ndjson|csv", message = "Export format must be ndjson or csv")
+    private String format = "ndjson";
+
+    @Schema(description = "Only sales dated on or after this day", example = "2024-08-01")
+    @DateTimeFormat(iso = DateTimeFormat.ISO.DATE)
+    private LocalDate from;
+
+    @Schema(description = "Only sales dated on or before this day", example = "2024-08-31")
+    @DateTimeFormat(iso = DateTimeFormat.ISO.DATE)
+    private LocalDate to;
+
+    public boolean isCsv() {
+        return "csv".equalsIgnoreCase(format);
+    }
+}
@@ -0,0 +1,42 @@
+package com.argenischacon.inventory_sales_api.dto;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+import jakarta.validation.constraints.Min;
+import jakarta.validation.constraints.Pattern;
+import jakarta.validation.constraints.PositiveOrZero;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+
+@Data
+@AllArgsConstructor
+@NoArgsConstructor
+@Schema(description = "Filter and sort options for listing Sales")
+public class SaleFilterDTO {
+
+    @Schema(description = "Only sales with a total greater than or equal to this amount", example = "100.00")
+    @PositiveOrZero(message = "Minimum total must not be negative")
+    private BigDecimal minTotal;
+
+    @Schema(description = "Only sales with a total less than or equal to this amount", example = "5000.00")
+    @PositiveOrZero(message = "Maximum total must not be negative")
+    private BigDecimal maxTotal;
+
+    @Schema(description = "Only sales with at least this many detail lines", example = "1")
+    @Min(value = 0, message = "Minimum line count must not be negative")
+    private Integer minLines;
+
+    @Schema(description = "Only sales with at most this many detail lines", example = "50")
+    @Min(value = 0, message = "Maximum line count must not be negative")
+    private Integer maxLines;
+
+    @Schema(description = "Field to sort by", example = "total", allowableValues = {"id", "date", "total", "lineCount"})
+    @Pattern(regexp = "id|date|total|lineCount", message = "Sort field must be one of: id, date, total, lineCount")
+    private String sortBy = "id";
+
+    @Schema(description = "Sort direction", example = "desc", allowableValues = {"asc", "desc"})
+    @Pattern(regexp = "(?i)asc|desc", message = "Sort direction must be asc or desc")
+    private String direction = "asc";
+}
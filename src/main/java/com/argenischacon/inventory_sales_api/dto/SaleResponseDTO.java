@@ -36,4 +36,7 @@ public class SaleResponseDTO {
 
     @Schema(description = "Total amount of the sale", example = "1999.98")
     private BigDecimal total;
+
+    @Schema(description = "Number of detail lines in the sale", example = "2")
+    private Integer lineCount;
 }
@@ -0,0 +1,11 @@
+package com.argenischacon.inventory_sales_api.exception;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.ResponseStatus;
+
+@ResponseStatus(HttpStatus.UNAUTHORIZED) //401 Unauthorized
+public class InvalidTokenException extends RuntimeException{
+    public InvalidTokenException(String message){
+        super(message);
+    }
+}
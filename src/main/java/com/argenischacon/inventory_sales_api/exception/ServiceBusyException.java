@@ -0,0 +1,16 @@
+package com.argenischacon.inventory_sales_api.exception;
+
+import lombok.Getter;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.ResponseStatus;
+
+@Getter
+@ResponseStatus(HttpStatus.SERVICE_UNAVAILABLE) //503 Service Unavailable
+public class ServiceBusyException extends RuntimeException{
+    private final long retryAfterSeconds;
+
+    public ServiceBusyException(String message, long retryAfterSeconds){
+        super(message);
+        this.retryAfterSeconds = retryAfterSeconds;
+    }
+}
@@ -4,7 +4,6 @@ import com.argenischacon.inventory_sales_api.dto.SaleRequestDTO;
 import com.argenischacon.inventory_sales_api.dto.SaleResponseDTO;
 import com.argenischacon.inventory_sales_api.model.Sale;
 import org.mapstruct.Mapper;
-import org.mapstruct.Mapping;
 import org.mapstruct.MappingTarget;
 
 import java.util.List;
@@ -12,7 +11,6 @@ import java.util.List;
 @Mapper(componentModel = "spring", uses = {CustomerMapper.class, SaleDetailMapper.class})
 public interface SaleMapper {
     // Entity -> ResponseDTO
-    @Mapping(target = "total", expression = "java(sale.getTotal())")
     SaleResponseDTO toResponse(Sale sale);
 
     // List<Entity> -> List<ResponseDTO>
@@ -0,0 +1,67 @@
+package com.argenischacon.inventory_sales_api.model;
+
+import jakarta.persistence.*;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+import org.springframework.data.domain.Persistable;
+
+import java.time.Instant;
+
+@Entity
+@Table(name = "idempotency_keys", indexes = @Index(name = "idx_idempotency_keys_expires_at", columnList = "expiresAt"))
+@Getter
+@Setter
+@NoArgsConstructor
+public class IdempotencyRecord implements Persistable<String> {
+    public enum Status { IN_PROGRESS, COMPLETED }
+
+    // "<username>:<Idempotency-Key header>"
+    @Id
+    @Column(name = "scoped_key", length = 320)
+    private String scopedKey;
+
+    @Column(nullable = false, length = 64)
+    private String requestHash;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, length = 16)
+    private Status status;
+
+    @Column(columnDefinition = "text")
+    private String responseBody;
+
+    @Column(nullable = false)
+    private Instant createdAt;
+
+    @Column(nullable = false)
+    private Instant expiresAt;
+
+    // Assigned ids would make save() merge; a new claim must be a plain INSERT so concurrent claims collide on the key
+    @Transient
+    private boolean newRecord = true;
+
+    public IdempotencyRecord(String scopedKey, String requestHash, Instant createdAt, Instant expiresAt) {
+        this.scopedKey = scopedKey;
+        this.requestHash = requestHash;
+        this.status = Status.IN_PROGRESS;
+        this.createdAt = createdAt;
+        this.expiresAt = expiresAt;
+    }
+
+    @Override
+    public String getId() {
+        return scopedKey;
+    }
+
+    @Override
+    public boolean isNew() {
+        return newRecord;
+    }
+
+    @PostLoad
+    @PostPersist
+    void markNotNew() {
+        this.newRecord = false;
+    }
+}
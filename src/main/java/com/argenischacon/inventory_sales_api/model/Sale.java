@@ -19,7 +19,10 @@ import java.util.ArrayList;
 import java.util.List;
 
 @Entity
-@Table(name = "sales")
+@Table(name = "sales", indexes = {
+        @Index(name = "idx_sales_total", columnList = "total"),
+        @Index(name = "idx_sales_line_count", columnList = "line_count")
+})
 @Getter
 @Setter
 @AllArgsConstructor
@@ -28,7 +31,8 @@ import java.util.List;
 @Audited
 public class Sale {
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "sales_seq")
+    @SequenceGenerator(name = "sales_seq", sequenceName = "sales_seq", allocationSize = 50)
     private Long id;
 
     @Column(nullable = false)
@@ -42,6 +46,16 @@ public class Sale {
     @Column(nullable = false)
     private LocalDateTime updatedAt;
 
+    @Version
+    private Long version;
+
+    // Kept in sync with saleDetails by SaleServiceImpl so listings can read, filter and sort without the details
+    @Column(nullable = false, precision = 19, scale = 2)
+    private BigDecimal total = BigDecimal.ZERO;
+
+    @Column(name = "line_count", nullable = false)
+    private Integer lineCount = 0;
+
     @ManyToOne(fetch = FetchType.EAGER)
     @JoinColumn(name = "customer_id", nullable = false)
     @NotNull
@@ -53,9 +67,10 @@ public class Sale {
             orphanRemoval = true)
     private List<SaleDetail> saleDetails = new ArrayList<>();
 
-    public BigDecimal getTotal() {
-        return saleDetails.stream()
+    public void recalculateTotals() {
+        this.total = saleDetails.stream()
                 .map(SaleDetail::getSubTotal)
                 .reduce(BigDecimal.ZERO, BigDecimal::add);
+        this.lineCount = saleDetails.size();
     }
 }
@@ -27,7 +27,8 @@ import java.time.LocalDateTime;
 @Audited
 public class SaleDetail {
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "sale_details_seq")
+    @SequenceGenerator(name = "sale_details_seq", sequenceName = "sale_details_seq", allocationSize = 50)
     private Long id;
 
     @Column(nullable = false)
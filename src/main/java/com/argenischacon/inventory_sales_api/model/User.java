@@ -1,7 +1,8 @@
 package com.argenischacon.inventory_sales_api.model;
 
+import com.argenischacon.inventory_sales_api.security.UserStatusListener;
 import jakarta.persistence.*;
-import lombok.AllArgsConstructor;
+import lombok.AccessLevel;
 import lombok.Getter;
 import lombok.NoArgsConstructor;
 import lombok.Setter;
@@ -13,12 +14,13 @@ import java.util.Set;
 @Table(name = "users")
 @Getter
 @Setter
-@AllArgsConstructor
 @NoArgsConstructor
+@EntityListeners(UserStatusListener.class)
 @Audited
 public class User {
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "users_seq")
+    @SequenceGenerator(name = "users_seq", sequenceName = "users_seq", allocationSize = 50)
     private Long id;
 
     @Column(nullable = false, unique = true)
@@ -32,4 +34,28 @@ public class User {
     @Column(name = "role")
     @Enumerated(EnumType.STRING)
     private Set<Role> roles;
+
+    // Bumped by role changes too, so they reach the entity listeners like any other update
+    @Version
+    private Long version;
+
+    // Username as last read or written, so a rename can also evict what was cached under the previous one
+    @Transient
+    @Setter(AccessLevel.NONE)
+    private String storedUsername;
+
+    public User(Long id, String username, String password, Set<Role> roles) {
+        this.id = id;
+        this.username = username;
+        this.password = password;
+        this.roles = roles;
+    }
+
+    // Entity callbacks run after those of UserStatusListener, which still sees the previous username
+    @PostLoad
+    @PostPersist
+    @PostUpdate
+    void rememberStoredUsername() {
+        storedUsername = username;
+    }
 }
@@ -1,7 +1,12 @@
 package com.argenischacon.inventory_sales_api.repository;
 
+import com.argenischacon.inventory_sales_api.dto.CategoryResponseDTO;
 import com.argenischacon.inventory_sales_api.model.Category;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.util.Optional;
@@ -12,4 +17,28 @@ public interface CategoryRepository extends JpaRepository<Category, Long> {
     boolean existsByName(String name);
 
     Optional<Category> findByName(String name);
+
+    // Read views project straight into the response DTO, so no managed entity or dirty-checking snapshot is built
+    String VIEW = "SELECT new com.argenischacon.inventory_sales_api.dto.CategoryResponseDTO(" +
+            "c.id, c.name, c.description, c.createdAt, c.updatedAt) FROM Category c";
+
+    @Query(VIEW + " WHERE c.id = :id")
+    Optional<CategoryResponseDTO> findViewById(@Param("id") Long id);
+
+    // Slices skip the count query: keyset pages seek past the last seen id, offset pages are the fallback
+    @Query(VIEW + " WHERE c.id > :id")
+    Slice<CategoryResponseDTO> findViewsByIdGreaterThan(@Param("id") Long id, Pageable pageable);
+
+    @Query(VIEW)
+    Slice<CategoryResponseDTO> findViews(Pageable pageable);
+
+    // Row count and latest update, read for the ETag and Last-Modified headers without building the DTOs
+    String CHANGE_STAMP = "SELECT new com.argenischacon.inventory_sales_api.repository.ChangeStamp(" +
+            "count(c), max(c.updatedAt)) FROM Category c";
+
+    @Query(CHANGE_STAMP + " WHERE c.id = :id")
+    ChangeStamp findChangeStampById(@Param("id") Long id);
+
+    @Query(CHANGE_STAMP)
+    ChangeStamp findChangeStamp();
 }
@@ -0,0 +1,31 @@
+package com.argenischacon.inventory_sales_api.repository;
+
+import java.time.LocalDateTime;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.Objects;
+
+/**
+ * Row count and latest {@code updatedAt} behind a resource or a collection, read with one aggregate query instead
+ * of building the response. Either changes whenever a row is added, edited or removed, so together they identify a
+ * version of the response. {@code lastModified} is null when there are no rows.
+ */
+public record ChangeStamp(Long count, LocalDateTime lastModified) {
+
+    // Responses that embed other entities also change when those do: the latest of all timestamps is kept
+    public ChangeStamp(Long count, LocalDateTime lastModified, LocalDateTime embedded) {
+        this(count, latest(lastModified, embedded));
+    }
+
+    public ChangeStamp(Long count, LocalDateTime lastModified, LocalDateTime lines, LocalDateTime customer,
+                       LocalDateTime products) {
+        this(count, latest(lastModified, lines, customer, products));
+    }
+
+    private static LocalDateTime latest(LocalDateTime... timestamps) {
+        return Arrays.stream(timestamps)
+                .filter(Objects::nonNull)
+                .max(Comparator.naturalOrder())
+                .orElse(null);
+    }
+}
@@ -1,8 +1,13 @@
 package com.argenischacon.inventory_sales_api.repository;
 
+import com.argenischacon.inventory_sales_api.dto.CustomerResponseDTO;
 import com.argenischacon.inventory_sales_api.model.Customer;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.history.RevisionRepository;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.util.Optional;
@@ -12,4 +17,26 @@ public interface CustomerRepository extends JpaRepository<Customer, Long>, Revis
     boolean existsByDni(String dni);
 
     Optional<Customer> findByDni(String dni);
+
+    String VIEW = "SELECT new com.argenischacon.inventory_sales_api.dto.CustomerResponseDTO(" +
+            "c.id, c.dni, c.name, c.lastName, c.email, c.phone, c.address, c.createdAt, c.updatedAt) FROM Customer c";
+
+    @Query(VIEW + " WHERE c.id = :id")
+    Optional<CustomerResponseDTO> findViewById(@Param("id") Long id);
+
+    @Query(VIEW + " WHERE c.id > :id")
+    Slice<CustomerResponseDTO> findViewsByIdGreaterThan(@Param("id") Long id, Pageable pageable);
+
+    @Query(VIEW)
+    Slice<CustomerResponseDTO> findViews(Pageable pageable);
+
+    // Conditional GET validators: a single aggregate row, however many customers there are
+    String CHANGE_STAMP = "SELECT new com.argenischacon.inventory_sales_api.repository.ChangeStamp(" +
+            "count(c), max(c.updatedAt)) FROM Customer c";
+
+    @Query(CHANGE_STAMP + " WHERE c.id = :id")
+    ChangeStamp findChangeStampById(@Param("id") Long id);
+
+    @Query(CHANGE_STAMP)
+    ChangeStamp findChangeStamp();
 }
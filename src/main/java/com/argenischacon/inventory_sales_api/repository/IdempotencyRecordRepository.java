@@ -0,0 +1,54 @@
+package com.argenischacon.inventory_sales_api.repository;
+
+import com.argenischacon.inventory_sales_api.model.IdempotencyRecord;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.Instant;
+
+@Repository
+public interface IdempotencyRecordRepository extends JpaRepository<IdempotencyRecord, String> {
+    @Modifying
+    @Query("DELETE FROM IdempotencyRecord r WHERE r.scopedKey = :scopedKey AND r.expiresAt < :now")
+    int deleteIfExpired(@Param("scopedKey") String scopedKey, @Param("now") Instant now);
+
+    @Modifying
+    @Query("DELETE FROM IdempotencyRecord r WHERE r.expiresAt < :now")
+    int deleteAllExpired(@Param("now") Instant now);
+
+    // A claim is identified by its key and createdAt, so a request whose claim was taken over cannot touch the new one
+    default int completeClaim(String scopedKey, Instant claimedAt, String responseBody) {
+        return updateClaim(scopedKey, claimedAt, responseBody, IdempotencyRecord.Status.IN_PROGRESS, IdempotencyRecord.Status.COMPLETED);
+    }
+
+    default int releaseClaim(String scopedKey, Instant claimedAt) {
+        return deleteClaim(scopedKey, claimedAt, IdempotencyRecord.Status.IN_PROGRESS);
+    }
+
+    // Takes over a claim whose request never completed within the lease (e.g. the instance died mid-request)
+    default int takeOverStaleClaim(String scopedKey, String requestHash, Instant now, Instant expiresAt, Instant staleBefore) {
+        return takeOverClaim(scopedKey, requestHash, now, expiresAt, staleBefore, IdempotencyRecord.Status.IN_PROGRESS);
+    }
+
+    @Modifying
+    @Query("UPDATE IdempotencyRecord r SET r.status = :newStatus, r.responseBody = :responseBody " +
+            "WHERE r.scopedKey = :scopedKey AND r.createdAt = :claimedAt AND r.status = :status")
+    int updateClaim(@Param("scopedKey") String scopedKey, @Param("claimedAt") Instant claimedAt,
+                    @Param("responseBody") String responseBody, @Param("status") IdempotencyRecord.Status status,
+                    @Param("newStatus") IdempotencyRecord.Status newStatus);
+
+    @Modifying
+    @Query("DELETE FROM IdempotencyRecord r WHERE r.scopedKey = :scopedKey AND r.createdAt = :claimedAt AND r.status = :status")
+    int deleteClaim(@Param("scopedKey") String scopedKey, @Param("claimedAt") Instant claimedAt,
+                    @Param("status") IdempotencyRecord.Status status);
+
+    @Modifying
+    @Query("UPDATE IdempotencyRecord r SET r.requestHash = :requestHash, r.createdAt = :now, r.expiresAt = :expiresAt " +
+            "WHERE r.scopedKey = :scopedKey AND r.status = :status AND r.createdAt < :staleBefore")
+    int takeOverClaim(@Param("scopedKey") String scopedKey, @Param("requestHash") String requestHash,
+                      @Param("now") Instant now, @Param("expiresAt") Instant expiresAt,
+                      @Param("staleBefore") Instant staleBefore, @Param("status") IdempotencyRecord.Status status);
+}
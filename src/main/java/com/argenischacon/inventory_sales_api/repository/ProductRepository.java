@@ -1,15 +1,71 @@
 package com.argenischacon.inventory_sales_api.repository;
 
+import com.argenischacon.inventory_sales_api.dto.ProductResponseDTO;
 import com.argenischacon.inventory_sales_api.model.Product;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.history.RevisionRepository;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
 
 @Repository
-public interface ProductRepository extends JpaRepository<Product, Long>, RevisionRepository<Product, Long, Integer> {
+public interface ProductRepository extends JpaRepository<Product, Long>, RevisionRepository<Product, Long, Integer>,
+        ProductRepositoryCustom {
     boolean existsByName(String name);
 
     Optional<Product> findByName(String name);
+
+    // The category is joined into the same row instead of going through the EAGER association
+    String VIEW = "SELECT new com.argenischacon.inventory_sales_api.dto.ProductResponseDTO(" +
+            "p.id, p.name, p.description, p.unitPrice, p.stock, p.createdAt, p.updatedAt, c.id, c.name) " +
+            "FROM Product p LEFT JOIN p.category c";
+
+    @Query(VIEW + " WHERE p.id = :id")
+    Optional<ProductResponseDTO> findViewById(@Param("id") Long id);
+
+    @Query(VIEW + " WHERE p.id > :id")
+    Slice<ProductResponseDTO> findViewsByIdGreaterThan(@Param("id") Long id, Pageable pageable);
+
+    @Query(VIEW)
+    Slice<ProductResponseDTO> findViews(Pageable pageable);
+
+    // Basis of the ETag and Last-Modified headers; the category is included because its name is part of the view
+    String CHANGE_STAMP = "SELECT new com.argenischacon.inventory_sales_api.repository.ChangeStamp(" +
+            "count(p), max(p.updatedAt), max(c.updatedAt)) FROM Product p LEFT JOIN p.category c";
+
+    @Query(CHANGE_STAMP + " WHERE p.id = :id")
+    ChangeStamp findChangeStampById(@Param("id") Long id);
+
+    @Query(CHANGE_STAMP)
+    ChangeStamp findChangeStamp();
+
+    @Query(VIEW + " WHERE p.id IN :ids")
+    List<ProductResponseDTO> findViewsByIdIn(@Param("ids") Collection<Long> ids);
+
+    // Batches of the text search source columns, read in id order to build the in-memory index
+    @Query("SELECT new com.argenischacon.inventory_sales_api.repository.ProductTextView(p.id, p.name, p.description) " +
+            "FROM Product p WHERE p.id > :id ORDER BY p.id")
+    List<ProductTextView> findTextViewsByIdGreaterThan(@Param("id") Long id, Pageable pageable);
+
+    // Guarded decrement: affects 0 rows when the product does not have enough stock.
+    // Both stock statements bump the version so concurrent Product edits fail instead of overwriting stock
+    @Modifying
+    @Query("UPDATE Product p SET p.stock = p.stock - :quantity, p.version = p.version + 1, p.updatedAt = LOCAL DATETIME " +
+            "WHERE p.id = :id AND p.stock >= :quantity")
+    int decreaseStock(@Param("id") Long id, @Param("quantity") int quantity);
+
+    @Modifying
+    @Query("UPDATE Product p SET p.stock = p.stock + :quantity, p.version = p.version + 1, p.updatedAt = LOCAL DATETIME " +
+            "WHERE p.id = :id")
+    int increaseStock(@Param("id") Long id, @Param("quantity") int quantity);
+
+    @Query("SELECT p.stock FROM Product p WHERE p.id = :id")
+    Optional<Integer> findStockById(@Param("id") Long id);
 }
@@ -0,0 +1,21 @@
+package com.argenischacon.inventory_sales_api.repository;
+
+import com.argenischacon.inventory_sales_api.dto.FieldsQueryDTO;
+import com.argenischacon.inventory_sales_api.dto.ProductResponseDTO;
+import com.argenischacon.inventory_sales_api.dto.ProductSearchDTO;
+import com.argenischacon.inventory_sales_api.model.Product;
+
+import java.time.Duration;
+import java.util.Collection;
+import java.util.List;
+
+public interface ProductRepositoryCustom {
+
+    // Locks the distinct products with a single SELECT ... FOR UPDATE, always in ascending id order
+    List<Product> lockAllByIdSorted(Collection<Long> ids, Duration lockTimeout);
+
+    // One page of matching products projected into the response DTO, seeking past (afterValue, afterId) when given.
+    // Description and category are left null, and not read, unless the fields include them
+    List<ProductResponseDTO> search(ProductSearchDTO filter, FieldsQueryDTO fields, Comparable<?> afterValue, Long afterId,
+                                    int offset, int limit);
+}
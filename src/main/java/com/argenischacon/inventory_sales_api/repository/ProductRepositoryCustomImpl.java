@@ -0,0 +1,157 @@
+package com.argenischacon.inventory_sales_api.repository;
+
+import com.argenischacon.inventory_sales_api.dto.FieldsQueryDTO;
+import com.argenischacon.inventory_sales_api.dto.ProductResponseDTO;
+import com.argenischacon.inventory_sales_api.dto.ProductSearchDTO;
+import com.argenischacon.inventory_sales_api.model.Category;
+import com.argenischacon.inventory_sales_api.model.Product;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.LockModeType;
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.CriteriaQuery;
+import jakarta.persistence.criteria.Expression;
+import jakarta.persistence.criteria.Join;
+import jakarta.persistence.criteria.JoinType;
+import jakarta.persistence.criteria.Order;
+import jakarta.persistence.criteria.Path;
+import jakarta.persistence.criteria.Predicate;
+import jakarta.persistence.criteria.Root;
+import lombok.RequiredArgsConstructor;
+import org.hibernate.dialect.PostgreSQLDialect;
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Locale;
+
+@RequiredArgsConstructor
+public class ProductRepositoryCustomImpl implements ProductRepositoryCustom {
+    private static final String LOCK_TIMEOUT_HINT = "jakarta.persistence.lock.timeout";
+    private static final char ESCAPE = '\\';
+
+    private final EntityManager entityManager;
+
+    @Override
+    public List<Product> lockAllByIdSorted(Collection<Long> ids, Duration lockTimeout) {
+        List<Long> sortedIds = ids.stream()
+                .distinct()
+                .sorted()
+                .toList();
+        if (sortedIds.isEmpty()) {
+            return List.of();
+        }
+
+        // PostgreSQL ignores the JPA hint for positive timeouts, so it is set for the current transaction instead
+        if (isPostgres()) {
+            entityManager.createNativeQuery("SELECT set_config('lock_timeout', :timeout, true)")
+                    .setParameter("timeout", lockTimeout.toMillis() + "ms")
+                    .getSingleResult();
+        }
+
+        return entityManager.createQuery("SELECT p FROM Product p WHERE p.id IN :ids ORDER BY p.id", Product.class)
+                .setParameter("ids", sortedIds)
+                .setLockMode(LockModeType.PESSIMISTIC_WRITE)
+                // Hibernate reads the hint as an Integer (or a String); a Long is rejected
+                .setHint(LOCK_TIMEOUT_HINT, Math.toIntExact(lockTimeout.toMillis()))
+                .getResultList();
+    }
+
+    @Override
+    public List<ProductResponseDTO> search(ProductSearchDTO filter, FieldsQueryDTO fields, Comparable<?> afterValue,
+                                           Long afterId, int offset, int limit) {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<ProductResponseDTO> query = cb.createQuery(ProductResponseDTO.class);
+        Root<Product> product = query.from(Product.class);
+
+        // Each filter matches one of the products indexes (category_id, unit_price, stock, lower(name))
+        List<Predicate> predicates = new ArrayList<>();
+        if (filter.getCategoryId() != null) {
+            predicates.add(cb.equal(product.get("category").get("id"), filter.getCategoryId()));
+        }
+        if (filter.getMinPrice() != null) {
+            predicates.add(cb.greaterThanOrEqualTo(product.get("unitPrice"), filter.getMinPrice()));
+        }
+        if (filter.getMaxPrice() != null) {
+            predicates.add(cb.lessThanOrEqualTo(product.get("unitPrice"), filter.getMaxPrice()));
+        }
+        if (filter.getInStock() != null) {
+            predicates.add(filter.getInStock()
+                    ? cb.greaterThan(product.get("stock"), 0)
+                    : cb.equal(product.get("stock"), 0));
+        }
+        if (filter.getMaxStock() != null) {
+            predicates.add(cb.lessThanOrEqualTo(product.get("stock"), filter.getMaxStock()));
+        }
+        if (filter.getName() != null && !filter.getName().isBlank()) {
+            predicates.add(cb.like(cb.lower(product.get("name")), likePrefix(filter.getName()), ESCAPE));
+        }
+
+        boolean ascending = "asc".equalsIgnoreCase(filter.getDirection());
+        boolean byId = "id".equals(filter.getSortBy());
+        Path<Long> id = product.get("id");
+        Path<Comparable<Object>> sortPath = product.get(filter.getSortBy());
+
+        // Seek past the last row of the previous page: (sortValue, id) beyond the cursor in the sort direction
+        if (afterId != null) {
+            Predicate afterIdPredicate = beyond(cb, id, afterId, ascending);
+            if (byId) {
+                predicates.add(afterIdPredicate);
+            } else {
+                predicates.add(cb.or(
+                        beyond(cb, sortPath, afterValue, ascending),
+                        cb.and(cb.equal(sortPath, afterValue), afterIdPredicate)));
+            }
+        }
+
+        List<Order> orders = new ArrayList<>();
+        if (!byId) {
+            orders.add(ascending ? cb.asc(sortPath) : cb.desc(sortPath));
+        }
+        orders.add(ascending ? cb.asc(id) : cb.desc(id));
+
+        // Unrequested columns are selected as NULL: no TEXT description read and no category join
+        Expression<String> description = fields.includes("description")
+                ? product.get("description") : cb.nullLiteral(String.class);
+        Expression<Long> categoryId = cb.nullLiteral(Long.class);
+        Expression<String> categoryName = cb.nullLiteral(String.class);
+        if (fields.includes("category")) {
+            Join<Product, Category> category = product.join("category", JoinType.LEFT);
+            categoryId = category.get("id");
+            categoryName = category.get("name");
+        }
+
+        query.select(cb.construct(ProductResponseDTO.class,
+                        id, product.get("name"), description, product.get("unitPrice"),
+                        product.get("stock"), product.get("createdAt"), product.get("updatedAt"),
+                        categoryId, categoryName))
+                .where(predicates.toArray(new Predicate[0]))
+                .orderBy(orders);
+
+        return entityManager.createQuery(query)
+                .setFirstResult(offset)
+                .setMaxResults(limit)
+                .getResultList();
+    }
+
+    // Prefix match on lower(name); LIKE wildcards typed by the client are matched literally
+    private static String likePrefix(String prefix) {
+        return prefix.toLowerCase(Locale.ROOT)
+                .replace("\\", "\\\\")
+                .replace("%", "\\%")
+                .replace("_", "\\_") + "%";
+    }
+
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    private static Predicate beyond(CriteriaBuilder cb, Path path, Comparable value, boolean ascending) {
+        return ascending ? cb.greaterThan(path, value) : cb.lessThan(path, value);
+    }
+
+    private boolean isPostgres() {
+        return entityManager.getEntityManagerFactory()
+                .unwrap(SessionFactoryImplementor.class)
+                .getJdbcServices()
+                .getDialect() instanceof PostgreSQLDialect;
+    }
+}
@@ -0,0 +1,7 @@
+package com.argenischacon.inventory_sales_api.repository;
+
+/**
+ * The product columns covered by the full-text index.
+ */
+public record ProductTextView(Long id, String name, String description) {
+}
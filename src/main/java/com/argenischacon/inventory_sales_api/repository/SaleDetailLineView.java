@@ -0,0 +1,21 @@
+package com.argenischacon.inventory_sales_api.repository;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+/**
+ * One sale line with the product columns its response embeds, plus the sale's stored line count so a page of lines
+ * and the total come from the same query. Line and product columns are null on the row of a sale with no lines left.
+ */
+public record SaleDetailLineView(
+        Integer lineCount,
+        Long detailId,
+        Integer quantity,
+        BigDecimal unitPrice,
+        LocalDateTime createdAt,
+        LocalDateTime updatedAt,
+        Long productId,
+        String productName,
+        BigDecimal productUnitPrice
+) {
+}
@@ -1,13 +1,39 @@
 package com.argenischacon.inventory_sales_api.repository;
 
 import com.argenischacon.inventory_sales_api.model.SaleDetail;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.history.RevisionRepository;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
-import java.util.List;
+import java.time.LocalDate;
+import java.util.stream.Stream;
 
 @Repository
 public interface SaleDetailRepository extends JpaRepository<SaleDetail, Long>, RevisionRepository<SaleDetail, Long, Integer> {
-    List<SaleDetail> findBySaleId(Long saleId);
+    // One page of a sale's lines, keyset on the line id, with the sale's stored line count on every row. The sale is
+    // the driving table, so a sale with no lines left after the cursor still yields one row whose line columns are
+    // null, and an unknown sale yields none
+    @Query("SELECT new com.argenischacon.inventory_sales_api.repository.SaleDetailLineView(" +
+            "s.lineCount, d.id, d.quantity, d.unitPrice, d.createdAt, d.updatedAt, p.id, p.name, p.unitPrice) " +
+            "FROM Sale s LEFT JOIN s.saleDetails d ON d.id > :afterId LEFT JOIN d.product p " +
+            "WHERE s.id = :saleId ORDER BY d.id")
+    Slice<SaleDetailLineView> findLinePage(@Param("saleId") Long saleId, @Param("afterId") Long afterId, Pageable pageable);
+
+    // Export cursor: one row per line with its sale, customer and product columns, grouped by sale id. The sale is the
+    // driving table, so a sale with no lines still yields one row. Rows are projections, so nothing is kept in the
+    // persistence context; the stream must be consumed inside a transaction and closed
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "1000"))
+    @Query("SELECT new com.argenischacon.inventory_sales_api.repository.SaleExportRow(" +
+            "s.id, s.date, c.id, c.dni, s.total, d.id, p.id, p.name, d.quantity, d.unitPrice) " +
+            "FROM Sale s JOIN s.customer c LEFT JOIN s.saleDetails d LEFT JOIN d.product p " +
+            "WHERE (:from IS NULL OR s.date >= :from) AND (:to IS NULL OR s.date <= :to) " +
+            "ORDER BY s.id, d.id")
+    Stream<SaleExportRow> streamForExport(@Param("from") LocalDate from, @Param("to") LocalDate to);
 }
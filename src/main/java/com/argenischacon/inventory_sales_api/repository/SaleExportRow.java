@@ -0,0 +1,22 @@
+package com.argenischacon.inventory_sales_api.repository;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+
+/**
+ * One row of the sales export: a sale's header columns with one of its lines. Line and product columns are null on
+ * the single row of a sale with no lines.
+ */
+public record SaleExportRow(
+        Long saleId,
+        LocalDate date,
+        Long customerId,
+        String customerDni,
+        BigDecimal total,
+        Long detailId,
+        Long productId,
+        String productName,
+        Integer quantity,
+        BigDecimal unitPrice
+) {
+}
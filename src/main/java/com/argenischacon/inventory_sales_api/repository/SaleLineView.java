@@ -0,0 +1,37 @@
+package com.argenischacon.inventory_sales_api.repository;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+
+/**
+ * Flattened read view of a sale: one row per sale line with the sale header, customer and product columns repeated.
+ * A sale without lines yields a single row whose line and product columns are null.
+ */
+public record SaleLineView(
+        Long saleId,
+        LocalDate date,
+        LocalDateTime createdAt,
+        LocalDateTime updatedAt,
+        BigDecimal total,
+        Integer lineCount,
+        Long customerId,
+        String customerName,
+        String customerLastName,
+        Long detailId,
+        Integer quantity,
+        BigDecimal unitPrice,
+        LocalDateTime detailCreatedAt,
+        LocalDateTime detailUpdatedAt,
+        Long productId,
+        String productName,
+        BigDecimal productUnitPrice
+) {
+
+    // Header-only row, for responses that leave the lines out
+    public SaleLineView(Long saleId, LocalDate date, LocalDateTime createdAt, LocalDateTime updatedAt, BigDecimal total,
+                        Integer lineCount, Long customerId, String customerName, String customerLastName) {
+        this(saleId, date, createdAt, updatedAt, total, lineCount, customerId, customerName, customerLastName,
+                null, null, null, null, null, null, null, null);
+    }
+}
@@ -1,10 +1,51 @@
 package com.argenischacon.inventory_sales_api.repository;
 
 import com.argenischacon.inventory_sales_api.model.Sale;
+import jakarta.persistence.LockModeType;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.history.RevisionRepository;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+
 @Repository
-public interface SaleRepository extends JpaRepository<Sale, Long>, RevisionRepository<Sale, Long, Integer> {
+public interface SaleRepository extends JpaRepository<Sale, Long>, RevisionRepository<Sale, Long, Integer>,
+        SaleRepositoryCustom {
+
+    // Detail changes do not touch the sale row, so the version is bumped explicitly to detect concurrent edits
+    @Lock(LockModeType.OPTIMISTIC_FORCE_INCREMENT)
+    @Query("SELECT s FROM Sale s WHERE s.id = :id")
+    Optional<Sale> findForUpdateById(@Param("id") Long id);
+
+    // Everything SaleResponseDTO reads in one read-only query; also the second step of a list page, whose ids are
+    // paged first so the line rows need no in-memory paging
+    @Query("SELECT new com.argenischacon.inventory_sales_api.repository.SaleLineView(" +
+            "s.id, s.date, s.createdAt, s.updatedAt, s.total, s.lineCount, c.id, c.name, c.lastName, " +
+            "d.id, d.quantity, d.unitPrice, d.createdAt, d.updatedAt, p.id, p.name, p.unitPrice) " +
+            "FROM Sale s JOIN s.customer c LEFT JOIN s.saleDetails d LEFT JOIN d.product p " +
+            "WHERE s.id IN :ids ORDER BY s.id, d.id")
+    List<SaleLineView> findLineViewsBySaleIdIn(@Param("ids") Collection<Long> ids);
+
+    // Same view without the lines: one row per sale and no detail or product join
+    @Query("SELECT new com.argenischacon.inventory_sales_api.repository.SaleLineView(" +
+            "s.id, s.date, s.createdAt, s.updatedAt, s.total, s.lineCount, c.id, c.name, c.lastName) " +
+            "FROM Sale s JOIN s.customer c WHERE s.id IN :ids ORDER BY s.id")
+    List<SaleLineView> findHeaderViewsBySaleIdIn(@Param("ids") Collection<Long> ids);
+
+    // Basis of the ETag and Last-Modified headers. Counting line rows catches removed lines, and the customer and
+    // product timestamps catch renames of what the sale view embeds
+    String CHANGE_STAMP = "SELECT new com.argenischacon.inventory_sales_api.repository.ChangeStamp(" +
+            "count(s), max(s.updatedAt), max(d.updatedAt), max(c.updatedAt), max(p.updatedAt)) " +
+            "FROM Sale s JOIN s.customer c LEFT JOIN s.saleDetails d LEFT JOIN d.product p";
+
+    @Query(CHANGE_STAMP + " WHERE s.id = :id")
+    ChangeStamp findChangeStampById(@Param("id") Long id);
+
+    @Query(CHANGE_STAMP)
+    ChangeStamp findChangeStamp();
 }
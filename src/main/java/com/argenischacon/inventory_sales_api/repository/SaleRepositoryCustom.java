@@ -0,0 +1,12 @@
+package com.argenischacon.inventory_sales_api.repository;
+
+import com.argenischacon.inventory_sales_api.dto.SaleFilterDTO;
+
+import java.util.List;
+
+public interface SaleRepositoryCustom {
+
+    // Ids of the filtered sales ordered by (sortBy, id) in the filter direction, starting after the given keyset when
+    // present. afterValue is ignored when sorting by id
+    List<Long> findPageIds(SaleFilterDTO filter, Comparable<?> afterValue, Long afterId, int offset, int limit);
+}
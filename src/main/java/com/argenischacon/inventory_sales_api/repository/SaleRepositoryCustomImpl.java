@@ -0,0 +1,79 @@
+package com.argenischacon.inventory_sales_api.repository;
+
+import com.argenischacon.inventory_sales_api.dto.SaleFilterDTO;
+import com.argenischacon.inventory_sales_api.model.Sale;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.CriteriaQuery;
+import jakarta.persistence.criteria.Order;
+import jakarta.persistence.criteria.Path;
+import jakarta.persistence.criteria.Predicate;
+import jakarta.persistence.criteria.Root;
+import lombok.RequiredArgsConstructor;
+
+import java.util.ArrayList;
+import java.util.List;
+
+@RequiredArgsConstructor
+public class SaleRepositoryCustomImpl implements SaleRepositoryCustom {
+
+    private final EntityManager entityManager;
+
+    @Override
+    public List<Long> findPageIds(SaleFilterDTO filter, Comparable<?> afterValue, Long afterId, int offset, int limit) {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<Long> query = cb.createQuery(Long.class);
+        Root<Sale> sale = query.from(Sale.class);
+
+        List<Predicate> predicates = new ArrayList<>();
+        if (filter.getMinTotal() != null) {
+            predicates.add(cb.greaterThanOrEqualTo(sale.get("total"), filter.getMinTotal()));
+        }
+        if (filter.getMaxTotal() != null) {
+            predicates.add(cb.lessThanOrEqualTo(sale.get("total"), filter.getMaxTotal()));
+        }
+        if (filter.getMinLines() != null) {
+            predicates.add(cb.greaterThanOrEqualTo(sale.get("lineCount"), filter.getMinLines()));
+        }
+        if (filter.getMaxLines() != null) {
+            predicates.add(cb.lessThanOrEqualTo(sale.get("lineCount"), filter.getMaxLines()));
+        }
+
+        boolean ascending = "asc".equalsIgnoreCase(filter.getDirection());
+        boolean byId = "id".equals(filter.getSortBy());
+        Path<Long> id = sale.get("id");
+        Path<Comparable<Object>> sortPath = sale.get(filter.getSortBy());
+
+        // Seek past the last row of the previous page: (sortValue, id) beyond the cursor in the sort direction
+        if (afterId != null) {
+            Predicate afterIdPredicate = beyond(cb, id, afterId, ascending);
+            if (byId) {
+                predicates.add(afterIdPredicate);
+            } else {
+                predicates.add(cb.or(
+                        beyond(cb, sortPath, afterValue, ascending),
+                        cb.and(cb.equal(sortPath, afterValue), afterIdPredicate)));
+            }
+        }
+
+        List<Order> orders = new ArrayList<>();
+        if (!byId) {
+            orders.add(ascending ? cb.asc(sortPath) : cb.desc(sortPath));
+        }
+        orders.add(ascending ? cb.asc(id) : cb.desc(id));
+
+        query.select(id)
+                .where(predicates.toArray(new Predicate[0]))
+                .orderBy(orders);
+
+        return entityManager.createQuery(query)
+                .setFirstResult(offset)
+                .setMaxResults(limit)
+                .getResultList();
+    }
+
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    private static Predicate beyond(CriteriaBuilder cb, Path path, Comparable value, boolean ascending) {
+        return ascending ? cb.greaterThan(path, value) : cb.lessThan(path, value);
+    }
+}
@@ -0,0 +1,91 @@
+package com.argenischacon.inventory_sales_api.security;
+
+import com.argenischacon.inventory_sales_api.exception.ServiceBusyException;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.concurrent.CustomizableThreadFactory;
+import org.springframework.security.authentication.AuthenticationManager;
+import org.springframework.security.core.Authentication;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Future;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Runs login verification (the BCrypt comparison and any rehash) on a small fixed pool with a bounded queue, so a
+ * burst of logins cannot take every request thread or CPU core. When the queue is full the login is refused at once
+ * with {@link ServiceBusyException} instead of waiting behind the backlog.
+ */
+@Component
+public class CredentialVerifier implements DisposableBean {
+    private final AuthenticationManager authenticationManager;
+    private final ThreadPoolExecutor executor;
+    private final long retryAfterSeconds;
+    private final Timer verificationTimer;
+    private final Counter rejectedCounter;
+
+    public CredentialVerifier(
+            AuthenticationManager authenticationManager,
+            MeterRegistry meterRegistry,
+            @Value("${app.auth.verification.threads:0}") int threads,
+            @Value("${app.auth.verification.queue-capacity:50}") int queueCapacity,
+            @Value("${app.auth.verification.retry-after-seconds:1}") long retryAfterSeconds
+    ) {
+        this.authenticationManager = authenticationManager;
+        this.retryAfterSeconds = retryAfterSeconds;
+        // 0 leaves half of the cores to the rest of the API
+        int poolSize = threads > 0 ? threads : Math.max(1, Runtime.getRuntime().availableProcessors() / 2);
+        this.executor = new ThreadPoolExecutor(poolSize, poolSize, 0, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(queueCapacity), new CustomizableThreadFactory("credential-verifier-"),
+                new ThreadPoolExecutor.AbortPolicy());
+
+        this.verificationTimer = Timer.builder("auth.verification")
+                .description("Time spent verifying login credentials, excluding the wait in the queue")
+                .register(meterRegistry);
+        this.rejectedCounter = Counter.builder("auth.verification.rejected")
+                .description("Logins refused because the verification queue was full")
+                .register(meterRegistry);
+        Gauge.builder("auth.verification.queue", executor, pool -> pool.getQueue().size())
+                .description("Logins waiting for a verification thread")
+                .register(meterRegistry);
+        Gauge.builder("auth.verification.active", executor, ThreadPoolExecutor::getActiveCount)
+                .description("Logins being verified")
+                .register(meterRegistry);
+    }
+
+    // Blocks the calling request until its credentials are checked; authentication failures are rethrown as is
+    public Authentication authenticate(Authentication credentials) {
+        Future<Authentication> result;
+        try {
+            result = executor.submit(() -> verificationTimer.recordCallable(() -> authenticationManager.authenticate(credentials)));
+        } catch (RejectedExecutionException e) {
+            rejectedCounter.increment();
+            throw new ServiceBusyException("Too many logins are being processed. Please retry shortly.", retryAfterSeconds);
+        }
+        try {
+            return result.get();
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw new IllegalStateException("Credential verification failed", e.getCause());
+        } catch (InterruptedException e) {
+            result.cancel(true);
+            Thread.currentThread().interrupt();
+            throw new ServiceBusyException("Login verification was interrupted. Please retry shortly.", retryAfterSeconds);
+        }
+    }
+
+    @Override
+    public void destroy() {
+        executor.shutdownNow();
+    }
+}
@@ -1,43 +1,103 @@
 package com.argenischacon.inventory_sales_api.security;
 
+import com.argenischacon.inventory_sales_api.model.Role;
+import io.jsonwebtoken.Claims;
 import jakarta.servlet.FilterChain;
 import jakarta.servlet.ServletException;
 import jakarta.servlet.http.HttpServletRequest;
 import jakarta.servlet.http.HttpServletResponse;
-import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
 import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.security.core.userdetails.User;
 import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.security.core.userdetails.UserDetailsService;
 import org.springframework.stereotype.Component;
 import org.springframework.web.filter.OncePerRequestFilter;
 
 import java.io.IOException;
+import java.util.List;
+import java.util.Set;
 
 @Component
-@RequiredArgsConstructor
 public class JwtFilter extends OncePerRequestFilter {
     private final JwtUtils jwtUtils;
     private final UserDetailsService userDetailsService;
+    private final UserStatusCache userStatusCache;
+    private final TokenRevocationList revocationList;
+    private final boolean stateless;
 
+    public JwtFilter(
+            JwtUtils jwtUtils,
+            UserDetailsService userDetailsService,
+            UserStatusCache userStatusCache,
+            TokenRevocationList revocationList,
+            @Value("${jwt.stateless:true}") boolean stateless
+    ) {
+        this.jwtUtils = jwtUtils;
+        this.userDetailsService = userDetailsService;
+        this.userStatusCache = userStatusCache;
+        this.revocationList = revocationList;
+        this.stateless = stateless;
+    }
+
+    // The token is verified once per request (or not at all when its claims are cached), whichever mode is used
     @Override
     protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
             throws IOException, ServletException {
         String token = extractToken(request);
-        if (token != null) {
-            String username = jwtUtils.getUsernameFromToken(token);
-            if (username != null && SecurityContextHolder.getContext().getAuthentication() == null) {
-                UserDetails userDetails = userDetailsService.loadUserByUsername(username);
-                if (jwtUtils.isTokenValid(token, userDetails)) {
-                    UsernamePasswordAuthenticationToken auth = new UsernamePasswordAuthenticationToken(
-                            userDetails, null, userDetails.getAuthorities());
-                    SecurityContextHolder.getContext().setAuthentication(auth);
-                }
+        if (token != null && SecurityContextHolder.getContext().getAuthentication() == null) {
+            UsernamePasswordAuthenticationToken auth = stateless ? authenticateFromToken(token) : authenticateFromDatabase(token);
+            if (auth != null) {
+                SecurityContextHolder.getContext().setAuthentication(auth);
             }
         }
         filterChain.doFilter(request, response);
     }
 
+    // Roles come from the token, narrowed to those the user still has; the user row is only read on a status cache miss
+    private UsernamePasswordAuthenticationToken authenticateFromToken(String token) {
+        Claims claims = getAccessClaims(token);
+        if (claims == null) {
+            return null;
+        }
+        Set<Role> currentRoles = userStatusCache.rolesOf(claims.getSubject());
+        if (currentRoles == null) {
+            return null;
+        }
+        Set<String> tokenRoles = jwtUtils.getRoles(claims);
+        List<GrantedAuthority> authorities = currentRoles.stream()
+                .filter(role -> tokenRoles == null || tokenRoles.contains(role.name()))
+                .<GrantedAuthority>map(role -> new SimpleGrantedAuthority(role.toString()))
+                .toList();
+        UserDetails userDetails = User.withUsername(claims.getSubject())
+                .password("")
+                .authorities(authorities)
+                .build();
+        return new UsernamePasswordAuthenticationToken(userDetails, null, authorities);
+    }
+
+    private UsernamePasswordAuthenticationToken authenticateFromDatabase(String token) {
+        Claims claims = getAccessClaims(token);
+        if (claims == null) {
+            return null;
+        }
+        UserDetails userDetails = userDetailsService.loadUserByUsername(claims.getSubject());
+        return new UsernamePasswordAuthenticationToken(userDetails, null, userDetails.getAuthorities());
+    }
+
+    // Refresh tokens and revoked tokens are not accepted as credentials; both checks are in memory
+    private Claims getAccessClaims(String token) {
+        Claims claims = jwtUtils.getValidClaims(token);
+        if (claims == null || claims.getSubject() == null
+                || jwtUtils.isRefreshToken(claims) || revocationList.isRevoked(claims.getId())) {
+            return null;
+        }
+        return claims;
+    }
+
     private String extractToken(HttpServletRequest request) {
         String header = request.getHeader("Authorization");
         if (header != null && header.startsWith("Bearer ") && header.length() > 7) {
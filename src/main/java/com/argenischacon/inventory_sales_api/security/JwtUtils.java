@@ -1,75 +1,175 @@
 package com.argenischacon.inventory_sales_api.security;
 
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
 import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.JwtParser;
 import io.jsonwebtoken.Jwts;
 import io.jsonwebtoken.security.Keys;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.security.core.Authentication;
+import org.springframework.security.core.GrantedAuthority;
 import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.stereotype.Component;
 
 import javax.crypto.SecretKey;
 import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Base64;
+import java.util.Collection;
 import java.util.Date;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
 
 @Component
 @Slf4j
 public class JwtUtils {
+    private static final String ROLES_CLAIM = "roles";
+    private static final String ROLE_PREFIX = "ROLE_";
+    private static final String TYPE_CLAIM = "token_type";
+    private static final String REFRESH_TYPE = "refresh";
 
     private final SecretKey key;
     private final long expirationMs;
+    private final long refreshExpirationMs;
+    // Immutable and thread-safe, so built once instead of per call
+    private final JwtParser parser;
+    // Claims of tokens already verified, keyed by token digest; null when disabled
+    private final Cache<String, Claims> verifiedClaims;
 
     public JwtUtils(
             @Value("${jwt.secret}") String secret,
-            @Value("${jwt.expiration:3600000}") long expirationMs
+            @Value("${jwt.expiration:3600000}") long expirationMs,
+            @Value("${jwt.refresh-expiration:604800000}") long refreshExpirationMs,
+            @Value("${jwt.claims-cache.max-size:10000}") long claimsCacheSize
     ) {
         if (secret.length() < 32) {
             throw new IllegalArgumentException("JWT secret must be at least 32 characters long");
         }
         this.key = Keys.hmacShaKeyFor(secret.getBytes(StandardCharsets.UTF_8));
         this.expirationMs = expirationMs;
+        this.refreshExpirationMs = refreshExpirationMs;
+        this.parser = Jwts.parserBuilder().setSigningKey(key).build();
+        this.verifiedClaims = claimsCacheSize > 0
+                ? Caffeine.newBuilder().maximumSize(claimsCacheSize).expireAfter(new UntilTokenExpiry()).build()
+                : null;
     }
 
     public String generateToken(Authentication authentication) {
         UserDetails userDetails = (UserDetails) authentication.getPrincipal();
+        return generateToken(userDetails.getUsername(), userDetails.getAuthorities());
+    }
+
+    // Access token; the id (jti) is what gets revoked on logout
+    public String generateToken(String username, Collection<? extends GrantedAuthority> authorities) {
         Date now = new Date();
         Date expiry = new Date(now.getTime() + expirationMs);
+        // Bare role names ("ADMIN"), not serialized GrantedAuthority objects
+        List<String> roles = authorities.stream()
+                .map(GrantedAuthority::getAuthority)
+                .map(authority -> authority.startsWith(ROLE_PREFIX) ? authority.substring(ROLE_PREFIX.length()) : authority)
+                .sorted()
+                .toList();
 
         return Jwts.builder()
-                .setSubject(userDetails.getUsername())
+                .setId(UUID.randomUUID().toString())
+                .setSubject(username)
                 .setIssuedAt(now)
                 .setExpiration(expiry)
-                .claim("roles", userDetails.getAuthorities())
+                .claim(ROLES_CLAIM, roles)
                 .signWith(key)
                 .compact();
     }
 
+    // Long-lived token only accepted by the refresh endpoint; it carries no roles, those are read again on refresh
+    public String generateRefreshToken(String username) {
+        Date now = new Date();
+        return Jwts.builder()
+                .setId(UUID.randomUUID().toString())
+                .setSubject(username)
+                .setIssuedAt(now)
+                .setExpiration(new Date(now.getTime() + refreshExpirationMs))
+                .claim(TYPE_CLAIM, REFRESH_TYPE)
+                .signWith(key)
+                .compact();
+    }
+
+    public boolean isRefreshToken(Claims claims) {
+        return REFRESH_TYPE.equals(claims.get(TYPE_CLAIM));
+    }
+
+    // Verifies signature and expiry; throws when either fails
     public Claims getClaims(String token) {
-        return Jwts.parserBuilder()
-                .setSigningKey(key)
-                .build()
-                .parseClaimsJws(token)
-                .getBody();
+        return parser.parseClaimsJws(token).getBody();
     }
 
-    public String getUsernameFromToken(String token) {
+    // Claims of a token whose signature and expiry check out, or null. A token seen before is answered from the
+    // cache without verifying or decoding it again, until it expires
+    public Claims getValidClaims(String token) {
+        String digest = verifiedClaims != null ? digest(token) : null;
+        if (digest != null) {
+            Claims cached = verifiedClaims.getIfPresent(digest);
+            if (cached != null && cached.getExpiration().after(new Date())) {
+                return cached;
+            }
+        }
         try {
-            return getClaims(token).getSubject();
+            Claims claims = getClaims(token);
+            if (digest != null && claims.getExpiration() != null) {
+                verifiedClaims.put(digest, claims);
+            }
+            return claims;
         } catch (Exception e) {
-            log.error("Failed to extract username from token: {}", e.getMessage());
+            log.error("Invalid token: {}", e.getMessage());
             return null;
         }
     }
 
-    public boolean isTokenValid(String token, UserDetails userDetails) {
+    // Role names carried by the token, or null when it has none in the compact form (tokens issued before it)
+    public Set<String> getRoles(Claims claims) {
+        if (!(claims.get(ROLES_CLAIM) instanceof List<?> values)) {
+            return null;
+        }
+        Set<String> roles = new HashSet<>();
+        for (Object value : values) {
+            if (!(value instanceof String role)) {
+                return null;
+            }
+            roles.add(role);
+        }
+        return roles;
+    }
+
+    private static String digest(String token) {
         try {
-            Claims claims = getClaims(token);
-            String username = claims.getSubject();
-            return username.equals(userDetails.getUsername()) && !claims.getExpiration().before(new Date());
-        } catch (Exception e) {
-            log.error("Invalid token: {}", e.getMessage());
-            return false;
+            byte[] hash = MessageDigest.getInstance("SHA-256").digest(token.getBytes(StandardCharsets.US_ASCII));
+            return Base64.getEncoder().encodeToString(hash);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 is not available", e);
+        }
+    }
+
+    private static final class UntilTokenExpiry implements Expiry<String, Claims> {
+        @Override
+        public long expireAfterCreate(String digest, Claims claims, long currentTime) {
+            long remainingMs = claims.getExpiration().getTime() - System.currentTimeMillis();
+            return TimeUnit.MILLISECONDS.toNanos(Math.max(remainingMs, 0));
+        }
+
+        @Override
+        public long expireAfterUpdate(String digest, Claims claims, long currentTime, long currentDuration) {
+            return expireAfterCreate(digest, claims, currentTime);
+        }
+
+        @Override
+        public long expireAfterRead(String digest, Claims claims, long currentTime, long currentDuration) {
+            return currentDuration;
         }
     }
 }
@@ -0,0 +1,173 @@
+package com.argenischacon.inventory_sales_api.security;
+
+import com.argenischacon.inventory_sales_api.exception.ErrorResponse;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.convert.DurationStyle;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.stereotype.Component;
+import org.springframework.util.AntPathMatcher;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Token-bucket rate limiting per client and route. Runs after {@link JwtFilter}, so an authenticated client is keyed
+ * by its username and any other request by its remote address. Rules are read from {@code app.rate-limit.rules}
+ * as {@code <METHOD|*> <path pattern>=<requests>/<period>}; the first matching rule applies and requests matching
+ * none are not limited.
+ */
+@Component
+@Slf4j
+public class RateLimitFilter extends OncePerRequestFilter {
+    private static final AntPathMatcher PATH_MATCHER = new AntPathMatcher();
+
+    private final ObjectMapper objectMapper;
+    private final boolean enabled;
+    private final List<Rule> rules;
+
+    public RateLimitFilter(
+            ObjectMapper objectMapper,
+            @Value("${app.rate-limit.enabled:true}") boolean enabled,
+            @Value("${app.rate-limit.rules:}") String[] rules,
+            @Value("${app.rate-limit.max-keys:100000}") long maxKeys
+    ) {
+        this.objectMapper = objectMapper;
+        this.enabled = enabled;
+        this.rules = new ArrayList<>();
+        for (String rule : rules) {
+            if (!rule.isBlank()) {
+                this.rules.add(Rule.parse(rule.trim(), maxKeys));
+            }
+        }
+    }
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        return !enabled || rules.isEmpty();
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+            throws IOException, ServletException {
+        String path = request.getRequestURI().substring(request.getContextPath().length());
+        Rule rule = findRule(request.getMethod(), path);
+        if (rule != null) {
+            long waitNanos = rule.tryAcquire(clientKey(request));
+            if (waitNanos > 0) {
+                reject(request, response, waitNanos);
+                return;
+            }
+        }
+        filterChain.doFilter(request, response);
+    }
+
+    private Rule findRule(String method, String path) {
+        for (Rule rule : rules) {
+            if (rule.matches(method, path)) {
+                return rule;
+            }
+        }
+        return null;
+    }
+
+    private static String clientKey(HttpServletRequest request) {
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        if (authentication != null && authentication.isAuthenticated()) {
+            return "user:" + authentication.getName();
+        }
+        return "ip:" + request.getRemoteAddr();
+    }
+
+    private void reject(HttpServletRequest request, HttpServletResponse response, long waitNanos) throws IOException {
+        long retryAfterSeconds = Math.max(1, (waitNanos + TimeUnit.SECONDS.toNanos(1) - 1) / TimeUnit.SECONDS.toNanos(1));
+        log.debug("Rate limit exceeded: {} {} - retry after {}s", request.getMethod(), request.getRequestURI(), retryAfterSeconds);
+
+        HttpStatus status = HttpStatus.TOO_MANY_REQUESTS;
+        ErrorResponse errorResponse = ErrorResponse.builder()
+                .timestamp(LocalDateTime.now())
+                .status(status.value())
+                .error(status.getReasonPhrase())
+                .message("Too many requests. Please retry after " + retryAfterSeconds + " seconds.")
+                .build();
+
+        response.setContentType("application/json;charset=UTF-8");
+        response.setStatus(status.value());
+        response.setHeader(HttpHeaders.RETRY_AFTER, String.valueOf(retryAfterSeconds));
+        response.getWriter().write(objectMapper.writeValueAsString(errorResponse));
+    }
+
+    private static final class Rule {
+        private final String method;
+        private final String pattern;
+        private final long periodNanos;
+        private final long intervalNanos;
+        // One bucket per client. An entry idle for a whole period would be full again, so evicting it loses nothing
+        private final Cache<String, AtomicLong> buckets;
+
+        private Rule(String method, String pattern, int requests, Duration period, long maxKeys) {
+            this.method = method;
+            this.pattern = pattern;
+            this.periodNanos = period.toNanos();
+            this.intervalNanos = periodNanos / requests;
+            this.buckets = Caffeine.newBuilder()
+                    .maximumSize(maxKeys)
+                    .expireAfterAccess(period)
+                    .build();
+        }
+
+        // "GET /api/v1/products/**=200/10s"
+        static Rule parse(String rule, long maxKeys) {
+            int equals = rule.lastIndexOf('=');
+            String[] route = equals > 0 ? rule.substring(0, equals).trim().split("\\s+") : new String[0];
+            String[] limit = equals > 0 ? rule.substring(equals + 1).trim().split("/") : new String[0];
+            if (route.length != 2 || limit.length != 2) {
+                throw new IllegalArgumentException("Invalid rate limit rule '" + rule + "', expected '<METHOD|*> <path>=<requests>/<period>'");
+            }
+            int requests = Integer.parseInt(limit[0].trim());
+            Duration period = DurationStyle.detectAndParse(limit[1].trim());
+            if (requests <= 0 || period.isZero() || period.isNegative()) {
+                throw new IllegalArgumentException("Invalid rate limit rule '" + rule + "', requests and period must be positive");
+            }
+            return new Rule(route[0].toUpperCase(), route[1], requests, period, maxKeys);
+        }
+
+        boolean matches(String requestMethod, String path) {
+            return ("*".equals(method) || method.equals(requestMethod)) && PATH_MATCHER.match(pattern, path);
+        }
+
+        // Takes a token and returns 0, or the nanoseconds until one is available. The bucket is kept as a single
+        // timestamp, the instant at which it will be full again, so a request costs one compare-and-set
+        long tryAcquire(String client) {
+            long now = System.nanoTime();
+            AtomicLong fullAt = buckets.get(client, key -> new AtomicLong(now));
+            while (true) {
+                long current = fullAt.get();
+                long next = (current - now > 0 ? current : now) + intervalNanos;
+                long excess = next - now - periodNanos;
+                if (excess > 0) {
+                    return excess;
+                }
+                if (fullAt.compareAndSet(current, next)) {
+                    return 0;
+                }
+            }
+        }
+    }
+}
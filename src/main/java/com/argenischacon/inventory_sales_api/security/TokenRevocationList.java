@@ -0,0 +1,83 @@
+package com.argenischacon.inventory_sales_api.security;
+
+import com.argenischacon.inventory_sales_api.model.RevokedToken;
+import com.argenischacon.inventory_sales_api.repository.RevokedTokenRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.SmartInitializingSingleton;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Ids of revoked tokens, checked in memory on every request. Revocations are stored in the revoked_tokens table,
+ * loaded before the server accepts requests, and re-read periodically to pick up those made by other instances.
+ * An id only matters until its token expires, so expired entries are dropped from memory and from the table.
+ */
+@Component
+@Slf4j
+public class TokenRevocationList implements SmartInitializingSingleton {
+    // Re-read a little before the last sync, so rows committed late by other instances are not missed
+    private static final Duration SYNC_OVERLAP = Duration.ofMinutes(1);
+
+    private final RevokedTokenRepository repository;
+    private final TransactionTemplate transactionTemplate;
+    // Token id -> expiry
+    private final Map<String, Instant> revoked = new ConcurrentHashMap<>();
+    private volatile Instant syncedAt = Instant.EPOCH;
+
+    public TokenRevocationList(RevokedTokenRepository repository, PlatformTransactionManager transactionManager) {
+        this.repository = repository;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+    }
+
+    // Loaded here rather than in an ApplicationRunner, which only runs once the server already takes requests
+    @Override
+    public void afterSingletonsInstantiated() {
+        sync();
+        log.info("Loaded {} revoked tokens", revoked.size());
+    }
+
+    public boolean isRevoked(String tokenId) {
+        return tokenId != null && revoked.containsKey(tokenId);
+    }
+
+    // False when the token was already revoked, here or by another instance: the primary key of revoked_tokens
+    // decides, so a refresh token can only be spent once across the cluster
+    public boolean revoke(String tokenId, Instant expiresAt) {
+        Instant now = Instant.now();
+        if (tokenId == null || !expiresAt.isAfter(now) || revoked.putIfAbsent(tokenId, expiresAt) != null) {
+            return false;
+        }
+        try {
+            transactionTemplate.executeWithoutResult(status -> repository.saveAndFlush(new RevokedToken(tokenId, now, expiresAt)));
+        } catch (DataIntegrityViolationException e) {
+            // Already revoked by another instance; it stays in the set
+            return false;
+        } catch (RuntimeException e) {
+            revoked.remove(tokenId);
+            throw e;
+        }
+        return true;
+    }
+
+    @Scheduled(fixedDelayString = "${jwt.revocation.sync-interval-ms:30000}", initialDelayString = "${jwt.revocation.sync-interval-ms:30000}")
+    public void sync() {
+        Instant now = Instant.now();
+        Instant since = syncedAt.equals(Instant.EPOCH) ? Instant.EPOCH : syncedAt.minus(SYNC_OVERLAP);
+        List<RevokedToken> added = transactionTemplate.execute(status -> repository.findRevokedSince(since, now));
+        added.forEach(token -> revoked.put(token.getTokenId(), token.getExpiresAt()));
+        syncedAt = now;
+
+        revoked.values().removeIf(expiresAt -> !expiresAt.isAfter(now));
+        Integer purged = transactionTemplate.execute(status -> repository.deleteAllExpired(now));
+        log.debug("Synced {} revoked tokens, purged {} expired", added.size(), purged);
+    }
+}
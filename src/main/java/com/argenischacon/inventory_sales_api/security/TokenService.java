@@ -0,0 +1,60 @@
+package com.argenischacon.inventory_sales_api.security;
+
+import com.argenischacon.inventory_sales_api.dto.AuthResponseDTO;
+import com.argenischacon.inventory_sales_api.exception.InvalidTokenException;
+import com.argenischacon.inventory_sales_api.model.Role;
+import io.jsonwebtoken.Claims;
+import lombok.RequiredArgsConstructor;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Issues access/refresh token pairs and revokes them. Refreshing does not verify the password again, so it avoids
+ * the BCrypt cost of a login; each refresh token is spent on use and replaced by a new one.
+ */
+@Component
+@RequiredArgsConstructor
+public class TokenService {
+    private final JwtUtils jwtUtils;
+    private final UserStatusCache userStatusCache;
+    private final TokenRevocationList revocationList;
+
+    public AuthResponseDTO issue(Authentication authentication) {
+        return new AuthResponseDTO(jwtUtils.generateToken(authentication), jwtUtils.generateRefreshToken(authentication.getName()));
+    }
+
+    // The new access token carries the user's current roles; a deleted user or a reused refresh token is rejected
+    public AuthResponseDTO refresh(String refreshToken) {
+        Claims claims = jwtUtils.getValidClaims(refreshToken);
+        if (claims == null || claims.getSubject() == null || !jwtUtils.isRefreshToken(claims)) {
+            throw new InvalidTokenException("Invalid or expired refresh token.");
+        }
+        Set<Role> roles = userStatusCache.rolesOf(claims.getSubject());
+        if (roles == null || !revocationList.revoke(claims.getId(), claims.getExpiration().toInstant())) {
+            throw new InvalidTokenException("Invalid or expired refresh token.");
+        }
+        List<GrantedAuthority> authorities = roles.stream()
+                .<GrantedAuthority>map(role -> new SimpleGrantedAuthority(role.toString()))
+                .toList();
+        return new AuthResponseDTO(jwtUtils.generateToken(claims.getSubject(), authorities),
+                jwtUtils.generateRefreshToken(claims.getSubject()));
+    }
+
+    // Either token may be missing or already invalid; logging out twice is not an error
+    public void logout(String accessToken, String refreshToken) {
+        revokeIfValid(accessToken);
+        revokeIfValid(refreshToken);
+    }
+
+    private void revokeIfValid(String token) {
+        Claims claims = token != null ? jwtUtils.getValidClaims(token) : null;
+        if (claims != null) {
+            revocationList.revoke(claims.getId(), claims.getExpiration().toInstant());
+        }
+    }
+}
@@ -0,0 +1,59 @@
+package com.argenischacon.inventory_sales_api.security;
+
+import com.argenischacon.inventory_sales_api.model.Role;
+import com.argenischacon.inventory_sales_api.model.User;
+import com.argenischacon.inventory_sales_api.repository.UserRepository;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Duration;
+import java.util.Optional;
+import java.util.Set;
+
+/**
+ * Current roles of each user seen in a token, so stateless authentication can reject deleted users and drop revoked
+ * roles without a query per request. Entries are bounded by size and time, and evicted when the user row changes.
+ * Users that do not exist are cached too, so tokens of a deleted user do not reach the database on every request.
+ */
+@Component
+public class UserStatusCache {
+    private final UserRepository userRepository;
+    private final Cache<String, Optional<Set<Role>>> statuses;
+
+    public UserStatusCache(
+            UserRepository userRepository,
+            @Value("${jwt.user-status-cache.max-size:10000}") long maxSize,
+            @Value("${jwt.user-status-cache.ttl:60s}") Duration ttl
+    ) {
+        this.userRepository = userRepository;
+        this.statuses = Caffeine.newBuilder()
+                .maximumSize(maxSize)
+                .expireAfterWrite(ttl)
+                .build();
+    }
+
+    // Null once the user no longer exists
+    public Set<Role> rolesOf(String username) {
+        return statuses.get(username, name -> userRepository.findByUsername(name)
+                .map(User::getRoles)
+                .map(Set::copyOf))
+                .orElse(null);
+    }
+
+    // Evicted now and again after commit, so a read racing the write cannot cache the old row
+    public void evict(String username) {
+        statuses.invalidate(username);
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    statuses.invalidate(username);
+                }
+            });
+        }
+    }
+}
@@ -0,0 +1,29 @@
+package com.argenischacon.inventory_sales_api.security;
+
+import com.argenischacon.inventory_sales_api.model.User;
+import jakarta.persistence.PostPersist;
+import jakarta.persistence.PostRemove;
+import jakarta.persistence.PostUpdate;
+import org.springframework.context.annotation.Lazy;
+import org.springframework.stereotype.Component;
+
+// Keeps UserStatusCache in step with the users table; lazy because the cache needs the repository, which needs JPA
+@Component
+public class UserStatusListener {
+    private final UserStatusCache userStatusCache;
+
+    public UserStatusListener(@Lazy UserStatusCache userStatusCache) {
+        this.userStatusCache = userStatusCache;
+    }
+
+    @PostPersist
+    @PostUpdate
+    @PostRemove
+    public void onUserChanged(User user) {
+        userStatusCache.evict(user.getUsername());
+        // A rename leaves the old username's entry behind, which would keep its tokens valid until it expires
+        if (user.getStoredUsername() != null && !user.getStoredUsername().equals(user.getUsername())) {
+            userStatusCache.evict(user.getStoredUsername());
+        }
+    }
+}
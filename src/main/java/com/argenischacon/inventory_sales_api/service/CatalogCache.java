@@ -0,0 +1,29 @@
+package com.argenischacon.inventory_sales_api.service;
+
+import com.argenischacon.inventory_sales_api.config.CacheConfig;
+import lombok.RequiredArgsConstructor;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.stereotype.Component;
+
+import java.util.Collection;
+import java.util.Objects;
+
+/**
+ * Evictions of cached catalog entries for writes made outside the catalog services.
+ */
+@Component
+@RequiredArgsConstructor
+public class CatalogCache {
+    private final CacheManager cacheManager;
+
+    // Stock is part of ProductResponseDTO, so sales drop the products whose stock they changed (after commit)
+    public void evictProducts(Collection<Long> productIds) {
+        if (productIds.isEmpty()) {
+            return;
+        }
+        Cache products = Objects.requireNonNull(cacheManager.getCache(CacheConfig.PRODUCTS));
+        productIds.forEach(products::evict);
+        Objects.requireNonNull(cacheManager.getCache(CacheConfig.PRODUCT_PAGES)).clear();
+    }
+}
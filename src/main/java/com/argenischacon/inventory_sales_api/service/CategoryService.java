@@ -2,13 +2,16 @@ package com.argenischacon.inventory_sales_api.service;
 
 import com.argenischacon.inventory_sales_api.dto.CategoryRequestDTO;
 import com.argenischacon.inventory_sales_api.dto.CategoryResponseDTO;
-
-import java.util.List;
+import com.argenischacon.inventory_sales_api.dto.PageQueryDTO;
+import com.argenischacon.inventory_sales_api.dto.PageResponseDTO;
+import com.argenischacon.inventory_sales_api.repository.ChangeStamp;
 
 public interface CategoryService {
     CategoryResponseDTO create(CategoryRequestDTO dto);
     CategoryResponseDTO update(Long id, CategoryRequestDTO dto);
     void delete(Long id);
     CategoryResponseDTO findById(Long id);
-    List<CategoryResponseDTO> findAll();
+    PageResponseDTO<CategoryResponseDTO> findAll(PageQueryDTO pageQuery);
+    ChangeStamp findChangeStamp(Long id);
+    ChangeStamp findChangeStamp();
 }
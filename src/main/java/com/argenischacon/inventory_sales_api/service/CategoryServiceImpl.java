@@ -1,24 +1,35 @@
 package com.argenischacon.inventory_sales_api.service;
 
+import com.argenischacon.inventory_sales_api.config.CacheConfig;
 import com.argenischacon.inventory_sales_api.dto.CategoryRequestDTO;
 import com.argenischacon.inventory_sales_api.dto.CategoryResponseDTO;
+import com.argenischacon.inventory_sales_api.dto.PageQueryDTO;
+import com.argenischacon.inventory_sales_api.dto.PageResponseDTO;
 import com.argenischacon.inventory_sales_api.exception.DuplicateResourceException;
 import com.argenischacon.inventory_sales_api.exception.ResourceInUseException;
 import com.argenischacon.inventory_sales_api.exception.ResourceNotFoundException;
 import com.argenischacon.inventory_sales_api.mapper.CategoryMapper;
 import com.argenischacon.inventory_sales_api.model.Category;
 import com.argenischacon.inventory_sales_api.repository.CategoryRepository;
+import com.argenischacon.inventory_sales_api.repository.ChangeStamp;
 import lombok.RequiredArgsConstructor;
+import org.springframework.cache.annotation.CacheEvict;
+import org.springframework.cache.annotation.Cacheable;
+import org.springframework.cache.annotation.Caching;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
-import java.util.List;
+import java.util.function.Function;
 
 @Service
 @RequiredArgsConstructor
 public class CategoryServiceImpl implements CategoryService {
     private final CategoryRepository categoryRepository;
     private final CategoryMapper categoryMapper;
+    private final PageSupport pageSupport;
 
+    @Transactional
+    @CacheEvict(cacheNames = CacheConfig.CATEGORY_PAGES, allEntries = true)
     @Override
     public CategoryResponseDTO create(CategoryRequestDTO dto) {
         if(categoryRepository.existsByName(dto.getName())){
@@ -28,6 +39,12 @@ public class CategoryServiceImpl implements CategoryService {
         return categoryMapper.toResponse(categoryRepository.save(category));
     }
 
+    // Products embed the category name, so their cached responses go too
+    @Transactional
+    @Caching(evict = {
+            @CacheEvict(cacheNames = CacheConfig.CATEGORIES, key = "#id"),
+            @CacheEvict(cacheNames = {CacheConfig.CATEGORY_PAGES, CacheConfig.PRODUCTS, CacheConfig.PRODUCT_PAGES}, allEntries = true)
+    })
     @Override
     public CategoryResponseDTO update(Long id, CategoryRequestDTO dto) {
         Category entity = categoryRepository.findById(id)
@@ -42,6 +59,11 @@ public class CategoryServiceImpl implements CategoryService {
         return categoryMapper.toResponse(categoryRepository.save(entity));
     }
 
+    @Transactional
+    @Caching(evict = {
+            @CacheEvict(cacheNames = CacheConfig.CATEGORIES, key = "#id"),
+            @CacheEvict(cacheNames = CacheConfig.CATEGORY_PAGES, allEntries = true)
+    })
     @Override
     public void delete(Long id) {
         Category category = categoryRepository.findById(id)
@@ -54,15 +76,33 @@ public class CategoryServiceImpl implements CategoryService {
         categoryRepository.delete(category);
     }
 
+    // Not read-only: the result is cached for everyone, so it must come from the primary, never a lagging replica
+    @Transactional
+    @Cacheable(cacheNames = CacheConfig.CATEGORIES, key = "#id")
     @Override
     public CategoryResponseDTO findById(Long id) {
-        Category entity = categoryRepository.findById(id)
+        return categoryRepository.findViewById(id)
                 .orElseThrow(() -> new ResourceNotFoundException("Category with id " + id + " not found."));
-        return categoryMapper.toResponse(entity);
     }
 
+    // Not read-only: the result is cached for everyone, so it must come from the primary, never a lagging replica
+    @Transactional
+    @Cacheable(cacheNames = CacheConfig.CATEGORY_PAGES)
+    @Override
+    public PageResponseDTO<CategoryResponseDTO> findAll(PageQueryDTO pageQuery) {
+        return pageSupport.pageById(pageQuery, categoryRepository::findViewsByIdGreaterThan, categoryRepository::findViews,
+                CategoryResponseDTO::getId, Function.identity());
+    }
+
+    @Transactional(readOnly = true)
+    @Override
+    public ChangeStamp findChangeStamp(Long id) {
+        return categoryRepository.findChangeStampById(id);
+    }
+
+    @Transactional(readOnly = true)
     @Override
-    public List<CategoryResponseDTO> findAll() {
-        return categoryMapper.toResponseList(categoryRepository.findAll());
+    public ChangeStamp findChangeStamp() {
+        return categoryRepository.findChangeStamp();
     }
 }
@@ -2,13 +2,16 @@ package com.argenischacon.inventory_sales_api.service;
 
 import com.argenischacon.inventory_sales_api.dto.CustomerRequestDTO;
 import com.argenischacon.inventory_sales_api.dto.CustomerResponseDTO;
-
-import java.util.List;
+import com.argenischacon.inventory_sales_api.dto.PageQueryDTO;
+import com.argenischacon.inventory_sales_api.dto.PageResponseDTO;
+import com.argenischacon.inventory_sales_api.repository.ChangeStamp;
 
 public interface CustomerService {
     CustomerResponseDTO create(CustomerRequestDTO dto);
     CustomerResponseDTO update(Long id, CustomerRequestDTO dto);
     void delete(Long id);
     CustomerResponseDTO findById(Long id);
-    List<CustomerResponseDTO> findAll();
+    PageResponseDTO<CustomerResponseDTO> findAll(PageQueryDTO pageQuery);
+    ChangeStamp findChangeStamp(Long id);
+    ChangeStamp findChangeStamp();
 }
@@ -2,23 +2,29 @@ package com.argenischacon.inventory_sales_api.service;
 
 import com.argenischacon.inventory_sales_api.dto.CustomerRequestDTO;
 import com.argenischacon.inventory_sales_api.dto.CustomerResponseDTO;
+import com.argenischacon.inventory_sales_api.dto.PageQueryDTO;
+import com.argenischacon.inventory_sales_api.dto.PageResponseDTO;
 import com.argenischacon.inventory_sales_api.exception.DuplicateResourceException;
 import com.argenischacon.inventory_sales_api.exception.ResourceInUseException;
 import com.argenischacon.inventory_sales_api.exception.ResourceNotFoundException;
 import com.argenischacon.inventory_sales_api.mapper.CustomerMapper;
 import com.argenischacon.inventory_sales_api.model.Customer;
+import com.argenischacon.inventory_sales_api.repository.ChangeStamp;
 import com.argenischacon.inventory_sales_api.repository.CustomerRepository;
 import lombok.RequiredArgsConstructor;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
-import java.util.List;
+import java.util.function.Function;
 
 @Service
 @RequiredArgsConstructor
 public class CustomerServiceImpl implements CustomerService {
     private final CustomerRepository customerRepository;
     private final CustomerMapper customerMapper;
+    private final PageSupport pageSupport;
 
+    @Transactional
     @Override
     public CustomerResponseDTO create(CustomerRequestDTO dto) {
         if (customerRepository.existsByDni(dto.getDni())) {
@@ -28,6 +34,7 @@ public class CustomerServiceImpl implements CustomerService {
         return customerMapper.toResponse(customerRepository.save(entity));
     }
 
+    @Transactional
     @Override
     public CustomerResponseDTO update(Long id, CustomerRequestDTO dto) {
         Customer entity = customerRepository.findById(id)
@@ -43,6 +50,7 @@ public class CustomerServiceImpl implements CustomerService {
         return customerMapper.toResponse(customerRepository.save(entity));
     }
 
+    @Transactional
     @Override
     public void delete(Long id) {
         Customer customer = customerRepository.findById(id)
@@ -55,15 +63,29 @@ public class CustomerServiceImpl implements CustomerService {
         customerRepository.delete(customer);
     }
 
+    @Transactional(readOnly = true)
     @Override
     public CustomerResponseDTO findById(Long id) {
-        Customer entity = customerRepository.findById(id)
+        return customerRepository.findViewById(id)
                 .orElseThrow(() -> new ResourceNotFoundException("Customer with id " + id + " not found."));
-        return customerMapper.toResponse(entity);
     }
 
+    @Transactional(readOnly = true)
+    @Override
+    public PageResponseDTO<CustomerResponseDTO> findAll(PageQueryDTO pageQuery) {
+        return pageSupport.pageById(pageQuery, customerRepository::findViewsByIdGreaterThan, customerRepository::findViews,
+                CustomerResponseDTO::getId, Function.identity());
+    }
+
+    @Transactional(readOnly = true)
+    @Override
+    public ChangeStamp findChangeStamp(Long id) {
+        return customerRepository.findChangeStampById(id);
+    }
+
+    @Transactional(readOnly = true)
     @Override
-    public List<CustomerResponseDTO> findAll() {
-        return customerMapper.toResponseList(customerRepository.findAll());
+    public ChangeStamp findChangeStamp() {
+        return customerRepository.findChangeStamp();
     }
 }
@@ -0,0 +1,20 @@
+package com.argenischacon.inventory_sales_api.service;
+
+import java.util.function.Consumer;
+
+public interface IdempotencyService {
+    /**
+     * Runs {@code action} once per key and caller. Repeating the key with the same request returns the stored
+     * response without running the action again. The action must pass its response to the callback it receives
+     * from inside its own transaction, so the response is stored if and only if the action commits.
+     */
+    <T> Result<T> execute(String key, Object request, Class<T> responseType, Action<T> action);
+
+    @FunctionalInterface
+    interface Action<T> {
+        T run(Consumer<T> storeResponse);
+    }
+
+    record Result<T>(T body, boolean replayed) {
+    }
+}
@@ -0,0 +1,236 @@
+package com.argenischacon.inventory_sales_api.service;
+
+import com.argenischacon.inventory_sales_api.exception.IdempotencyKeyInUseException;
+import com.argenischacon.inventory_sales_api.exception.InvalidIdempotencyKeyException;
+import com.argenischacon.inventory_sales_api.model.IdempotencyRecord;
+import com.argenischacon.inventory_sales_api.repository.IdempotencyRecordRepository;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.HexFormat;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Keys are stored in the idempotency_keys table so replays survive restarts and work across instances; the most
+ * recently used completed responses are also kept in a bounded in-memory LRU to answer hot retries without a query.
+ * Claiming and releasing a key run in their own short transactions; the response is stored in the transaction of the
+ * wrapped action, so a committed action always leaves a completed key. A claim left in progress longer than the lease
+ * (its request never committed) can be taken over by a retry.
+ */
+@Service
+@Slf4j
+public class IdempotencyServiceImpl implements IdempotencyService {
+    private static final int MAX_KEY_LENGTH = 255;
+
+    private final IdempotencyRecordRepository repository;
+    private final ObjectMapper objectMapper;
+    private final TransactionTemplate transactionTemplate;
+    private final TransactionTemplate joiningTemplate;
+    private final Clock clock;
+    private final Duration ttl;
+    private final Duration lease;
+    private final Map<String, CachedResponse> hotKeys;
+
+    @Autowired
+    public IdempotencyServiceImpl(
+            IdempotencyRecordRepository repository,
+            ObjectMapper objectMapper,
+            PlatformTransactionManager transactionManager,
+            @Value("${app.idempotency.ttl-hours:24}") long ttlHours,
+            @Value("${app.idempotency.lease-seconds:60}") long leaseSeconds,
+            @Value("${app.idempotency.cache-size:10000}") int cacheSize
+    ) {
+        this(repository, objectMapper, transactionManager, Clock.systemUTC(), Duration.ofHours(ttlHours),
+                Duration.ofSeconds(leaseSeconds), cacheSize);
+    }
+
+    IdempotencyServiceImpl(IdempotencyRecordRepository repository, ObjectMapper objectMapper,
+                           PlatformTransactionManager transactionManager, Clock clock, Duration ttl, Duration lease,
+                           int cacheSize) {
+        this.repository = repository;
+        this.objectMapper = objectMapper;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.transactionTemplate.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        this.joiningTemplate = new TransactionTemplate(transactionManager);
+        this.clock = clock;
+        this.ttl = ttl;
+        this.lease = lease;
+        this.hotKeys = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, CachedResponse> eldest) {
+                return size() > cacheSize;
+            }
+        };
+    }
+
+    private record CachedResponse(String requestHash, Object body, Instant expiresAt) {
+    }
+
+    @Override
+    public <T> Result<T> execute(String key, Object request, Class<T> responseType, Action<T> action) {
+        if (key.isBlank() || key.length() > MAX_KEY_LENGTH) {
+            throw new InvalidIdempotencyKeyException("Idempotency-Key must be between 1 and " + MAX_KEY_LENGTH + " characters.");
+        }
+        String scopedKey = currentUsername() + ":" + key;
+        String requestHash = hash(request);
+        // Millisecond precision survives any timestamp column, so the claim can be matched by its createdAt
+        Instant now = clock.instant().truncatedTo(ChronoUnit.MILLIS);
+
+        CachedResponse cached = getCached(scopedKey, now);
+        if (cached != null) {
+            checkSameRequest(cached.requestHash(), requestHash);
+            return new Result<>(responseType.cast(cached.body()), true);
+        }
+
+        IdempotencyRecord existing = claim(scopedKey, requestHash, now);
+        if (existing != null) {
+            return replay(existing, requestHash, responseType);
+        }
+
+        AtomicBoolean stored = new AtomicBoolean();
+        T response;
+        try {
+            response = action.run(body -> {
+                storeResponse(scopedKey, now, body);
+                stored.set(true);
+            });
+        } catch (RuntimeException ex) {
+            // Failed requests are not remembered, so the client can retry with the same key
+            transactionTemplate.executeWithoutResult(status -> repository.releaseClaim(scopedKey, now));
+            throw ex;
+        }
+
+        if (!stored.get()) {
+            // The action committed without storing its response; failing now would hide a result that exists
+            try {
+                transactionTemplate.executeWithoutResult(status -> storeResponse(scopedKey, now, response));
+            } catch (RuntimeException ex) {
+                log.warn("Response for idempotency key {} could not be stored after commit: {}", scopedKey, ex.getMessage());
+            }
+        }
+        putCached(scopedKey, new CachedResponse(requestHash, response, now.plus(ttl)));
+        return new Result<>(response, false);
+    }
+
+    @Scheduled(fixedDelayString = "${app.idempotency.purge-interval-ms:3600000}")
+    public void purgeExpired() {
+        Instant now = clock.instant();
+        Integer purged = transactionTemplate.execute(status -> repository.deleteAllExpired(now));
+        synchronized (hotKeys) {
+            hotKeys.values().removeIf(entry -> !entry.expiresAt().isAfter(now));
+        }
+        log.debug("Purged {} expired idempotency keys", purged);
+    }
+
+    // Returns the stored record when the key is already taken, or null once this request owns the key
+    private IdempotencyRecord claim(String scopedKey, String requestHash, Instant now) {
+        try {
+            return transactionTemplate.execute(status -> {
+                repository.deleteIfExpired(scopedKey, now);
+                IdempotencyRecord existing = repository.findById(scopedKey).orElse(null);
+                if (existing == null) {
+                    repository.saveAndFlush(new IdempotencyRecord(scopedKey, requestHash, now, now.plus(ttl)));
+                    return null;
+                }
+                if (existing.getStatus() == IdempotencyRecord.Status.IN_PROGRESS
+                        && repository.takeOverStaleClaim(scopedKey, requestHash, now, now.plus(ttl), now.minus(lease)) == 1) {
+                    log.info("Took over idempotency key {} left in progress for longer than {}", scopedKey, lease);
+                    return null;
+                }
+                return existing;
+            });
+        } catch (DataIntegrityViolationException ex) {
+            // A concurrent request inserted the same key first; read it back from the primary, a replica may not have it yet
+            return transactionTemplate.execute(status -> repository.findById(scopedKey))
+                    .orElseThrow(() -> new IdempotencyKeyInUseException(inUseMessage()));
+        }
+    }
+
+    private <T> Result<T> replay(IdempotencyRecord existing, String requestHash, Class<T> responseType) {
+        checkSameRequest(existing.getRequestHash(), requestHash);
+        if (existing.getStatus() != IdempotencyRecord.Status.COMPLETED) {
+            throw new IdempotencyKeyInUseException(inUseMessage());
+        }
+        try {
+            T body = objectMapper.readValue(existing.getResponseBody(), responseType);
+            putCached(existing.getScopedKey(), new CachedResponse(requestHash, body, existing.getExpiresAt()));
+            return new Result<>(body, true);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Stored response for idempotency key could not be read", e);
+        }
+    }
+
+    // Joins the caller's transaction; fails it when the claim was taken over in the meantime
+    private void storeResponse(String scopedKey, Instant claimedAt, Object response) {
+        String body;
+        try {
+            body = objectMapper.writeValueAsString(response);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Response could not be stored for idempotency key", e);
+        }
+        Integer updated = joiningTemplate.execute(status -> repository.completeClaim(scopedKey, claimedAt, body));
+        if (updated == null || updated == 0) {
+            throw new IdempotencyKeyInUseException("The Idempotency-Key was taken over by another request. Please retry later.");
+        }
+    }
+
+    private static void checkSameRequest(String storedHash, String requestHash) {
+        if (!storedHash.equals(requestHash)) {
+            throw new InvalidIdempotencyKeyException("Idempotency-Key was already used with a different request payload.");
+        }
+    }
+
+    private static String inUseMessage() {
+        return "A request with this Idempotency-Key is still being processed. Please retry later.";
+    }
+
+    private CachedResponse getCached(String scopedKey, Instant now) {
+        synchronized (hotKeys) {
+            CachedResponse cached = hotKeys.get(scopedKey);
+            if (cached != null && !cached.expiresAt().isAfter(now)) {
+                hotKeys.remove(scopedKey);
+                return null;
+            }
+            return cached;
+        }
+    }
+
+    private void putCached(String scopedKey, CachedResponse response) {
+        synchronized (hotKeys) {
+            hotKeys.put(scopedKey, response);
+        }
+    }
+
+    private String hash(Object request) {
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-256").digest(objectMapper.writeValueAsBytes(request));
+            return HexFormat.of().formatHex(digest);
+        } catch (JsonProcessingException | NoSuchAlgorithmException e) {
+            throw new IllegalStateException("Request could not be hashed for idempotency check", e);
+        }
+    }
+
+    private static String currentUsername() {
+        Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+        return authentication != null ? authentication.getName() : "anonymous";
+    }
+}
@@ -0,0 +1,116 @@
+package com.argenischacon.inventory_sales_api.service;
+
+import com.argenischacon.inventory_sales_api.dto.PageQueryDTO;
+import com.argenischacon.inventory_sales_api.dto.PageResponseDTO;
+import com.argenischacon.inventory_sales_api.exception.InvalidCursorException;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.Sort;
+import org.springframework.stereotype.Component;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.Base64;
+import java.util.List;
+import java.util.function.BiFunction;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Shared paging rules for the list endpoints. Cursors are the keyset of the last returned row, encoded as base64url
+ * so clients treat them as opaque; the page number is only a fallback for clients that need to jump to an offset.
+ */
+@Component
+public class PageSupport {
+    private static final String SEPARATOR = "|";
+
+    private final int defaultSize;
+    private final int maxSize;
+
+    public PageSupport(
+            @Value("${app.pagination.default-size:20}") int defaultSize,
+            @Value("${app.pagination.max-size:100}") int maxSize
+    ) {
+        this.defaultSize = defaultSize;
+        this.maxSize = maxSize;
+    }
+
+    public int sizeOf(PageQueryDTO query) {
+        int size = query.getSize() != null ? query.getSize() : defaultSize;
+        return Math.min(size, maxSize);
+    }
+
+    // Keyset on id for entities listed in insertion order; offset paging when a page number is given without a cursor
+    public <E, D> PageResponseDTO<D> pageById(PageQueryDTO query,
+                                              BiFunction<Long, Pageable, Slice<E>> afterIdFinder,
+                                              Function<Pageable, Slice<E>> offsetFinder,
+                                              Function<E, Long> idOf,
+                                              Function<List<E>, List<D>> mapper) {
+        int size = sizeOf(query);
+        Slice<E> slice;
+        if (query.getCursor() != null) {
+            Long afterId = parseLong(decodeCursor(query.getCursor(), 1).get(0));
+            slice = afterIdFinder.apply(afterId, PageRequest.of(0, size, Sort.by("id")));
+        } else {
+            int page = query.getPage() != null ? query.getPage() : 0;
+            slice = offsetFinder.apply(PageRequest.of(page, size, Sort.by("id")));
+        }
+        return toResponse(slice.getContent(), slice.hasNext(), size, query, mapper, row -> encodeCursor(idOf.apply(row)));
+    }
+
+    public <E, D> PageResponseDTO<D> toResponse(List<E> content, boolean hasNext, int size, PageQueryDTO query,
+                                                Function<List<E>, List<D>> mapper, Function<E, String> cursorOf) {
+        String nextCursor = hasNext && !content.isEmpty() ? cursorOf.apply(content.get(content.size() - 1)) : null;
+        Integer page = query.getCursor() == null ? (query.getPage() != null ? query.getPage() : 0) : null;
+        return new PageResponseDTO<>(mapper.apply(content), size, page, nextCursor, hasNext);
+    }
+
+    public String encodeCursor(Object... parts) {
+        String raw = Arrays.stream(parts)
+                .map(String::valueOf)
+                .collect(Collectors.joining(SEPARATOR));
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    public List<String> decodeCursor(String cursor, int expectedParts) {
+        List<String> parts = List.of(decodeRaw(cursor).split("\\" + SEPARATOR, -1));
+        if (parts.size() != expectedParts) {
+            throw new InvalidCursorException("Invalid pagination cursor.");
+        }
+        return parts;
+    }
+
+    // Cursor of a sorted listing, sortBy|direction|sortValue|id: returns [sortValue, id] once the sort matches.
+    // The sort value is whatever lies between the second and the last separator, so it may itself contain one
+    public List<String> decodeSortedCursor(String cursor, String sortBy, String direction) {
+        String raw = decodeRaw(cursor);
+        int first = raw.indexOf(SEPARATOR);
+        int second = first < 0 ? -1 : raw.indexOf(SEPARATOR, first + 1);
+        int last = raw.lastIndexOf(SEPARATOR);
+        if (second < 0 || last == second) {
+            throw new InvalidCursorException("Invalid pagination cursor.");
+        }
+        if (!raw.substring(0, first).equals(sortBy) || !raw.substring(first + 1, second).equalsIgnoreCase(direction)) {
+            throw new InvalidCursorException("The cursor was issued for a different sort order.");
+        }
+        return List.of(raw.substring(second + 1, last), raw.substring(last + 1));
+    }
+
+    public Long parseLong(String value) {
+        try {
+            return Long.valueOf(value);
+        } catch (NumberFormatException e) {
+            throw new InvalidCursorException("Invalid pagination cursor.");
+        }
+    }
+
+    private static String decodeRaw(String cursor) {
+        try {
+            return new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+        } catch (IllegalArgumentException e) {
+            throw new InvalidCursorException("Invalid pagination cursor.");
+        }
+    }
+}
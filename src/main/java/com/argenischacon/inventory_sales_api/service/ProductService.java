@@ -1,7 +1,13 @@
 package com.argenischacon.inventory_sales_api.service;
 
+import com.argenischacon.inventory_sales_api.dto.FieldsQueryDTO;
+import com.argenischacon.inventory_sales_api.dto.PageQueryDTO;
+import com.argenischacon.inventory_sales_api.dto.PageResponseDTO;
 import com.argenischacon.inventory_sales_api.dto.ProductRequestDTO;
 import com.argenischacon.inventory_sales_api.dto.ProductResponseDTO;
+import com.argenischacon.inventory_sales_api.dto.ProductSearchDTO;
+import com.argenischacon.inventory_sales_api.dto.ProductTextQueryDTO;
+import com.argenischacon.inventory_sales_api.repository.ChangeStamp;
 
 import java.util.List;
 
@@ -10,5 +16,9 @@ public interface ProductService {
     ProductResponseDTO update(Long id, ProductRequestDTO dto);
     void delete(Long id);
     ProductResponseDTO findById(Long id);
-    List<ProductResponseDTO> findAll();
+    PageResponseDTO<ProductResponseDTO> findAll(PageQueryDTO pageQuery);
+    PageResponseDTO<ProductResponseDTO> search(ProductSearchDTO filter, PageQueryDTO pageQuery, FieldsQueryDTO fields);
+    List<ProductResponseDTO> searchText(ProductTextQueryDTO query);
+    ChangeStamp findChangeStamp(Long id);
+    ChangeStamp findChangeStamp();
 }
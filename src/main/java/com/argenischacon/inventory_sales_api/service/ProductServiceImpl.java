@@ -1,21 +1,39 @@
 package com.argenischacon.inventory_sales_api.service;
 
+import com.argenischacon.inventory_sales_api.config.CacheConfig;
+import com.argenischacon.inventory_sales_api.dto.FieldsQueryDTO;
+import com.argenischacon.inventory_sales_api.dto.PageQueryDTO;
+import com.argenischacon.inventory_sales_api.dto.PageResponseDTO;
 import com.argenischacon.inventory_sales_api.dto.ProductRequestDTO;
 import com.argenischacon.inventory_sales_api.dto.ProductResponseDTO;
+import com.argenischacon.inventory_sales_api.dto.ProductSearchDTO;
+import com.argenischacon.inventory_sales_api.dto.ProductTextQueryDTO;
 import com.argenischacon.inventory_sales_api.exception.DuplicateResourceException;
+import com.argenischacon.inventory_sales_api.exception.InvalidCursorException;
 import com.argenischacon.inventory_sales_api.exception.ResourceInUseException;
 import com.argenischacon.inventory_sales_api.exception.ResourceNotFoundException;
 import com.argenischacon.inventory_sales_api.mapper.ProductMapper;
 import com.argenischacon.inventory_sales_api.model.Category;
 import com.argenischacon.inventory_sales_api.model.Product;
 import com.argenischacon.inventory_sales_api.repository.CategoryRepository;
+import com.argenischacon.inventory_sales_api.repository.ChangeStamp;
 import com.argenischacon.inventory_sales_api.repository.ProductRepository;
-import jakarta.transaction.Transactional;
+import com.argenischacon.inventory_sales_api.service.search.ProductChangedEvent;
+import com.argenischacon.inventory_sales_api.service.search.ProductTextIndex;
 import lombok.RequiredArgsConstructor;
+import org.springframework.cache.annotation.CacheEvict;
+import org.springframework.cache.annotation.Cacheable;
+import org.springframework.cache.annotation.Caching;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
+import java.math.BigDecimal;
 import java.util.List;
+import java.util.Map;
 import java.util.Objects;
+import java.util.function.Function;
+import java.util.stream.Collectors;
 
 @Service
 @RequiredArgsConstructor
@@ -23,8 +41,12 @@ public class ProductServiceImpl implements ProductService {
     private final ProductRepository productRepository;
     private final ProductMapper productMapper;
     private final CategoryRepository categoryRepository;
+    private final PageSupport pageSupport;
+    private final ProductTextIndex productTextIndex;
+    private final ApplicationEventPublisher eventPublisher;
 
     @Transactional
+    @CacheEvict(cacheNames = CacheConfig.PRODUCT_PAGES, allEntries = true)
     @Override
     public ProductResponseDTO create(ProductRequestDTO dto) {
         Category category = categoryRepository.findById(dto.getCategoryId())
@@ -36,10 +58,16 @@ public class ProductServiceImpl implements ProductService {
 
         Product product = productMapper.toEntity(dto);
         product.setCategory(category);
-        return productMapper.toResponse(productRepository.save(product));
+        Product saved = productRepository.save(product);
+        eventPublisher.publishEvent(ProductChangedEvent.saved(saved));
+        return productMapper.toResponse(saved);
     }
 
     @Transactional
+    @Caching(evict = {
+            @CacheEvict(cacheNames = CacheConfig.PRODUCTS, key = "#id"),
+            @CacheEvict(cacheNames = CacheConfig.PRODUCT_PAGES, allEntries = true)
+    })
     @Override
     public ProductResponseDTO update(Long id, ProductRequestDTO dto) {
         Product entity = productRepository.findById(id)
@@ -58,9 +86,16 @@ public class ProductServiceImpl implements ProductService {
                     .orElseThrow(() -> new ResourceNotFoundException("Category with id " + dto.getCategoryId() + " not found."));
             entity.setCategory(category);
         }
-        return productMapper.toResponse(productRepository.save(entity));
+        Product saved = productRepository.save(entity);
+        eventPublisher.publishEvent(ProductChangedEvent.saved(saved));
+        return productMapper.toResponse(saved);
     }
 
+    @Transactional
+    @Caching(evict = {
+            @CacheEvict(cacheNames = CacheConfig.PRODUCTS, key = "#id"),
+            @CacheEvict(cacheNames = CacheConfig.PRODUCT_PAGES, allEntries = true)
+    })
     @Override
     public void delete(Long id) {
         Product product = productRepository.findById(id)
@@ -70,17 +105,98 @@ public class ProductServiceImpl implements ProductService {
             throw new ResourceInUseException("Cannot delete product: it is associated with existing sales.");
         }
         productRepository.delete(product);
+        eventPublisher.publishEvent(ProductChangedEvent.deleted(id));
     }
 
+    // Not read-only: the result is cached for everyone, so it must come from the primary, never a lagging replica
+    @Transactional
+    @Cacheable(cacheNames = CacheConfig.PRODUCTS, key = "#id")
     @Override
     public ProductResponseDTO findById(Long id) {
-        Product entity = productRepository.findById(id)
+        return productRepository.findViewById(id)
                 .orElseThrow(() -> new ResourceNotFoundException("Product with id " + id + " not found."));
-        return productMapper.toResponse(entity);
     }
 
+    // Not read-only: the result is cached for everyone, so it must come from the primary, never a lagging replica
+    @Transactional
+    @Cacheable(cacheNames = CacheConfig.PRODUCT_PAGES)
+    @Override
+    public PageResponseDTO<ProductResponseDTO> findAll(PageQueryDTO pageQuery) {
+        return pageSupport.pageById(pageQuery, productRepository::findViewsByIdGreaterThan, productRepository::findViews,
+                ProductResponseDTO::getId, Function.identity());
+    }
+
+    @Transactional(readOnly = true)
+    @Override
+    public ChangeStamp findChangeStamp(Long id) {
+        return productRepository.findChangeStampById(id);
+    }
+
+    @Transactional(readOnly = true)
+    @Override
+    public ChangeStamp findChangeStamp() {
+        return productRepository.findChangeStamp();
+    }
+
+    @Transactional(readOnly = true)
+    @Override
+    public PageResponseDTO<ProductResponseDTO> search(ProductSearchDTO filter, PageQueryDTO pageQuery, FieldsQueryDTO fields) {
+        int size = pageSupport.sizeOf(pageQuery);
+        Comparable<?> afterValue = null;
+        Long afterId = null;
+        int offset = 0;
+        if (pageQuery.getCursor() != null) {
+            List<String> parts = pageSupport.decodeSortedCursor(pageQuery.getCursor(), filter.getSortBy(), filter.getDirection());
+            afterValue = parseSortValue(filter.getSortBy(), parts.get(0));
+            afterId = pageSupport.parseLong(parts.get(1));
+        } else if (pageQuery.getPage() != null) {
+            offset = (int) Math.min((long) pageQuery.getPage() * size, Integer.MAX_VALUE);
+        }
+
+        // One extra row tells whether there is a next page without a count query
+        List<ProductResponseDTO> rows = productRepository.search(filter, fields, afterValue, afterId, offset, size + 1);
+        boolean hasNext = rows.size() > size;
+        List<ProductResponseDTO> content = hasNext ? rows.subList(0, size) : rows;
+        return pageSupport.toResponse(content, hasNext, size, pageQuery, Function.identity(),
+                product -> pageSupport.encodeCursor(filter.getSortBy(), filter.getDirection(),
+                        sortValueOf(product, filter.getSortBy()), product.getId()));
+    }
+
+    // Ranking comes from the in-memory index; the rows are then read in one query and put back in rank order
+    @Transactional(readOnly = true)
     @Override
-    public List<ProductResponseDTO> findAll() {
-        return productMapper.toResponseList(productRepository.findAll());
+    public List<ProductResponseDTO> searchText(ProductTextQueryDTO query) {
+        List<Long> ids = productTextIndex.search(query.getQ(), query.getLimit());
+        if (ids.isEmpty()) {
+            return List.of();
+        }
+        Map<Long, ProductResponseDTO> productsById = productRepository.findViewsByIdIn(ids).stream()
+                .collect(Collectors.toMap(ProductResponseDTO::getId, Function.identity()));
+        return ids.stream()
+                .map(productsById::get)
+                .filter(Objects::nonNull) // deleted before the index caught up
+                .toList();
+    }
+
+    private static Object sortValueOf(ProductResponseDTO product, String sortBy) {
+        return switch (sortBy) {
+            case "name" -> product.getName();
+            case "unitPrice" -> product.getUnitPrice().toPlainString();
+            case "stock" -> product.getStock();
+            default -> "";
+        };
+    }
+
+    private static Comparable<?> parseSortValue(String sortBy, String value) {
+        try {
+            return switch (sortBy) {
+                case "name" -> value;
+                case "unitPrice" -> new BigDecimal(value);
+                case "stock" -> Integer.valueOf(value);
+                default -> null;
+            };
+        } catch (IllegalArgumentException e) {
+            throw new InvalidCursorException("Invalid pagination cursor.");
+        }
     }
 }
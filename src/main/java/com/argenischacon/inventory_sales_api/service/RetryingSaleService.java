@@ -0,0 +1,141 @@
+package com.argenischacon.inventory_sales_api.service;
+
+import com.argenischacon.inventory_sales_api.dto.FieldsQueryDTO;
+import com.argenischacon.inventory_sales_api.dto.PageQueryDTO;
+import com.argenischacon.inventory_sales_api.dto.PageResponseDTO;
+import com.argenischacon.inventory_sales_api.dto.SaleBatchRequestDTO;
+import com.argenischacon.inventory_sales_api.dto.SaleBatchResponseDTO;
+import com.argenischacon.inventory_sales_api.dto.SaleFilterDTO;
+import com.argenischacon.inventory_sales_api.dto.SaleRequestDTO;
+import com.argenischacon.inventory_sales_api.dto.SaleResponseDTO;
+import com.argenischacon.inventory_sales_api.repository.ChangeStamp;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.persistence.OptimisticLockException;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Primary;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.stereotype.Service;
+
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.function.Consumer;
+import java.util.function.Supplier;
+
+/**
+ * Re-runs sale write operations when their transaction fails on an optimistic lock conflict.
+ * Each attempt calls the transactional {@link SaleServiceImpl} again, so it starts a fresh transaction.
+ */
+@Service
+@Primary
+@Slf4j
+public class RetryingSaleService implements SaleService {
+    private final SaleService delegate;
+    private final MeterRegistry meterRegistry;
+    private final int maxAttempts;
+    private final long initialBackoffMs;
+    private final long maxBackoffMs;
+
+    public RetryingSaleService(
+            SaleServiceImpl delegate,
+            MeterRegistry meterRegistry,
+            @Value("${app.sales.retry.max-attempts:3}") int maxAttempts,
+            @Value("${app.sales.retry.initial-backoff-ms:20}") long initialBackoffMs,
+            @Value("${app.sales.retry.max-backoff-ms:200}") long maxBackoffMs
+    ) {
+        if (maxAttempts < 1) {
+            throw new IllegalArgumentException("app.sales.retry.max-attempts must be at least 1");
+        }
+        this.delegate = delegate;
+        this.meterRegistry = meterRegistry;
+        this.maxAttempts = maxAttempts;
+        this.initialBackoffMs = initialBackoffMs;
+        this.maxBackoffMs = maxBackoffMs;
+    }
+
+    @Override
+    public SaleResponseDTO create(SaleRequestDTO dto) {
+        return withRetry("create", () -> delegate.create(dto));
+    }
+
+    @Override
+    public SaleResponseDTO create(SaleRequestDTO dto, Consumer<SaleResponseDTO> beforeCommit) {
+        return withRetry("create", () -> delegate.create(dto, beforeCommit));
+    }
+
+    @Override
+    public SaleBatchResponseDTO createBatch(SaleBatchRequestDTO dto) {
+        return withRetry("createBatch", () -> delegate.createBatch(dto));
+    }
+
+    @Override
+    public SaleResponseDTO update(Long id, SaleRequestDTO dto) {
+        return withRetry("update", () -> delegate.update(id, dto));
+    }
+
+    @Override
+    public void delete(Long id) {
+        withRetry("delete", () -> {
+            delegate.delete(id);
+            return null;
+        });
+    }
+
+    @Override
+    public SaleResponseDTO findById(Long id, FieldsQueryDTO fields) {
+        return delegate.findById(id, fields);
+    }
+
+    @Override
+    public PageResponseDTO<SaleResponseDTO> findAll(SaleFilterDTO filter, PageQueryDTO pageQuery, FieldsQueryDTO fields) {
+        return delegate.findAll(filter, pageQuery, fields);
+    }
+
+    @Override
+    public ChangeStamp findChangeStamp(Long id) {
+        return delegate.findChangeStamp(id);
+    }
+
+    @Override
+    public ChangeStamp findChangeStamp() {
+        return delegate.findChangeStamp();
+    }
+
+    private <T> T withRetry(String operation, Supplier<T> action) {
+        for (int attempt = 1; ; attempt++) {
+            try {
+                return action.get();
+            } catch (RuntimeException ex) {
+                if (!isOptimisticLockFailure(ex)) {
+                    throw ex;
+                }
+                if (attempt >= maxAttempts) {
+                    meterRegistry.counter("sales.optimistic_lock.exhausted", "operation", operation).increment();
+                    log.warn("Sale {} failed after {} attempts due to concurrent modification", operation, attempt);
+                    throw ex;
+                }
+                meterRegistry.counter("sales.optimistic_lock.retries", "operation", operation).increment();
+                log.debug("Optimistic lock conflict on sale {}, attempt {} of {}", operation, attempt, maxAttempts);
+                backoff(attempt, ex);
+            }
+        }
+    }
+
+    // Exponential backoff with equal jitter: half of the window is fixed, the other half random
+    private void backoff(int attempt, RuntimeException cause) {
+        long window = Math.min(maxBackoffMs, initialBackoffMs << Math.min(attempt - 1, 20));
+        if (window <= 0) {
+            return;
+        }
+        long sleepMs = window / 2 + ThreadLocalRandom.current().nextLong(window / 2 + 1);
+        try {
+            Thread.sleep(sleepMs);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw cause;
+        }
+    }
+
+    private static boolean isOptimisticLockFailure(Throwable ex) {
+        return ex instanceof OptimisticLockingFailureException || ex instanceof OptimisticLockException;
+    }
+}
@@ -1,9 +1,12 @@
 package com.argenischacon.inventory_sales_api.service;
 
+import com.argenischacon.inventory_sales_api.dto.PageQueryDTO;
+import com.argenischacon.inventory_sales_api.dto.PageResponseDTO;
 import com.argenischacon.inventory_sales_api.dto.SaleDetailResponseDTO;
 
-import java.util.List;
-
 public interface SaleDetailService {
-    List<SaleDetailResponseDTO> findBySaleId(Long saleId);
+    LinePage findBySaleId(Long saleId, PageQueryDTO pageQuery);
+
+    record LinePage(PageResponseDTO<SaleDetailResponseDTO> page, int totalCount) {
+    }
 }
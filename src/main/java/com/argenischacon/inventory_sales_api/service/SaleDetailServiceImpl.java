@@ -1,27 +1,67 @@
 package com.argenischacon.inventory_sales_api.service;
 
+import com.argenischacon.inventory_sales_api.dto.PageQueryDTO;
+import com.argenischacon.inventory_sales_api.dto.PageResponseDTO;
+import com.argenischacon.inventory_sales_api.dto.ProductNestedDTO;
 import com.argenischacon.inventory_sales_api.dto.SaleDetailResponseDTO;
 import com.argenischacon.inventory_sales_api.exception.ResourceNotFoundException;
-import com.argenischacon.inventory_sales_api.mapper.SaleDetailMapper;
+import com.argenischacon.inventory_sales_api.model.Sale;
+import com.argenischacon.inventory_sales_api.repository.SaleDetailLineView;
 import com.argenischacon.inventory_sales_api.repository.SaleDetailRepository;
 import com.argenischacon.inventory_sales_api.repository.SaleRepository;
 import lombok.RequiredArgsConstructor;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Slice;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
+import java.math.BigDecimal;
 import java.util.List;
 
 @Service
 @RequiredArgsConstructor
 public class SaleDetailServiceImpl implements SaleDetailService{
     private final SaleDetailRepository saleDetailRepository;
-    private final SaleDetailMapper saleDetailMapper;
     private final SaleRepository saleRepository;
+    private final PageSupport pageSupport;
 
+    // The page, the total and the sale's existence all come from one query; only an offset past the last line
+    // needs a second look to tell an empty page from an unknown sale
+    @Transactional(readOnly = true)
     @Override
-    public List<SaleDetailResponseDTO> findBySaleId(Long saleId) {
-        if(!saleRepository.existsById(saleId)){
-            throw new ResourceNotFoundException("Sale with id " + saleId + " not found.");
+    public LinePage findBySaleId(Long saleId, PageQueryDTO pageQuery) {
+        int size = pageSupport.sizeOf(pageQuery);
+        long afterId = 0L;
+        int page = 0;
+        if (pageQuery.getCursor() != null) {
+            afterId = pageSupport.parseLong(pageSupport.decodeCursor(pageQuery.getCursor(), 1).get(0));
+        } else if (pageQuery.getPage() != null) {
+            page = pageQuery.getPage();
         }
-        return saleDetailMapper.toResponseList(saleDetailRepository.findBySaleId(saleId));
+
+        Slice<SaleDetailLineView> slice = saleDetailRepository.findLinePage(saleId, afterId, PageRequest.of(page, size));
+        if (slice.isEmpty()) {
+            Sale sale = page == 0 ? null : saleRepository.findById(saleId).orElse(null);
+            if (sale == null) {
+                throw new ResourceNotFoundException("Sale with id " + saleId + " not found.");
+            }
+            return new LinePage(new PageResponseDTO<>(List.of(), size, page, null, false), sale.getLineCount());
+        }
+
+        List<SaleDetailLineView> rows = slice.getContent().stream()
+                .filter(row -> row.detailId() != null)
+                .toList();
+        PageResponseDTO<SaleDetailResponseDTO> response = pageSupport.toResponse(rows, slice.hasNext(), size, pageQuery,
+                SaleDetailServiceImpl::toResponses, row -> pageSupport.encodeCursor(row.detailId()));
+        return new LinePage(response, slice.getContent().getFirst().lineCount());
+    }
+
+    private static List<SaleDetailResponseDTO> toResponses(List<SaleDetailLineView> rows) {
+        return rows.stream()
+                .map(row -> new SaleDetailResponseDTO(row.detailId(), row.quantity(), row.unitPrice(),
+                        row.createdAt(), row.updatedAt(),
+                        new ProductNestedDTO(row.productId(), row.productName(), row.productUnitPrice()),
+                        row.unitPrice().multiply(BigDecimal.valueOf(row.quantity()))))
+                .toList();
     }
 }
@@ -0,0 +1,10 @@
+package com.argenischacon.inventory_sales_api.service;
+
+import com.argenischacon.inventory_sales_api.dto.SaleExportFilterDTO;
+
+import java.io.IOException;
+import java.io.OutputStream;
+
+public interface SaleExportService {
+    void export(SaleExportFilterDTO filter, OutputStream out) throws IOException;
+}
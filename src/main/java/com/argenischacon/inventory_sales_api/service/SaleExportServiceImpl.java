@@ -0,0 +1,116 @@
+package com.argenischacon.inventory_sales_api.service;
+
+import com.argenischacon.inventory_sales_api.dto.SaleExportDTO;
+import com.argenischacon.inventory_sales_api.dto.SaleExportFilterDTO;
+import com.argenischacon.inventory_sales_api.repository.SaleDetailRepository;
+import com.argenischacon.inventory_sales_api.repository.SaleExportRow;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.stream.Stream;
+
+/**
+ * Streams sales straight from a database cursor to the response. Rows are read as projections and only one sale is
+ * held at a time, so memory use does not grow with the number of exported sales.
+ */
+@Service
+public class SaleExportServiceImpl implements SaleExportService {
+    private static final String CSV_HEADER = "sale_id,date,customer_id,customer_dni,sale_total,detail_id,product_id,product_name,quantity,unit_price";
+
+    private final SaleDetailRepository saleDetailRepository;
+    private final ObjectWriter ndjsonWriter;
+
+    public SaleExportServiceImpl(SaleDetailRepository saleDetailRepository, ObjectMapper objectMapper) {
+        this.saleDetailRepository = saleDetailRepository;
+        // Flushing after every sale would send one network packet per line
+        this.ndjsonWriter = objectMapper.writerFor(SaleExportDTO.class)
+                .withRootValueSeparator("\n")
+                .without(SerializationFeature.FLUSH_AFTER_WRITE_VALUE);
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public void export(SaleExportFilterDTO filter, OutputStream out) throws IOException {
+        try (Stream<SaleExportRow> rows = saleDetailRepository.streamForExport(filter.getFrom(), filter.getTo())) {
+            if (filter.isCsv()) {
+                writeCsv(rows.iterator(), out);
+            } else {
+                writeNdjson(rows.iterator(), out);
+            }
+        }
+    }
+
+    private void writeNdjson(Iterator<SaleExportRow> rows, OutputStream out) throws IOException {
+        JsonGenerator generator = ndjsonWriter.createGenerator(out);
+        generator.disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+        // Rows arrive ordered by sale, so a sale is complete as soon as the next one starts
+        SaleExportDTO current = null;
+        while (rows.hasNext()) {
+            SaleExportRow row = rows.next();
+            if (current == null || !current.getId().equals(row.saleId())) {
+                writeLine(generator, current);
+                current = new SaleExportDTO(row.saleId(), row.date(), row.customerId(), row.customerDni(), row.total(),
+                        new ArrayList<>());
+            }
+            // A sale with no lines is written with an empty list
+            if (row.detailId() != null) {
+                current.getLines().add(new SaleExportDTO.Line(row.detailId(), row.productId(), row.productName(),
+                        row.quantity(), row.unitPrice()));
+            }
+        }
+        writeLine(generator, current);
+        if (current != null) {
+            generator.writeRaw('\n');
+        }
+        generator.flush();
+    }
+
+    private void writeLine(JsonGenerator generator, SaleExportDTO sale) throws IOException {
+        if (sale == null) {
+            return;
+        }
+        ndjsonWriter.writeValue(generator, sale);
+    }
+
+    private void writeCsv(Iterator<SaleExportRow> rows, OutputStream out) throws IOException {
+        Writer writer = new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8));
+        writer.write(CSV_HEADER);
+        writer.write('\n');
+        while (rows.hasNext()) {
+            SaleExportRow row = rows.next();
+            writer.write(row.saleId() + "," + row.date() + "," + row.customerId() + "," + csv(row.customerDni()) + ","
+                    + row.total().toPlainString() + ",");
+            // A sale with no lines gets one row with empty detail columns
+            if (row.detailId() != null) {
+                writer.write(row.detailId() + "," + row.productId() + "," + csv(row.productName()) + ","
+                        + row.quantity() + "," + row.unitPrice().toPlainString());
+            } else {
+                writer.write(",,,,");
+            }
+            writer.write('\n');
+        }
+        writer.flush();
+    }
+
+    private static String csv(String value) {
+        if (value == null) {
+            return "";
+        }
+        if (value.contains(",") || value.contains("\"") || value.contains("\n") || value.contains("\r")) {
+            return "\"" + value.replace("\"", "\"\"") + "\"";
+        }
+        return value;
+    }
+}
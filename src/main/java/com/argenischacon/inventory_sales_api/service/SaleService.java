@@ -1,14 +1,26 @@
 package com.argenischacon.inventory_sales_api.service;
 
+import com.argenischacon.inventory_sales_api.dto.FieldsQueryDTO;
+import com.argenischacon.inventory_sales_api.dto.PageQueryDTO;
+import com.argenischacon.inventory_sales_api.dto.PageResponseDTO;
+import com.argenischacon.inventory_sales_api.dto.SaleBatchRequestDTO;
+import com.argenischacon.inventory_sales_api.dto.SaleBatchResponseDTO;
+import com.argenischacon.inventory_sales_api.dto.SaleFilterDTO;
 import com.argenischacon.inventory_sales_api.dto.SaleRequestDTO;
 import com.argenischacon.inventory_sales_api.dto.SaleResponseDTO;
+import com.argenischacon.inventory_sales_api.repository.ChangeStamp;
 
-import java.util.List;
+import java.util.function.Consumer;
 
 public interface SaleService {
     SaleResponseDTO create(SaleRequestDTO dto);
+    // beforeCommit receives the response inside the sale's transaction, so whatever it writes commits with the sale
+    SaleResponseDTO create(SaleRequestDTO dto, Consumer<SaleResponseDTO> beforeCommit);
+    SaleBatchResponseDTO createBatch(SaleBatchRequestDTO dto);
     SaleResponseDTO update(Long id, SaleRequestDTO dto);
     void delete(Long id);
-    SaleResponseDTO findById(Long id);
-    List<SaleResponseDTO> findAll();
+    SaleResponseDTO findById(Long id, FieldsQueryDTO fields);
+    PageResponseDTO<SaleResponseDTO> findAll(SaleFilterDTO filter, PageQueryDTO pageQuery, FieldsQueryDTO fields);
+    ChangeStamp findChangeStamp(Long id);
+    ChangeStamp findChangeStamp();
 }
@@ -1,27 +1,50 @@
 package com.argenischacon.inventory_sales_api.service;
 
+import com.argenischacon.inventory_sales_api.dto.CustomerNestedDTO;
+import com.argenischacon.inventory_sales_api.dto.FieldsQueryDTO;
+import com.argenischacon.inventory_sales_api.dto.PageQueryDTO;
+import com.argenischacon.inventory_sales_api.dto.PageResponseDTO;
+import com.argenischacon.inventory_sales_api.dto.ProductNestedDTO;
+import com.argenischacon.inventory_sales_api.dto.SaleBatchItemResultDTO;
+import com.argenischacon.inventory_sales_api.dto.SaleBatchRequestDTO;
+import com.argenischacon.inventory_sales_api.dto.SaleBatchResponseDTO;
 import com.argenischacon.inventory_sales_api.dto.SaleDetailRequestDTO;
+import com.argenischacon.inventory_sales_api.dto.SaleDetailResponseDTO;
+import com.argenischacon.inventory_sales_api.dto.SaleFilterDTO;
 import com.argenischacon.inventory_sales_api.dto.SaleRequestDTO;
 import com.argenischacon.inventory_sales_api.dto.SaleResponseDTO;
 import com.argenischacon.inventory_sales_api.exception.InsufficientStockException;
+import com.argenischacon.inventory_sales_api.exception.InvalidCursorException;
 import com.argenischacon.inventory_sales_api.exception.ResourceNotFoundException;
 import com.argenischacon.inventory_sales_api.mapper.SaleMapper;
 import com.argenischacon.inventory_sales_api.model.Customer;
 import com.argenischacon.inventory_sales_api.model.Product;
 import com.argenischacon.inventory_sales_api.model.Sale;
 import com.argenischacon.inventory_sales_api.model.SaleDetail;
+import com.argenischacon.inventory_sales_api.repository.ChangeStamp;
 import com.argenischacon.inventory_sales_api.repository.CustomerRepository;
 import com.argenischacon.inventory_sales_api.repository.ProductRepository;
+import com.argenischacon.inventory_sales_api.repository.SaleLineView;
 import com.argenischacon.inventory_sales_api.repository.SaleRepository;
-import jakarta.transaction.Transactional;
 import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
 
+import java.math.BigDecimal;
+import java.time.DateTimeException;
+import java.time.Duration;
 import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Objects;
 import java.util.Set;
+import java.util.function.Consumer;
 import java.util.function.Function;
 import java.util.stream.Collectors;
 
@@ -32,26 +55,125 @@ public class SaleServiceImpl implements SaleService {
     private final SaleMapper saleMapper;
     private final SaleRepository saleRepository;
     private final ProductRepository productRepository;
+    private final PageSupport pageSupport;
+    private final CatalogCache catalogCache;
+
+    // Opt-in: lock all products of a sale up front (sorted by id) instead of relying on guarded updates alone
+    @Value("${app.sales.pessimistic-locking:false}")
+    private boolean pessimisticLocking = false;
+
+    @Value("${app.sales.lock-timeout-ms:2000}")
+    private long lockTimeoutMs = 2000;
 
     @Override
     @Transactional
     public SaleResponseDTO create(SaleRequestDTO dto) {
+        return create(dto, response -> {
+        });
+    }
+
+    @Override
+    @Transactional
+    public SaleResponseDTO create(SaleRequestDTO dto, Consumer<SaleResponseDTO> beforeCommit) {
         Customer customer = customerRepository.findById(dto.getCustomerId())
                 .orElseThrow(() -> new ResourceNotFoundException("Customer with id " + dto.getCustomerId() + " not found."));
 
         Sale sale = new Sale();
         sale.setDate(LocalDate.now());
         sale.setCustomer(customer);
-        List<SaleDetail> saleDetails = mapSaleDetailFromDto(dto.getSaleDetails(), sale);
+        Map<Long, Product> productsMap = loadProducts(productIdsOf(dto.getSaleDetails()), List.of());
+        StockDeltaPlan stockPlan = new StockDeltaPlan();
+        List<SaleDetail> saleDetails = mapSaleDetailFromDto(dto.getSaleDetails(), sale, productsMap, stockPlan);
+        applyStockPlan(stockPlan);
         sale.getSaleDetails().addAll(saleDetails);
+        sale.recalculateTotals();
 
-        return saleMapper.toResponse(saleRepository.save(sale));
+        SaleResponseDTO response = saleMapper.toResponse(saleRepository.save(sale));
+        beforeCommit.accept(response);
+        return response;
+    }
+
+    /**
+     * Creates every valid sale of the batch in one transaction. Customers and products are resolved with one query
+     * each, products are locked (ascending id) for the whole batch so stock can be checked in memory, and stock is
+     * decreased once per product through a {@link StockDeltaPlan}. Invalid sales are reported and skipped.
+     */
+    @Override
+    @Transactional
+    public SaleBatchResponseDTO createBatch(SaleBatchRequestDTO dto) {
+        List<SaleRequestDTO> requests = dto.getSales();
+
+        Set<Long> customerIds = requests.stream()
+                .map(SaleRequestDTO::getCustomerId)
+                .collect(Collectors.toSet());
+        Map<Long, Customer> customersMap = customerRepository.findAllById(customerIds).stream()
+                .collect(Collectors.toMap(Customer::getId, Function.identity()));
+
+        Set<Long> productIds = requests.stream()
+                .flatMap(request -> request.getSaleDetails().stream())
+                .map(SaleDetailRequestDTO::getProductId)
+                .collect(Collectors.toSet());
+        Map<Long, Product> productsMap = lockProducts(productIds).stream()
+                .collect(Collectors.toMap(Product::getId, Function.identity()));
+
+        Map<Long, Integer> availableStock = new HashMap<>();
+        productsMap.values().forEach(product -> availableStock.put(product.getId(), product.getStock()));
+        StockDeltaPlan stockPlan = new StockDeltaPlan();
+
+        List<SaleBatchItemResultDTO> results = new ArrayList<>(requests.size());
+        Map<Integer, Sale> salesByIndex = new LinkedHashMap<>();
+
+        for (int index = 0; index < requests.size(); index++) {
+            SaleRequestDTO request = requests.get(index);
+            Map<Long, Integer> requestedQuantities = request.getSaleDetails().stream()
+                    .collect(Collectors.toMap(SaleDetailRequestDTO::getProductId, SaleDetailRequestDTO::getQuantity,
+                            Integer::sum, LinkedHashMap::new));
+
+            String error = validateBatchItem(request, requestedQuantities, customersMap, productsMap, availableStock);
+            if (error != null) {
+                results.add(SaleBatchItemResultDTO.failed(index, error));
+                continue;
+            }
+
+            requestedQuantities.forEach((productId, quantity) -> {
+                availableStock.merge(productId, -quantity, Integer::sum);
+                stockPlan.consume(productsMap.get(productId), quantity);
+            });
+
+            Sale sale = new Sale();
+            sale.setDate(LocalDate.now());
+            sale.setCustomer(customersMap.get(request.getCustomerId()));
+            request.getSaleDetails().forEach(detailDto -> {
+                SaleDetail saleDetail = new SaleDetail();
+                saleDetail.setSale(sale);
+                saleDetail.setQuantity(detailDto.getQuantity());
+                saleDetail.setUnitPrice(detailDto.getUnitPrice());
+                saleDetail.setProduct(productsMap.get(detailDto.getProductId()));
+                sale.getSaleDetails().add(saleDetail);
+            });
+            sale.recalculateTotals();
+            salesByIndex.put(index, sale);
+            results.add(null); // filled in once the sale has an id
+        }
+
+        applyStockPlan(stockPlan);
+        saleRepository.saveAll(salesByIndex.values());
+
+        salesByIndex.forEach((index, sale) ->
+                results.set(index, SaleBatchItemResultDTO.created(index, sale.getId(), sale.getTotal())));
+
+        return new SaleBatchResponseDTO(salesByIndex.size(), requests.size() - salesByIndex.size(), results);
     }
 
+    /**
+     * Applies the request as a diff against the current details: unchanged lines are not touched, changed lines only
+     * get the changed fields set, new lines are inserted and missing lines are removed. Stock is adjusted once per
+     * product with the net change of all lines.
+     */
     @Override
     @Transactional
     public SaleResponseDTO update(Long id, SaleRequestDTO dto) {
-        Sale sale = saleRepository.findById(id)
+        Sale sale = saleRepository.findForUpdateById(id)
                 .orElseThrow(() -> new ResourceNotFoundException("Sale with id " + id + " not found."));
 
         Customer customer = customerRepository.findById(dto.getCustomerId())
@@ -59,28 +181,84 @@ public class SaleServiceImpl implements SaleService {
 
         sale.setCustomer(customer);
 
+        Map<Long, Product> productsMap = loadProducts(productIdsOf(dto.getSaleDetails()), sale.getSaleDetails());
+
         //Map of current SaleDetail
         Map<Long, SaleDetail> existingSaleDetails = sale.getSaleDetails()
                 .stream()
                 .collect(Collectors.toMap(SaleDetail::getId, Function.identity()));
 
-        Set<Long> incomingDetailIds = dto.getSaleDetails().stream()
-                .map(SaleDetailRequestDTO::getId)
-                .filter(Objects::nonNull)
-                .collect(Collectors.toSet());
+        StockDeltaPlan stockPlan = new StockDeltaPlan();
+        // Totals are adjusted by the difference of the changed lines instead of being recomputed
+        BigDecimal totalChange = BigDecimal.ZERO;
+        List<SaleDetail> addedDetails = new ArrayList<>();
+        Set<Long> keptDetailIds = new HashSet<>();
 
-        existingSaleDetails.values().stream()
-                .filter(detail -> !incomingDetailIds.contains(detail.getId()))
-                .forEach(detailToRemove -> {
-                    //Restore stock by adding the quantity back
-                    updateStock(detailToRemove.getProduct(), detailToRemove.getQuantity());
-                });
+        for (SaleDetailRequestDTO detailDto : dto.getSaleDetails()) {
+            Product product = productsMap.get(detailDto.getProductId());
+            if (product == null) {
+                throw new ResourceNotFoundException("Product with id " + detailDto.getProductId() + " not found.");
+            }
 
+            if (detailDto.getId() == null) {
+                SaleDetail saleDetail = new SaleDetail();
+                saleDetail.setSale(sale);
+                saleDetail.setQuantity(detailDto.getQuantity());
+                saleDetail.setUnitPrice(detailDto.getUnitPrice());
+                saleDetail.setProduct(product);
+                addedDetails.add(saleDetail);
+                stockPlan.consume(product, detailDto.getQuantity());
+                totalChange = totalChange.add(saleDetail.getSubTotal());
+                continue;
+            }
 
-        List<SaleDetail> saleDetails = mapSaleDetailFromDto(dto.getSaleDetails(), sale, existingSaleDetails);
+            //verify if it belongs to the sale
+            SaleDetail saleDetail = existingSaleDetails.get(detailDto.getId());
+            if (saleDetail == null) {
+                throw new ResourceNotFoundException("In this sale with id " + sale.getId() + ", there is no sale detail with id " + detailDto.getId() + ".");
+            }
+            keptDetailIds.add(saleDetail.getId());
 
-        sale.getSaleDetails().clear();
-        sale.getSaleDetails().addAll(saleDetails);
+            // Only changed fields are set, so untouched lines produce no UPDATE and no audit row
+            boolean productChanged = !saleDetail.getProduct().getId().equals(product.getId());
+            boolean quantityChanged = !saleDetail.getQuantity().equals(detailDto.getQuantity());
+            if (productChanged || quantityChanged) {
+                stockPlan.restore(saleDetail.getProduct(), saleDetail.getQuantity());
+                stockPlan.consume(product, detailDto.getQuantity());
+            }
+            BigDecimal previousSubTotal = saleDetail.getSubTotal();
+            if (productChanged) {
+                saleDetail.setProduct(product);
+            }
+            if (quantityChanged) {
+                saleDetail.setQuantity(detailDto.getQuantity());
+            }
+            if (saleDetail.getUnitPrice().compareTo(detailDto.getUnitPrice()) != 0) {
+                saleDetail.setUnitPrice(detailDto.getUnitPrice());
+            }
+            totalChange = totalChange.add(saleDetail.getSubTotal().subtract(previousSubTotal));
+        }
+
+        List<SaleDetail> removedDetails = sale.getSaleDetails().stream()
+                .filter(detail -> !keptDetailIds.contains(detail.getId()))
+                .toList();
+        //Restore stock by adding the quantity back
+        for (SaleDetail removedDetail : removedDetails) {
+            stockPlan.restore(removedDetail.getProduct(), removedDetail.getQuantity());
+            totalChange = totalChange.subtract(removedDetail.getSubTotal());
+        }
+
+        applyStockPlan(stockPlan);
+
+        sale.getSaleDetails().removeAll(removedDetails);
+        sale.getSaleDetails().addAll(addedDetails);
+        if (totalChange.signum() != 0) {
+            sale.setTotal(sale.getTotal().add(totalChange));
+        }
+        int lineCountChange = addedDetails.size() - removedDetails.size();
+        if (lineCountChange != 0) {
+            sale.setLineCount(sale.getLineCount() + lineCountChange);
+        }
 
         return saleMapper.toResponse(saleRepository.save(sale));
     }
@@ -91,75 +269,227 @@ public class SaleServiceImpl implements SaleService {
         Sale sale = saleRepository.findById(id)
                 .orElseThrow(() -> new ResourceNotFoundException("Sale with id " + id + " not found."));
 
+        if (pessimisticLocking) {
+            lockProducts(productIdsOf(sale.getSaleDetails()));
+        }
+
         //Restore stock for each product in the sale
-        sale.getSaleDetails().forEach(detail -> updateStock(detail.getProduct(), detail.getQuantity()));
+        StockDeltaPlan stockPlan = new StockDeltaPlan();
+        sale.getSaleDetails().forEach(detail -> stockPlan.restore(detail.getProduct(), detail.getQuantity()));
+        applyStockPlan(stockPlan);
 
         saleRepository.deleteById(id);
     }
 
     @Override
-    public SaleResponseDTO findById(Long id) {
-        Sale sale = saleRepository.findById(id)
-                .orElseThrow(() -> new ResourceNotFoundException("Sale with id " + id + " not found."));
+    @Transactional(readOnly = true)
+    public SaleResponseDTO findById(Long id, FieldsQueryDTO fields) {
+        SaleResponseDTO sale = toResponses(findViews(List.of(id), fields)).get(id);
+        if (sale == null) {
+            throw new ResourceNotFoundException("Sale with id " + id + " not found.");
+        }
+        return sale;
+    }
 
-        return saleMapper.toResponse(sale);
+    @Override
+    @Transactional(readOnly = true)
+    public ChangeStamp findChangeStamp(Long id) {
+        return saleRepository.findChangeStampById(id);
     }
 
+    // Not narrowed by the list filter: any sale change invalidates every filtered list, which only costs a 200
     @Override
-    public List<SaleResponseDTO> findAll() {
-        return saleMapper.toResponseList(saleRepository.findAll());
+    @Transactional(readOnly = true)
+    public ChangeStamp findChangeStamp() {
+        return saleRepository.findChangeStamp();
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public PageResponseDTO<SaleResponseDTO> findAll(SaleFilterDTO filter, PageQueryDTO pageQuery, FieldsQueryDTO fields) {
+        int size = pageSupport.sizeOf(pageQuery);
+        Comparable<?> afterValue = null;
+        Long afterId = null;
+        int offset = 0;
+        if (pageQuery.getCursor() != null) {
+            // Cursor: sort value and id of the last sale of the previous page
+            List<String> parts = pageSupport.decodeSortedCursor(pageQuery.getCursor(), filter.getSortBy(), filter.getDirection());
+            afterValue = parseSortValue(filter.getSortBy(), parts.get(0));
+            afterId = pageSupport.parseLong(parts.get(1));
+        } else if (pageQuery.getPage() != null) {
+            offset = (int) Math.min((long) pageQuery.getPage() * size, Integer.MAX_VALUE);
+        }
+
+        // One extra id tells whether there is a next page without a count query
+        List<Long> ids = saleRepository.findPageIds(filter, afterValue, afterId, offset, size + 1);
+        boolean hasNext = ids.size() > size;
+        List<Long> pageIds = hasNext ? ids.subList(0, size) : ids;
+
+        // Customers, lines and products of the whole page come from a single projection query
+        Map<Long, SaleResponseDTO> salesById = pageIds.isEmpty() ? Map.of()
+                : toResponses(findViews(pageIds, fields));
+        List<SaleResponseDTO> content = pageIds.stream()
+                .map(salesById::get)
+                .filter(Objects::nonNull) // deleted between the two queries
+                .toList();
+        return pageSupport.toResponse(content, hasNext, size, pageQuery, Function.identity(),
+                sale -> pageSupport.encodeCursor(filter.getSortBy(), filter.getDirection(),
+                        sortValueOf(sale, filter.getSortBy()), sale.getId()));
+    }
+
+    // Lines are only joined when the response includes them
+    private List<SaleLineView> findViews(List<Long> ids, FieldsQueryDTO fields) {
+        return fields.includes("saleDetails")
+                ? saleRepository.findLineViewsBySaleIdIn(ids)
+                : saleRepository.findHeaderViewsBySaleIdIn(ids);
+    }
+
+    // Folds the flattened rows (one per line, ordered by sale) back into nested responses keyed by sale id
+    private static Map<Long, SaleResponseDTO> toResponses(List<SaleLineView> rows) {
+        Map<Long, SaleResponseDTO> sales = new LinkedHashMap<>();
+        for (SaleLineView row : rows) {
+            SaleResponseDTO sale = sales.computeIfAbsent(row.saleId(), saleId -> new SaleResponseDTO(saleId, row.date(),
+                    row.createdAt(), row.updatedAt(),
+                    new CustomerNestedDTO(row.customerId(), row.customerName(), row.customerLastName()),
+                    new ArrayList<>(), row.total(), row.lineCount()));
+            if (row.detailId() != null) {
+                sale.getSaleDetails().add(new SaleDetailResponseDTO(row.detailId(), row.quantity(), row.unitPrice(),
+                        row.detailCreatedAt(), row.detailUpdatedAt(),
+                        new ProductNestedDTO(row.productId(), row.productName(), row.productUnitPrice()),
+                        row.unitPrice().multiply(BigDecimal.valueOf(row.quantity()))));
+            }
+        }
+        return sales;
+    }
+
+    private static Object sortValueOf(SaleResponseDTO sale, String sortBy) {
+        return switch (sortBy) {
+            case "date" -> sale.getDate();
+            case "total" -> sale.getTotal().toPlainString();
+            case "lineCount" -> sale.getLineCount();
+            default -> "";
+        };
+    }
+
+    private static Comparable<?> parseSortValue(String sortBy, String value) {
+        try {
+            return switch (sortBy) {
+                case "date" -> LocalDate.parse(value);
+                case "total" -> new BigDecimal(value);
+                case "lineCount" -> Integer.valueOf(value);
+                default -> null;
+            };
+        } catch (IllegalArgumentException | DateTimeException e) {
+            throw new InvalidCursorException("Invalid pagination cursor.");
+        }
     }
 
+    private void applyStockPlan(StockDeltaPlan stockPlan) {
+        List<Long> changedProductIds = new ArrayList<>();
+        stockPlan.forEachChange((product, quantityChange) -> {
+            updateStock(product, quantityChange);
+            if (quantityChange != 0) {
+                changedProductIds.add(product.getId());
+            }
+        });
+        catalogCache.evictProducts(changedProductIds);
+    }
+
+    // Applies the change with a single guarded UPDATE instead of a read-modify-write on the entity
     private void updateStock(Product product, Integer quantityChange) {
-        int newStock = product.getStock() + quantityChange;
-        if (newStock < 0) {
-            int requested = -quantityChange;
-            int available = product.getStock();
+        if (quantityChange == 0) {
+            return;
+        }
+        if (quantityChange > 0) {
+            productRepository.increaseStock(product.getId(), quantityChange);
+            return;
+        }
+
+        int requested = -quantityChange;
+        if (productRepository.decreaseStock(product.getId(), requested) == 0) {
+            int available = productRepository.findStockById(product.getId()).orElse(0);
             String message = String.format("Insufficient stock for product '%s'. Requested: %d, Available: %d.",
                     product.getName(), requested, available);
             throw new InsufficientStockException(message, product.getId(), requested, available);
         }
-        product.setStock(newStock);
     }
 
-    private List<SaleDetail> mapSaleDetailFromDto(List<SaleDetailRequestDTO> detailRequestDTOS, Sale sale) {
-        return mapSaleDetailFromDto(detailRequestDTOS, sale, null);
+    // Returns the reason the sale cannot be created, or null when it is valid against the remaining batch stock
+    private static String validateBatchItem(SaleRequestDTO request, Map<Long, Integer> requestedQuantities,
+                                            Map<Long, Customer> customersMap, Map<Long, Product> productsMap,
+                                            Map<Long, Integer> availableStock) {
+        if (!customersMap.containsKey(request.getCustomerId())) {
+            return "Customer with id " + request.getCustomerId() + " not found.";
+        }
+        for (SaleDetailRequestDTO detailDto : request.getSaleDetails()) {
+            if (detailDto.getId() != null) {
+                return "Sale detail id " + detailDto.getId() + " must not be set when creating a sale.";
+            }
+        }
+        for (Map.Entry<Long, Integer> entry : requestedQuantities.entrySet()) {
+            Product product = productsMap.get(entry.getKey());
+            if (product == null) {
+                return "Product with id " + entry.getKey() + " not found.";
+            }
+            int available = availableStock.get(entry.getKey());
+            if (entry.getValue() > available) {
+                return String.format("Insufficient stock for product '%s'. Requested: %d, Available: %d.",
+                        product.getName(), entry.getValue(), available);
+            }
+        }
+        return null;
     }
 
-    private List<SaleDetail> mapSaleDetailFromDto(List<SaleDetailRequestDTO> detailRequestDTOS, Sale sale, Map<Long, SaleDetail> existingDetailsMap) {
-        List<Long> productIds = detailRequestDTOS.stream()
+    private static List<Long> productIdsOf(List<SaleDetailRequestDTO> detailRequestDTOS) {
+        return detailRequestDTOS.stream()
                 .map(SaleDetailRequestDTO::getProductId)
                 .toList();
+    }
+
+    private static List<Long> productIdsOf(Collection<SaleDetail> saleDetails) {
+        return saleDetails.stream()
+                .map(detail -> detail.getProduct().getId())
+                .toList();
+    }
 
-        Map<Long, Product> productsMap = productRepository.findAllById(productIds).stream()
+    /**
+     * Loads the requested products. In pessimistic mode the products of the current details are locked as well,
+     * all in one ascending-id query, so concurrent sales over the same products queue instead of deadlocking.
+     */
+    private Map<Long, Product> loadProducts(List<Long> requestedIds, Collection<SaleDetail> currentDetails) {
+        List<Product> products;
+        if (pessimisticLocking) {
+            Set<Long> ids = new HashSet<>(requestedIds);
+            ids.addAll(productIdsOf(currentDetails));
+            products = lockProducts(ids);
+        } else {
+            products = productRepository.findAllById(requestedIds);
+        }
+        return products.stream()
                 .collect(Collectors.toMap(Product::getId, Function.identity()));
+    }
 
+    private List<Product> lockProducts(Collection<Long> productIds) {
+        return productRepository.lockAllByIdSorted(productIds, Duration.ofMillis(lockTimeoutMs));
+    }
+
+    private List<SaleDetail> mapSaleDetailFromDto(List<SaleDetailRequestDTO> detailRequestDTOS, Sale sale,
+                                                  Map<Long, Product> productsMap, StockDeltaPlan stockPlan) {
         return detailRequestDTOS.stream()
                 .map(dto -> {
                     Product product = productsMap.get(dto.getProductId());
                     if (product == null) {
                         throw new ResourceNotFoundException("Product with id " + dto.getProductId() + " not found.");
                     }
-
-                    SaleDetail saleDetail;
-                    int quantityChange = dto.getQuantity();
-
                     if (dto.getId() != null) {
-                        //verify if it belongs to the sale
-                        if (existingDetailsMap == null || !existingDetailsMap.containsKey(dto.getId())) {
-                            throw new ResourceNotFoundException("In this sale with id " + sale.getId() + ", there is no sale detail with id " + dto.getId() + ".");
-                        }
-                        // update detail
-                        saleDetail = existingDetailsMap.get(dto.getId());
-                        quantityChange = dto.getQuantity() - saleDetail.getQuantity();
-                    } else {
-                        // create new detail
-                        saleDetail = new SaleDetail();
-                        saleDetail.setSale(sale);
+                        throw new ResourceNotFoundException("In this sale with id " + sale.getId() + ", there is no sale detail with id " + dto.getId() + ".");
                     }
 
-                    // Check and update stock
-                    updateStock(product, -quantityChange); // Negative  to decrease stock
+                    // Stock is checked and updated once per product after all lines are mapped
+                    stockPlan.consume(product, dto.getQuantity());
+
+                    SaleDetail saleDetail = new SaleDetail();
+                    saleDetail.setSale(sale);
                     saleDetail.setQuantity(dto.getQuantity());
                     saleDetail.setUnitPrice(dto.getUnitPrice());
                     saleDetail.setProduct(product);
@@ -0,0 +1,41 @@
+package com.argenischacon.inventory_sales_api.service;
+
+import com.argenischacon.inventory_sales_api.model.Product;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.function.BiConsumer;
+
+/**
+ * Net stock change per product for one sale operation. All lines touching a product are folded into a single
+ * change, so each product is checked and updated once, in ascending id order (the same order used for row locks).
+ */
+class StockDeltaPlan {
+    private final Map<Long, Integer> changes = new TreeMap<>();
+    private final Map<Long, Product> products = new HashMap<>();
+
+    // Stock leaves the warehouse (new or increased line)
+    void consume(Product product, int quantity) {
+        add(product, -quantity);
+    }
+
+    // Stock goes back to the warehouse (removed or decreased line)
+    void restore(Product product, int quantity) {
+        add(product, quantity);
+    }
+
+    // Visits every product with a non-zero net change, in ascending id order
+    void forEachChange(BiConsumer<Product, Integer> action) {
+        changes.forEach((productId, change) -> {
+            if (change != 0) {
+                action.accept(products.get(productId), change);
+            }
+        });
+    }
+
+    private void add(Product product, int quantityChange) {
+        changes.merge(product.getId(), quantityChange, Integer::sum);
+        products.putIfAbsent(product.getId(), product);
+    }
+}
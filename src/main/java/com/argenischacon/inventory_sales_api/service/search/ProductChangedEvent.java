@@ -0,0 +1,23 @@
+package com.argenischacon.inventory_sales_api.service.search;
+
+import com.argenischacon.inventory_sales_api.model.Product;
+import com.argenischacon.inventory_sales_api.repository.ProductTextView;
+
+/**
+ * Published by ProductServiceImpl when a product is created, updated or deleted. Listeners react after commit.
+ */
+public record ProductChangedEvent(Long productId, ProductTextView product) {
+
+    public static ProductChangedEvent saved(Product product) {
+        return new ProductChangedEvent(product.getId(),
+                new ProductTextView(product.getId(), product.getName(), product.getDescription()));
+    }
+
+    public static ProductChangedEvent deleted(Long productId) {
+        return new ProductChangedEvent(productId, null);
+    }
+
+    public boolean isDeleted() {
+        return product == null;
+    }
+}
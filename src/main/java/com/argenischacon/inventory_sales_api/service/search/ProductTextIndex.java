@@ -0,0 +1,395 @@
+package com.argenischacon.inventory_sales_api.service.search;
+
+import com.argenischacon.inventory_sales_api.repository.ProductRepository;
+import com.argenischacon.inventory_sales_api.repository.ProductTextView;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.text.Normalizer;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.regex.Pattern;
+
+/**
+ * In-memory inverted index over product name and description. Each term maps to immutable postings (product ids
+ * in ascending order with a parallel array of weights), so readers never lock; writers replace the postings of the
+ * terms they touch. The index is built from the database at start-up and kept current by ProductChangedEvent
+ * after each commit.
+ */
+@Component
+@Slf4j
+public class ProductTextIndex implements ApplicationRunner {
+    static final int NAME_WEIGHT = 3;
+    static final int DESCRIPTION_WEIGHT = 1;
+    private static final int MIN_PREFIX_LENGTH = 2;
+    private static final int MAX_PREFIX_EXPANSIONS = 256;
+    private static final int MAX_TERM_LENGTH = 64;
+    private static final Pattern NON_WORD = Pattern.compile("[^\\p{L}\\p{N}]+");
+    private static final Pattern MARKS = Pattern.compile("\\p{M}+");
+
+    private final ProductRepository productRepository;
+    private final int batchSize;
+
+    private volatile ConcurrentSkipListMap<String, Postings> terms = new ConcurrentSkipListMap<>();
+    private volatile Map<Long, String[]> termsByProduct = new ConcurrentHashMap<>();
+    // Non-null while a rebuild runs: changes committed meanwhile are replayed on the new index; guarded by this
+    private List<ProductChangedEvent> changedDuringRebuild;
+
+    @Autowired
+    public ProductTextIndex(ProductRepository productRepository,
+                            @Value("${app.products.text-index.batch-size:10000}") int batchSize) {
+        this.productRepository = productRepository;
+        this.batchSize = batchSize;
+    }
+
+    @Override
+    public void run(ApplicationArguments args) {
+        rebuild();
+    }
+
+    public void rebuild() {
+        synchronized (this) {
+            changedDuringRebuild = new ArrayList<>();
+        }
+        long start = System.nanoTime();
+        Map<String, PostingsBuilder> builders = new HashMap<>();
+        Map<Long, String[]> newTermsByProduct = new ConcurrentHashMap<>();
+        try {
+            Long lastId = 0L;
+            List<ProductTextView> batch;
+            do {
+                batch = productRepository.findTextViewsByIdGreaterThan(lastId, PageRequest.of(0, batchSize));
+                // Tokenising is the expensive part and runs in parallel; merging keeps the batch (id) order
+                List<AnalyzedProduct> analyzed = batch.parallelStream()
+                        .map(ProductTextIndex::analyze)
+                        .toList();
+                for (AnalyzedProduct product : analyzed) {
+                    for (int i = 0; i < product.terms().length; i++) {
+                        builders.computeIfAbsent(product.terms()[i], term -> new PostingsBuilder())
+                                .add(product.id(), product.weights()[i]);
+                    }
+                    newTermsByProduct.put(product.id(), product.terms());
+                }
+                if (!batch.isEmpty()) {
+                    lastId = batch.getLast().id();
+                }
+            } while (batch.size() == batchSize);
+        } catch (RuntimeException ex) {
+            synchronized (this) {
+                changedDuringRebuild = null;
+            }
+            throw ex;
+        }
+
+        ConcurrentSkipListMap<String, Postings> newTerms = new ConcurrentSkipListMap<>();
+        builders.forEach((term, builder) -> newTerms.put(term, builder.build()));
+        synchronized (this) {
+            terms = newTerms;
+            termsByProduct = newTermsByProduct;
+            changedDuringRebuild.forEach(this::apply);
+            changedDuringRebuild = null;
+        }
+        log.info("Indexed {} products ({} terms) for text search in {} ms", newTermsByProduct.size(), newTerms.size(),
+                (System.nanoTime() - start) / 1_000_000);
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public synchronized void onProductChanged(ProductChangedEvent event) {
+        apply(event);
+        if (changedDuringRebuild != null) {
+            changedDuringRebuild.add(event);
+        }
+    }
+
+    /**
+     * Ids of the best matching products, best first. Every query token must match a term of the product, either
+     * exactly or (from two characters on) as a prefix; exact matches and name matches rank higher.
+     */
+    public List<Long> search(String query, int limit) {
+        List<String> tokens = tokenize(query).stream().distinct().toList();
+        if (tokens.isEmpty() || limit <= 0) {
+            return List.of();
+        }
+        NavigableMap<String, Postings> snapshot = terms;
+
+        Postings matches = null;
+        for (String token : tokens) {
+            Postings tokenMatches = match(snapshot, token);
+            matches = matches == null ? tokenMatches : matches.intersect(tokenMatches);
+            if (matches.size() == 0) {
+                return List.of();
+            }
+        }
+        return matches.top(limit);
+    }
+
+    public int size() {
+        return termsByProduct.size();
+    }
+
+    private void apply(ProductChangedEvent event) {
+        remove(event.productId());
+        if (!event.isDeleted()) {
+            AnalyzedProduct product = analyze(event.product());
+            for (int i = 0; i < product.terms().length; i++) {
+                long id = product.id();
+                int weight = product.weights()[i];
+                terms.compute(product.terms()[i], (term, postings) -> postings == null
+                        ? new Postings(new long[]{id}, new int[]{weight})
+                        : postings.with(id, weight));
+            }
+            termsByProduct.put(product.id(), product.terms());
+        }
+    }
+
+    private void remove(Long productId) {
+        String[] previous = termsByProduct.remove(productId);
+        if (previous != null) {
+            for (String term : previous) {
+                terms.computeIfPresent(term, (key, postings) -> postings.without(productId));
+            }
+        }
+    }
+
+    private static Postings match(NavigableMap<String, Postings> snapshot, String token) {
+        Postings exact = snapshot.get(token);
+        Postings result = exact != null ? exact.scaled(2) : Postings.EMPTY;
+        if (token.length() >= MIN_PREFIX_LENGTH) {
+            int expansions = 0;
+            for (Map.Entry<String, Postings> entry : snapshot.subMap(token, false, token + Character.MAX_VALUE, false).entrySet()) {
+                if (++expansions > MAX_PREFIX_EXPANSIONS) {
+                    break;
+                }
+                result = result.union(entry.getValue());
+            }
+        }
+        return result;
+    }
+
+    static AnalyzedProduct analyze(ProductTextView product) {
+        Map<String, Integer> weights = new LinkedHashMap<>();
+        tokenize(product.name()).forEach(term -> weights.merge(term, NAME_WEIGHT, Integer::sum));
+        tokenize(product.description()).forEach(term -> weights.merge(term, DESCRIPTION_WEIGHT, Integer::sum));
+        return new AnalyzedProduct(product.id(),
+                weights.keySet().toArray(String[]::new),
+                weights.values().stream().mapToInt(Integer::intValue).toArray());
+    }
+
+    // Lower case, accents folded ("Cámara" matches "camara"), split on anything that is not a letter or digit
+    static List<String> tokenize(String text) {
+        if (text == null || text.isBlank()) {
+            return List.of();
+        }
+        String folded = MARKS.matcher(Normalizer.normalize(text, Normalizer.Form.NFD)).replaceAll("")
+                .toLowerCase(Locale.ROOT);
+        return Arrays.stream(NON_WORD.split(folded))
+                .filter(term -> !term.isEmpty())
+                .map(term -> term.length() > MAX_TERM_LENGTH ? term.substring(0, MAX_TERM_LENGTH) : term)
+                .toList();
+    }
+
+    record AnalyzedProduct(Long id, String[] terms, int[] weights) {
+    }
+
+    /**
+     * Product ids in ascending order with a parallel array of scores. Instances are never modified.
+     */
+    static final class Postings {
+        static final Postings EMPTY = new Postings(new long[0], new int[0]);
+
+        private final long[] ids;
+        private final int[] scores;
+
+        Postings(long[] ids, int[] scores) {
+            this.ids = ids;
+            this.scores = scores;
+        }
+
+        int size() {
+            return ids.length;
+        }
+
+        Postings with(long id, int score) {
+            int index = Arrays.binarySearch(ids, id);
+            if (index >= 0) {
+                int[] newScores = scores.clone();
+                newScores[index] = score;
+                return new Postings(ids, newScores);
+            }
+            int insertAt = -index - 1;
+            long[] newIds = new long[ids.length + 1];
+            int[] newScores = new int[ids.length + 1];
+            System.arraycopy(ids, 0, newIds, 0, insertAt);
+            System.arraycopy(scores, 0, newScores, 0, insertAt);
+            newIds[insertAt] = id;
+            newScores[insertAt] = score;
+            System.arraycopy(ids, insertAt, newIds, insertAt + 1, ids.length - insertAt);
+            System.arraycopy(scores, insertAt, newScores, insertAt + 1, ids.length - insertAt);
+            return new Postings(newIds, newScores);
+        }
+
+        // Returns null when the last id goes, so the term is dropped from the map
+        Postings without(long id) {
+            int index = Arrays.binarySearch(ids, id);
+            if (index < 0) {
+                return this;
+            }
+            if (ids.length == 1) {
+                return null;
+            }
+            long[] newIds = new long[ids.length - 1];
+            int[] newScores = new int[ids.length - 1];
+            System.arraycopy(ids, 0, newIds, 0, index);
+            System.arraycopy(scores, 0, newScores, 0, index);
+            System.arraycopy(ids, index + 1, newIds, index, ids.length - index - 1);
+            System.arraycopy(scores, index + 1, newScores, index, ids.length - index - 1);
+            return new Postings(newIds, newScores);
+        }
+
+        Postings scaled(int factor) {
+            int[] newScores = new int[scores.length];
+            for (int i = 0; i < scores.length; i++) {
+                newScores[i] = scores[i] * factor;
+            }
+            return new Postings(ids, newScores);
+        }
+
+        // Ids in either list; a product matching several expansions of one token keeps its best score
+        Postings union(Postings other) {
+            long[] newIds = new long[ids.length + other.ids.length];
+            int[] newScores = new int[newIds.length];
+            int i = 0, j = 0, n = 0;
+            while (i < ids.length || j < other.ids.length) {
+                if (j == other.ids.length || (i < ids.length && ids[i] < other.ids[j])) {
+                    newIds[n] = ids[i];
+                    newScores[n++] = scores[i++];
+                } else if (i == ids.length || other.ids[j] < ids[i]) {
+                    newIds[n] = other.ids[j];
+                    newScores[n++] = other.scores[j++];
+                } else {
+                    newIds[n] = ids[i];
+                    newScores[n++] = Math.max(scores[i++], other.scores[j++]);
+                }
+            }
+            return new Postings(Arrays.copyOf(newIds, n), Arrays.copyOf(newScores, n));
+        }
+
+        // Ids in both lists, scores added up
+        Postings intersect(Postings other) {
+            long[] newIds = new long[Math.min(ids.length, other.ids.length)];
+            int[] newScores = new int[newIds.length];
+            int i = 0, j = 0, n = 0;
+            while (i < ids.length && j < other.ids.length) {
+                if (ids[i] < other.ids[j]) {
+                    i++;
+                } else if (other.ids[j] < ids[i]) {
+                    j++;
+                } else {
+                    newIds[n] = ids[i];
+                    newScores[n++] = scores[i++] + other.scores[j++];
+                }
+            }
+            return new Postings(Arrays.copyOf(newIds, n), Arrays.copyOf(newScores, n));
+        }
+
+        // Highest scores first, lower id first on ties; a bounded min-heap of positions keeps this O(n log limit)
+        List<Long> top(int limit) {
+            int k = Math.min(limit, ids.length);
+            int[] heap = new int[k];
+            int size = 0;
+            for (int position = 0; position < ids.length; position++) {
+                if (size < k) {
+                    heap[size] = position;
+                    siftUp(heap, size++);
+                } else if (better(position, heap[0])) {
+                    heap[0] = position;
+                    siftDown(heap, size);
+                }
+            }
+            Long[] result = new Long[size];
+            while (size > 0) {
+                result[--size] = ids[heap[0]];
+                heap[0] = heap[size];
+                siftDown(heap, size);
+            }
+            return List.of(result);
+        }
+
+        private boolean better(int a, int b) {
+            return scores[a] != scores[b] ? scores[a] > scores[b] : ids[a] < ids[b];
+        }
+
+        private void siftUp(int[] heap, int index) {
+            while (index > 0) {
+                int parent = (index - 1) / 2;
+                if (!better(heap[parent], heap[index])) {
+                    break;
+                }
+                swap(heap, parent, index);
+                index = parent;
+            }
+        }
+
+        private void siftDown(int[] heap, int size) {
+            int index = 0;
+            while (true) {
+                int left = 2 * index + 1;
+                int right = left + 1;
+                int worst = index;
+                if (left < size && better(heap[worst], heap[left])) {
+                    worst = left;
+                }
+                if (right < size && better(heap[worst], heap[right])) {
+                    worst = right;
+                }
+                if (worst == index) {
+                    return;
+                }
+                swap(heap, index, worst);
+                index = worst;
+            }
+        }
+
+        private static void swap(int[] heap, int a, int b) {
+            int tmp = heap[a];
+            heap[a] = heap[b];
+            heap[b] = tmp;
+        }
+    }
+
+    /**
+     * Growable postings for the rebuild; ids must be added in ascending order.
+     */
+    private static final class PostingsBuilder {
+        private long[] ids = new long[4];
+        private int[] scores = new int[4];
+        private int size;
+
+        void add(long id, int score) {
+            if (size == ids.length) {
+                ids = Arrays.copyOf(ids, size * 2);
+                scores = Arrays.copyOf(scores, size * 2);
+            }
+            ids[size] = id;
+            scores[size++] = score;
+        }
+
+        Postings build() {
+            return new Postings(Arrays.copyOf(ids, size), Arrays.copyOf(scores, size));
+        }
+    }
+}
@@ -0,0 +1,26 @@
+-- Replace IDENTITY columns with pooled sequences (allocationSize = 50, pooled-lo optimizer).
+-- Each sequence starts right after the current max id, so pooled-lo ranges never overlap existing rows.
+
+ALTER TABLE categories ALTER COLUMN id DROP IDENTITY IF EXISTS;
+ALTER TABLE customers ALTER COLUMN id DROP IDENTITY IF EXISTS;
+ALTER TABLE products ALTER COLUMN id DROP IDENTITY IF EXISTS;
+ALTER TABLE sales ALTER COLUMN id DROP IDENTITY IF EXISTS;
+ALTER TABLE sale_details ALTER COLUMN id DROP IDENTITY IF EXISTS;
+ALTER TABLE users ALTER COLUMN id DROP IDENTITY IF EXISTS;
+
+CREATE SEQUENCE IF NOT EXISTS categories_seq INCREMENT BY 50;
+CREATE SEQUENCE IF NOT EXISTS customers_seq INCREMENT BY 50;
+CREATE SEQUENCE IF NOT EXISTS products_seq INCREMENT BY 50;
+CREATE SEQUENCE IF NOT EXISTS sales_seq INCREMENT BY 50;
+CREATE SEQUENCE IF NOT EXISTS sale_details_seq INCREMENT BY 50;
+CREATE SEQUENCE IF NOT EXISTS users_seq INCREMENT BY 50;
+-- Already created by the baseline schema (implicit sequence of the revisions table, increment 50)
+CREATE SEQUENCE IF NOT EXISTS revisions_seq INCREMENT BY 50;
+
+SELECT setval('categories_seq', COALESCE((SELECT MAX(id) FROM categories), 0) + 1, false);
+SELECT setval('customers_seq', COALESCE((SELECT MAX(id) FROM customers), 0) + 1, false);
+SELECT setval('products_seq', COALESCE((SELECT MAX(id) FROM products), 0) + 1, false);
+SELECT setval('sales_seq', COALESCE((SELECT MAX(id) FROM sales), 0) + 1, false);
+SELECT setval('sale_details_seq', COALESCE((SELECT MAX(id) FROM sale_details), 0) + 1, false);
+SELECT setval('users_seq', COALESCE((SELECT MAX(id) FROM users), 0) + 1, false);
+SELECT setval('revisions_seq', COALESCE((SELECT MAX(id) FROM revisions), 0) + 1, false);
@@ -0,0 +1,3 @@
+-- Version columns for optimistic locking on products and sales
+ALTER TABLE products ADD COLUMN version BIGINT NOT NULL DEFAULT 0;
+ALTER TABLE sales ADD COLUMN version BIGINT NOT NULL DEFAULT 0;
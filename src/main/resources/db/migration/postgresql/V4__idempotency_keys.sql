@@ -0,0 +1,11 @@
+-- Stored responses for Idempotency-Key retries of POST /api/v1/sales
+CREATE TABLE idempotency_keys (
+    scoped_key    VARCHAR(320) PRIMARY KEY,
+    request_hash  VARCHAR(64)  NOT NULL,
+    status        VARCHAR(16)  NOT NULL,
+    response_body TEXT,
+    created_at    TIMESTAMP(6) WITH TIME ZONE NOT NULL,
+    expires_at    TIMESTAMP(6) WITH TIME ZONE NOT NULL
+);
+
+CREATE INDEX idx_idempotency_keys_expires_at ON idempotency_keys (expires_at);
@@ -0,0 +1,7 @@
+-- Product search: each filter has an index, and (column, id) pairs also serve the keyset order of that sort
+CREATE INDEX idx_products_category_id ON products (category_id, id);
+CREATE INDEX idx_products_unit_price ON products (unit_price, id);
+CREATE INDEX idx_products_stock ON products (stock, id);
+
+-- Name prefix search compares lower(name) with LIKE 'prefix%'; the pattern opclass makes it usable under any collation
+CREATE INDEX idx_products_lower_name ON products (lower(name) text_pattern_ops);
@@ -0,0 +1,9 @@
+-- Ids of revoked JWTs (logout, spent refresh tokens), kept until the token would have expired anyway
+CREATE TABLE revoked_tokens (
+    token_id   VARCHAR(36) PRIMARY KEY,
+    revoked_at TIMESTAMP(6) WITH TIME ZONE NOT NULL,
+    expires_at TIMESTAMP(6) WITH TIME ZONE NOT NULL
+);
+
+CREATE INDEX idx_revoked_tokens_revoked_at ON revoked_tokens (revoked_at);
+CREATE INDEX idx_revoked_tokens_expires_at ON revoked_tokens (expires_at);
@@ -0,0 +1,3 @@
+-- Version column on users: a change to the roles alone then also updates the user row, which fires the
+-- entity listeners that evict the user status cache
+ALTER TABLE users ADD COLUMN version BIGINT NOT NULL DEFAULT 0;
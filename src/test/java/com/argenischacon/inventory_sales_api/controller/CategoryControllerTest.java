@@ -2,9 +2,14 @@ package com.argenischacon.inventory_sales_api.controller;
 
 import com.argenischacon.inventory_sales_api.dto.CategoryRequestDTO;
 import com.argenischacon.inventory_sales_api.dto.CategoryResponseDTO;
+import com.argenischacon.inventory_sales_api.dto.PageQueryDTO;
+import com.argenischacon.inventory_sales_api.dto.PageResponseDTO;
 import com.argenischacon.inventory_sales_api.exception.ResourceNotFoundException;
+import com.argenischacon.inventory_sales_api.repository.ChangeStamp;
 import com.argenischacon.inventory_sales_api.service.CategoryService;
 import com.argenischacon.inventory_sales_api.security.JwtUtils;
+import com.argenischacon.inventory_sales_api.security.TokenRevocationList;
+import com.argenischacon.inventory_sales_api.security.UserStatusCache;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
@@ -18,6 +23,7 @@ import org.springframework.test.context.bean.override.mockito.MockitoBean;
 import org.springframework.test.web.servlet.MockMvc;
 
 
+import java.time.LocalDateTime;
 import java.util.Collections;
 import java.util.List;
 
@@ -29,6 +35,7 @@ import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.
 @TestPropertySource(properties = "app.jpa.auditing-enabled=false")
 @AutoConfigureMockMvc(addFilters = false)
 public class CategoryControllerTest {
+    private static final ChangeStamp CHANGE_STAMP = new ChangeStamp(1L, LocalDateTime.of(2025, 1, 15, 10, 30));
 
     @Autowired
     private MockMvc mockMvc;
@@ -42,11 +49,20 @@ public class CategoryControllerTest {
     @MockitoBean
     private JwtUtils jwtUtils;
 
+    @MockitoBean
+    private UserStatusCache userStatusCache;
+
+    @MockitoBean
+    private TokenRevocationList tokenRevocationList;
+
     private CategoryRequestDTO baseCategoryRequestDTO;
     private CategoryResponseDTO baseCategoryResponseDTO;
 
     @BeforeEach
     void setUp() {
+        when(categoryService.findChangeStamp(anyLong())).thenReturn(CHANGE_STAMP);
+        when(categoryService.findChangeStamp()).thenReturn(CHANGE_STAMP);
+
         baseCategoryRequestDTO = new CategoryRequestDTO();
         baseCategoryRequestDTO.setName("Electronics");
         baseCategoryRequestDTO.setDescription("Electronic devices");
@@ -182,27 +198,52 @@ public class CategoryControllerTest {
     @Test
     @DisplayName("GET /api/v1/categories -> 200 OK (list)")
     void getCategoriesSuccess() throws Exception {
-        when(categoryService.findAll()).thenReturn(List.of(baseCategoryResponseDTO));
+        when(categoryService.findAll(any(PageQueryDTO.class))).thenReturn(new PageResponseDTO<>(List.of(baseCategoryResponseDTO), 20, 0, null, false));
 
         mockMvc.perform(get("/api/v1/categories"))
                 .andExpect(status().isOk())
-                .andExpect(jsonPath("$[0].id").value(1L))
-                .andExpect(jsonPath("$[0].name").value("Electronics"))
-                .andExpect(jsonPath("$[0].description").value("Electronic devices"));
+                .andExpect(jsonPath("$.content[0].id").value(1L))
+                .andExpect(jsonPath("$.content[0].name").value("Electronics"))
+                .andExpect(jsonPath("$.content[0].description").value("Electronic devices"));
 
-        verify(categoryService).findAll();
+        verify(categoryService).findAll(any(PageQueryDTO.class));
     }
 
     @Test
     @DisplayName("GET /api/v1/categories -> 200 OK (Empty List)")
     void getAllCategoriesEmpty() throws Exception {
-        when(categoryService.findAll()).thenReturn(Collections.emptyList());
+        when(categoryService.findAll(any(PageQueryDTO.class))).thenReturn(new PageResponseDTO<>(Collections.emptyList(), 20, 0, null, false));
 
         mockMvc.perform(get("/api/v1/categories"))
                 .andExpect(status().isOk())
-                .andExpect(content().json("[]"));
+                .andExpect(jsonPath("$.content").isEmpty())
+                .andExpect(jsonPath("$.hasNext").value(false));
+
+        verify(categoryService).findAll(any(PageQueryDTO.class));
+    }
+
+    @Test
+    @DisplayName("GET /api/v1/categories?cursor&size -> 200 OK (next page)")
+    void getCategoriesNextPage() throws Exception {
+        when(categoryService.findAll(any(PageQueryDTO.class)))
+                .thenReturn(new PageResponseDTO<>(List.of(baseCategoryResponseDTO), 1, null, "MQ", true));
 
-        verify(categoryService).findAll();
+        mockMvc.perform(get("/api/v1/categories").param("cursor", "MA").param("size", "1"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.nextCursor").value("MQ"))
+                .andExpect(jsonPath("$.hasNext").value(true));
+
+        verify(categoryService).findAll(new PageQueryDTO("MA", null, 1));
+    }
+
+    @Test
+    @DisplayName("GET /api/v1/categories?size=0 -> 400 Bad Request")
+    void getCategoriesInvalidSize() throws Exception {
+        mockMvc.perform(get("/api/v1/categories").param("size", "0"))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.details.size").value("Size must be at least 1"));
+
+        verifyNoInteractions(categoryService);
     }
 
     // ==== INTERNAL SERVER ERROR ====
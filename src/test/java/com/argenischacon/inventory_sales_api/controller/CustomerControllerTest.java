@@ -2,8 +2,13 @@ package com.argenischacon.inventory_sales_api.controller;
 
 import com.argenischacon.inventory_sales_api.dto.CustomerRequestDTO;
 import com.argenischacon.inventory_sales_api.dto.CustomerResponseDTO;
+import com.argenischacon.inventory_sales_api.dto.PageQueryDTO;
+import com.argenischacon.inventory_sales_api.dto.PageResponseDTO;
 import com.argenischacon.inventory_sales_api.exception.ResourceNotFoundException;
+import com.argenischacon.inventory_sales_api.repository.ChangeStamp;
 import com.argenischacon.inventory_sales_api.security.JwtUtils;
+import com.argenischacon.inventory_sales_api.security.TokenRevocationList;
+import com.argenischacon.inventory_sales_api.security.UserStatusCache;
 import com.argenischacon.inventory_sales_api.service.CustomerService;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import org.junit.jupiter.api.BeforeEach;
@@ -17,6 +22,7 @@ import org.springframework.test.context.TestPropertySource;
 import org.springframework.test.context.bean.override.mockito.MockitoBean;
 import org.springframework.test.web.servlet.MockMvc;
 
+import java.time.LocalDateTime;
 import java.util.Collections;
 import java.util.List;
 
@@ -28,6 +34,7 @@ import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.
 @TestPropertySource(properties = "app.jpa.auditing-enabled=false")
 @AutoConfigureMockMvc(addFilters = false)
 public class CustomerControllerTest {
+    private static final ChangeStamp CHANGE_STAMP = new ChangeStamp(1L, LocalDateTime.of(2025, 1, 15, 10, 30));
 
     @Autowired
     private MockMvc mockMvc;
@@ -41,11 +48,20 @@ public class CustomerControllerTest {
     @MockitoBean
     private JwtUtils jwtUtils;
 
+    @MockitoBean
+    private UserStatusCache userStatusCache;
+
+    @MockitoBean
+    private TokenRevocationList tokenRevocationList;
+
     private CustomerRequestDTO baseCustomerRequestDTO;
     private CustomerResponseDTO baseCustomerResponseDTO;
 
     @BeforeEach
     void setUp() {
+        when(customerService.findChangeStamp(anyLong())).thenReturn(CHANGE_STAMP);
+        when(customerService.findChangeStamp()).thenReturn(CHANGE_STAMP);
+
         baseCustomerRequestDTO = new CustomerRequestDTO();
         baseCustomerRequestDTO.setDni("12345678");
         baseCustomerRequestDTO.setName("John");
@@ -190,28 +206,29 @@ public class CustomerControllerTest {
     @Test
     @DisplayName("GET /api/v1/customers -> 200 OK")
     void getCustomersSuccess() throws Exception {
-        when(customerService.findAll()).thenReturn(List.of(baseCustomerResponseDTO));
+        when(customerService.findAll(any(PageQueryDTO.class))).thenReturn(new PageResponseDTO<>(List.of(baseCustomerResponseDTO), 20, 0, null, false));
 
         mockMvc.perform(get("/api/v1/customers"))
                 .andExpect(status().isOk())
-                .andExpect(jsonPath("$[0].id").value(1L))
-                .andExpect(jsonPath("$[0].dni").value("12345678"))
-                .andExpect(jsonPath("$[0].name").value("John"))
-                .andExpect(jsonPath("$[0].lastName").value("Doe"));
+                .andExpect(jsonPath("$.content[0].id").value(1L))
+                .andExpect(jsonPath("$.content[0].dni").value("12345678"))
+                .andExpect(jsonPath("$.content[0].name").value("John"))
+                .andExpect(jsonPath("$.content[0].lastName").value("Doe"));
 
-        verify(customerService, times(1)).findAll();
+        verify(customerService, times(1)).findAll(any(PageQueryDTO.class));
     }
 
     @Test
     @DisplayName("GET /api/v1/customers -> 200 OK (Empty List)")
     void getAllCustomersEmpty() throws Exception {
-        when(customerService.findAll()).thenReturn(Collections.emptyList());
+        when(customerService.findAll(any(PageQueryDTO.class))).thenReturn(new PageResponseDTO<>(Collections.emptyList(), 20, 0, null, false));
 
         mockMvc.perform(get("/api/v1/customers"))
                 .andExpect(status().isOk())
-                .andExpect(content().json("[]"));
+                .andExpect(jsonPath("$.content").isEmpty())
+                .andExpect(jsonPath("$.hasNext").value(false));
 
-        verify(customerService).findAll();
+        verify(customerService).findAll(any(PageQueryDTO.class));
     }
 
     // ==== INTERNAL SERVER ERROR ====
@@ -1,10 +1,19 @@
 package com.argenischacon.inventory_sales_api.controller;
 
+import com.argenischacon.inventory_sales_api.config.JacksonConfig;
 import com.argenischacon.inventory_sales_api.dto.CategoryNestedDTO;
+import com.argenischacon.inventory_sales_api.dto.FieldsQueryDTO;
+import com.argenischacon.inventory_sales_api.dto.PageQueryDTO;
+import com.argenischacon.inventory_sales_api.dto.PageResponseDTO;
 import com.argenischacon.inventory_sales_api.dto.ProductRequestDTO;
 import com.argenischacon.inventory_sales_api.dto.ProductResponseDTO;
+import com.argenischacon.inventory_sales_api.dto.ProductSearchDTO;
+import com.argenischacon.inventory_sales_api.dto.ProductTextQueryDTO;
 import com.argenischacon.inventory_sales_api.exception.ResourceNotFoundException;
+import com.argenischacon.inventory_sales_api.repository.ChangeStamp;
 import com.argenischacon.inventory_sales_api.security.JwtUtils;
+import com.argenischacon.inventory_sales_api.security.TokenRevocationList;
+import com.argenischacon.inventory_sales_api.security.UserStatusCache;
 import com.argenischacon.inventory_sales_api.service.ProductService;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import org.junit.jupiter.api.BeforeEach;
@@ -13,23 +22,28 @@ import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
 import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
+import org.springframework.context.annotation.Import;
 import org.springframework.http.MediaType;
 import org.springframework.test.context.TestPropertySource;
 import org.springframework.test.context.bean.override.mockito.MockitoBean;
 import org.springframework.test.web.servlet.MockMvc;
 
 import java.math.BigDecimal;
+import java.time.LocalDateTime;
 import java.util.Collections;
 import java.util.List;
 
+import static org.hamcrest.Matchers.startsWith;
 import static org.mockito.Mockito.*;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
 
 @WebMvcTest(ProductController.class)
+@Import(JacksonConfig.class)
 @TestPropertySource(properties = "app.jpa.auditing-enabled=false")
 @AutoConfigureMockMvc(addFilters = false)
 public class ProductControllerTest {
+    private static final ChangeStamp CHANGE_STAMP = new ChangeStamp(1L, LocalDateTime.of(2025, 1, 15, 10, 30));
 
     @Autowired
     private MockMvc mockMvc;
@@ -43,11 +57,20 @@ public class ProductControllerTest {
     @MockitoBean
     private JwtUtils jwtUtils;
 
+    @MockitoBean
+    private UserStatusCache userStatusCache;
+
+    @MockitoBean
+    private TokenRevocationList tokenRevocationList;
+
     private ProductRequestDTO baseProductRequestDTO;
     private ProductResponseDTO baseProductResponseDTO;
 
     @BeforeEach
     void setUp() {
+        when(productService.findChangeStamp(anyLong())).thenReturn(CHANGE_STAMP);
+        when(productService.findChangeStamp()).thenReturn(CHANGE_STAMP);
+
         baseProductRequestDTO = new ProductRequestDTO();
         baseProductRequestDTO.setName("Laptop");
         baseProductRequestDTO.setDescription("Powerful laptop for gaming and work");
@@ -252,30 +275,186 @@ public class ProductControllerTest {
     @Test
     @DisplayName("GET /api/v1/products -> 200 OK")
     void getProductsSuccess() throws Exception {
-        when(productService.findAll()).thenReturn(List.of(baseProductResponseDTO));
+        when(productService.findAll(any(PageQueryDTO.class))).thenReturn(new PageResponseDTO<>(List.of(baseProductResponseDTO), 20, 0, null, false));
 
         mockMvc.perform(get("/api/v1/products"))
                 .andExpect(status().isOk())
-                .andExpect(jsonPath("$[0].id").value(1L))
-                .andExpect(jsonPath("$[0].name").value("Laptop"))
-                .andExpect(jsonPath("$[0].description").value("Powerful laptop for gaming and work"))
-                .andExpect(jsonPath("$[0].unitPrice").value(1200.00))
-                .andExpect(jsonPath("$[0].stock").value(50))
-                .andExpect(jsonPath("$[0].category.id").value(2L));
-
-        verify(productService, times(1)).findAll();
+                .andExpect(jsonPath("$.content[0].id").value(1L))
+                .andExpect(jsonPath("$.content[0].name").value("Laptop"))
+                .andExpect(jsonPath("$.content[0].description").value("Powerful laptop for gaming and work"))
+                .andExpect(jsonPath("$.content[0].unitPrice").value(1200.00))
+                .andExpect(jsonPath("$.content[0].stock").value(50))
+                .andExpect(jsonPath("$.content[0].category.id").value(2L));
+
+        verify(productService, times(1)).findAll(any(PageQueryDTO.class));
     }
 
     @Test
     @DisplayName("GET /api/v1/products -> 200 OK (Empty List)")
     void getAllProductsEmpty() throws Exception {
-        when(productService.findAll()).thenReturn(Collections.emptyList());
+        when(productService.findAll(any(PageQueryDTO.class))).thenReturn(new PageResponseDTO<>(Collections.emptyList(), 20, 0, null, false));
 
         mockMvc.perform(get("/api/v1/products"))
                 .andExpect(status().isOk())
-                .andExpect(content().json("[]"));
+                .andExpect(jsonPath("$.content").isEmpty())
+                .andExpect(jsonPath("$.hasNext").value(false));
+
+        verify(productService, times(1)).findAll(any(PageQueryDTO.class));
+    }
+
+    // ==== CONDITIONAL GET ====
+    @Test
+    @DisplayName("GET /api/v1/products/{id} -> 200 OK with ETag and Last-Modified")
+    void getProductByIdSendsValidators() throws Exception {
+        when(productService.findById(eq(1L))).thenReturn(baseProductResponseDTO);
+
+        mockMvc.perform(get("/api/v1/products/{id}", 1L))
+                .andExpect(status().isOk())
+                .andExpect(header().exists("ETag"))
+                .andExpect(header().exists("Last-Modified"));
+    }
+
+    @Test
+    @DisplayName("GET /api/v1/products/{id} -> 304 Not Modified (If-None-Match)")
+    void getProductByIdNotModified() throws Exception {
+        when(productService.findById(eq(1L))).thenReturn(baseProductResponseDTO);
+        String etag = mockMvc.perform(get("/api/v1/products/{id}", 1L))
+                .andReturn().getResponse().getHeader("ETag");
+
+        mockMvc.perform(get("/api/v1/products/{id}", 1L).header("If-None-Match", etag))
+                .andExpect(status().isNotModified())
+                .andExpect(header().string("ETag", etag))
+                .andExpect(content().string(""));
+
+        verify(productService, times(1)).findById(eq(1L));
+    }
+
+    @Test
+    @DisplayName("GET /api/v1/products -> 304 Not Modified (If-Modified-Since)")
+    void getProductsNotModifiedSince() throws Exception {
+        mockMvc.perform(get("/api/v1/products").header("If-Modified-Since", "Wed, 15 Jan 2025 23:59:59 GMT"))
+                .andExpect(status().isNotModified());
+
+        verify(productService, never()).findAll(any(PageQueryDTO.class));
+    }
+
+    @Test
+    @DisplayName("GET /api/v1/products -> 200 OK on If-Modified-Since alone when the stamp has a fraction of a second")
+    void getProductsIgnoresModifiedSinceForSubSecondStamp() throws Exception {
+        when(productService.findChangeStamp()).thenReturn(new ChangeStamp(1L, LocalDateTime.of(2025, 1, 15, 10, 30, 0, 500_000_000)));
+        when(productService.findAll(any(PageQueryDTO.class))).thenReturn(new PageResponseDTO<>(Collections.emptyList(), 20, 0, null, false));
+
+        mockMvc.perform(get("/api/v1/products").header("If-Modified-Since", "Wed, 15 Jan 2025 23:59:59 GMT"))
+                .andExpect(status().isOk())
+                .andExpect(header().doesNotExist("Last-Modified"))
+                .andExpect(header().string("ETag", startsWith("W/\"1-")));
+    }
+
+    @Test
+    @DisplayName("GET /api/v1/products -> 200 OK when the collection changed")
+    void getProductsModified() throws Exception {
+        when(productService.findChangeStamp()).thenReturn(new ChangeStamp(2L, LocalDateTime.of(2025, 1, 15, 10, 30)));
+        when(productService.findAll(any(PageQueryDTO.class))).thenReturn(new PageResponseDTO<>(Collections.emptyList(), 20, 0, null, false));
+
+        mockMvc.perform(get("/api/v1/products").header("If-None-Match", "W/\"stale\""))
+                .andExpect(status().isOk())
+                .andExpect(header().string("ETag", startsWith("W/\"2-")));
+    }
+
+    // ==== SPARSE FIELDSETS ====
+    @Test
+    @DisplayName("GET /api/v1/products/{id}?fields=name,unitPrice -> 200 OK with only those properties and id")
+    void getProductByIdWithFields() throws Exception {
+        when(productService.findById(eq(1L))).thenReturn(baseProductResponseDTO);
+
+        mockMvc.perform(get("/api/v1/products/{id}", 1L).param("fields", "name,unitPrice"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.id").value(1L))
+                .andExpect(jsonPath("$.name").value("Laptop"))
+                .andExpect(jsonPath("$.unitPrice").value(1200.00))
+                .andExpect(jsonPath("$.description").doesNotExist())
+                .andExpect(jsonPath("$.category").doesNotExist());
+    }
+
+    @Test
+    @DisplayName("GET /api/v1/products?fields=stock -> 200 OK with pruned items and full page metadata")
+    void getProductsWithFields() throws Exception {
+        when(productService.findAll(any(PageQueryDTO.class))).thenReturn(new PageResponseDTO<>(List.of(baseProductResponseDTO), 20, 0, "next", true));
+
+        mockMvc.perform(get("/api/v1/products").param("fields", "stock"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.content[0].id").value(1L))
+                .andExpect(jsonPath("$.content[0].stock").value(50))
+                .andExpect(jsonPath("$.content[0].name").doesNotExist())
+                .andExpect(jsonPath("$.nextCursor").value("next"))
+                .andExpect(jsonPath("$.hasNext").value(true));
+    }
+
+    @Test
+    @DisplayName("GET /api/v1/products?fields=name;drop -> 400 Bad Request")
+    void getProductsWithInvalidFields() throws Exception {
+        mockMvc.perform(get("/api/v1/products").param("fields", "name;drop"))
+                .andExpect(status().isBadRequest());
+
+        verify(productService, never()).findAll(any(PageQueryDTO.class));
+    }
+
+    // ==== SEARCH ====
+    @Test
+    @DisplayName("GET /api/v1/products/search -> 200 OK")
+    void searchProductsSuccess() throws Exception {
+        when(productService.search(any(ProductSearchDTO.class), any(PageQueryDTO.class), any(FieldsQueryDTO.class)))
+                .thenReturn(new PageResponseDTO<>(List.of(baseProductResponseDTO), 20, 0, "next", true));
+
+        mockMvc.perform(get("/api/v1/products/search")
+                        .param("categoryId", "2")
+                        .param("minPrice", "1000")
+                        .param("inStock", "true")
+                        .param("name", "lap")
+                        .param("sortBy", "unitPrice")
+                        .param("direction", "desc"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.content[0].id").value(1L))
+                .andExpect(jsonPath("$.nextCursor").value("next"));
+
+        verify(productService).search(argThat(filter -> filter.getCategoryId() == 2L
+                        && filter.getMinPrice().compareTo(BigDecimal.valueOf(1000)) == 0
+                        && filter.getInStock() && "lap".equals(filter.getName())
+                        && "unitPrice".equals(filter.getSortBy()) && "desc".equals(filter.getDirection())),
+                any(PageQueryDTO.class), any(FieldsQueryDTO.class));
+    }
+
+    @Test
+    @DisplayName("GET /api/v1/products/search -> 400 Bad Request (Invalid Sort)")
+    void searchProductsInvalidSort() throws Exception {
+        mockMvc.perform(get("/api/v1/products/search").param("sortBy", "category"))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.details.sortBy").value("Sort field must be one of: id, name, unitPrice, stock"));
+
+        verifyNoInteractions(productService);
+    }
+
+    @Test
+    @DisplayName("GET /api/v1/products/search/text -> 200 OK")
+    void searchProductsByTextSuccess() throws Exception {
+        when(productService.searchText(any(ProductTextQueryDTO.class))).thenReturn(List.of(baseProductResponseDTO));
 
-        verify(productService, times(1)).findAll();
+        mockMvc.perform(get("/api/v1/products/search/text").param("q", "lap").param("limit", "5"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[0].id").value(1L))
+                .andExpect(jsonPath("$[0].name").value("Laptop"));
+
+        verify(productService).searchText(new ProductTextQueryDTO("lap", 5));
+    }
+
+    @Test
+    @DisplayName("GET /api/v1/products/search/text -> 400 Bad Request (Blank Query)")
+    void searchProductsByTextBlankQuery() throws Exception {
+        mockMvc.perform(get("/api/v1/products/search/text").param("q", " "))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.details.q").value("Query is required"));
+
+        verifyNoInteractions(productService);
     }
 
     // ==== INTERNAL SERVER ERROR ====
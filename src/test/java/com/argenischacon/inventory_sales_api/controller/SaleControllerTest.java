@@ -2,8 +2,15 @@ package com.argenischacon.inventory_sales_api.controller;
 
 import com.argenischacon.inventory_sales_api.dto.*;
 import com.argenischacon.inventory_sales_api.exception.InsufficientStockException;
+import com.argenischacon.inventory_sales_api.exception.InvalidCursorException;
+import com.argenischacon.inventory_sales_api.exception.InvalidIdempotencyKeyException;
 import com.argenischacon.inventory_sales_api.exception.ResourceNotFoundException;
+import com.argenischacon.inventory_sales_api.repository.ChangeStamp;
 import com.argenischacon.inventory_sales_api.security.JwtUtils;
+import com.argenischacon.inventory_sales_api.security.TokenRevocationList;
+import com.argenischacon.inventory_sales_api.security.UserStatusCache;
+import com.argenischacon.inventory_sales_api.service.IdempotencyService;
+import com.argenischacon.inventory_sales_api.service.SaleExportService;
 import com.argenischacon.inventory_sales_api.service.SaleService;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import org.junit.jupiter.api.BeforeEach;
@@ -16,8 +23,13 @@ import org.springframework.http.MediaType;
 import org.springframework.test.context.TestPropertySource;
 import org.springframework.test.context.bean.override.mockito.MockitoBean;
 import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
 
+import java.io.OutputStream;
 import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
 import java.util.Collections;
 import java.util.List;
 
@@ -30,6 +42,8 @@ import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.
 @TestPropertySource(properties = "app.jpa.auditing-enabled=false")
 @AutoConfigureMockMvc(addFilters = false)
 public class SaleControllerTest {
+    private static final ChangeStamp CHANGE_STAMP = new ChangeStamp(1L, LocalDateTime.of(2025, 1, 15, 10, 30));
+
     @Autowired
     private MockMvc mockMvc;
 
@@ -39,14 +53,29 @@ public class SaleControllerTest {
     @MockitoBean
     private SaleService saleService;
 
+    @MockitoBean
+    private IdempotencyService idempotencyService;
+
+    @MockitoBean
+    private SaleExportService saleExportService;
+
     @MockitoBean
     private JwtUtils jwtUtils;
 
+    @MockitoBean
+    private UserStatusCache userStatusCache;
+
+    @MockitoBean
+    private TokenRevocationList tokenRevocationList;
+
     private SaleRequestDTO baseSaleRequestDTO;
     private SaleResponseDTO baseSaleResponseDTO;
 
     @BeforeEach
     void setUp() {
+        when(saleService.findChangeStamp(anyLong())).thenReturn(CHANGE_STAMP);
+        when(saleService.findChangeStamp()).thenReturn(CHANGE_STAMP);
+
         SaleDetailRequestDTO baseSaleDetailRequestDTO = new SaleDetailRequestDTO();
         baseSaleDetailRequestDTO.setQuantity(2);
         baseSaleDetailRequestDTO.setUnitPrice(BigDecimal.valueOf(1000.00));
@@ -92,6 +121,37 @@ public class SaleControllerTest {
         verify(saleService).create(any(SaleRequestDTO.class));
     }
 
+    @Test
+    @DisplayName("POST /api/v1/sales with Idempotency-Key -> 201 Created (replayed)")
+    void createSaleIdempotentReplay() throws Exception {
+        when(idempotencyService.execute(eq("pos-7-0001"), any(SaleRequestDTO.class), eq(SaleResponseDTO.class), any()))
+                .thenReturn(new IdempotencyService.Result<>(baseSaleResponseDTO, true));
+
+        mockMvc.perform(post("/api/v1/sales")
+                        .header("Idempotency-Key", "pos-7-0001")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(baseSaleRequestDTO)))
+                .andExpect(status().isCreated())
+                .andExpect(header().string("Idempotent-Replayed", "true"))
+                .andExpect(jsonPath("$.id").value(1L));
+
+        verifyNoInteractions(saleService);
+    }
+
+    @Test
+    @DisplayName("POST /api/v1/sales with reused Idempotency-Key -> 422 Unprocessable Entity")
+    void createSaleIdempotencyKeyReused() throws Exception {
+        when(idempotencyService.execute(eq("pos-7-0001"), any(SaleRequestDTO.class), eq(SaleResponseDTO.class), any()))
+                .thenThrow(new InvalidIdempotencyKeyException("Idempotency-Key was already used with a different request payload."));
+
+        mockMvc.perform(post("/api/v1/sales")
+                        .header("Idempotency-Key", "pos-7-0001")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(baseSaleRequestDTO)))
+                .andExpect(status().isUnprocessableEntity())
+                .andExpect(jsonPath("$.message").value("Idempotency-Key was already used with a different request payload."));
+    }
+
     @Test
     @DisplayName("POST /api/v1/sales -> 400 Bad Request")
     void createSaleValidationError() throws Exception {
@@ -163,6 +223,43 @@ public class SaleControllerTest {
         verify(saleService).create(any(SaleRequestDTO.class));
     }
 
+    @Test
+    @DisplayName("POST /api/v1/sales/batch -> 200 OK")
+    void createSaleBatchSuccess() throws Exception {
+        SaleBatchResponseDTO batchResponseDTO = new SaleBatchResponseDTO(1, 1, List.of(
+                SaleBatchItemResultDTO.created(0, 1L, BigDecimal.valueOf(2000.00)),
+                SaleBatchItemResultDTO.failed(1, "Product with id 999 not found.")));
+        when(saleService.createBatch(any(SaleBatchRequestDTO.class))).thenReturn(batchResponseDTO);
+
+        mockMvc.perform(post("/api/v1/sales/batch")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(
+                                new SaleBatchRequestDTO(List.of(baseSaleRequestDTO, baseSaleRequestDTO)))))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.created").value(1))
+                .andExpect(jsonPath("$.failed").value(1))
+                .andExpect(jsonPath("$.results[0].status").value("CREATED"))
+                .andExpect(jsonPath("$.results[0].saleId").value(1L))
+                .andExpect(jsonPath("$.results[1].status").value("FAILED"))
+                .andExpect(jsonPath("$.results[1].error").value("Product with id 999 not found."));
+
+        verify(saleService).createBatch(any(SaleBatchRequestDTO.class));
+    }
+
+    @Test
+    @DisplayName("POST /api/v1/sales/batch -> 400 Bad Request")
+    void createSaleBatchValidationError() throws Exception {
+        SaleRequestDTO invalidRequestDTO = new SaleRequestDTO(null, baseSaleRequestDTO.getSaleDetails()); //<- invalid
+
+        mockMvc.perform(post("/api/v1/sales/batch")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(new SaleBatchRequestDTO(List.of(invalidRequestDTO)))))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.details['sales[0].customerId']").value("Customer ID is required"));
+
+        verifyNoInteractions(saleService);
+    }
+
     // ==== PUT ====
     @Test
     @DisplayName("PUT /api/v1/sales/{id} -> 200 OK")
@@ -311,7 +408,7 @@ public class SaleControllerTest {
     @Test
     @DisplayName("GET /api/v1/sales/{id} -> 200 OK")
     void getSaleByIdSuccess() throws Exception {
-        when(saleService.findById(eq(1L))).thenReturn(baseSaleResponseDTO);
+        when(saleService.findById(eq(1L), any(FieldsQueryDTO.class))).thenReturn(baseSaleResponseDTO);
 
         mockMvc.perform(get("/api/v1/sales/{id}", 1L))
                 .andExpect(status().isOk())
@@ -319,54 +416,129 @@ public class SaleControllerTest {
                 .andExpect(jsonPath("$.customer.id").value(2L))
                 .andExpect(jsonPath("$.saleDetails[0].id").value(4L));
 
-        verify(saleService).findById(eq(1L));
+        verify(saleService).findById(eq(1L), any(FieldsQueryDTO.class));
     }
 
     @Test
     @DisplayName("GET /api/v1/sales/{id} -> 404 Not Found")
     void getSaleByIdNotFound() throws Exception {
         long saleId = 1L;
-        when(saleService.findById(eq(saleId)))
+        when(saleService.findById(eq(saleId), any(FieldsQueryDTO.class)))
                 .thenThrow(new ResourceNotFoundException("Sale with id " + saleId + " not found."));
 
         mockMvc.perform(get("/api/v1/sales/{id}", 1L))
                 .andExpect(status().isNotFound())
                 .andExpect(jsonPath("$.message").value("Sale with id " + saleId + " not found."));
 
-        verify(saleService).findById(eq(1L));
+        verify(saleService).findById(eq(1L), any(FieldsQueryDTO.class));
     }
 
     // ==== GET ALL ====
     @Test
     @DisplayName("GET /api/v1/sales -> 200 OK")
     void getAllSalesSuccess() throws Exception {
-        when(saleService.findAll()).thenReturn(List.of(baseSaleResponseDTO));
+        when(saleService.findAll(any(SaleFilterDTO.class), any(PageQueryDTO.class), any(FieldsQueryDTO.class))).thenReturn(new PageResponseDTO<>(List.of(baseSaleResponseDTO), 20, 0, null, false));
 
         mockMvc.perform(get("/api/v1/sales"))
                 .andExpect(status().isOk())
-                .andExpect(jsonPath("$[0].id").value(1L))
-                .andExpect(jsonPath("$[0].customer.id").value(2L));
+                .andExpect(jsonPath("$.content[0].id").value(1L))
+                .andExpect(jsonPath("$.content[0].customer.id").value(2L));
 
-        verify(saleService).findAll();
+        verify(saleService).findAll(any(SaleFilterDTO.class), any(PageQueryDTO.class), any(FieldsQueryDTO.class));
     }
 
     @Test
     @DisplayName("GET /api/v1/sales -> 200 OK (Empty List)")
     void getAllSalesEmpty() throws Exception {
-        when(saleService.findAll()).thenReturn(Collections.emptyList());
+        when(saleService.findAll(any(SaleFilterDTO.class), any(PageQueryDTO.class), any(FieldsQueryDTO.class))).thenReturn(new PageResponseDTO<>(Collections.emptyList(), 20, 0, null, false));
 
         mockMvc.perform(get("/api/v1/sales"))
                 .andExpect(status().isOk())
-                .andExpect(content().json("[]"));
+                .andExpect(jsonPath("$.content").isEmpty())
+                .andExpect(jsonPath("$.hasNext").value(false));
+
+        verify(saleService).findAll(any(SaleFilterDTO.class), any(PageQueryDTO.class), any(FieldsQueryDTO.class));
+    }
 
-        verify(saleService).findAll();
+    @Test
+    @DisplayName("GET /api/v1/sales?minTotal&sortBy&direction -> 200 OK")
+    void getAllSalesFiltered() throws Exception {
+        when(saleService.findAll(any(SaleFilterDTO.class), any(PageQueryDTO.class), any(FieldsQueryDTO.class))).thenReturn(new PageResponseDTO<>(List.of(baseSaleResponseDTO), 20, 0, null, false));
+
+        mockMvc.perform(get("/api/v1/sales")
+                        .param("minTotal", "1500")
+                        .param("sortBy", "total")
+                        .param("direction", "desc"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.content[0].total").value(2000.00));
+
+        verify(saleService).findAll(argThat(filter -> filter.getMinTotal().compareTo(BigDecimal.valueOf(1500)) == 0
+                && filter.getSortBy().equals("total") && filter.getDirection().equals("desc")), any(PageQueryDTO.class),
+                any(FieldsQueryDTO.class));
+    }
+
+    @Test
+    @DisplayName("GET /api/v1/sales?cursor=invalid -> 400 Bad Request")
+    void getAllSalesInvalidCursor() throws Exception {
+        when(saleService.findAll(any(SaleFilterDTO.class), any(PageQueryDTO.class), any(FieldsQueryDTO.class)))
+                .thenThrow(new InvalidCursorException("Invalid pagination cursor."));
+
+        mockMvc.perform(get("/api/v1/sales").param("cursor", "not-a-cursor"))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.message").value("Invalid pagination cursor."));
+    }
+
+    // ==== EXPORT ====
+    @Test
+    @DisplayName("GET /api/v1/sales/export?format=csv -> 200 OK (streamed)")
+    void exportSalesAsCsv() throws Exception {
+        doAnswer(invocation -> {
+            OutputStream out = invocation.getArgument(1);
+            out.write("sale_id\n1\n".getBytes(StandardCharsets.UTF_8));
+            return null;
+        }).when(saleExportService).export(any(SaleExportFilterDTO.class), any(OutputStream.class));
+
+        MvcResult result = mockMvc.perform(get("/api/v1/sales/export")
+                        .param("format", "csv")
+                        .param("from", "2024-08-01"))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        mockMvc.perform(asyncDispatch(result))
+                .andExpect(status().isOk())
+                .andExpect(header().string("Content-Type", "text/csv;charset=UTF-8"))
+                .andExpect(header().string("Content-Disposition", "attachment; filename=\"sales.csv\""))
+                .andExpect(content().string("sale_id\n1\n"));
+
+        verify(saleExportService).export(argThat(filter -> filter.isCsv()
+                && filter.getFrom().equals(LocalDate.of(2024, 8, 1)) && filter.getTo() == null), any(OutputStream.class));
+    }
+
+    @Test
+    @DisplayName("GET /api/v1/sales/export?format=xml -> 400 Bad Request")
+    void exportSalesInvalidFormat() throws Exception {
+        mockMvc.perform(get("/api/v1/sales/export").param("format", "xml"))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.details.format").value("Export format must be ndjson or csv"));
+
+        verifyNoInteractions(saleExportService);
+    }
+
+    @Test
+    @DisplayName("GET /api/v1/sales?sortBy=unknown -> 400 Bad Request")
+    void getAllSalesInvalidSort() throws Exception {
+        mockMvc.perform(get("/api/v1/sales").param("sortBy", "customer"))
+                .andExpect(status().isBadRequest())
+                .andExpect(jsonPath("$.details.sortBy").value("Sort field must be one of: id, date, total, lineCount"));
+
+        verifyNoInteractions(saleService);
     }
 
     // ==== INTERNAL SERVER ERROR ====
     @Test
     @DisplayName("GET /api/v1/sales/{id} -> 500 Internal Server Error")
     void getSaleByIdInternalServerError() throws Exception {
-        when(saleService.findById(eq(1L)))
+        when(saleService.findById(eq(1L), any(FieldsQueryDTO.class)))
                 .thenThrow(new RuntimeException("Unexpected error"));
 
         mockMvc.perform(get("/api/v1/sales/{id}", 1L))
@@ -375,6 +547,6 @@ public class SaleControllerTest {
                 .andExpect(jsonPath("$.message").value("An unexpected internal server error occurred."))
                 .andExpect(jsonPath("$.timestamp").exists());
 
-        verify(saleService).findById(eq(1L));
+        verify(saleService).findById(eq(1L), any(FieldsQueryDTO.class));
     }
 }
@@ -1,9 +1,13 @@
 package com.argenischacon.inventory_sales_api.controller;
 
+import com.argenischacon.inventory_sales_api.dto.PageQueryDTO;
+import com.argenischacon.inventory_sales_api.dto.PageResponseDTO;
 import com.argenischacon.inventory_sales_api.dto.ProductNestedDTO;
 import com.argenischacon.inventory_sales_api.dto.SaleDetailResponseDTO;
 import com.argenischacon.inventory_sales_api.exception.ResourceNotFoundException;
 import com.argenischacon.inventory_sales_api.security.JwtUtils;
+import com.argenischacon.inventory_sales_api.security.TokenRevocationList;
+import com.argenischacon.inventory_sales_api.security.UserStatusCache;
 import com.argenischacon.inventory_sales_api.service.SaleDetailService;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import org.junit.jupiter.api.BeforeEach;
@@ -41,6 +45,12 @@ public class SaleDetailControllerTest {
     @MockitoBean
     private JwtUtils jwtUtils;
 
+    @MockitoBean
+    private UserStatusCache userStatusCache;
+
+    @MockitoBean
+    private TokenRevocationList tokenRevocationList;
+
     private SaleDetailResponseDTO baseSaleDetailResponseDTO;
 
     @BeforeEach
@@ -57,17 +67,33 @@ public class SaleDetailControllerTest {
     @Test
     @DisplayName("GET /api/v1/sale-details/{saleId} -> 200 OK")
     void getSaleDetailsBySaleIdSuccess() throws Exception {
-        when(saleDetailService.findBySaleId(eq(5L))).thenReturn(List.of(baseSaleDetailResponseDTO));
+        when(saleDetailService.findBySaleId(eq(5L), any(PageQueryDTO.class))).thenReturn(new SaleDetailService.LinePage(
+                new PageResponseDTO<>(List.of(baseSaleDetailResponseDTO), 20, 0, null, false), 1));
 
         mockMvc.perform(get("/api/v1/sale-details/{saleId}", 5L))
                 .andExpect(status().isOk())
-                .andExpect(jsonPath("$[0].id").value(1L))
-                .andExpect(jsonPath("$[0].quantity").value(2))
-                .andExpect(jsonPath("$[0].unitPrice").value(1000.00))
-                .andExpect(jsonPath("$[0].product.id").value(2L))
-                .andExpect(jsonPath("$[0].subTotal").value(2000.00));
+                .andExpect(header().string("X-Total-Count", "1"))
+                .andExpect(jsonPath("$.content[0].id").value(1L))
+                .andExpect(jsonPath("$.content[0].quantity").value(2))
+                .andExpect(jsonPath("$.content[0].unitPrice").value(1000.00))
+                .andExpect(jsonPath("$.content[0].product.id").value(2L))
+                .andExpect(jsonPath("$.content[0].subTotal").value(2000.00))
+                .andExpect(jsonPath("$.hasNext").value(false));
+
+        verify(saleDetailService, times(1)).findBySaleId(eq(5L), any(PageQueryDTO.class));
+    }
+
+    @Test
+    @DisplayName("GET /api/v1/sale-details/{saleId}?cursor=&size= -> 200 OK (Next Page)")
+    void getSaleDetailsBySaleIdWithCursor() throws Exception {
+        when(saleDetailService.findBySaleId(eq(5L), eq(new PageQueryDTO("MQ", null, 1)))).thenReturn(new SaleDetailService.LinePage(
+                new PageResponseDTO<>(List.of(baseSaleDetailResponseDTO), 1, null, "Mg", true), 3));
 
-        verify(saleDetailService, times(1)).findBySaleId(eq(5L));
+        mockMvc.perform(get("/api/v1/sale-details/{saleId}", 5L).param("cursor", "MQ").param("size", "1"))
+                .andExpect(status().isOk())
+                .andExpect(header().string("X-Total-Count", "3"))
+                .andExpect(jsonPath("$.nextCursor").value("Mg"))
+                .andExpect(jsonPath("$.hasNext").value(true));
     }
 
     @Test
@@ -75,33 +101,35 @@ public class SaleDetailControllerTest {
     void getSaleDetailsBySaleIdNotFound() throws Exception {
         long saleId = 5L;
         String expectedMessage = "Sale with id " + saleId + " not found.";
-        when(saleDetailService.findBySaleId(eq(saleId))).thenThrow(new ResourceNotFoundException(expectedMessage));
+        when(saleDetailService.findBySaleId(eq(saleId), any(PageQueryDTO.class))).thenThrow(new ResourceNotFoundException(expectedMessage));
 
         mockMvc.perform(get("/api/v1/sale-details/{saleId}", saleId))
                 .andExpect(status().isNotFound())
                 .andExpect(jsonPath("$.message").value(expectedMessage));
 
-        verify(saleDetailService, times(1)).findBySaleId(eq(saleId));
+        verify(saleDetailService, times(1)).findBySaleId(eq(saleId), any(PageQueryDTO.class));
     }
 
     @Test
     @DisplayName("GET /api/v1/sale-details/{saleId} -> 200 OK (Empty List)")
     void getSaleDetailsBySaleIdEmpty() throws Exception {
         Long saleId = 5L;
-        when(saleDetailService.findBySaleId(eq(saleId))).thenReturn(Collections.emptyList());
+        when(saleDetailService.findBySaleId(eq(saleId), any(PageQueryDTO.class))).thenReturn(new SaleDetailService.LinePage(
+                new PageResponseDTO<>(Collections.emptyList(), 20, 0, null, false), 0));
 
         mockMvc.perform(get("/api/v1/sale-details/{saleId}", saleId))
                 .andExpect(status().isOk())
-                .andExpect(content().json("[]"));
+                .andExpect(header().string("X-Total-Count", "0"))
+                .andExpect(jsonPath("$.content").isEmpty());
 
-        verify(saleDetailService, times(1)).findBySaleId(eq(saleId));
+        verify(saleDetailService, times(1)).findBySaleId(eq(saleId), any(PageQueryDTO.class));
     }
 
     // ==== INTERNAL SERVER ERROR ====
     @Test
     @DisplayName("GET /api/v1/sale-details/{saleId} -> 500 Internal Server Error")
     void getSaleDetailsBySaleIdInternalServerError() throws Exception {
-        when(saleDetailService.findBySaleId(eq(5L))).thenThrow(new RuntimeException("Unexpected error"));
+        when(saleDetailService.findBySaleId(eq(5L), any(PageQueryDTO.class))).thenThrow(new RuntimeException("Unexpected error"));
 
         mockMvc.perform(get("/api/v1/sale-details/{saleId}", 5L))
                 .andExpect(status().isInternalServerError())
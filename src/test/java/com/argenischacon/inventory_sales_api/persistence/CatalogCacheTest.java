@@ -0,0 +1,168 @@
+package com.argenischacon.inventory_sales_api.persistence;
+
+import com.argenischacon.inventory_sales_api.config.CacheConfig;
+import com.argenischacon.inventory_sales_api.dto.ProductRequestDTO;
+import com.argenischacon.inventory_sales_api.dto.ProductResponseDTO;
+import com.argenischacon.inventory_sales_api.dto.SaleDetailRequestDTO;
+import com.argenischacon.inventory_sales_api.dto.SaleRequestDTO;
+import com.argenischacon.inventory_sales_api.exception.ResourceNotFoundException;
+import com.argenischacon.inventory_sales_api.model.Category;
+import com.argenischacon.inventory_sales_api.model.Customer;
+import com.argenischacon.inventory_sales_api.repository.CategoryRepository;
+import com.argenischacon.inventory_sales_api.repository.CustomerRepository;
+import com.argenischacon.inventory_sales_api.service.ProductService;
+import com.argenischacon.inventory_sales_api.service.SaleService;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+@SpringBootTest
+@ActiveProfiles("test")
+public class CatalogCacheTest {
+
+    @Autowired
+    private ProductService productService;
+
+    @Autowired
+    private SaleService saleService;
+
+    @Autowired
+    private CategoryRepository categoryRepository;
+
+    @Autowired
+    private CustomerRepository customerRepository;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Autowired
+    private CacheManager cacheManager;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    private Category category;
+    private Long productId;
+
+    @BeforeEach
+    void setUp() {
+        category = new Category();
+        category.setName("Cache " + System.nanoTime());
+        category = categoryRepository.save(category);
+
+        productId = productService.create(new ProductRequestDTO("Cached lamp " + System.nanoTime(), null,
+                BigDecimal.TEN, 10, category.getId())).getId();
+    }
+
+    @Test
+    void shouldServeRepeatedReadsFromCache() {
+        double hits = productHits();
+
+        ProductResponseDTO first = productService.findById(productId);
+        ProductResponseDTO second = productService.findById(productId);
+
+        assertSame(first, second);
+        assertEquals(hits + 1, productHits());
+    }
+
+    @Test
+    void shouldEvictProductAfterUpdate() {
+        productService.findById(productId);
+
+        productService.update(productId, new ProductRequestDTO("Renamed lamp", null, BigDecimal.ONE, 10, category.getId()));
+
+        assertEquals("Renamed lamp", productService.findById(productId).getName());
+    }
+
+    @Test
+    void shouldEvictProductAfterSaleChangesItsStock() {
+        Customer customer = new Customer();
+        customer.setDni("CACHE-" + System.nanoTime());
+        customer.setName("Cache");
+        customer.setLastName("Customer");
+        customer = customerRepository.save(customer);
+        productService.findById(productId);
+
+        saleService.create(new SaleRequestDTO(customer.getId(),
+                List.of(new SaleDetailRequestDTO(null, 3, BigDecimal.TEN, productId))));
+
+        assertEquals(7, productService.findById(productId).getStock());
+    }
+
+    @Test
+    void shouldNotCacheReadThatRacedAnEviction() {
+        Cache products = cacheManager.getCache(CacheConfig.PRODUCTS);
+        String key = "race-" + System.nanoTime();
+
+        // The read misses and loads the old row; a write commits and evicts before the read puts it
+        assertNull(products.get(key));
+        products.evict(key);
+        products.put(key, "old row");
+        assertNull(products.get(key));
+
+        // The next miss fills the cache as usual
+        products.put(key, "new row");
+        assertEquals("new row", products.get(key).get());
+    }
+
+    @Test
+    void shouldForgetMissWhoseLoaderThrew() {
+        Cache products = cacheManager.getCache(CacheConfig.PRODUCTS);
+        String key = "after-failure-" + System.nanoTime();
+
+        // The miss of a read that fails must not guard a later put made on this thread
+        assertThrows(ResourceNotFoundException.class, () -> productService.findById(Long.MAX_VALUE));
+        products.evict(key);
+        products.put(key, "row");
+
+        assertEquals("row", products.get(key).get());
+    }
+
+    @Test
+    void shouldGuardEveryMissOfATransaction() {
+        Cache products = cacheManager.getCache(CacheConfig.PRODUCTS);
+        String first = "first-" + System.nanoTime();
+        String second = "second-" + System.nanoTime();
+
+        // Both reads miss in one transaction and their puts wait for the commit; a write on another thread evicts
+        // meanwhile, so neither old row may be cached
+        transactionTemplate.executeWithoutResult(status -> {
+            assertNull(products.get(first));
+            assertNull(products.get(second));
+            products.put(first, "old first");
+            products.put(second, "old second");
+            Thread writer = new Thread(() -> products.evict("written-" + System.nanoTime()));
+            writer.start();
+            try {
+                writer.join();
+            } catch (InterruptedException e) {
+                throw new IllegalStateException(e);
+            }
+        });
+
+        assertNull(products.get(first));
+        assertNull(products.get(second));
+    }
+
+    private double productHits() {
+        return meterRegistry.get("cache.gets")
+                .tag("cache", CacheConfig.PRODUCTS)
+                .tag("result", "hit")
+                .functionCounter()
+                .count();
+    }
+}
@@ -0,0 +1,114 @@
+package com.argenischacon.inventory_sales_api.persistence;
+
+import com.argenischacon.inventory_sales_api.dto.CategoryRequestDTO;
+import com.argenischacon.inventory_sales_api.dto.ProductRequestDTO;
+import com.argenischacon.inventory_sales_api.dto.SaleDetailRequestDTO;
+import com.argenischacon.inventory_sales_api.dto.SaleRequestDTO;
+import com.argenischacon.inventory_sales_api.model.Customer;
+import com.argenischacon.inventory_sales_api.repository.CustomerRepository;
+import com.argenischacon.inventory_sales_api.service.CategoryService;
+import com.argenischacon.inventory_sales_api.service.ProductService;
+import com.argenischacon.inventory_sales_api.service.SaleService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.security.test.context.support.WithMockUser;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.math.BigDecimal;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest
+@AutoConfigureMockMvc(addFilters = false)
+@ActiveProfiles("test")
+@WithMockUser
+public class ConditionalGetTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private CategoryService categoryService;
+
+    @Autowired
+    private ProductService productService;
+
+    @Autowired
+    private SaleService saleService;
+
+    @Autowired
+    private CustomerRepository customerRepository;
+
+    private Long categoryId;
+    private Long productId;
+
+    @BeforeEach
+    void setUp() {
+        categoryId = categoryService.create(new CategoryRequestDTO("Conditional " + System.nanoTime(), null)).getId();
+        productId = productService.create(new ProductRequestDTO("Conditional lamp " + System.nanoTime(), null,
+                BigDecimal.TEN, 10, categoryId)).getId();
+    }
+
+    @Test
+    void shouldAnswerNotModifiedUntilTheProductOrItsCategoryChanges() throws Exception {
+        String etag = etagOf("/api/v1/products/{id}", productId);
+        mockMvc.perform(get("/api/v1/products/{id}", productId).header("If-None-Match", etag))
+                .andExpect(status().isNotModified());
+
+        productService.update(productId, new ProductRequestDTO("Renamed lamp " + System.nanoTime(), null,
+                BigDecimal.TEN, 10, categoryId));
+        String updated = etagOf("/api/v1/products/{id}", productId);
+        assertNotEquals(etag, updated);
+
+        // The product view embeds the category name
+        categoryService.update(categoryId, new CategoryRequestDTO("Renamed " + System.nanoTime(), null));
+        mockMvc.perform(get("/api/v1/products/{id}", productId).header("If-None-Match", updated))
+                .andExpect(status().isOk());
+    }
+
+    @Test
+    void shouldChangeCollectionEtagWhenASaleIsCreated() throws Exception {
+        Customer customer = new Customer();
+        customer.setDni("COND-" + System.nanoTime());
+        customer.setName("Conditional");
+        customer.setLastName("Customer");
+        customer = customerRepository.save(customer);
+        // An empty collection has no validators, so the list starts with one sale
+        saleService.create(new SaleRequestDTO(customer.getId(),
+                List.of(new SaleDetailRequestDTO(null, 1, BigDecimal.TEN, productId))));
+        String products = etagOf("/api/v1/products", null);
+        String sales = etagOf("/api/v1/sales", null);
+
+        Long saleId = saleService.create(new SaleRequestDTO(customer.getId(),
+                List.of(new SaleDetailRequestDTO(null, 1, BigDecimal.TEN, productId)))).getId();
+
+        // Stock is part of the product view, and the new sale is part of the list
+        assertNotEquals(products, etagOf("/api/v1/products", null));
+        assertNotEquals(sales, etagOf("/api/v1/sales", null));
+        String sale = etagOf("/api/v1/sales/{id}", saleId);
+        mockMvc.perform(get("/api/v1/sales/{id}", saleId).header("If-None-Match", sale))
+                .andExpect(status().isNotModified());
+    }
+
+    @Test
+    void shouldReturnNotFoundWithoutValidatorsForMissingResources() throws Exception {
+        mockMvc.perform(get("/api/v1/categories/{id}", Long.MAX_VALUE).header("If-None-Match", "*"))
+                .andExpect(status().isNotFound());
+    }
+
+    private String etagOf(String uri, Long id) throws Exception {
+        String etag = mockMvc.perform(id == null ? get(uri) : get(uri, id))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getHeader("ETag");
+        assertNotNull(etag);
+        return etag;
+    }
+}
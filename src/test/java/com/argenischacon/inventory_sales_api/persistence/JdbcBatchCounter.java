@@ -0,0 +1,35 @@
+package com.argenischacon.inventory_sales_api.persistence;
+
+import org.hibernate.SessionEventListener;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+// Registered through hibernate.session.events.auto, so it sees every session (including Envers' audit work).
+// Counts executed batches and prepared statements: a batched insert is prepared once for up to batch_size rows
+public class JdbcBatchCounter implements SessionEventListener {
+    private static final AtomicInteger BATCHES = new AtomicInteger();
+    private static final AtomicInteger STATEMENTS = new AtomicInteger();
+
+    @Override
+    public void jdbcExecuteBatchStart() {
+        BATCHES.incrementAndGet();
+    }
+
+    @Override
+    public void jdbcPrepareStatementStart() {
+        STATEMENTS.incrementAndGet();
+    }
+
+    public static void reset() {
+        BATCHES.set(0);
+        STATEMENTS.set(0);
+    }
+
+    public static int count() {
+        return BATCHES.get();
+    }
+
+    public static int statements() {
+        return STATEMENTS.get();
+    }
+}
@@ -0,0 +1,60 @@
+package com.argenischacon.inventory_sales_api.persistence;
+
+import com.argenischacon.inventory_sales_api.dto.AuthRequestDTO;
+import com.argenischacon.inventory_sales_api.model.Role;
+import com.argenischacon.inventory_sales_api.model.User;
+import com.argenischacon.inventory_sales_api.repository.UserRepository;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.security.crypto.bcrypt.BCryptPasswordEncoder;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.util.HashSet;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+public class PasswordRehashTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Test
+    void shouldRehashPasswordStoredWithAnotherCostOnLogin() throws Exception {
+        // The test profile configures cost 4
+        User user = new User();
+        user.setUsername("rehash-" + System.nanoTime());
+        user.setPassword(new BCryptPasswordEncoder(5).encode("secret123"));
+        user.setRoles(new HashSet<>(Set.of(Role.USER)));
+        user = userRepository.save(user);
+
+        login(user.getUsername(), "secret123");
+        String rehashed = userRepository.findByUsername(user.getUsername()).orElseThrow().getPassword();
+        assertTrue(rehashed.startsWith("$2a$04$"), rehashed);
+
+        login(user.getUsername(), "secret123");
+    }
+
+    private void login(String username, String password) throws Exception {
+        mockMvc.perform(post("/api/v1/auth/login")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(new AuthRequestDTO(username, password))))
+                .andExpect(status().isOk());
+    }
+}
@@ -0,0 +1,114 @@
+package com.argenischacon.inventory_sales_api.persistence;
+
+import com.argenischacon.inventory_sales_api.dto.FieldsQueryDTO;
+import com.argenischacon.inventory_sales_api.dto.PageQueryDTO;
+import com.argenischacon.inventory_sales_api.dto.PageResponseDTO;
+import com.argenischacon.inventory_sales_api.dto.ProductResponseDTO;
+import com.argenischacon.inventory_sales_api.dto.ProductSearchDTO;
+import com.argenischacon.inventory_sales_api.model.Category;
+import com.argenischacon.inventory_sales_api.model.Product;
+import com.argenischacon.inventory_sales_api.repository.CategoryRepository;
+import com.argenischacon.inventory_sales_api.repository.ProductRepository;
+import com.argenischacon.inventory_sales_api.service.ProductService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@SpringBootTest
+@ActiveProfiles("test")
+public class ProductSearchTest {
+
+    @Autowired
+    private ProductService productService;
+
+    @Autowired
+    private CategoryRepository categoryRepository;
+
+    @Autowired
+    private ProductRepository productRepository;
+
+    private Category category;
+    private String prefix;
+
+    @BeforeEach
+    void setUp() {
+        category = new Category();
+        category.setName("Search " + System.nanoTime());
+        category = categoryRepository.save(category);
+        prefix = "Search Lamp " + System.nanoTime();
+
+        // Prices repeat so the keyset has to break ties on id; the last product is out of stock
+        int[] prices = {30, 10, 20, 20, 10, 20, 40};
+        for (int i = 0; i < prices.length; i++) {
+            Product product = new Product();
+            product.setName(prefix + " #" + i);
+            product.setDescription("Desk lamp");
+            product.setUnitPrice(BigDecimal.valueOf(prices[i]));
+            product.setStock(i == prices.length - 1 ? 0 : 5 + i);
+            product.setCategory(category);
+            productRepository.save(product);
+        }
+    }
+
+    @Test
+    void shouldWalkMatchingProductsByPriceWithoutGapsOrDuplicates() {
+        ProductSearchDTO filter = new ProductSearchDTO(category.getId(), BigDecimal.valueOf(15), null, true, null,
+                prefix.toUpperCase(), "unitPrice", "desc");
+
+        List<BigDecimal> prices = new ArrayList<>();
+        List<Long> ids = new ArrayList<>();
+        String cursor = null;
+        do {
+            PageResponseDTO<ProductResponseDTO> page = productService.search(filter, new PageQueryDTO(cursor, null, 2), new FieldsQueryDTO());
+            page.getContent().forEach(product -> {
+                prices.add(product.getUnitPrice());
+                ids.add(product.getId());
+                assertEquals(category.getId(), product.getCategory().getId());
+            });
+            cursor = page.getNextCursor();
+        } while (cursor != null);
+
+        assertEquals(List.of("30.00", "20.00", "20.00", "20.00"), prices.stream().map(BigDecimal::toPlainString).toList());
+        assertEquals(ids.stream().distinct().count(), ids.size());
+        // Ties on price come back in descending id order
+        assertTrue(ids.get(1) > ids.get(2) && ids.get(2) > ids.get(3));
+    }
+
+    @Test
+    void shouldMatchNamePrefixLiterally() {
+        ProductSearchDTO lowStock = new ProductSearchDTO(category.getId(), null, null, null, 0, prefix, "id", "asc");
+        ProductSearchDTO wildcard = new ProductSearchDTO(category.getId(), null, null, null, null, "%", "id", "asc");
+
+        PageResponseDTO<ProductResponseDTO> outOfStock = productService.search(lowStock, new PageQueryDTO(), new FieldsQueryDTO());
+        PageResponseDTO<ProductResponseDTO> none = productService.search(wildcard, new PageQueryDTO(), new FieldsQueryDTO());
+
+        assertEquals(1, outOfStock.getContent().size());
+        assertEquals(0, outOfStock.getContent().getFirst().getStock());
+        assertTrue(none.getContent().isEmpty());
+        assertNull(none.getNextCursor());
+    }
+
+    @Test
+    void shouldLeaveUnrequestedColumnsOutOfTheProjection() {
+        ProductSearchDTO filter = new ProductSearchDTO(category.getId(), null, null, null, null, prefix, "unitPrice", "asc");
+
+        PageResponseDTO<ProductResponseDTO> page = productService.search(filter, new PageQueryDTO(), new FieldsQueryDTO("name,unitPrice"));
+
+        assertEquals(7, page.getContent().size());
+        page.getContent().forEach(product -> {
+            assertTrue(product.getName().startsWith(prefix));
+            assertNull(product.getDescription());
+            assertNull(product.getCategory());
+        });
+    }
+}
@@ -0,0 +1,160 @@
+package com.argenischacon.inventory_sales_api.persistence;
+
+import com.argenischacon.inventory_sales_api.dto.FieldsQueryDTO;
+import com.argenischacon.inventory_sales_api.dto.PageQueryDTO;
+import com.argenischacon.inventory_sales_api.dto.SaleDetailRequestDTO;
+import com.argenischacon.inventory_sales_api.dto.SaleFilterDTO;
+import com.argenischacon.inventory_sales_api.dto.SaleRequestDTO;
+import com.argenischacon.inventory_sales_api.mapper.ProductMapper;
+import com.argenischacon.inventory_sales_api.mapper.SaleMapper;
+import com.argenischacon.inventory_sales_api.model.Category;
+import com.argenischacon.inventory_sales_api.model.Customer;
+import com.argenischacon.inventory_sales_api.model.Product;
+import com.argenischacon.inventory_sales_api.repository.CategoryRepository;
+import com.argenischacon.inventory_sales_api.repository.CustomerRepository;
+import com.argenischacon.inventory_sales_api.repository.ProductRepository;
+import com.argenischacon.inventory_sales_api.repository.SaleRepository;
+import com.argenischacon.inventory_sales_api.service.ProductService;
+import com.argenischacon.inventory_sales_api.service.SaleService;
+import lombok.extern.slf4j.Slf4j;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assumptions.assumeTrue;
+
+/**
+ * Bytes allocated per list request by the entity + MapStruct read path against the DTO projection path.
+ * The numbers are logged for comparison and nothing is asserted on them; the test is skipped on a JVM without
+ * per-thread allocation counters.
+ * Opt-in, since allocation figures depend on the JVM: run with {@code mvn test -Dtest=ReadPathAllocationBenchmark -Dbenchmark=true}.
+ */
+@SpringBootTest
+@ActiveProfiles("test")
+@EnabledIfSystemProperty(named = "benchmark", matches = "true")
+@Slf4j
+public class ReadPathAllocationBenchmark {
+    private static final int PRODUCTS = 100;
+    private static final int SALES = 50;
+    private static final int WARMUP = 200;
+    private static final int ITERATIONS = 1000;
+
+    @Autowired
+    private ProductService productService;
+
+    @Autowired
+    private SaleService saleService;
+
+    @Autowired
+    private ProductRepository productRepository;
+
+    @Autowired
+    private SaleRepository saleRepository;
+
+    @Autowired
+    private CategoryRepository categoryRepository;
+
+    @Autowired
+    private CustomerRepository customerRepository;
+
+    @Autowired
+    private ProductMapper productMapper;
+
+    @Autowired
+    private SaleMapper saleMapper;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    private TransactionTemplate transactionTemplate;
+    private List<Long> saleIds;
+
+    @BeforeEach
+    void setUp() {
+        transactionTemplate = new TransactionTemplate(transactionManager);
+        transactionTemplate.setReadOnly(true);
+
+        Category category = new Category();
+        category.setName("Benchmark category " + System.nanoTime());
+        category = categoryRepository.save(category);
+
+        List<Product> products = new ArrayList<>();
+        for (int i = 0; i < PRODUCTS; i++) {
+            Product product = new Product();
+            product.setName("Benchmark product " + i + " " + System.nanoTime());
+            product.setUnitPrice(BigDecimal.TEN);
+            product.setStock(1000);
+            product.setCategory(category);
+            products.add(product);
+        }
+        products = productRepository.saveAll(products);
+
+        Customer customer = new Customer();
+        customer.setDni("BENCH-" + System.nanoTime());
+        customer.setName("Benchmark");
+        customer.setLastName("Customer");
+        customer = customerRepository.save(customer);
+
+        saleIds = new ArrayList<>();
+        for (int i = 0; i < SALES; i++) {
+            List<SaleDetailRequestDTO> lines = List.of(
+                    new SaleDetailRequestDTO(null, 1, BigDecimal.TEN, products.get(i % PRODUCTS).getId()),
+                    new SaleDetailRequestDTO(null, 1, BigDecimal.TEN, products.get((i + 1) % PRODUCTS).getId()));
+            saleIds.add(saleService.create(new SaleRequestDTO(customer.getId(), lines)).getId());
+        }
+    }
+
+    @Test
+    void compareProductListAllocation() {
+        PageRequest pageRequest = PageRequest.of(0, PRODUCTS, Sort.by("id"));
+        long entityPath = bytesPerCall(() -> transactionTemplate.execute(status ->
+                productMapper.toResponseList(productRepository.findAll(pageRequest).getContent())));
+        long projectionPath = bytesPerCall(() -> productService.findAll(new PageQueryDTO(null, 0, PRODUCTS)));
+
+        report("GET /products", entityPath, projectionPath);
+    }
+
+    @Test
+    void compareSaleListAllocation() {
+        long entityPath = bytesPerCall(() -> transactionTemplate.execute(status ->
+                saleMapper.toResponseList(saleRepository.findAllById(saleIds))));
+        long projectionPath = bytesPerCall(() -> saleService.findAll(new SaleFilterDTO(), new PageQueryDTO(null, 0, SALES), new FieldsQueryDTO()));
+
+        report("GET /sales", entityPath, projectionPath);
+    }
+
+    private static long bytesPerCall(Runnable call) {
+        // Per-thread allocation counters are a HotSpot extension; skip rather than fail on a JVM without them
+        ThreadMXBean bean = ManagementFactory.getThreadMXBean();
+        assumeTrue(bean instanceof com.sun.management.ThreadMXBean hotspot && hotspot.isThreadAllocatedMemorySupported()
+                && hotspot.isThreadAllocatedMemoryEnabled(), "Thread allocation counters are not available on this JVM");
+        com.sun.management.ThreadMXBean threads = (com.sun.management.ThreadMXBean) bean;
+        for (int i = 0; i < WARMUP; i++) {
+            call.run();
+        }
+        long before = threads.getCurrentThreadAllocatedBytes();
+        for (int i = 0; i < ITERATIONS; i++) {
+            call.run();
+        }
+        return (threads.getCurrentThreadAllocatedBytes() - before) / ITERATIONS;
+    }
+
+    // Reported, not asserted: allocation depends on the JVM, its flags and the JIT, so it should not fail a build
+    private static void report(String endpoint, long entityPath, long projectionPath) {
+        log.info("{}: entity + mapper {} B/request, projection {} B/request ({}%)",
+                endpoint, entityPath, projectionPath, Math.round(100.0 * projectionPath / entityPath));
+    }
+}
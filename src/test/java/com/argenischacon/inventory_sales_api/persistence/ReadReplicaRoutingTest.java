@@ -0,0 +1,149 @@
+package com.argenischacon.inventory_sales_api.persistence;
+
+import com.argenischacon.inventory_sales_api.config.ReplicaRoutingDataSource;
+import com.argenischacon.inventory_sales_api.dto.CategoryRequestDTO;
+import com.argenischacon.inventory_sales_api.dto.CustomerRequestDTO;
+import com.argenischacon.inventory_sales_api.exception.ResourceNotFoundException;
+import com.argenischacon.inventory_sales_api.service.CategoryService;
+import com.argenischacon.inventory_sales_api.service.CustomerService;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+// Two H2 databases stand in for the primary and a replica; "replication" copies the primary with SCRIPT
+@SpringBootTest(properties = {
+        "spring.datasource.url=" + ReadReplicaRoutingTest.PRIMARY_URL,
+        "app.datasource.replica.urls=" + ReadReplicaRoutingTest.REPLICA_URL,
+        "app.datasource.replica.lag-query=SELECT lag_seconds FROM replica_lag",
+        "app.datasource.replica.lag-check-interval-ms=3600000",
+        "app.datasource.replica.max-lag=5s",
+        "app.datasource.replica.read-your-writes=1m"
+})
+@ActiveProfiles("test")
+public class ReadReplicaRoutingTest {
+    static final String PRIMARY_URL = "jdbc:h2:mem:primary;DB_CLOSE_DELAY=-1";
+    static final String REPLICA_URL = "jdbc:h2:mem:replica;DB_CLOSE_DELAY=-1";
+
+    @Autowired
+    private CustomerService customerService;
+
+    @Autowired
+    private CategoryService categoryService;
+
+    @Autowired
+    private ReplicaRoutingDataSource routingDataSource;
+
+    @AfterEach
+    void tearDown() {
+        SecurityContextHolder.clearContext();
+    }
+
+    @Test
+    void shouldReadFromReplicaUnlessTheUserJustWrote() throws SQLException {
+        replicate();
+        signIn("writer-" + System.nanoTime());
+        String dni = "REPL-" + System.nanoTime();
+        Long id = customerService.create(new CustomerRequestDTO(dni, "Replica", "Customer", null, null, null)).getId();
+
+        // The writer reads its own change from the primary
+        assertEquals(dni, customerService.findById(id).getDni());
+
+        // Anyone else reads the replica, which has not received the row yet
+        signIn("reader-" + System.nanoTime());
+        assertThrows(ResourceNotFoundException.class, () -> customerService.findById(id));
+
+        replicate();
+        assertEquals(dni, customerService.findById(id).getDni());
+    }
+
+    @Test
+    void shouldReadFromPrimaryWhileReplicaLags() throws SQLException {
+        replicate();
+        signIn("writer-" + System.nanoTime());
+        Long id = customerService.create(new CustomerRequestDTO("LAG-" + System.nanoTime(), "Lagging", "Customer",
+                null, null, null)).getId();
+        signIn("reader-" + System.nanoTime());
+
+        setReplicaLag(60);
+        customerService.findById(id);
+
+        setReplicaLag(0);
+        assertThrows(ResourceNotFoundException.class, () -> customerService.findById(id));
+    }
+
+    @Test
+    void shouldReadFromPrimaryWhenReplicaCannotBeChecked() throws SQLException {
+        signIn("writer-" + System.nanoTime());
+        Long id = customerService.create(new CustomerRequestDTO("DOWN-" + System.nanoTime(), "Unchecked", "Customer",
+                null, null, null)).getId();
+        signIn("reader-" + System.nanoTime());
+
+        execute(REPLICA_URL, List.of("DROP TABLE IF EXISTS replica_lag"));
+        routingDataSource.checkReplicaLag();
+
+        customerService.findById(id);
+    }
+
+    @Test
+    void shouldFillTheCatalogCacheFromThePrimary() throws SQLException {
+        replicate();
+        signIn("writer-" + System.nanoTime());
+        Long id = categoryService.create(new CategoryRequestDTO("Replica " + System.nanoTime(), null)).getId();
+
+        // The replica has not received the category, but what gets cached for every user must not be a stale read
+        signIn("reader-" + System.nanoTime());
+        assertEquals(id, categoryService.findById(id).getId());
+    }
+
+    private void replicate() throws SQLException {
+        List<String> statements = new ArrayList<>(List.of("DROP ALL OBJECTS"));
+        try (Connection primary = DriverManager.getConnection(PRIMARY_URL, "sa", "");
+             Statement statement = primary.createStatement();
+             ResultSet script = statement.executeQuery("SCRIPT")) {
+            while (script.next()) {
+                String sql = script.getString(1);
+                if (!sql.startsWith("--")) {
+                    statements.add(sql);
+                }
+            }
+        }
+        statements.add("CREATE TABLE replica_lag(lag_seconds INT)");
+        statements.add("INSERT INTO replica_lag VALUES (0)");
+        execute(REPLICA_URL, statements);
+        routingDataSource.checkReplicaLag();
+    }
+
+    private void setReplicaLag(int seconds) throws SQLException {
+        execute(REPLICA_URL, List.of("UPDATE replica_lag SET lag_seconds = " + seconds));
+        routingDataSource.checkReplicaLag();
+    }
+
+    private static void execute(String url, List<String> statements) throws SQLException {
+        try (Connection connection = DriverManager.getConnection(url, "sa", "");
+             Statement statement = connection.createStatement()) {
+            for (String sql : statements) {
+                statement.execute(sql);
+            }
+        }
+    }
+
+    private static void signIn(String username) {
+        SecurityContextHolder.getContext().setAuthentication(
+                new UsernamePasswordAuthenticationToken(username, null, List.of()));
+    }
+}
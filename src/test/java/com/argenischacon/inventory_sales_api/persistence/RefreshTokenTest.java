@@ -0,0 +1,152 @@
+package com.argenischacon.inventory_sales_api.persistence;
+
+import com.argenischacon.inventory_sales_api.dto.AuthRequestDTO;
+import com.argenischacon.inventory_sales_api.dto.RefreshTokenRequestDTO;
+import com.argenischacon.inventory_sales_api.model.RevokedToken;
+import com.argenischacon.inventory_sales_api.model.Role;
+import com.argenischacon.inventory_sales_api.model.User;
+import com.argenischacon.inventory_sales_api.repository.RevokedTokenRepository;
+import com.argenischacon.inventory_sales_api.repository.UserRepository;
+import com.argenischacon.inventory_sales_api.security.JwtUtils;
+import com.argenischacon.inventory_sales_api.security.TokenRevocationList;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.jsonwebtoken.Claims;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.ResultActions;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.time.Instant;
+import java.util.HashSet;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+public class RefreshTokenTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private PasswordEncoder passwordEncoder;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private RevokedTokenRepository revokedTokenRepository;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired
+    private JwtUtils jwtUtils;
+
+    private User user;
+
+    @BeforeEach
+    void setUp() {
+        user = new User();
+        user.setUsername("refresh-" + System.nanoTime());
+        user.setPassword(passwordEncoder.encode("secret123"));
+        user.setRoles(new HashSet<>(Set.of(Role.USER)));
+        user = userRepository.save(user);
+    }
+
+    @Test
+    void shouldIssueNewPairOnRefreshAndRejectReuse() throws Exception {
+        JsonNode login = login();
+        String refreshToken = login.get("refreshToken").asText();
+
+        JsonNode refreshed = readJson(refresh(refreshToken).andExpect(status().isOk()));
+        assertNotEquals(refreshToken, refreshed.get("refreshToken").asText());
+        mockMvc.perform(get("/api/v1/categories").header("Authorization", "Bearer " + refreshed.get("token").asText()))
+                .andExpect(status().isOk());
+
+        refresh(refreshToken).andExpect(status().isUnauthorized());
+        refresh(refreshed.get("refreshToken").asText()).andExpect(status().isOk());
+    }
+
+    @Test
+    void shouldRejectRefreshTokenAlreadySpentOnAnotherInstance() throws Exception {
+        String refreshToken = login().get("refreshToken").asText();
+        Claims claims = jwtUtils.getValidClaims(refreshToken);
+
+        // Written by another instance; this one has not synced it yet
+        revokedTokenRepository.save(new RevokedToken(claims.getId(), Instant.now(), claims.getExpiration().toInstant()));
+
+        refresh(refreshToken).andExpect(status().isUnauthorized());
+    }
+
+    @Test
+    void shouldNotAcceptRefreshTokenAsAccessToken() throws Exception {
+        String refreshToken = login().get("refreshToken").asText();
+
+        mockMvc.perform(get("/api/v1/categories").header("Authorization", "Bearer " + refreshToken))
+                .andExpect(status().isUnauthorized());
+    }
+
+    @Test
+    void shouldRevokeBothTokensOnLogoutAndReloadThemOnStartup() throws Exception {
+        JsonNode login = login();
+        String accessToken = login.get("token").asText();
+        String refreshToken = login.get("refreshToken").asText();
+        mockMvc.perform(get("/api/v1/categories").header("Authorization", "Bearer " + accessToken))
+                .andExpect(status().isOk());
+
+        mockMvc.perform(post("/api/v1/auth/logout")
+                        .header("Authorization", "Bearer " + accessToken)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(new RefreshTokenRequestDTO(refreshToken))))
+                .andExpect(status().isNoContent());
+
+        mockMvc.perform(get("/api/v1/categories").header("Authorization", "Bearer " + accessToken))
+                .andExpect(status().isUnauthorized());
+        refresh(refreshToken).andExpect(status().isUnauthorized());
+
+        // A fresh instance, as after a restart, reads the revocations back from the table
+        String accessTokenId = jwtUtils.getValidClaims(accessToken).getId();
+        assertTrue(revokedTokenRepository.existsById(accessTokenId));
+        TokenRevocationList restarted = new TokenRevocationList(revokedTokenRepository, transactionManager);
+        assertFalse(restarted.isRevoked(accessTokenId));
+        restarted.afterSingletonsInstantiated();
+        assertTrue(restarted.isRevoked(accessTokenId));
+        assertTrue(restarted.isRevoked(jwtUtils.getValidClaims(refreshToken).getId()));
+    }
+
+    private JsonNode login() throws Exception {
+        return readJson(mockMvc.perform(post("/api/v1/auth/login")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(new AuthRequestDTO(user.getUsername(), "secret123"))))
+                .andExpect(status().isOk()));
+    }
+
+    private ResultActions refresh(String refreshToken) throws Exception {
+        return mockMvc.perform(post("/api/v1/auth/refresh")
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(objectMapper.writeValueAsString(new RefreshTokenRequestDTO(refreshToken))));
+    }
+
+    private JsonNode readJson(ResultActions result) throws Exception {
+        return objectMapper.readTree(result.andReturn().getResponse().getContentAsString());
+    }
+}
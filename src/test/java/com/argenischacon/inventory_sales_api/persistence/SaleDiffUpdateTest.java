@@ -0,0 +1,107 @@
+package com.argenischacon.inventory_sales_api.persistence;
+
+import com.argenischacon.inventory_sales_api.dto.SaleDetailRequestDTO;
+import com.argenischacon.inventory_sales_api.dto.SaleDetailResponseDTO;
+import com.argenischacon.inventory_sales_api.dto.SaleRequestDTO;
+import com.argenischacon.inventory_sales_api.dto.SaleResponseDTO;
+import com.argenischacon.inventory_sales_api.model.Category;
+import com.argenischacon.inventory_sales_api.model.Customer;
+import com.argenischacon.inventory_sales_api.model.Product;
+import com.argenischacon.inventory_sales_api.model.SaleDetail;
+import com.argenischacon.inventory_sales_api.repository.CategoryRepository;
+import com.argenischacon.inventory_sales_api.repository.CustomerRepository;
+import com.argenischacon.inventory_sales_api.repository.ProductRepository;
+import com.argenischacon.inventory_sales_api.service.SaleService;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.EntityStatistics;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+@SpringBootTest(properties = "spring.jpa.properties.hibernate.generate_statistics=true")
+@ActiveProfiles("test")
+public class SaleDiffUpdateTest {
+    private static final int LINES = 200;
+
+    @Autowired
+    private SaleService saleService;
+
+    @Autowired
+    private CategoryRepository categoryRepository;
+
+    @Autowired
+    private CustomerRepository customerRepository;
+
+    @Autowired
+    private ProductRepository productRepository;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    private Customer customer;
+    private List<Product> products;
+
+    @BeforeEach
+    void setUp() {
+        Category category = new Category();
+        category.setName("Diff update");
+        category = categoryRepository.save(category);
+
+        customer = new Customer();
+        customer.setDni("DIFF-001");
+        customer.setName("Diff");
+        customer.setLastName("Customer");
+        customer = customerRepository.save(customer);
+
+        List<Product> newProducts = new ArrayList<>();
+        for (int i = 0; i < LINES; i++) {
+            Product product = new Product();
+            product.setName("Diff product " + i);
+            product.setUnitPrice(BigDecimal.TEN);
+            product.setStock(10);
+            product.setCategory(category);
+            newProducts.add(product);
+        }
+        products = productRepository.saveAll(newProducts);
+    }
+
+    @Test
+    void shouldWriteOnlyTheEditedLine() {
+        SaleRequestDTO request = new SaleRequestDTO();
+        request.setCustomerId(customer.getId());
+        request.setSaleDetails(IntStream.range(0, LINES)
+                .mapToObj(i -> new SaleDetailRequestDTO(null, 1, BigDecimal.TEN, products.get(i).getId()))
+                .toList());
+        SaleResponseDTO created = saleService.create(request);
+
+        // Same lines as stored, with a single quantity edit
+        List<SaleDetailRequestDTO> editedLines = new ArrayList<>();
+        for (SaleDetailResponseDTO detail : created.getSaleDetails()) {
+            editedLines.add(new SaleDetailRequestDTO(detail.getId(), detail.getQuantity(), detail.getUnitPrice(), detail.getProduct().getId()));
+        }
+        editedLines.get(0).setQuantity(3);
+        request.setSaleDetails(editedLines);
+
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+        saleService.update(created.getId(), request);
+
+        EntityStatistics detailStatistics = statistics.getEntityStatistics(SaleDetail.class.getName());
+        assertEquals(1, detailStatistics.getUpdateCount());
+        assertEquals(0, detailStatistics.getInsertCount());
+        assertEquals(0, detailStatistics.getDeleteCount());
+        // 10 in stock, 1 sold, then the line raised to 3
+        assertEquals(7, productRepository.findStockById(editedLines.get(0).getProductId()).orElseThrow());
+    }
+}
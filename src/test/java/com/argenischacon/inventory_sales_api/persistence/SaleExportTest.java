@@ -0,0 +1,127 @@
+package com.argenischacon.inventory_sales_api.persistence;
+
+import com.argenischacon.inventory_sales_api.dto.SaleDetailRequestDTO;
+import com.argenischacon.inventory_sales_api.dto.SaleExportFilterDTO;
+import com.argenischacon.inventory_sales_api.dto.SaleRequestDTO;
+import com.argenischacon.inventory_sales_api.model.Category;
+import com.argenischacon.inventory_sales_api.model.Customer;
+import com.argenischacon.inventory_sales_api.model.Product;
+import com.argenischacon.inventory_sales_api.model.Sale;
+import com.argenischacon.inventory_sales_api.repository.CategoryRepository;
+import com.argenischacon.inventory_sales_api.repository.CustomerRepository;
+import com.argenischacon.inventory_sales_api.repository.ProductRepository;
+import com.argenischacon.inventory_sales_api.repository.SaleRepository;
+import com.argenischacon.inventory_sales_api.service.SaleExportService;
+import com.argenischacon.inventory_sales_api.service.SaleService;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.io.ByteArrayOutputStream;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@SpringBootTest
+@ActiveProfiles("test")
+public class SaleExportTest {
+
+    @Autowired
+    private SaleExportService saleExportService;
+
+    @Autowired
+    private SaleService saleService;
+
+    @Autowired
+    private SaleRepository saleRepository;
+
+    @Autowired
+    private CategoryRepository categoryRepository;
+
+    @Autowired
+    private CustomerRepository customerRepository;
+
+    @Autowired
+    private ProductRepository productRepository;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Test
+    void shouldStreamSalesAsNdjsonAndCsv() throws Exception {
+        Category category = new Category();
+        category.setName("Export");
+        category = categoryRepository.save(category);
+
+        Customer customer = new Customer();
+        customer.setDni("EXPORT-001");
+        customer.setName("Export");
+        customer.setLastName("Customer");
+        customer = customerRepository.save(customer);
+
+        Product tv = newProduct("Export TV", category);
+        Product cable = newProduct("Cable, HDMI \"2m\"", category);
+
+        Long first = saleService.create(new SaleRequestDTO(customer.getId(), List.of(
+                new SaleDetailRequestDTO(null, 2, BigDecimal.valueOf(500), tv.getId()),
+                new SaleDetailRequestDTO(null, 1, BigDecimal.valueOf(10), cable.getId())))).getId();
+        Long second = saleService.create(new SaleRequestDTO(customer.getId(), List.of(
+                new SaleDetailRequestDTO(null, 1, BigDecimal.valueOf(500), tv.getId())))).getId();
+        // A sale whose lines were all removed
+        Sale empty = new Sale();
+        empty.setCustomer(customer);
+        Long third = saleRepository.save(empty).getId();
+
+        LocalDate today = LocalDate.now();
+        ByteArrayOutputStream ndjson = new ByteArrayOutputStream();
+        saleExportService.export(new SaleExportFilterDTO("ndjson", today, today), ndjson);
+        List<JsonNode> sales = ndjson.toString(StandardCharsets.UTF_8).lines()
+                .map(this::readTree)
+                .filter(sale -> sale.get("customerDni").asText().equals("EXPORT-001"))
+                .toList();
+
+        assertEquals(3, sales.size());
+        assertEquals(first, sales.get(0).get("id").asLong());
+        assertEquals(2, sales.get(0).get("lines").size());
+        assertEquals(second, sales.get(1).get("id").asLong());
+        assertEquals(1, sales.get(1).get("lines").size());
+        assertEquals(third, sales.get(2).get("id").asLong());
+        assertEquals(0, sales.get(2).get("lines").size());
+        assertTrue(ndjson.toString(StandardCharsets.UTF_8).endsWith("}\n"));
+
+        ByteArrayOutputStream csv = new ByteArrayOutputStream();
+        saleExportService.export(new SaleExportFilterDTO("csv", today, today), csv);
+        List<String> rows = csv.toString(StandardCharsets.UTF_8).lines()
+                .filter(row -> row.contains("EXPORT-001"))
+                .toList();
+
+        assertEquals(4, rows.size());
+        assertTrue(rows.get(1).contains(",\"Cable, HDMI \"\"2m\"\"\",1,10"));
+        assertTrue(rows.get(3).startsWith(third + ","));
+        assertTrue(rows.get(3).endsWith(",0.00,,,,,"));
+    }
+
+    private Product newProduct(String name, Category category) {
+        Product product = new Product();
+        product.setName(name);
+        product.setUnitPrice(BigDecimal.TEN);
+        product.setStock(10);
+        product.setCategory(category);
+        return productRepository.save(product);
+    }
+
+    private JsonNode readTree(String line) {
+        try {
+            return objectMapper.readTree(line);
+        } catch (Exception e) {
+            throw new IllegalStateException(e);
+        }
+    }
+}
@@ -0,0 +1,128 @@
+package com.argenischacon.inventory_sales_api.persistence;
+
+import com.argenischacon.inventory_sales_api.dto.SaleBatchRequestDTO;
+import com.argenischacon.inventory_sales_api.dto.SaleBatchResponseDTO;
+import com.argenischacon.inventory_sales_api.dto.SaleDetailRequestDTO;
+import com.argenischacon.inventory_sales_api.dto.SaleRequestDTO;
+import com.argenischacon.inventory_sales_api.dto.SaleResponseDTO;
+import com.argenischacon.inventory_sales_api.model.Category;
+import com.argenischacon.inventory_sales_api.model.Customer;
+import com.argenischacon.inventory_sales_api.model.Product;
+import com.argenischacon.inventory_sales_api.repository.CategoryRepository;
+import com.argenischacon.inventory_sales_api.repository.CustomerRepository;
+import com.argenischacon.inventory_sales_api.repository.ProductRepository;
+import com.argenischacon.inventory_sales_api.service.SaleService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.IntStream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+@SpringBootTest(properties = "spring.jpa.properties.hibernate.session.events.auto=com.argenischacon.inventory_sales_api.persistence.JdbcBatchCounter")
+@ActiveProfiles("test")
+public class SaleJdbcBatchingTest {
+    private static final int LINES = 100;
+    private static final int BATCH_SALES = 200;
+
+    @Value("${spring.jpa.properties.hibernate.jdbc.batch_size}")
+    private int batchSize;
+
+    @Autowired
+    private SaleService saleService;
+
+    @Autowired
+    private CategoryRepository categoryRepository;
+
+    @Autowired
+    private CustomerRepository customerRepository;
+
+    @Autowired
+    private ProductRepository productRepository;
+
+    private Customer customer;
+    private List<Product> products;
+
+    @BeforeEach
+    void setUp() {
+        Category category = new Category();
+        category.setName("Batching " + System.nanoTime());
+        category = categoryRepository.save(category);
+
+        customer = new Customer();
+        customer.setDni("BATCH-" + System.nanoTime());
+        customer.setName("Batch");
+        customer.setLastName("Customer");
+        customer = customerRepository.save(customer);
+
+        List<Product> newProducts = new ArrayList<>();
+        for (int i = 0; i < LINES; i++) {
+            Product product = new Product();
+            product.setName("Batch product " + i + " " + System.nanoTime());
+            product.setUnitPrice(BigDecimal.TEN);
+            product.setStock(1000);
+            product.setCategory(category);
+            newProducts.add(product);
+        }
+        products = productRepository.saveAll(newProducts);
+    }
+
+    @Test
+    void shouldInsertHundredLineSaleWithBatchedStatements() {
+        SaleRequestDTO request = new SaleRequestDTO();
+        request.setCustomerId(customer.getId());
+        request.setSaleDetails(IntStream.range(0, LINES)
+                .mapToObj(i -> new SaleDetailRequestDTO(null, 1, BigDecimal.TEN, products.get(i).getId()))
+                .toList());
+
+        JdbcBatchCounter.reset();
+        SaleResponseDTO response = saleService.create(request);
+        int batches = JdbcBatchCounter.count();
+
+        assertEquals(LINES, response.getSaleDetails().size());
+        // The sale and its lines, their Envers rows, the revision, and the audit rows of the customer and of every
+        // product whose stock changed; the stock changes themselves are single UPDATEs, not batches
+        int expected = batchesFor(1) + batchesFor(LINES)
+                + batchesFor(1) + batchesFor(LINES) + batchesFor(1)
+                + batchesFor(1) + batchesFor(LINES);
+        assertEquals(expected, batches, "JDBC batches for a " + LINES + "-line sale");
+    }
+
+    @Test
+    void shouldCreateSaleBatchWithStatementCountIndependentOfRows() {
+        // 200 sales of 2 lines are 600 rows plus as many audit rows: one statement per row would be far over budget
+        List<SaleRequestDTO> sales = IntStream.range(0, BATCH_SALES)
+                .mapToObj(i -> new SaleRequestDTO(customer.getId(), List.of(
+                        new SaleDetailRequestDTO(null, 1, BigDecimal.ONE, products.get(i % 10).getId()),
+                        new SaleDetailRequestDTO(null, 1, BigDecimal.ONE, products.get(10 + i % 10).getId()))))
+                .toList();
+
+        JdbcBatchCounter.reset();
+        SaleBatchResponseDTO response = saleService.createBatch(new SaleBatchRequestDTO(sales));
+        int statements = JdbcBatchCounter.statements();
+        int batches = JdbcBatchCounter.count();
+
+        assertEquals(BATCH_SALES, response.getCreated());
+        int lines = 2 * BATCH_SALES;
+        // Sales, lines, their Envers rows, the revision, and the audit rows of the customer and the 20 products sold
+        int expected = batchesFor(BATCH_SALES) + batchesFor(lines)
+                + batchesFor(BATCH_SALES) + batchesFor(lines) + batchesFor(1)
+                + batchesFor(1) + batchesFor(20);
+        assertEquals(expected, batches, "JDBC batches for " + BATCH_SALES + " sales");
+        // Each batch is prepared once, plus the customer and product locks, one stock update per product and the
+        // pooled sequence calls; one statement per row would be over 1000
+        assertTrue(statements <= 100, "expected at most 100 statements for " + BATCH_SALES + " sales, got " + statements);
+    }
+
+    private int batchesFor(int rows) {
+        return (rows + batchSize - 1) / batchSize;
+    }
+}
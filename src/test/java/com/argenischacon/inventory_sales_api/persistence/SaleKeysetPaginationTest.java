@@ -0,0 +1,84 @@
+package com.argenischacon.inventory_sales_api.persistence;
+
+import com.argenischacon.inventory_sales_api.dto.FieldsQueryDTO;
+import com.argenischacon.inventory_sales_api.dto.PageQueryDTO;
+import com.argenischacon.inventory_sales_api.dto.PageResponseDTO;
+import com.argenischacon.inventory_sales_api.dto.SaleDetailRequestDTO;
+import com.argenischacon.inventory_sales_api.dto.SaleFilterDTO;
+import com.argenischacon.inventory_sales_api.dto.SaleRequestDTO;
+import com.argenischacon.inventory_sales_api.dto.SaleResponseDTO;
+import com.argenischacon.inventory_sales_api.model.Category;
+import com.argenischacon.inventory_sales_api.model.Customer;
+import com.argenischacon.inventory_sales_api.model.Product;
+import com.argenischacon.inventory_sales_api.repository.CategoryRepository;
+import com.argenischacon.inventory_sales_api.repository.CustomerRepository;
+import com.argenischacon.inventory_sales_api.repository.ProductRepository;
+import com.argenischacon.inventory_sales_api.service.SaleService;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+@SpringBootTest
+@ActiveProfiles("test")
+public class SaleKeysetPaginationTest {
+
+    @Autowired
+    private SaleService saleService;
+
+    @Autowired
+    private CategoryRepository categoryRepository;
+
+    @Autowired
+    private CustomerRepository customerRepository;
+
+    @Autowired
+    private ProductRepository productRepository;
+
+    @Test
+    void shouldWalkTiedTotalsWithoutGapsOrDuplicates() {
+        Category category = new Category();
+        category.setName("Keyset paging");
+        category = categoryRepository.save(category);
+
+        Customer customer = new Customer();
+        customer.setDni("PAGE-001");
+        customer.setName("Page");
+        customer.setLastName("Customer");
+        customer = customerRepository.save(customer);
+
+        Product product = new Product();
+        product.setName("Keyset product");
+        product.setUnitPrice(BigDecimal.TEN);
+        product.setStock(100);
+        product.setCategory(category);
+        product = productRepository.save(product);
+
+        // Totals far above other test data so the filter only sees these sales; three of them tie
+        List<Long> ids = new ArrayList<>();
+        for (long price : new long[]{1_000_000, 2_000_000, 2_000_000, 3_000_000, 2_000_000}) {
+            SaleRequestDTO request = new SaleRequestDTO(customer.getId(),
+                    List.of(new SaleDetailRequestDTO(null, 1, BigDecimal.valueOf(price), product.getId())));
+            ids.add(saleService.create(request).getId());
+        }
+
+        SaleFilterDTO filter = new SaleFilterDTO(BigDecimal.valueOf(1_000_000), null, null, null, "total", "desc");
+        List<Long> walked = new ArrayList<>();
+        PageResponseDTO<SaleResponseDTO> page = saleService.findAll(filter, new PageQueryDTO(null, null, 2), new FieldsQueryDTO());
+        page.getContent().forEach(sale -> walked.add(sale.getId()));
+        while (page.isHasNext()) {
+            page = saleService.findAll(filter, new PageQueryDTO(page.getNextCursor(), null, 2), new FieldsQueryDTO());
+            page.getContent().forEach(sale -> walked.add(sale.getId()));
+        }
+
+        assertEquals(List.of(ids.get(3), ids.get(4), ids.get(2), ids.get(1), ids.get(0)), walked);
+        assertNull(page.getNextCursor());
+    }
+}
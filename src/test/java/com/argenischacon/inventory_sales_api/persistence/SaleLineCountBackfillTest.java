@@ -0,0 +1,118 @@
+package com.argenischacon.inventory_sales_api.persistence;
+
+import com.argenischacon.inventory_sales_api.model.Category;
+import com.argenischacon.inventory_sales_api.model.Customer;
+import com.argenischacon.inventory_sales_api.model.Product;
+import com.argenischacon.inventory_sales_api.model.Sale;
+import com.argenischacon.inventory_sales_api.model.SaleDetail;
+import com.argenischacon.inventory_sales_api.repository.CategoryRepository;
+import com.argenischacon.inventory_sales_api.repository.CustomerRepository;
+import com.argenischacon.inventory_sales_api.repository.ProductRepository;
+import com.argenischacon.inventory_sales_api.repository.SaleRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.security.test.context.support.WithMockUser;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * A sale written without SaleServiceImpl, like the rows that existed before V5, has line_count 0 until the V5
+ * backfill runs; X-Total-Count then reports its real number of lines.
+ */
+@SpringBootTest
+@AutoConfigureMockMvc(addFilters = false)
+@ActiveProfiles("test")
+@WithMockUser
+public class SaleLineCountBackfillTest {
+    private static final String MIGRATION = "db/migration/postgresql/V5__sale_totals.sql";
+    private static final int LINES = 3;
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private SaleRepository saleRepository;
+
+    @Autowired
+    private CategoryRepository categoryRepository;
+
+    @Autowired
+    private CustomerRepository customerRepository;
+
+    @Autowired
+    private ProductRepository productRepository;
+
+    @Test
+    void shouldReportTheRealLineCountOfABackfilledSale() throws Exception {
+        Category category = new Category();
+        category.setName("Backfill " + System.nanoTime());
+        category = categoryRepository.save(category);
+
+        Customer customer = new Customer();
+        customer.setDni("FILL-" + System.nanoTime());
+        customer.setName("Backfill");
+        customer.setLastName("Customer");
+        customer = customerRepository.save(customer);
+
+        Sale sale = new Sale();
+        sale.setCustomer(customer);
+        for (int i = 0; i < LINES; i++) {
+            Product product = new Product();
+            product.setName("Backfill product " + i + " " + System.nanoTime());
+            product.setUnitPrice(BigDecimal.TEN);
+            product.setStock(10);
+            product.setCategory(category);
+            product = productRepository.save(product);
+
+            SaleDetail detail = new SaleDetail();
+            detail.setSale(sale);
+            detail.setProduct(product);
+            detail.setQuantity(2);
+            detail.setUnitPrice(BigDecimal.TEN);
+            sale.getSaleDetails().add(detail);
+        }
+        Long saleId = saleRepository.save(sale).getId();
+        assertEquals(0, jdbcTemplate.queryForObject("SELECT line_count FROM sales WHERE id = ?", Integer.class, saleId));
+
+        jdbcTemplate.update(backfillStatement());
+
+        mockMvc.perform(get("/api/v1/sale-details/{saleId}", saleId).param("size", "1"))
+                .andExpect(status().isOk())
+                .andExpect(header().string("X-Total-Count", String.valueOf(LINES)))
+                .andExpect(jsonPath("$.content.length()").value(1));
+        assertEquals(0, new BigDecimal("60.00").compareTo(
+                jdbcTemplate.queryForObject("SELECT total FROM sales WHERE id = ?", BigDecimal.class, saleId)));
+    }
+
+    // The UPDATE of the V5 migration, as Flyway runs it in prod
+    private static String backfillStatement() throws IOException {
+        String script = new ClassPathResource(MIGRATION).getContentAsString(StandardCharsets.UTF_8);
+        String withoutComments = script.lines()
+                .filter(line -> !line.trim().startsWith("--"))
+                .collect(Collectors.joining("\n"));
+        return Arrays.stream(withoutComments.split(";"))
+                .map(String::trim)
+                .filter(statement -> statement.startsWith("UPDATE"))
+                .findFirst()
+                .orElseThrow();
+    }
+}
@@ -0,0 +1,135 @@
+package com.argenischacon.inventory_sales_api.persistence;
+
+import com.argenischacon.inventory_sales_api.dto.SaleDetailRequestDTO;
+import com.argenischacon.inventory_sales_api.dto.SaleRequestDTO;
+import com.argenischacon.inventory_sales_api.model.Category;
+import com.argenischacon.inventory_sales_api.model.Customer;
+import com.argenischacon.inventory_sales_api.model.Product;
+import com.argenischacon.inventory_sales_api.repository.CategoryRepository;
+import com.argenischacon.inventory_sales_api.repository.CustomerRepository;
+import com.argenischacon.inventory_sales_api.repository.ProductRepository;
+import com.argenischacon.inventory_sales_api.service.SaleService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.cache.CacheManager;
+import org.springframework.security.test.context.support.WithMockUser;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.RequestBuilder;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Fixed SQL statement budgets for the read endpoints. The data set uses several customers, products and categories
+ * per page, so any association loaded per row instead of per query pushes the count over budget.
+ */
+@SpringBootTest(properties = "spring.jpa.properties.hibernate.session.events.auto=com.argenischacon.inventory_sales_api.persistence.SqlStatementCounter")
+@AutoConfigureMockMvc(addFilters = false)
+@ActiveProfiles("test")
+@WithMockUser
+public class SqlStatementBudgetTest {
+    private static final int SALES = 6;
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private SaleService saleService;
+
+    @Autowired
+    private CategoryRepository categoryRepository;
+
+    @Autowired
+    private CustomerRepository customerRepository;
+
+    @Autowired
+    private ProductRepository productRepository;
+
+    @Autowired
+    private CacheManager cacheManager;
+
+    private Long saleId;
+
+    @BeforeEach
+    void setUp() {
+        List<Product> products = new ArrayList<>();
+        List<Customer> customers = new ArrayList<>();
+        for (int i = 0; i < 3; i++) {
+            Category category = new Category();
+            category.setName("Budget category " + i + " " + System.nanoTime());
+            category = categoryRepository.save(category);
+
+            for (int j = 0; j < 2; j++) {
+                Product product = new Product();
+                product.setName("Budget product " + i + "-" + j + " " + System.nanoTime());
+                product.setUnitPrice(BigDecimal.TEN);
+                product.setStock(100);
+                product.setCategory(category);
+                products.add(productRepository.save(product));
+            }
+
+            Customer customer = new Customer();
+            customer.setDni("BUDGET-" + System.nanoTime());
+            customer.setName("Budget");
+            customer.setLastName("Customer " + i);
+            customers.add(customerRepository.save(customer));
+        }
+
+        for (int i = 0; i < SALES; i++) {
+            List<SaleDetailRequestDTO> lines = List.of(
+                    new SaleDetailRequestDTO(null, 1, BigDecimal.TEN, products.get(i % products.size()).getId()),
+                    new SaleDetailRequestDTO(null, 1, BigDecimal.TEN, products.get((i + 3) % products.size()).getId()));
+            saleId = saleService.create(new SaleRequestDTO(customers.get(i % customers.size()).getId(), lines)).getId();
+        }
+    }
+
+    @Test
+    void saleListStaysWithinBudget() throws Exception {
+        // Change stamp + page of ids + one projection of sales with customers, lines and products
+        assertBudget(3, get("/api/v1/sales").param("size", String.valueOf(SALES)));
+    }
+
+    @Test
+    void saleDetailViewStaysWithinBudget() throws Exception {
+        // Change stamp + the sale with its customer, lines and products
+        assertBudget(2, get("/api/v1/sales/{id}", saleId));
+    }
+
+    @Test
+    void saleLinesStayWithinBudget() throws Exception {
+        // One page of lines with their product columns and the sale's line count
+        assertBudget(1, get("/api/v1/sale-details/{saleId}", saleId).param("size", "1"));
+    }
+
+    @Test
+    void productListStaysWithinBudget() throws Exception {
+        // Change stamp + the page
+        assertBudget(2, get("/api/v1/products").param("size", "20"));
+    }
+
+    @Test
+    void customerAndCategoryListsStayWithinBudget() throws Exception {
+        assertBudget(2, get("/api/v1/customers"));
+        assertBudget(2, get("/api/v1/categories"));
+    }
+
+    // Budgets are for cache misses, so catalog caches are emptied first
+    private void assertBudget(int budget, RequestBuilder request) throws Exception {
+        cacheManager.getCacheNames().forEach(name -> cacheManager.getCache(name).clear());
+        SqlStatementCounter.reset();
+        mockMvc.perform(request)
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$").exists());
+        assertEquals(budget, SqlStatementCounter.count(), "SQL statements executed");
+    }
+}
@@ -0,0 +1,23 @@
+package com.argenischacon.inventory_sales_api.persistence;
+
+import org.hibernate.SessionEventListener;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+// Registered through hibernate.session.events.auto; counts every JDBC statement Hibernate prepares
+public class SqlStatementCounter implements SessionEventListener {
+    private static final AtomicInteger STATEMENTS = new AtomicInteger();
+
+    @Override
+    public void jdbcPrepareStatementStart() {
+        STATEMENTS.incrementAndGet();
+    }
+
+    public static void reset() {
+        STATEMENTS.set(0);
+    }
+
+    public static int count() {
+        return STATEMENTS.get();
+    }
+}
@@ -0,0 +1,124 @@
+package com.argenischacon.inventory_sales_api.persistence;
+
+import com.argenischacon.inventory_sales_api.dto.AuthRequestDTO;
+import com.argenischacon.inventory_sales_api.dto.CategoryRequestDTO;
+import com.argenischacon.inventory_sales_api.model.Role;
+import com.argenischacon.inventory_sales_api.model.User;
+import com.argenischacon.inventory_sales_api.repository.UserRepository;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.security.crypto.password.PasswordEncoder;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.bean.override.mockito.MockitoSpyBean;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.util.HashSet;
+import java.util.Set;
+
+import static org.mockito.Mockito.clearInvocations;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+public class StatelessJwtAuthenticationTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @Autowired
+    private PasswordEncoder passwordEncoder;
+
+    @MockitoSpyBean
+    private UserRepository userRepository;
+
+    private User user;
+
+    @BeforeEach
+    void setUp() {
+        user = new User();
+        user.setUsername("jwt-" + System.nanoTime());
+        user.setPassword(passwordEncoder.encode("secret123"));
+        user.setRoles(new HashSet<>(Set.of(Role.ADMIN, Role.USER)));
+        user = userRepository.save(user);
+    }
+
+    @Test
+    void shouldReadTheUserOnceForRepeatedRequests() throws Exception {
+        String token = login();
+        clearInvocations(userRepository);
+
+        for (int i = 0; i < 3; i++) {
+            mockMvc.perform(get("/api/v1/categories").header("Authorization", "Bearer " + token))
+                    .andExpect(status().isOk());
+        }
+
+        verify(userRepository, times(1)).findByUsername(user.getUsername());
+    }
+
+    @Test
+    void shouldRejectTokenOfDeletedUser() throws Exception {
+        String token = login();
+        mockMvc.perform(get("/api/v1/categories").header("Authorization", "Bearer " + token))
+                .andExpect(status().isOk());
+
+        userRepository.delete(user);
+
+        mockMvc.perform(get("/api/v1/categories").header("Authorization", "Bearer " + token))
+                .andExpect(status().isUnauthorized());
+    }
+
+    @Test
+    void shouldRejectTokenIssuedBeforeTheUserWasRenamed() throws Exception {
+        String token = login();
+        mockMvc.perform(get("/api/v1/categories").header("Authorization", "Bearer " + token))
+                .andExpect(status().isOk());
+
+        user.setUsername("renamed-" + System.nanoTime());
+        user = userRepository.save(user);
+
+        mockMvc.perform(get("/api/v1/categories").header("Authorization", "Bearer " + token))
+                .andExpect(status().isUnauthorized());
+        mockMvc.perform(get("/api/v1/categories").header("Authorization", "Bearer " + login()))
+                .andExpect(status().isOk());
+    }
+
+    @Test
+    void shouldDropRolesRemovedAfterTheTokenWasIssued() throws Exception {
+        String token = login();
+        mockMvc.perform(get("/api/v1/categories").header("Authorization", "Bearer " + token))
+                .andExpect(status().isOk());
+
+        user.setRoles(new HashSet<>(Set.of(Role.USER)));
+        userRepository.save(user);
+
+        mockMvc.perform(post("/api/v1/categories")
+                        .header("Authorization", "Bearer " + token)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(new CategoryRequestDTO("Revoked " + System.nanoTime(), null))))
+                .andExpect(status().isForbidden());
+        mockMvc.perform(get("/api/v1/categories").header("Authorization", "Bearer " + token))
+                .andExpect(status().isOk());
+    }
+
+    private String login() throws Exception {
+        String body = mockMvc.perform(post("/api/v1/auth/login")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(new AuthRequestDTO(user.getUsername(), "secret123"))))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsString();
+        return objectMapper.readTree(body).get("token").asText();
+    }
+}
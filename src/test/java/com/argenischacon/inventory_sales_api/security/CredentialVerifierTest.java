@@ -0,0 +1,83 @@
+package com.argenischacon.inventory_sales_api.security;
+
+import com.argenischacon.inventory_sales_api.exception.ServiceBusyException;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.security.authentication.AuthenticationManager;
+import org.springframework.security.authentication.BadCredentialsException;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.Authentication;
+
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+public class CredentialVerifierTest {
+    private final AuthenticationManager authenticationManager = mock(AuthenticationManager.class);
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final CredentialVerifier verifier = new CredentialVerifier(authenticationManager, meterRegistry, 1, 1, 3);
+
+    @AfterEach
+    void tearDown() {
+        verifier.destroy();
+    }
+
+    @Test
+    void shouldReturnAuthenticationAndRecordTheVerification() {
+        Authentication credentials = new UsernamePasswordAuthenticationToken("admin", "admin123");
+        Authentication authenticated = new UsernamePasswordAuthenticationToken("admin", null, List.of());
+        when(authenticationManager.authenticate(credentials)).thenReturn(authenticated);
+
+        assertSame(authenticated, verifier.authenticate(credentials));
+        assertEquals(1, meterRegistry.get("auth.verification").timer().count());
+    }
+
+    @Test
+    void shouldRethrowAuthenticationFailures() {
+        when(authenticationManager.authenticate(any())).thenThrow(new BadCredentialsException("Bad credentials"));
+
+        assertThrows(BadCredentialsException.class,
+                () -> verifier.authenticate(new UsernamePasswordAuthenticationToken("admin", "wrong")));
+    }
+
+    @Test
+    void shouldRefuseLoginsWhenThePoolAndQueueAreFull() throws Exception {
+        CountDownLatch release = new CountDownLatch(1);
+        CountDownLatch started = new CountDownLatch(1);
+        when(authenticationManager.authenticate(any())).thenAnswer(invocation -> {
+            started.countDown();
+            release.await();
+            return invocation.getArgument(0);
+        });
+
+        // One login running on the single thread, one waiting in the single queue slot
+        CompletableFuture<Authentication> running = CompletableFuture.supplyAsync(
+                () -> verifier.authenticate(new UsernamePasswordAuthenticationToken("a", "a")));
+        assertTrue(started.await(5, TimeUnit.SECONDS));
+        CompletableFuture<Authentication> queued = CompletableFuture.supplyAsync(
+                () -> verifier.authenticate(new UsernamePasswordAuthenticationToken("b", "b")));
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (meterRegistry.get("auth.verification.queue").gauge().value() < 1 && System.nanoTime() < deadline) {
+            Thread.sleep(5);
+        }
+
+        ServiceBusyException ex = assertThrows(ServiceBusyException.class,
+                () -> verifier.authenticate(new UsernamePasswordAuthenticationToken("c", "c")));
+        assertEquals(3, ex.getRetryAfterSeconds());
+        assertEquals(1, meterRegistry.get("auth.verification.rejected").counter().count());
+
+        release.countDown();
+        assertEquals("a", running.get(5, TimeUnit.SECONDS).getName());
+        assertEquals("b", queued.get(5, TimeUnit.SECONDS).getName());
+    }
+}
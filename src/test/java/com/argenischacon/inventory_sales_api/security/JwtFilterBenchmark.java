@@ -0,0 +1,114 @@
+package com.argenischacon.inventory_sales_api.security;
+
+import com.argenischacon.inventory_sales_api.model.Role;
+import com.argenischacon.inventory_sales_api.model.User;
+import com.argenischacon.inventory_sales_api.repository.RevokedTokenRepository;
+import com.argenischacon.inventory_sales_api.repository.UserRepository;
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.security.Keys;
+import lombok.extern.slf4j.Slf4j;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import javax.crypto.SecretKey;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.Optional;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+/**
+ * Time per authenticated request spent in the JWT filter: the previous path (a parser built per call and the
+ * signature verified twice) against one verification with the shared parser, and against the verified-claims cache.
+ * The user lookup is served from the status cache in every case, so only token handling is measured.
+ * The numbers are logged for comparison and nothing is asserted on them.
+ * Opt-in, since timings depend on the machine: run with {@code mvn test -Dtest=JwtFilterBenchmark -Dbenchmark=true}.
+ */
+@EnabledIfSystemProperty(named = "benchmark", matches = "true")
+@Slf4j
+public class JwtFilterBenchmark {
+    private static final String SECRET = "benchmark-secret-12345678901234567890";
+    private static final int WARMUP = 20_000;
+    private static final int ITERATIONS = 100_000;
+
+    private UserStatusCache userStatusCache;
+    private TokenRevocationList revocationList;
+    private String token;
+
+    @BeforeEach
+    void setUp() {
+        User user = new User(1L, "admin", "", Set.of(Role.ADMIN, Role.USER));
+        UserRepository userRepository = mock(UserRepository.class);
+        when(userRepository.findByUsername("admin")).thenReturn(Optional.of(user));
+        userStatusCache = new UserStatusCache(userRepository, 100, Duration.ofHours(1));
+        revocationList = new TokenRevocationList(mock(RevokedTokenRepository.class), mock(PlatformTransactionManager.class));
+
+        UserDetails principal = org.springframework.security.core.userdetails.User.withUsername("admin")
+                .password("")
+                .authorities(new SimpleGrantedAuthority("ROLE_ADMIN"), new SimpleGrantedAuthority("ROLE_USER"))
+                .build();
+        token = new JwtUtils(SECRET, 3_600_000, 3_600_000, 0).generateToken(
+                new UsernamePasswordAuthenticationToken(principal, null, principal.getAuthorities()));
+    }
+
+    @Test
+    void compareFilterPaths() throws Exception {
+        SecretKey key = Keys.hmacShaKeyFor(SECRET.getBytes(StandardCharsets.UTF_8));
+        JwtUtils previous = new JwtUtils(SECRET, 3_600_000, 3_600_000, 0) {
+            // What the filter did before: a parser built per call, and the token parsed for the subject and again to validate
+            @Override
+            public Claims getValidClaims(String token) {
+                Jwts.parserBuilder().setSigningKey(key).build().parseClaimsJws(token).getBody().getSubject();
+                return Jwts.parserBuilder().setSigningKey(key).build().parseClaimsJws(token).getBody();
+            }
+        };
+        long before = nanosPerRequest(filterRequest(previous));
+        long singleParse = nanosPerRequest(filterRequest(new JwtUtils(SECRET, 3_600_000, 3_600_000, 0)));
+        long cached = nanosPerRequest(filterRequest(new JwtUtils(SECRET, 3_600_000, 3_600_000, 100)));
+
+        // Reported, not asserted: relative timings on a shared machine are too noisy to fail a build on
+        log.info("JwtFilter: before {} ns/request, single parse {} ns/request ({}%), claims cache {} ns/request ({}%)",
+                before, singleParse, Math.round(100.0 * singleParse / before), cached, Math.round(100.0 * cached / before));
+    }
+
+    private ThrowingRunnable filterRequest(JwtUtils jwtUtils) {
+        JwtFilter filter = new JwtFilter(jwtUtils, username -> {
+            throw new IllegalStateException("Stateless mode does not load users");
+        }, userStatusCache, revocationList, true);
+        return () -> {
+            MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/v1/products");
+            request.addHeader("Authorization", "Bearer " + token);
+            filter.doFilter(request, new MockHttpServletResponse(), new MockFilterChain());
+            assertNotNull(SecurityContextHolder.getContext().getAuthentication());
+            SecurityContextHolder.clearContext();
+        };
+    }
+
+    private static long nanosPerRequest(ThrowingRunnable call) throws Exception {
+        for (int i = 0; i < WARMUP; i++) {
+            call.run();
+        }
+        long start = System.nanoTime();
+        for (int i = 0; i < ITERATIONS; i++) {
+            call.run();
+        }
+        return (System.nanoTime() - start) / ITERATIONS;
+    }
+
+    private interface ThrowingRunnable {
+        void run() throws Exception;
+    }
+}
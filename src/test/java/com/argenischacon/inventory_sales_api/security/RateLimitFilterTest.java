@@ -0,0 +1,89 @@
+package com.argenischacon.inventory_sales_api.security;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.context.SecurityContextHolder;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+public class RateLimitFilterTest {
+    private final RateLimitFilter filter = new RateLimitFilter(new ObjectMapper().findAndRegisterModules(), true,
+            new String[]{"POST /api/v1/sales=2/1m", " * /api/**=3/1m"}, 100);
+
+    @AfterEach
+    void tearDown() {
+        SecurityContextHolder.clearContext();
+    }
+
+    @Test
+    void shouldAnswer429WithRetryAfterOnceTheBucketIsEmpty() throws Exception {
+        assertEquals(200, perform("POST", "/api/v1/sales", "10.0.0.1").getStatus());
+        assertEquals(200, perform("POST", "/api/v1/sales", "10.0.0.1").getStatus());
+
+        MockHttpServletResponse rejected = perform("POST", "/api/v1/sales", "10.0.0.1");
+
+        assertEquals(429, rejected.getStatus());
+        long retryAfter = Long.parseLong(rejected.getHeader("Retry-After"));
+        assertTrue(retryAfter > 0 && retryAfter <= 30, "Retry-After " + retryAfter);
+        assertTrue(rejected.getContentAsString().contains("\"status\":429"));
+    }
+
+    @Test
+    void shouldKeepSeparateBucketsPerClientAndRoute() throws Exception {
+        for (int i = 0; i < 2; i++) {
+            perform("POST", "/api/v1/sales", "10.0.0.1");
+        }
+        assertEquals(429, perform("POST", "/api/v1/sales", "10.0.0.1").getStatus());
+
+        // Another address, and another rule for the same address
+        assertEquals(200, perform("POST", "/api/v1/sales", "10.0.0.2").getStatus());
+        assertEquals(200, perform("GET", "/api/v1/sales", "10.0.0.1").getStatus());
+    }
+
+    @Test
+    void shouldKeyAuthenticatedClientsByUsername() throws Exception {
+        SecurityContextHolder.getContext().setAuthentication(
+                new UsernamePasswordAuthenticationToken("cashier", null, List.of()));
+        for (int i = 0; i < 3; i++) {
+            assertEquals(200, perform("GET", "/api/v1/products", "10.0.0." + i).getStatus());
+        }
+
+        // Same user from yet another address
+        assertEquals(429, perform("GET", "/api/v1/products", "10.0.0.9").getStatus());
+    }
+
+    @Test
+    void shouldNotLimitRoutesWithoutRule() throws Exception {
+        for (int i = 0; i < 10; i++) {
+            assertEquals(200, perform("GET", "/swagger-ui/index.html", "10.0.0.1").getStatus());
+        }
+    }
+
+    @Test
+    void shouldRejectMalformedRules() {
+        assertThrows(IllegalArgumentException.class, () -> new RateLimitFilter(new ObjectMapper(), true,
+                new String[]{"/api/**=10"}, 100));
+    }
+
+    private MockHttpServletResponse perform(String method, String path, String remoteAddress) throws Exception {
+        MockHttpServletRequest request = new MockHttpServletRequest(method, path);
+        request.setRemoteAddr(remoteAddress);
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        MockFilterChain chain = new MockFilterChain();
+        filter.doFilter(request, response, chain);
+        if (response.getStatus() == 200) {
+            assertNotNull(chain.getRequest());
+        }
+        return response;
+    }
+}
@@ -2,6 +2,8 @@ package com.argenischacon.inventory_sales_api.service;
 
 import com.argenischacon.inventory_sales_api.dto.CategoryRequestDTO;
 import com.argenischacon.inventory_sales_api.dto.CategoryResponseDTO;
+import com.argenischacon.inventory_sales_api.dto.PageQueryDTO;
+import com.argenischacon.inventory_sales_api.dto.PageResponseDTO;
 import com.argenischacon.inventory_sales_api.exception.DuplicateResourceException;
 import com.argenischacon.inventory_sales_api.exception.ResourceInUseException;
 import com.argenischacon.inventory_sales_api.exception.ResourceNotFoundException;
@@ -14,7 +16,11 @@ import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
+import org.mockito.Spy;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.SliceImpl;
+import org.springframework.data.domain.Sort;
 
 import java.math.BigDecimal;
 import java.util.HashSet;
@@ -22,8 +28,8 @@ import java.util.List;
 import java.util.Optional;
 import java.util.Set;
 
-import static org.junit.jupiter.api.Assertions.assertEquals;
-import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.Mockito.*;
 import static org.mockito.Mockito.when;
 
@@ -35,6 +41,9 @@ public class CategoryServiceTest {
     @Mock
     private CategoryMapper categoryMapper;
 
+    @Spy
+    private PageSupport pageSupport = new PageSupport(20, 100);
+
     @InjectMocks
     CategoryServiceImpl categoryService;
 
@@ -195,8 +204,7 @@ public class CategoryServiceTest {
     // ==== FIND BY ID ====
     @Test
     void shouldFindCategoryByIdWhenIdExists() {
-        when(categoryRepository.findById(1L)).thenReturn(Optional.of(baseCategory));
-        when(categoryMapper.toResponse(baseCategory)).thenReturn(baseResponseDTO);
+        when(categoryRepository.findViewById(1L)).thenReturn(Optional.of(baseResponseDTO));
 
         CategoryResponseDTO result = categoryService.findById(1L);
 
@@ -206,7 +214,7 @@ public class CategoryServiceTest {
 
     @Test
     void shouldThrowExceptionWhenFindingNonExistingCategory() {
-        when(categoryRepository.findById(1L)).thenReturn(Optional.empty());
+        when(categoryRepository.findViewById(1L)).thenReturn(Optional.empty());
 
         ResourceNotFoundException ex = assertThrows(ResourceNotFoundException.class,
                 () -> categoryService.findById(1L));
@@ -216,14 +224,31 @@ public class CategoryServiceTest {
 
     // ==== FIND ALL ====
     @Test
-    void shouldFindAllCategories() {
-        when(categoryRepository.findAll()).thenReturn(List.of(baseCategory));
-        when(categoryMapper.toResponseList(List.of(baseCategory))).thenReturn(List.of(baseResponseDTO));
+    void shouldFindFirstPageOfCategories() {
+        PageRequest pageRequest = PageRequest.of(0, 20, Sort.by("id"));
+        when(categoryRepository.findViews(pageRequest)).thenReturn(new SliceImpl<>(List.of(baseResponseDTO), pageRequest, true));
 
-        List<CategoryResponseDTO> resultList = categoryService.findAll();
+        PageResponseDTO<CategoryResponseDTO> result = categoryService.findAll(new PageQueryDTO());
 
-        assertEquals(1, resultList.size());
-        assertEquals("Electronics", resultList.getFirst().getName());
-        assertEquals("Electronic devices", resultList.getFirst().getDescription());
+        assertEquals(1, result.getContent().size());
+        assertEquals("Electronics", result.getContent().getFirst().getName());
+        assertEquals(0, result.getPage());
+        assertTrue(result.isHasNext());
+        assertEquals(pageSupport.encodeCursor(1L), result.getNextCursor());
+    }
+
+    @Test
+    void shouldSeekPastCursorAndCapPageSize() {
+        PageRequest pageRequest = PageRequest.of(0, 100, Sort.by("id"));
+        when(categoryRepository.findViewsByIdGreaterThan(1L, pageRequest)).thenReturn(new SliceImpl<>(List.of(), pageRequest, false));
+
+        PageResponseDTO<CategoryResponseDTO> result = categoryService.findAll(
+                new PageQueryDTO(pageSupport.encodeCursor(1L), null, 500));
+
+        assertEquals(100, result.getSize());
+        assertNull(result.getPage());
+        assertNull(result.getNextCursor());
+        assertFalse(result.isHasNext());
+        verify(categoryRepository, never()).findViews(any());
     }
 }
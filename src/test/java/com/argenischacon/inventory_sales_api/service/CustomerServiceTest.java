@@ -2,6 +2,8 @@ package com.argenischacon.inventory_sales_api.service;
 
 import com.argenischacon.inventory_sales_api.dto.CustomerRequestDTO;
 import com.argenischacon.inventory_sales_api.dto.CustomerResponseDTO;
+import com.argenischacon.inventory_sales_api.dto.PageQueryDTO;
+import com.argenischacon.inventory_sales_api.dto.PageResponseDTO;
 import com.argenischacon.inventory_sales_api.exception.DuplicateResourceException;
 import com.argenischacon.inventory_sales_api.exception.ResourceInUseException;
 import com.argenischacon.inventory_sales_api.exception.ResourceNotFoundException;
@@ -14,7 +16,11 @@ import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
+import org.mockito.Spy;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.SliceImpl;
+import org.springframework.data.domain.Sort;
 
 import java.util.List;
 import java.util.Optional;
@@ -31,6 +37,9 @@ public class CustomerServiceTest {
     @Mock
     private CustomerRepository customerRepository;
 
+    @Spy
+    private PageSupport pageSupport = new PageSupport(20, 100);
+
     @InjectMocks
     CustomerServiceImpl customerService;
 
@@ -188,8 +197,7 @@ public class CustomerServiceTest {
     // ==== FIND BY ID =====
     @Test
     void shouldFindCustomerByIdWhenIdExists() {
-        when(customerRepository.findById(1L)).thenReturn(Optional.of(baseCustomer));
-        when(customerMapper.toResponse(baseCustomer)).thenReturn(baseResponseDTO);
+        when(customerRepository.findViewById(1L)).thenReturn(Optional.of(baseResponseDTO));
 
         CustomerResponseDTO result = customerService.findById(1L);
 
@@ -199,7 +207,7 @@ public class CustomerServiceTest {
 
     @Test
     void shouldThrowExceptionWhenFindingNonExistingCustomer() {
-        when(customerRepository.findById(1L)).thenReturn(Optional.empty());
+        when(customerRepository.findViewById(1L)).thenReturn(Optional.empty());
 
         ResourceNotFoundException ex = assertThrows(ResourceNotFoundException.class,
                 () -> customerService.findById(1L));
@@ -209,14 +217,16 @@ public class CustomerServiceTest {
 
     // ==== FIND ALL =====
     @Test
-    void shouldFindAllCustomers() {
-        when(customerRepository.findAll()).thenReturn(List.of(baseCustomer));
-        when(customerMapper.toResponseList(List.of(baseCustomer))).thenReturn(List.of(baseResponseDTO));
+    void shouldFindRequestedPageOfCustomers() {
+        PageRequest pageRequest = PageRequest.of(2, 10, Sort.by("id"));
+        when(customerRepository.findViews(pageRequest)).thenReturn(new SliceImpl<>(List.of(baseResponseDTO), pageRequest, false));
 
-        List<CustomerResponseDTO> result = customerService.findAll();
+        PageResponseDTO<CustomerResponseDTO> result = customerService.findAll(new PageQueryDTO(null, 2, 10));
 
-        assertEquals(1, result.size());
-        assertEquals("12345678", result.getFirst().getDni());
-        assertEquals("John", result.getFirst().getName());
+        assertEquals(1, result.getContent().size());
+        assertEquals("12345678", result.getContent().getFirst().getDni());
+        assertEquals(2, result.getPage());
+        assertEquals(10, result.getSize());
+        assertNull(result.getNextCursor());
     }
 }
@@ -0,0 +1,180 @@
+package com.argenischacon.inventory_sales_api.service;
+
+import com.argenischacon.inventory_sales_api.dto.SaleRequestDTO;
+import com.argenischacon.inventory_sales_api.dto.SaleResponseDTO;
+import com.argenischacon.inventory_sales_api.exception.IdempotencyKeyInUseException;
+import com.argenischacon.inventory_sales_api.exception.InsufficientStockException;
+import com.argenischacon.inventory_sales_api.exception.InvalidIdempotencyKeyException;
+import com.argenischacon.inventory_sales_api.model.IdempotencyRecord;
+import com.argenischacon.inventory_sales_api.repository.IdempotencyRecordRepository;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.security.MessageDigest;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+public class IdempotencyServiceTest {
+    private static final Instant NOW = Instant.parse("2024-08-01T10:00:00Z");
+
+    @Mock
+    private IdempotencyRecordRepository repository;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    private final ObjectMapper objectMapper = new ObjectMapper().registerModule(new JavaTimeModule());
+    private IdempotencyServiceImpl idempotencyService;
+    private SaleRequestDTO requestDTO;
+    private SaleResponseDTO responseDTO;
+
+    @BeforeEach
+    void setUp() {
+        idempotencyService = new IdempotencyServiceImpl(repository, objectMapper, transactionManager,
+                Clock.fixed(NOW, ZoneOffset.UTC), Duration.ofHours(24), Duration.ofSeconds(60), 100);
+        requestDTO = new SaleRequestDTO(1L, List.of());
+        responseDTO = new SaleResponseDTO();
+        responseDTO.setId(200L);
+    }
+
+    @Test
+    void shouldRunActionOnceAndReplayFromMemory() {
+        when(repository.findById("anonymous:key-1")).thenReturn(Optional.empty());
+        when(repository.completeClaim(eq("anonymous:key-1"), eq(NOW), anyString())).thenReturn(1);
+        AtomicInteger calls = new AtomicInteger();
+        IdempotencyService.Action<SaleResponseDTO> action = storeResponse -> {
+            calls.incrementAndGet();
+            storeResponse.accept(responseDTO);
+            return responseDTO;
+        };
+
+        IdempotencyService.Result<SaleResponseDTO> first = idempotencyService.execute("key-1", requestDTO, SaleResponseDTO.class, action);
+        IdempotencyService.Result<SaleResponseDTO> second = idempotencyService.execute("key-1", requestDTO, SaleResponseDTO.class, action);
+
+        assertFalse(first.replayed());
+        assertTrue(second.replayed());
+        assertEquals(200L, second.body().getId());
+        assertEquals(1, calls.get());
+        verify(repository).saveAndFlush(any(IdempotencyRecord.class));
+    }
+
+    @Test
+    void shouldReplayCompletedRecordFromDatabase() throws Exception {
+        IdempotencyRecord record = new IdempotencyRecord("anonymous:key-1", hashOf(requestDTO), NOW, NOW.plusSeconds(60));
+        record.setStatus(IdempotencyRecord.Status.COMPLETED);
+        record.setResponseBody(objectMapper.writeValueAsString(responseDTO));
+        when(repository.findById("anonymous:key-1")).thenReturn(Optional.of(record));
+
+        IdempotencyService.Result<SaleResponseDTO> result = idempotencyService.execute("key-1", requestDTO, SaleResponseDTO.class,
+                storeResponse -> fail("action must not run for a completed key"));
+
+        assertTrue(result.replayed());
+        assertEquals(200L, result.body().getId());
+        verify(repository, never()).saveAndFlush(any());
+    }
+
+    @Test
+    void shouldRejectKeyStillInProgress() throws Exception {
+        IdempotencyRecord record = new IdempotencyRecord("anonymous:key-1", hashOf(requestDTO), NOW, NOW.plusSeconds(60));
+        when(repository.findById("anonymous:key-1")).thenReturn(Optional.of(record));
+
+        assertThrows(IdempotencyKeyInUseException.class, () -> idempotencyService.execute("key-1", requestDTO,
+                SaleResponseDTO.class, storeResponse -> responseDTO));
+    }
+
+    @Test
+    void shouldRejectKeyReusedWithDifferentPayload() {
+        IdempotencyRecord record = new IdempotencyRecord("anonymous:key-1", "other-hash", NOW, NOW.plusSeconds(60));
+        when(repository.findById("anonymous:key-1")).thenReturn(Optional.of(record));
+
+        assertThrows(InvalidIdempotencyKeyException.class, () -> idempotencyService.execute("key-1", requestDTO,
+                SaleResponseDTO.class, storeResponse -> responseDTO));
+    }
+
+    @Test
+    void shouldReleaseKeyWhenActionFails() {
+        when(repository.findById("anonymous:key-1")).thenReturn(Optional.empty());
+
+        assertThrows(InsufficientStockException.class, () -> idempotencyService.execute("key-1", requestDTO,
+                SaleResponseDTO.class, storeResponse -> {
+                    throw new InsufficientStockException("Insufficient stock", 10L, 5, 1);
+                }));
+
+        verify(repository).releaseClaim("anonymous:key-1", NOW);
+    }
+
+    @Test
+    void shouldTakeOverClaimLeftInProgressPastTheLease() throws Exception {
+        IdempotencyRecord record = new IdempotencyRecord("anonymous:key-1", hashOf(requestDTO), NOW.minusSeconds(120), NOW.plusSeconds(60));
+        when(repository.findById("anonymous:key-1")).thenReturn(Optional.of(record));
+        when(repository.takeOverStaleClaim("anonymous:key-1", hashOf(requestDTO), NOW, NOW.plus(Duration.ofHours(24)),
+                NOW.minusSeconds(60))).thenReturn(1);
+        when(repository.completeClaim(eq("anonymous:key-1"), eq(NOW), anyString())).thenReturn(1);
+
+        IdempotencyService.Result<SaleResponseDTO> result = idempotencyService.execute("key-1", requestDTO, SaleResponseDTO.class,
+                storeResponse -> {
+                    storeResponse.accept(responseDTO);
+                    return responseDTO;
+                });
+
+        assertFalse(result.replayed());
+        assertEquals(200L, result.body().getId());
+    }
+
+    @Test
+    void shouldFailActionWhenItsClaimWasTakenOver() {
+        when(repository.findById("anonymous:key-1")).thenReturn(Optional.empty());
+        when(repository.completeClaim(eq("anonymous:key-1"), eq(NOW), anyString())).thenReturn(0);
+
+        assertThrows(IdempotencyKeyInUseException.class, () -> idempotencyService.execute("key-1", requestDTO,
+                SaleResponseDTO.class, storeResponse -> {
+                    storeResponse.accept(responseDTO);
+                    return responseDTO;
+                }));
+
+        verify(repository).releaseClaim("anonymous:key-1", NOW);
+    }
+
+    @Test
+    void shouldReturnCommittedResponseEvenIfStoringItAfterwardsFails() {
+        when(repository.findById("anonymous:key-1")).thenReturn(Optional.empty());
+        when(repository.completeClaim(eq("anonymous:key-1"), eq(NOW), anyString())).thenThrow(new IllegalStateException("connection lost"));
+
+        IdempotencyService.Result<SaleResponseDTO> result = idempotencyService.execute("key-1", requestDTO, SaleResponseDTO.class,
+                storeResponse -> responseDTO);
+
+        assertEquals(200L, result.body().getId());
+        verify(repository, never()).releaseClaim(anyString(), any());
+    }
+
+    @Test
+    void shouldRejectBlankKey() {
+        assertThrows(InvalidIdempotencyKeyException.class, () -> idempotencyService.execute(" ", requestDTO,
+                SaleResponseDTO.class, storeResponse -> responseDTO));
+        verify(repository, never()).findById(anyString());
+    }
+
+    private String hashOf(Object request) throws Exception {
+        byte[] digest = MessageDigest.getInstance("SHA-256").digest(objectMapper.writeValueAsBytes(request));
+        return HexFormat.of().formatHex(digest);
+    }
+}
@@ -0,0 +1,45 @@
+package com.argenischacon.inventory_sales_api.service;
+
+import com.argenischacon.inventory_sales_api.dto.PageQueryDTO;
+import com.argenischacon.inventory_sales_api.exception.InvalidCursorException;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+public class PageSupportTest {
+    private final PageSupport pageSupport = new PageSupport(20, 100);
+
+    @Test
+    void shouldUseDefaultSizeAndCapAtMaximum() {
+        assertEquals(20, pageSupport.sizeOf(new PageQueryDTO()));
+        assertEquals(5, pageSupport.sizeOf(new PageQueryDTO(null, null, 5)));
+        assertEquals(100, pageSupport.sizeOf(new PageQueryDTO(null, null, 5000)));
+    }
+
+    @Test
+    void shouldRoundTripCursorParts() {
+        String cursor = pageSupport.encodeCursor("total", "desc", "150.00", 42L);
+
+        assertEquals(List.of("total", "desc", "150.00", "42"), pageSupport.decodeCursor(cursor, 4));
+    }
+
+    @Test
+    void shouldRejectTamperedCursors() {
+        assertThrows(InvalidCursorException.class, () -> pageSupport.decodeCursor("%%%", 1));
+        assertThrows(InvalidCursorException.class, () -> pageSupport.decodeCursor(pageSupport.encodeCursor("a", "b"), 1));
+        assertThrows(InvalidCursorException.class, () -> pageSupport.parseLong("abc"));
+    }
+
+    @Test
+    void shouldDecodeSortedCursorWhoseValueContainsTheSeparator() {
+        String cursor = pageSupport.encodeCursor("name", "asc", "TV | 4K", 42L);
+
+        assertEquals(List.of("TV | 4K", "42"), pageSupport.decodeSortedCursor(cursor, "name", "ASC"));
+        assertThrows(InvalidCursorException.class, () -> pageSupport.decodeSortedCursor(cursor, "stock", "asc"));
+        assertThrows(InvalidCursorException.class,
+                () -> pageSupport.decodeSortedCursor(pageSupport.encodeCursor("name", "asc"), "name", "asc"));
+    }
+}
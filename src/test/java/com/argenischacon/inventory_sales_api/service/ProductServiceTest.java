@@ -1,9 +1,15 @@
 package com.argenischacon.inventory_sales_api.service;
 
 import com.argenischacon.inventory_sales_api.dto.CategoryNestedDTO;
+import com.argenischacon.inventory_sales_api.dto.FieldsQueryDTO;
+import com.argenischacon.inventory_sales_api.dto.PageQueryDTO;
+import com.argenischacon.inventory_sales_api.dto.PageResponseDTO;
 import com.argenischacon.inventory_sales_api.dto.ProductRequestDTO;
 import com.argenischacon.inventory_sales_api.dto.ProductResponseDTO;
+import com.argenischacon.inventory_sales_api.dto.ProductSearchDTO;
+import com.argenischacon.inventory_sales_api.dto.ProductTextQueryDTO;
 import com.argenischacon.inventory_sales_api.exception.DuplicateResourceException;
+import com.argenischacon.inventory_sales_api.exception.InvalidCursorException;
 import com.argenischacon.inventory_sales_api.exception.ResourceInUseException;
 import com.argenischacon.inventory_sales_api.exception.ResourceNotFoundException;
 import com.argenischacon.inventory_sales_api.mapper.ProductMapper;
@@ -12,19 +18,30 @@ import com.argenischacon.inventory_sales_api.model.Product;
 import com.argenischacon.inventory_sales_api.model.SaleDetail;
 import com.argenischacon.inventory_sales_api.repository.CategoryRepository;
 import com.argenischacon.inventory_sales_api.repository.ProductRepository;
+import com.argenischacon.inventory_sales_api.service.search.ProductChangedEvent;
+import com.argenischacon.inventory_sales_api.service.search.ProductTextIndex;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
+import org.mockito.Spy;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.SliceImpl;
+import org.springframework.data.domain.Sort;
 
+import java.math.BigDecimal;
 import java.util.List;
 import java.util.Optional;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
 import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
 import static org.mockito.ArgumentMatchers.anyLong;
 import static org.mockito.Mockito.*;
 import static org.mockito.Mockito.when;
@@ -41,6 +58,15 @@ public class ProductServiceTest {
     @Mock
     private ProductMapper productMapper;
 
+    @Mock
+    private ProductTextIndex productTextIndex;
+
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
+
+    @Spy
+    private PageSupport pageSupport = new PageSupport(20, 100);
+
     @InjectMocks
     private ProductServiceImpl productService;
 
@@ -101,6 +127,7 @@ public class ProductServiceTest {
         assertEquals("Electronics", result.getCategory().getName());
 
         verify(productRepository, times(1)).save(baseProduct);
+        verify(eventPublisher).publishEvent(ProductChangedEvent.saved(baseProduct));
     }
 
     @Test
@@ -255,6 +282,7 @@ public class ProductServiceTest {
         productService.delete(1L);
 
         verify(productRepository, times(1)).delete(baseProduct);
+        verify(eventPublisher).publishEvent(ProductChangedEvent.deleted(1L));
     }
 
     @Test
@@ -288,8 +316,7 @@ public class ProductServiceTest {
     // ==== FIND BY ID ====
     @Test
     void shouldFindProductByIdWhenIdExists() {
-        when(productRepository.findById(1L)).thenReturn(Optional.of(baseProduct));
-        when(productMapper.toResponse(baseProduct)).thenReturn(baseProductResponseDTO);
+        when(productRepository.findViewById(1L)).thenReturn(Optional.of(baseProductResponseDTO));
 
         ProductResponseDTO result = productService.findById(1L);
 
@@ -299,7 +326,7 @@ public class ProductServiceTest {
 
     @Test
     void shouldThrowExceptionWhenFindingNonExistingProduct() {
-        when(productRepository.findById(1L)).thenReturn(Optional.empty());
+        when(productRepository.findViewById(1L)).thenReturn(Optional.empty());
 
         ResourceNotFoundException ex = assertThrows(ResourceNotFoundException.class,
                 () -> productService.findById(1L));
@@ -309,14 +336,78 @@ public class ProductServiceTest {
 
     // ==== FIND ALL ====
     @Test
-    void shouldFindAllProducts() {
-        when(productRepository.findAll()).thenReturn(List.of(baseProduct));
-        when(productMapper.toResponseList(List.of(baseProduct))).thenReturn(List.of(baseProductResponseDTO));
+    void shouldFindRequestedPageOfProducts() {
+        PageRequest pageRequest = PageRequest.of(2, 10, Sort.by("id"));
+        when(productRepository.findViews(pageRequest)).thenReturn(new SliceImpl<>(List.of(baseProductResponseDTO), pageRequest, false));
+
+        PageResponseDTO<ProductResponseDTO> result = productService.findAll(new PageQueryDTO(null, 2, 10));
+
+        assertEquals(1, result.getContent().size());
+        assertEquals("Smart TV", result.getContent().getFirst().getName());
+        assertEquals(2, result.getPage());
+        assertEquals(10, result.getSize());
+        assertNull(result.getNextCursor());
+    }
+
+    // ==== SEARCH ====
+    @Test
+    void shouldSearchFirstPageAndIssueSortedCursor() {
+        ProductSearchDTO filter = new ProductSearchDTO(1L, null, null, true, null, "smart", "unitPrice", "desc");
+        FieldsQueryDTO fields = new FieldsQueryDTO();
+        ProductResponseDTO other = new ProductResponseDTO();
+        other.setId(2L);
+        baseProductResponseDTO.setUnitPrice(new BigDecimal("999.90"));
+        when(productRepository.search(filter, fields, null, null, 0, 2)).thenReturn(List.of(baseProductResponseDTO, other));
+
+        PageResponseDTO<ProductResponseDTO> result = productService.search(filter, new PageQueryDTO(null, null, 1), fields);
+
+        assertEquals(1, result.getContent().size());
+        assertTrue(result.isHasNext());
+        assertEquals(pageSupport.encodeCursor("unitPrice", "desc", "999.90", 1L), result.getNextCursor());
+    }
+
+    @Test
+    void shouldSeekPastSortedCursor() {
+        ProductSearchDTO filter = new ProductSearchDTO(null, null, null, null, 5, null, "stock", "asc");
+        FieldsQueryDTO fields = new FieldsQueryDTO();
+        String cursor = pageSupport.encodeCursor("stock", "asc", 3, 40L);
+        when(productRepository.search(filter, fields, 3, 40L, 0, 21)).thenReturn(List.of());
+
+        PageResponseDTO<ProductResponseDTO> result = productService.search(filter, new PageQueryDTO(cursor, null, null), fields);
+
+        assertTrue(result.getContent().isEmpty());
+        assertNull(result.getNextCursor());
+    }
+
+    @Test
+    void shouldRejectSearchCursorIssuedForAnotherSort() {
+        ProductSearchDTO filter = new ProductSearchDTO();
+        FieldsQueryDTO fields = new FieldsQueryDTO();
+        String cursor = pageSupport.encodeCursor("name", "asc", "Smart TV", 1L);
+
+        assertThrows(InvalidCursorException.class,
+                () -> productService.search(filter, new PageQueryDTO(cursor, null, null), fields));
+        verify(productRepository, never()).search(any(), any(), any(), any(), anyInt(), anyInt());
+    }
+
+    // ==== TEXT SEARCH ====
+    @Test
+    void shouldReturnTextMatchesInRankOrder() {
+        ProductResponseDTO other = new ProductResponseDTO();
+        other.setId(2L);
+        when(productTextIndex.search("smart tv", 20)).thenReturn(List.of(2L, 1L, 3L));
+        when(productRepository.findViewsByIdIn(List.of(2L, 1L, 3L))).thenReturn(List.of(baseProductResponseDTO, other));
+
+        List<ProductResponseDTO> result = productService.searchText(new ProductTextQueryDTO("smart tv", 20));
 
-        List<ProductResponseDTO> result = productService.findAll();
+        assertEquals(List.of(2L, 1L), result.stream().map(ProductResponseDTO::getId).toList());
+    }
+
+    @Test
+    void shouldSkipQueryWhenNothingMatchesText() {
+        when(productTextIndex.search("nothing", 20)).thenReturn(List.of());
 
-        assertEquals(1, result.size());
-        assertEquals("Smart TV", result.getFirst().getName());
-        assertEquals("Smart TV 4K", result.getFirst().getDescription());
+        assertTrue(productService.searchText(new ProductTextQueryDTO("nothing", 20)).isEmpty());
+        verify(productRepository, never()).findViewsByIdIn(any());
     }
 }
@@ -0,0 +1,68 @@
+package com.argenischacon.inventory_sales_api.service;
+
+import com.argenischacon.inventory_sales_api.dto.SaleRequestDTO;
+import com.argenischacon.inventory_sales_api.dto.SaleResponseDTO;
+import com.argenischacon.inventory_sales_api.exception.InsufficientStockException;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+public class RetryingSaleServiceTest {
+    @Mock
+    private SaleServiceImpl delegate;
+
+    private SimpleMeterRegistry meterRegistry;
+    private RetryingSaleService saleService;
+    private SaleRequestDTO requestDTO;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        saleService = new RetryingSaleService(delegate, meterRegistry, 3, 0, 0);
+        requestDTO = new SaleRequestDTO();
+    }
+
+    @Test
+    void shouldRetryCreateAfterOptimisticLockConflict() {
+        SaleResponseDTO responseDTO = new SaleResponseDTO();
+        responseDTO.setId(1L);
+        when(delegate.create(requestDTO))
+                .thenThrow(new ObjectOptimisticLockingFailureException("Product", 10L))
+                .thenReturn(responseDTO);
+
+        SaleResponseDTO result = saleService.create(requestDTO);
+
+        assertEquals(1L, result.getId());
+        verify(delegate, times(2)).create(requestDTO);
+        assertEquals(1.0, meterRegistry.counter("sales.optimistic_lock.retries", "operation", "create").count());
+    }
+
+    @Test
+    void shouldRethrowWhenRetriesAreExhausted() {
+        when(delegate.update(1L, requestDTO)).thenThrow(new ObjectOptimisticLockingFailureException("Sale", 1L));
+
+        assertThrows(ObjectOptimisticLockingFailureException.class, () -> saleService.update(1L, requestDTO));
+
+        verify(delegate, times(3)).update(1L, requestDTO);
+        assertEquals(2.0, meterRegistry.counter("sales.optimistic_lock.retries", "operation", "update").count());
+        assertEquals(1.0, meterRegistry.counter("sales.optimistic_lock.exhausted", "operation", "update").count());
+    }
+
+    @Test
+    void shouldNotRetryBusinessErrors() {
+        doThrow(new InsufficientStockException("Insufficient stock", 10L, 5, 1)).when(delegate).delete(1L);
+
+        assertThrows(InsufficientStockException.class, () -> saleService.delete(1L));
+
+        verify(delegate, times(1)).delete(1L);
+        assertEquals(0.0, meterRegistry.counter("sales.optimistic_lock.retries", "operation", "delete").count());
+    }
+}
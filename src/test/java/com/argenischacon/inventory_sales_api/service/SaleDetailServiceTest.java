@@ -1,24 +1,31 @@
 package com.argenischacon.inventory_sales_api.service;
 
-import com.argenischacon.inventory_sales_api.dto.ProductNestedDTO;
+import com.argenischacon.inventory_sales_api.dto.PageQueryDTO;
 import com.argenischacon.inventory_sales_api.dto.SaleDetailResponseDTO;
 import com.argenischacon.inventory_sales_api.exception.ResourceNotFoundException;
-import com.argenischacon.inventory_sales_api.mapper.SaleDetailMapper;
-import com.argenischacon.inventory_sales_api.model.Product;
-import com.argenischacon.inventory_sales_api.model.SaleDetail;
+import com.argenischacon.inventory_sales_api.model.Sale;
+import com.argenischacon.inventory_sales_api.repository.SaleDetailLineView;
 import com.argenischacon.inventory_sales_api.repository.SaleDetailRepository;
 import com.argenischacon.inventory_sales_api.repository.SaleRepository;
-import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
+import org.mockito.Spy;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.SliceImpl;
 
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
 import java.util.List;
+import java.util.Optional;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
 import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
 import static org.mockito.Mockito.*;
 
 @ExtendWith(MockitoExtension.class)
@@ -26,68 +33,81 @@ public class SaleDetailServiceTest {
     @Mock
     private SaleDetailRepository saleDetailRepository;
 
-    @Mock
-    private SaleDetailMapper saleDetailMapper;
-
     @Mock
     private SaleRepository saleRepository;
 
+    @Spy
+    private PageSupport pageSupport = new PageSupport(20, 100);
+
     @InjectMocks
     private SaleDetailServiceImpl saleDetailService;
 
-    private SaleDetail baseSaleDetail;
-    private SaleDetailResponseDTO baseSaleDetailResponseDTO;
-    private Product baseProduct;
-    private ProductNestedDTO baseProductNestedDTO;
-
-    @BeforeEach
-    void setUp(){
-        baseProduct = new Product();
-        baseProduct.setId(1L);
-        baseProduct.setName("Smart TV");
-
-        baseProductNestedDTO = new ProductNestedDTO();
-        baseProductNestedDTO.setId(1L);
-        baseProductNestedDTO.setName("Smart TV");
-
-        baseSaleDetail = new SaleDetail();
-        baseSaleDetail.setId(1L);
-        baseSaleDetail.setProduct(baseProduct);
-
-        baseSaleDetailResponseDTO = new SaleDetailResponseDTO();
-        baseSaleDetailResponseDTO.setId(1L);
-        baseSaleDetailResponseDTO.setProduct(baseProductNestedDTO);
+    @Test
+    void shouldReturnFirstPageAndTotalFromOneQuery(){
+        Long saleId = 1L;
+        PageRequest pageRequest = PageRequest.of(0, 2);
+        when(saleDetailRepository.findLinePage(saleId, 0L, pageRequest)).thenReturn(new SliceImpl<>(
+                List.of(line(5, 10L), line(5, 11L)), pageRequest, true));
+
+        SaleDetailService.LinePage result = saleDetailService.findBySaleId(saleId, new PageQueryDTO(null, null, 2));
+
+        assertEquals(5, result.totalCount());
+        List<SaleDetailResponseDTO> content = result.page().getContent();
+        assertEquals(List.of(10L, 11L), content.stream().map(SaleDetailResponseDTO::getId).toList());
+        assertEquals("Smart TV", content.getFirst().getProduct().getName());
+        assertEquals(new BigDecimal("20.00"), content.getFirst().getSubTotal());
+        assertEquals(pageSupport.encodeCursor(11L), result.page().getNextCursor());
+        verifyNoInteractions(saleRepository);
     }
 
     @Test
-    void shouldFindSaleDetailsBySaleIdWhenIdExists(){
+    void shouldReturnEmptyLastPageWhenNoLinesFollowTheCursor(){
         Long saleId = 1L;
+        PageRequest pageRequest = PageRequest.of(0, 20);
+        when(saleDetailRepository.findLinePage(saleId, 11L, pageRequest)).thenReturn(new SliceImpl<>(
+                List.of(new SaleDetailLineView(2, null, null, null, null, null, null, null, null)), pageRequest, false));
+
+        SaleDetailService.LinePage result = saleDetailService.findBySaleId(saleId,
+                new PageQueryDTO(pageSupport.encodeCursor(11L), null, null));
+
+        assertEquals(2, result.totalCount());
+        assertTrue(result.page().getContent().isEmpty());
+        assertFalse(result.page().isHasNext());
+        assertNull(result.page().getNextCursor());
+        verifyNoInteractions(saleRepository);
+    }
 
-        when(saleRepository.existsById(saleId)).thenReturn(true);
-        when(saleDetailRepository.findBySaleId(saleId)).thenReturn(List.of(baseSaleDetail));
-        when(saleDetailMapper.toResponseList(List.of(baseSaleDetail))).thenReturn(List.of(baseSaleDetailResponseDTO));
-
-        List<SaleDetailResponseDTO> result = saleDetailService.findBySaleId(1L);
+    @Test
+    void shouldReadTotalFromSaleWhenOffsetIsPastTheLastLine(){
+        Long saleId = 1L;
+        PageRequest pageRequest = PageRequest.of(3, 20);
+        Sale sale = new Sale();
+        sale.setLineCount(7);
+        when(saleDetailRepository.findLinePage(saleId, 0L, pageRequest)).thenReturn(new SliceImpl<>(List.of(), pageRequest, false));
+        when(saleRepository.findById(saleId)).thenReturn(Optional.of(sale));
 
-        assertEquals(1, result.size());
-        assertEquals("Smart TV", result.getFirst().getProduct().getName());
+        SaleDetailService.LinePage result = saleDetailService.findBySaleId(saleId, new PageQueryDTO(null, 3, null));
 
-        verify(saleRepository).existsById(saleId);
-        verify(saleDetailRepository).findBySaleId(saleId);
-        verify(saleDetailMapper).toResponseList(List.of(baseSaleDetail));
+        assertEquals(7, result.totalCount());
+        assertTrue(result.page().getContent().isEmpty());
+        assertEquals(3, result.page().getPage());
     }
 
     @Test
     void shouldThrowExceptionWhenSaleDoesNotExist(){
         Long saleId = 99L;
-
-        when(saleRepository.existsById(saleId)).thenReturn(false);
+        PageRequest pageRequest = PageRequest.of(0, 20);
+        when(saleDetailRepository.findLinePage(saleId, 0L, pageRequest)).thenReturn(new SliceImpl<>(List.of(), pageRequest, false));
 
         ResourceNotFoundException ex = assertThrows(ResourceNotFoundException.class,
-                () -> saleDetailService.findBySaleId(saleId));
+                () -> saleDetailService.findBySaleId(saleId, new PageQueryDTO()));
 
         assertEquals("Sale with id " + saleId + " not found.", ex.getMessage());
-        verify(saleRepository).existsById(saleId);
-        verifyNoInteractions(saleDetailRepository, saleDetailMapper);
+        verifyNoInteractions(saleRepository);
+    }
+
+    private static SaleDetailLineView line(int lineCount, Long id) {
+        return new SaleDetailLineView(lineCount, id, 2, BigDecimal.TEN.setScale(2), LocalDateTime.now(), LocalDateTime.now(),
+                1L, "Smart TV", BigDecimal.TEN);
     }
 }
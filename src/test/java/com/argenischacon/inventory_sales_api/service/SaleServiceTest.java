@@ -4,31 +4,42 @@ import com.argenischacon.inventory_sales_api.dto.*;
 import com.argenischacon.inventory_sales_api.exception.ResourceNotFoundException;
 import com.argenischacon.inventory_sales_api.mapper.SaleMapper;
 import com.argenischacon.inventory_sales_api.exception.InsufficientStockException;
+import com.argenischacon.inventory_sales_api.exception.InvalidCursorException;
 import com.argenischacon.inventory_sales_api.model.Customer;
 import com.argenischacon.inventory_sales_api.model.Product;
 import com.argenischacon.inventory_sales_api.model.Sale;
 import com.argenischacon.inventory_sales_api.model.SaleDetail;
 import com.argenischacon.inventory_sales_api.repository.CustomerRepository;
 import com.argenischacon.inventory_sales_api.repository.ProductRepository;
+import com.argenischacon.inventory_sales_api.repository.SaleLineView;
 import com.argenischacon.inventory_sales_api.repository.SaleRepository;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
+import org.mockito.Spy;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.test.util.ReflectionTestUtils;
 
 import java.math.BigDecimal;
+import java.time.Duration;
+import java.time.LocalDate;
 import java.util.ArrayList;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
+import java.util.Set;
 import java.util.Collections;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
 import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.argThat;
+import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.*;
 import static org.mockito.Mockito.verify;
 
@@ -46,6 +57,12 @@ public class SaleServiceTest{
     @Mock
     private ProductRepository productRepository;
 
+    @Mock
+    private CatalogCache catalogCache;
+
+    @Spy
+    private PageSupport pageSupport = new PageSupport(20, 100);
+
     @InjectMocks
     private SaleServiceImpl saleService;
 
@@ -127,13 +144,13 @@ public class SaleServiceTest{
     @Test
     void shouldCreateSaleWhenDataIsValid() {
         // Arrange
-        int initialStock = baseProduct.getStock();
         int quantitySold = baseSaleDetailRequestDTO.getQuantity();
         Long customerId = baseCustomer.getId();
         Long productId = baseProduct.getId();
 
         when(customerRepository.findById(customerId)).thenReturn(Optional.of(baseCustomer));
         when(productRepository.findAllById(List.of(productId))).thenReturn(List.of(baseProduct));
+        when(productRepository.decreaseStock(productId, quantitySold)).thenReturn(1);
         when(saleRepository.save(any(Sale.class))).thenReturn(baseSale);
         when(saleMapper.toResponse(baseSale)).thenReturn(baseSaleResponseDTO);
 
@@ -141,8 +158,8 @@ public class SaleServiceTest{
         SaleResponseDTO result = saleService.create(baseSaleRequestDTO);
 
         // Assert
-        // Verify stock was reduced
-        assertEquals(initialStock - quantitySold, baseProduct.getStock());
+        // Verify stock was reduced with a guarded update
+        verify(productRepository).decreaseStock(productId, quantitySold);
 
         // Verify the response DTO is correct
         assertEquals("John Doe", result.getCustomer().getName());
@@ -196,6 +213,8 @@ public class SaleServiceTest{
 
         when(customerRepository.findById(1L)).thenReturn(Optional.of(baseCustomer));
         when(productRepository.findAllById(List.of(10L))).thenReturn(List.of(baseProduct));
+        when(productRepository.decreaseStock(10L, requestedQuantity)).thenReturn(0);
+        when(productRepository.findStockById(10L)).thenReturn(Optional.of(baseProduct.getStock()));
 
         // Act & Assert
         InsufficientStockException ex = assertThrows(InsufficientStockException.class,
@@ -203,17 +222,69 @@ public class SaleServiceTest{
 
         assertEquals(String.format("Insufficient stock for product '%s'. Requested: %d, Available: %d.",
                 baseProduct.getName(), requestedQuantity, baseProduct.getStock()), ex.getMessage());
+        verify(saleRepository, never()).save(any(Sale.class));
+    }
+
+    @Test
+    void shouldFoldDuplicateProductLinesIntoOneStockChangeOnCreate() {
+        // Arrange: Two lines for product 10 (2 + 3 units) and stock for only 4
+        baseSaleRequestDTO.setSaleDetails(List.of(baseSaleDetailRequestDTO,
+                new SaleDetailRequestDTO(null, 3, BigDecimal.valueOf(500), 10L)));
+
+        when(customerRepository.findById(1L)).thenReturn(Optional.of(baseCustomer));
+        when(productRepository.findAllById(List.of(10L, 10L))).thenReturn(List.of(baseProduct));
+        when(productRepository.decreaseStock(10L, 5)).thenReturn(0);
+        when(productRepository.findStockById(10L)).thenReturn(Optional.of(4));
+
+        // Act & Assert: A single guarded update reports the combined quantity
+        InsufficientStockException ex = assertThrows(InsufficientStockException.class,
+                () -> saleService.create(baseSaleRequestDTO));
+
+        assertEquals(String.format("Insufficient stock for product '%s'. Requested: %d, Available: %d.",
+                baseProduct.getName(), 5, 4), ex.getMessage());
+        verify(productRepository, times(1)).decreaseStock(anyLong(), anyInt());
+        verify(saleRepository, never()).save(any(Sale.class));
+    }
+
+    // ==== CREATE BATCH ====
+    @Test
+    void shouldCreateValidSalesAndReportFailuresInBatch() {
+        // Arrange: a valid sale, one with an unknown product, one exceeding the stock left by the first
+        SaleRequestDTO unknownProduct = new SaleRequestDTO(1L,
+                List.of(new SaleDetailRequestDTO(null, 1, BigDecimal.TEN, 999L)));
+        SaleRequestDTO tooMuchStock = new SaleRequestDTO(1L,
+                List.of(new SaleDetailRequestDTO(null, 19, BigDecimal.TEN, 10L)));
+        SaleBatchRequestDTO batch = new SaleBatchRequestDTO(List.of(baseSaleRequestDTO, unknownProduct, tooMuchStock));
+
+        when(customerRepository.findAllById(Set.of(1L))).thenReturn(List.of(baseCustomer));
+        when(productRepository.lockAllByIdSorted(eq(Set.of(10L, 999L)), any(Duration.class))).thenReturn(List.of(baseProduct));
+        when(productRepository.decreaseStock(10L, 2)).thenReturn(1);
+
+        // Act
+        SaleBatchResponseDTO result = saleService.createBatch(batch);
+
+        // Assert: stock is decreased once with the aggregated quantity and only the valid sale is saved
+        assertEquals(1, result.getCreated());
+        assertEquals(2, result.getFailed());
+        assertEquals(SaleBatchItemResultDTO.Status.CREATED, result.getResults().get(0).getStatus());
+        assertEquals(0, BigDecimal.valueOf(1000).compareTo(result.getResults().get(0).getTotal()));
+        assertEquals("Product with id 999 not found.", result.getResults().get(1).getError());
+        assertEquals(String.format("Insufficient stock for product '%s'. Requested: %d, Available: %d.",
+                baseProduct.getName(), 19, 18), result.getResults().get(2).getError());
+
+        verify(productRepository).decreaseStock(10L, 2);
+        verify(productRepository, never()).findAllById(any());
+        verify(saleRepository).saveAll(argThat((Collection<Sale> sales) -> sales.size() == 1));
     }
 
     // ==== UPDATE ====
     @Test
     void shouldUpdateSaleWhenDataIsValid() {
         // Arrange: Decrease quantity from 2 to 1
-        int initialStock = baseProduct.getStock();
         baseSaleDetailRequestDTO.setId(100L);
         baseSaleDetailRequestDTO.setQuantity(1);
 
-        when(saleRepository.findById(200L)).thenReturn(Optional.of(baseSale));
+        when(saleRepository.findForUpdateById(200L)).thenReturn(Optional.of(baseSale));
         when(customerRepository.findById(1L)).thenReturn(Optional.of(baseCustomer));
         when(productRepository.findAllById(List.of(10L))).thenReturn(List.of(baseProduct));
         when(saleRepository.save(baseSale)).thenReturn(baseSale);
@@ -225,10 +296,11 @@ public class SaleServiceTest{
         // Assert: Verify response and stock change
         assertEquals(200L, result.getId());
         // Stock should increase by 1 because quantity was reduced from 2 to 1
-        assertEquals(initialStock + 1, baseProduct.getStock());
+        verify(productRepository).increaseStock(10L, 1);
+        verify(productRepository, never()).decreaseStock(anyLong(), anyInt());
 
         // Verify mock interactions
-        verify(saleRepository).findById(200L);
+        verify(saleRepository).findForUpdateById(200L);
         verify(customerRepository).findById(1L);
         verify(productRepository).findAllById(List.of(10L));
         verify(saleRepository).save(baseSale);
@@ -238,13 +310,13 @@ public class SaleServiceTest{
     @Test
     void shouldThrowExceptionWhenUpdatingNonExistingSale() {
         long saleId = 200L;
-        when(saleRepository.findById(saleId)).thenReturn(Optional.empty());
+        when(saleRepository.findForUpdateById(saleId)).thenReturn(Optional.empty());
 
         ResourceNotFoundException ex = assertThrows(ResourceNotFoundException.class,
                 () -> saleService.update(saleId, baseSaleRequestDTO));
 
         assertEquals("Sale with id " + saleId + " not found.", ex.getMessage());
-        verify(saleRepository).findById(saleId);
+        verify(saleRepository).findForUpdateById(saleId);
         verifyNoInteractions(customerRepository, productRepository, saleMapper);
     }
 
@@ -252,14 +324,14 @@ public class SaleServiceTest{
     void shouldThrowExceptionWhenUpdatingSaleWithNonExistingCustomer() {
         long saleId = 200L;
         long customerId = baseSaleRequestDTO.getCustomerId();
-        when(saleRepository.findById(saleId)).thenReturn(Optional.of(baseSale));
+        when(saleRepository.findForUpdateById(saleId)).thenReturn(Optional.of(baseSale));
         when(customerRepository.findById(customerId)).thenReturn(Optional.empty());
 
         ResourceNotFoundException ex = assertThrows(ResourceNotFoundException.class,
                 () -> saleService.update(saleId, baseSaleRequestDTO));
 
         assertEquals("Customer with id " + customerId + " not found.", ex.getMessage());
-        verify(saleRepository).findById(saleId);
+        verify(saleRepository).findForUpdateById(saleId);
         verify(customerRepository).findById(customerId);
         verify(saleRepository, never()).save(any(Sale.class));
     }
@@ -270,7 +342,7 @@ public class SaleServiceTest{
         Long customerId = baseCustomer.getId();
         Long productId = baseProduct.getId();
 
-        when(saleRepository.findById(saleId)).thenReturn(Optional.of(baseSale));
+        when(saleRepository.findForUpdateById(saleId)).thenReturn(Optional.of(baseSale));
         when(customerRepository.findById(customerId)).thenReturn(Optional.of(baseCustomer));
         when(productRepository.findAllById(List.of(productId))).thenReturn(List.of());
 
@@ -278,7 +350,7 @@ public class SaleServiceTest{
                 () -> saleService.update(saleId, baseSaleRequestDTO));
 
         assertEquals("Product with id " + productId + " not found.", ex.getMessage());
-        verify(saleRepository).findById(saleId);
+        verify(saleRepository).findForUpdateById(saleId);
         verify(customerRepository).findById(customerId);
         verify(productRepository).findAllById(List.of(productId));
         verify(saleRepository, never()).save(any(Sale.class));
@@ -292,7 +364,7 @@ public class SaleServiceTest{
         long nonExistentDetailId = 999L;
         baseSaleDetailRequestDTO.setId(nonExistentDetailId); // Non-existent detail ID
 
-        when(saleRepository.findById(saleId)).thenReturn(Optional.of(baseSale));
+        when(saleRepository.findForUpdateById(saleId)).thenReturn(Optional.of(baseSale));
         when(customerRepository.findById(customerId)).thenReturn(Optional.of(baseCustomer));
         when(productRepository.findAllById(List.of(productId))).thenReturn(List.of(baseProduct));
 
@@ -300,7 +372,7 @@ public class SaleServiceTest{
                 () -> saleService.update(saleId, baseSaleRequestDTO));
 
         assertEquals("In this sale with id " + saleId + ", there is no sale detail with id " + nonExistentDetailId + ".", ex.getMessage());
-        verify(saleRepository).findById(saleId);
+        verify(saleRepository).findForUpdateById(saleId);
         verify(customerRepository).findById(customerId);
         verify(productRepository).findAllById(List.of(productId));
         verify(saleRepository, never()).save(any(Sale.class));
@@ -309,13 +381,13 @@ public class SaleServiceTest{
     @Test
     void shouldDecreaseStockWhenIncreasingQuantityOnUpdate() {
         // Arrange: Increase quantity from 2 to 5
-        int initialStock = baseProduct.getStock();
         baseSaleDetailRequestDTO.setId(100L);
         baseSaleDetailRequestDTO.setQuantity(5);
 
-        when(saleRepository.findById(200L)).thenReturn(Optional.of(baseSale));
+        when(saleRepository.findForUpdateById(200L)).thenReturn(Optional.of(baseSale));
         when(customerRepository.findById(1L)).thenReturn(Optional.of(baseCustomer));
         when(productRepository.findAllById(List.of(10L))).thenReturn(List.of(baseProduct));
+        when(productRepository.decreaseStock(10L, 3)).thenReturn(1);
         when(saleRepository.save(any(Sale.class))).thenReturn(baseSale);
         when(saleMapper.toResponse(any(Sale.class))).thenReturn(baseSaleResponseDTO);
 
@@ -323,38 +395,37 @@ public class SaleServiceTest{
         saleService.update(200L, baseSaleRequestDTO);
 
         // Assert: Stock should decrease by 3 (because quantity increased from 2 to 5)
-        assertEquals(initialStock - 3, baseProduct.getStock());
+        verify(productRepository).decreaseStock(10L, 3);
         verify(saleRepository).save(any(Sale.class));
     }
 
     @Test
     void shouldDecreaseStockWhenAddingNewDetailOnUpdate() {
         // Arrange: Add a new detail without an ID
-        int initialStock = baseProduct.getStock();
         // Start with a sale that has no details, so we only test the addition logic
         baseSale.setSaleDetails(new ArrayList<>());
         baseSaleDetailRequestDTO.setId(null);
 
-        when(saleRepository.findById(200L)).thenReturn(Optional.of(baseSale));
+        when(saleRepository.findForUpdateById(200L)).thenReturn(Optional.of(baseSale));
         when(customerRepository.findById(1L)).thenReturn(Optional.of(baseCustomer));
         when(productRepository.findAllById(List.of(10L))).thenReturn(List.of(baseProduct));
+        when(productRepository.decreaseStock(10L, 2)).thenReturn(1);
 
         // Act
         saleService.update(200L, baseSaleRequestDTO);
 
         // Assert: Stock should decrease by the quantity of the new detail (2)
-        assertEquals(initialStock - 2, baseProduct.getStock());
+        verify(productRepository).decreaseStock(10L, 2);
         verify(saleRepository).save(any(Sale.class));
     }
 
     @Test
     void shouldRestoreStockWhenRemovingDetailOnUpdate() {
         // Arrange: The original sale has one detail. The update request has zero.
-        int initialStock = baseProduct.getStock();
         int quantityToRestore = baseSaleDetail.getQuantity();
         baseSaleRequestDTO.setSaleDetails(Collections.emptyList());
 
-        when(saleRepository.findById(200L)).thenReturn(Optional.of(baseSale));
+        when(saleRepository.findForUpdateById(200L)).thenReturn(Optional.of(baseSale));
         when(customerRepository.findById(1L)).thenReturn(Optional.of(baseCustomer));
         when(productRepository.findAllById(Collections.emptyList())).thenReturn(Collections.emptyList());
 
@@ -362,7 +433,7 @@ public class SaleServiceTest{
         saleService.update(200L, baseSaleRequestDTO);
 
         // Assert: Stock should be restored by the quantity of the removed detail
-        assertEquals(initialStock + quantityToRestore, baseProduct.getStock());
+        verify(productRepository).increaseStock(10L, quantityToRestore);
     }
 
     @Test
@@ -372,9 +443,11 @@ public class SaleServiceTest{
         baseSaleDetailRequestDTO.setQuantity(30);
         int quantityChange = 30 - baseSaleDetail.getQuantity();
 
-        when(saleRepository.findById(200L)).thenReturn(Optional.of(baseSale));
+        when(saleRepository.findForUpdateById(200L)).thenReturn(Optional.of(baseSale));
         when(customerRepository.findById(1L)).thenReturn(Optional.of(baseCustomer));
         when(productRepository.findAllById(List.of(10L))).thenReturn(List.of(baseProduct));
+        when(productRepository.decreaseStock(10L, quantityChange)).thenReturn(0);
+        when(productRepository.findStockById(10L)).thenReturn(Optional.of(baseProduct.getStock()));
 
         // Act & Assert
         InsufficientStockException ex = assertThrows(InsufficientStockException.class,
@@ -386,11 +459,79 @@ public class SaleServiceTest{
         verify(saleRepository, never()).save(any(Sale.class));
     }
 
+    @Test
+    void shouldMoveStockBetweenProductsWhenDetailProductChangesOnUpdate() {
+        // Arrange: Detail 100 switches from product 10 to product 11, same quantity
+        Product otherProduct = new Product();
+        otherProduct.setId(11L);
+        otherProduct.setName("Soundbar");
+        baseSaleDetailRequestDTO.setId(100L);
+        baseSaleDetailRequestDTO.setProductId(11L);
+
+        when(saleRepository.findForUpdateById(200L)).thenReturn(Optional.of(baseSale));
+        when(customerRepository.findById(1L)).thenReturn(Optional.of(baseCustomer));
+        when(productRepository.findAllById(List.of(11L))).thenReturn(List.of(otherProduct));
+        when(productRepository.decreaseStock(11L, 2)).thenReturn(1);
+
+        // Act
+        saleService.update(200L, baseSaleRequestDTO);
+
+        // Assert: The old product gets its stock back and the new one is charged
+        verify(productRepository).increaseStock(10L, 2);
+        verify(productRepository).decreaseStock(11L, 2);
+        assertSame(otherProduct, baseSaleDetail.getProduct());
+    }
+
+    @Test
+    void shouldNotTouchStockWhenReplacingDetailWithSameProductAndQuantityOnUpdate() {
+        // Arrange: Detail 100 is dropped and re-sent as a new line with the same product and quantity
+        baseSaleDetailRequestDTO.setId(null);
+
+        when(saleRepository.findForUpdateById(200L)).thenReturn(Optional.of(baseSale));
+        when(customerRepository.findById(1L)).thenReturn(Optional.of(baseCustomer));
+        when(productRepository.findAllById(List.of(10L))).thenReturn(List.of(baseProduct));
+
+        // Act
+        saleService.update(200L, baseSaleRequestDTO);
+
+        // Assert: The net change for product 10 is zero, so no stock statement is issued
+        verify(productRepository, never()).increaseStock(anyLong(), anyInt());
+        verify(productRepository, never()).decreaseStock(anyLong(), anyInt());
+        assertEquals(1, baseSale.getSaleDetails().size());
+        assertNotSame(baseSaleDetail, baseSale.getSaleDetails().get(0));
+    }
+
+    @Test
+    void shouldLockCurrentAndIncomingProductsInPessimisticMode() {
+        // Arrange: Replace the detail for product 10 with a new one for product 11
+        ReflectionTestUtils.setField(saleService, "pessimisticLocking", true);
+        Product otherProduct = new Product();
+        otherProduct.setId(11L);
+        otherProduct.setName("Soundbar");
+        baseSaleDetailRequestDTO.setProductId(11L);
+
+        when(saleRepository.findForUpdateById(200L)).thenReturn(Optional.of(baseSale));
+        when(customerRepository.findById(1L)).thenReturn(Optional.of(baseCustomer));
+        when(productRepository.lockAllByIdSorted(Set.of(10L, 11L), Duration.ofMillis(2000)))
+                .thenReturn(List.of(baseProduct, otherProduct));
+        when(productRepository.decreaseStock(11L, 2)).thenReturn(1);
+        when(saleRepository.save(baseSale)).thenReturn(baseSale);
+        when(saleMapper.toResponse(baseSale)).thenReturn(baseSaleResponseDTO);
+
+        // Act
+        saleService.update(200L, baseSaleRequestDTO);
+
+        // Assert: Both products are locked in one call, findAllById is not used
+        verify(productRepository).lockAllByIdSorted(Set.of(10L, 11L), Duration.ofMillis(2000));
+        verify(productRepository, never()).findAllById(any());
+        verify(productRepository).increaseStock(10L, 2);
+        verify(productRepository).decreaseStock(11L, 2);
+    }
+
     // ==== DELETE ====
     @Test
     void shouldDeleteSaleWhenIdExists() {
         // Arrange
-        int initialStock = baseProduct.getStock();
         int quantitySold = baseSaleDetail.getQuantity();
         when(saleRepository.findById(200L)).thenReturn(Optional.of(baseSale));
 
@@ -398,7 +539,7 @@ public class SaleServiceTest{
         saleService.delete(200L);
 
         // Assert: Stock should be restored
-        assertEquals(initialStock + quantitySold, baseProduct.getStock());
+        verify(productRepository).increaseStock(10L, quantitySold);
         verify(saleRepository).findById(200L);
         verify(saleRepository).deleteById(200L);
     }
@@ -420,42 +561,150 @@ public class SaleServiceTest{
 
     // ==== FIND BY ID ====
     @Test
-    void shouldFindSaleByIdWhenIdExists() {
-        when(saleRepository.findById(200L)).thenReturn(Optional.of(baseSale));
-        when(saleMapper.toResponse(baseSale)).thenReturn(baseSaleResponseDTO);
+    void shouldFindSaleByIdFromLineViews() {
+        when(saleRepository.findLineViewsBySaleIdIn(List.of(200L)))
+                .thenReturn(List.of(lineView(200L, 1L, 2, "10.00"), lineView(200L, 2L, 1, "2.50")));
 
-        SaleResponseDTO result = saleService.findById(200L);
+        SaleResponseDTO result = saleService.findById(200L, new FieldsQueryDTO());
 
         assertEquals(200L, result.getId());
-        assertNotNull(result.getCustomer());
-        verify(saleRepository).findById(200L);
-        verify(saleMapper).toResponse(baseSale);
+        assertEquals(1L, result.getCustomer().getId());
+        assertEquals(2, result.getSaleDetails().size());
+        assertEquals(new BigDecimal("20.00"), result.getSaleDetails().get(0).getSubTotal());
+        assertEquals(10L, result.getSaleDetails().get(1).getProduct().getId());
+        verifyNoInteractions(saleMapper);
+    }
+
+    @Test
+    void shouldFindSaleWithoutLines() {
+        when(saleRepository.findLineViewsBySaleIdIn(List.of(200L))).thenReturn(List.of(lineView(200L, null, null, null)));
+
+        SaleResponseDTO result = saleService.findById(200L, new FieldsQueryDTO());
+
+        assertEquals(200L, result.getId());
+        assertTrue(result.getSaleDetails().isEmpty());
+    }
+
+    @Test
+    void shouldSkipLineQueryWhenFieldsLeaveDetailsOut() {
+        when(saleRepository.findHeaderViewsBySaleIdIn(List.of(200L))).thenReturn(List.of(new SaleLineView(200L,
+                LocalDate.of(2024, 8, 1), null, null, BigDecimal.valueOf(30), 2, 1L, "John", "Doe")));
+
+        SaleResponseDTO result = saleService.findById(200L, new FieldsQueryDTO("date,total"));
+
+        assertEquals(BigDecimal.valueOf(30), result.getTotal());
+        assertEquals(2, result.getLineCount());
+        assertTrue(result.getSaleDetails().isEmpty());
+        verify(saleRepository, never()).findLineViewsBySaleIdIn(anyList());
     }
 
     @Test
     void shouldThrowExceptionWhenFindingNonExistingSale() {
         long saleId = 200L;
-        when(saleRepository.findById(saleId)).thenReturn(Optional.empty());
+        when(saleRepository.findLineViewsBySaleIdIn(List.of(saleId))).thenReturn(List.of());
 
         ResourceNotFoundException ex = assertThrows(ResourceNotFoundException.class,
-                () -> saleService.findById(saleId));
+                () -> saleService.findById(saleId, new FieldsQueryDTO()));
 
         assertEquals("Sale with id " + saleId + " not found.", ex.getMessage());
-        verify(saleRepository).findById(saleId);
+        verify(saleRepository).findLineViewsBySaleIdIn(List.of(saleId));
         verifyNoInteractions(saleMapper);
     }
 
     // ==== FIND ALL ====
     @Test
-    void shouldFindAllSales() {
-        when(saleRepository.findAll()).thenReturn(List.of(baseSale));
-        when(saleMapper.toResponseList(List.of(baseSale))).thenReturn(List.of(baseSaleResponseDTO));
+    void shouldFindFirstPageOfSales() {
+        SaleFilterDTO filter = new SaleFilterDTO();
+        when(saleRepository.findPageIds(filter, null, null, 0, 2)).thenReturn(List.of(200L, 201L));
+        when(saleRepository.findLineViewsBySaleIdIn(List.of(200L))).thenReturn(List.of(lineView(200L, 1L, 2, "10.00")));
+
+        PageResponseDTO<SaleResponseDTO> result = saleService.findAll(filter, new PageQueryDTO(null, null, 1), new FieldsQueryDTO());
+
+        assertEquals(1, result.getContent().size());
+        assertEquals(200L, result.getContent().getFirst().getId());
+        assertTrue(result.isHasNext());
+        assertEquals(pageSupport.encodeCursor("id", "asc", "", 200L), result.getNextCursor());
+    }
+
+    @Test
+    void shouldKeepPageOrderOfIds() {
+        SaleFilterDTO filter = new SaleFilterDTO(null, null, null, null, "total", "desc");
+        when(saleRepository.findPageIds(filter, null, null, 0, 21)).thenReturn(List.of(201L, 200L));
+        when(saleRepository.findLineViewsBySaleIdIn(List.of(201L, 200L)))
+                .thenReturn(List.of(lineView(200L, 1L, 2, "10.00"), lineView(201L, 2L, 5, "10.00")));
+
+        PageResponseDTO<SaleResponseDTO> result = saleService.findAll(filter, new PageQueryDTO(), new FieldsQueryDTO());
+
+        assertEquals(List.of(201L, 200L), result.getContent().stream().map(SaleResponseDTO::getId).toList());
+    }
+
+    @Test
+    void shouldFilterAndSortSalesByStoredTotalAfterCursor() {
+        SaleFilterDTO filter = new SaleFilterDTO(BigDecimal.valueOf(100), null, null, 10, "total", "DESC");
+        String cursor = pageSupport.encodeCursor("total", "DESC", "150.00", 300L);
+        when(saleRepository.findPageIds(filter, new BigDecimal("150.00"), 300L, 0, 21)).thenReturn(List.of(200L));
+        when(saleRepository.findLineViewsBySaleIdIn(List.of(200L))).thenReturn(List.of(lineView(200L, 1L, 2, "10.00")));
+
+        PageResponseDTO<SaleResponseDTO> result = saleService.findAll(filter, new PageQueryDTO(cursor, null, null), new FieldsQueryDTO());
+
+        assertEquals(1, result.getContent().size());
+        assertFalse(result.isHasNext());
+        assertNull(result.getNextCursor());
+        verify(saleRepository).findPageIds(filter, new BigDecimal("150.00"), 300L, 0, 21);
+    }
+
+    @Test
+    void shouldRejectCursorIssuedForAnotherSort() {
+        SaleFilterDTO filter = new SaleFilterDTO(null, null, null, null, "total", "asc");
+        String cursor = pageSupport.encodeCursor("id", "asc", "", 300L);
+
+        assertThrows(InvalidCursorException.class,
+                () -> saleService.findAll(filter, new PageQueryDTO(cursor, null, null), new FieldsQueryDTO()));
+
+        verify(saleRepository, never()).findPageIds(any(), any(), any(), anyInt(), anyInt());
+    }
+
+    @Test
+    void shouldMaintainStoredTotalsOnCreate() {
+        baseSaleRequestDTO.setSaleDetails(List.of(baseSaleDetailRequestDTO,
+                new SaleDetailRequestDTO(null, 1, BigDecimal.valueOf(250), 10L)));
+
+        when(customerRepository.findById(1L)).thenReturn(Optional.of(baseCustomer));
+        when(productRepository.findAllById(List.of(10L, 10L))).thenReturn(List.of(baseProduct));
+        when(productRepository.decreaseStock(10L, 3)).thenReturn(1);
+        when(saleRepository.save(any(Sale.class))).thenAnswer(invocation -> invocation.getArgument(0));
+
+        saleService.create(baseSaleRequestDTO);
+
+        verify(saleRepository).save(argThat(sale ->
+                sale.getTotal().compareTo(BigDecimal.valueOf(1250)) == 0 && sale.getLineCount() == 2));
+    }
+
+    @Test
+    void shouldAdjustStoredTotalsOnUpdate() {
+        // Arrange: the stored sale has one line of 2 x 500; the request changes its price and adds a line
+        baseSale.setTotal(BigDecimal.valueOf(1000));
+        baseSale.setLineCount(1);
+        baseSaleDetailRequestDTO.setId(100L);
+        baseSaleDetailRequestDTO.setUnitPrice(BigDecimal.valueOf(400));
+        baseSaleRequestDTO.setSaleDetails(List.of(baseSaleDetailRequestDTO,
+                new SaleDetailRequestDTO(null, 1, BigDecimal.valueOf(50), 10L)));
+
+        when(saleRepository.findForUpdateById(200L)).thenReturn(Optional.of(baseSale));
+        when(customerRepository.findById(1L)).thenReturn(Optional.of(baseCustomer));
+        when(productRepository.findAllById(List.of(10L, 10L))).thenReturn(List.of(baseProduct));
+        when(productRepository.decreaseStock(10L, 1)).thenReturn(1);
 
-        List<SaleResponseDTO> result = saleService.findAll();
+        saleService.update(200L, baseSaleRequestDTO);
+
+        assertEquals(0, BigDecimal.valueOf(850).compareTo(baseSale.getTotal()));
+        assertEquals(2, baseSale.getLineCount());
+    }
 
-        assertEquals(1, result.size());
-        assertEquals(200L, result.getFirst().getId());
-        verify(saleRepository).findAll();
-        verify(saleMapper).toResponseList(List.of(baseSale));
+    private static SaleLineView lineView(Long saleId, Long detailId, Integer quantity, String unitPrice) {
+        BigDecimal price = unitPrice != null ? new BigDecimal(unitPrice) : null;
+        return new SaleLineView(saleId, LocalDate.of(2024, 8, 1), null, null, BigDecimal.valueOf(30), 2,
+                1L, "John", "Doe", detailId, quantity, price, null, null,
+                detailId != null ? 10L : null, detailId != null ? "Smart TV" : null, price);
     }
 }
@@ -0,0 +1,37 @@
+package com.argenischacon.inventory_sales_api.service;
+
+import com.argenischacon.inventory_sales_api.model.Product;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+public class StockDeltaPlanTest {
+
+    @Test
+    void shouldFoldChangesPerProductInAscendingIdOrderAndSkipZeroes() {
+        Product tv = product(20L);
+        Product soundbar = product(10L);
+        Product cable = product(30L);
+
+        StockDeltaPlan plan = new StockDeltaPlan();
+        plan.consume(tv, 2);
+        plan.consume(soundbar, 1);
+        plan.consume(tv, 3);
+        plan.restore(cable, 4);
+        plan.consume(cable, 4);
+
+        List<String> applied = new ArrayList<>();
+        plan.forEachChange((product, change) -> applied.add(product.getId() + ":" + change));
+
+        assertEquals(List.of("10:-1", "20:-5"), applied);
+    }
+
+    private static Product product(Long id) {
+        Product product = new Product();
+        product.setId(id);
+        return product;
+    }
+}
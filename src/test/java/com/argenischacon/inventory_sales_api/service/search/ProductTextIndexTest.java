@@ -0,0 +1,88 @@
+package com.argenischacon.inventory_sales_api.service.search;
+
+import com.argenischacon.inventory_sales_api.model.Product;
+import com.argenischacon.inventory_sales_api.repository.ProductRepository;
+import com.argenischacon.inventory_sales_api.repository.ProductTextView;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.data.domain.PageRequest;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+public class ProductTextIndexTest {
+    @Mock
+    private ProductRepository productRepository;
+
+    private ProductTextIndex index;
+
+    @BeforeEach
+    void setUp() {
+        index = new ProductTextIndex(productRepository, 2);
+    }
+
+    @Test
+    void shouldBuildFromRepositoryInBatches() {
+        when(productRepository.findTextViewsByIdGreaterThan(0L, PageRequest.of(0, 2))).thenReturn(List.of(
+                new ProductTextView(1L, "Smart TV", "Televisor 4K"),
+                new ProductTextView(2L, "Cámara réflex", "Con lente 18-55")));
+        when(productRepository.findTextViewsByIdGreaterThan(2L, PageRequest.of(0, 2))).thenReturn(List.of(
+                new ProductTextView(5L, "Smartphone", null)));
+
+        index.rebuild();
+
+        assertEquals(3, index.size());
+        assertEquals(List.of(2L), index.search("camara", 10));
+        assertEquals(List.of(1L), index.search("televisor 4k", 10));
+    }
+
+    @Test
+    void shouldRankExactAndNameMatchesFirst() {
+        index.onProductChanged(ProductChangedEvent.saved(product(1L, "Lamp shade", "Fits a smart bulb")));
+        index.onProductChanged(ProductChangedEvent.saved(product(2L, "Smartphone", "Android")));
+        index.onProductChanged(ProductChangedEvent.saved(product(3L, "Smart TV", "4K")));
+
+        // Exact name match, then prefix name match, then description match
+        assertEquals(List.of(3L, 2L, 1L), index.search("smart", 10));
+        assertEquals(List.of(3L, 2L), index.search("smart", 2));
+        assertEquals(List.of(3L), index.search("SMART 4k", 10));
+    }
+
+    @Test
+    void shouldOnlyExpandPrefixesFromTwoCharacters() {
+        index.onProductChanged(ProductChangedEvent.saved(product(1L, "Smart TV", null)));
+
+        assertTrue(index.search("s", 10).isEmpty());
+        assertEquals(List.of(1L), index.search("sm", 10));
+        assertTrue(index.search("smarts", 10).isEmpty());
+    }
+
+    @Test
+    void shouldReplaceTermsOnUpdateAndDropThemOnDelete() {
+        index.onProductChanged(ProductChangedEvent.saved(product(1L, "Smart TV", null)));
+        index.onProductChanged(ProductChangedEvent.saved(product(1L, "Laptop", null)));
+
+        assertTrue(index.search("smart", 10).isEmpty());
+        assertEquals(List.of(1L), index.search("laptop", 10));
+
+        index.onProductChanged(ProductChangedEvent.deleted(1L));
+
+        assertTrue(index.search("laptop", 10).isEmpty());
+        assertEquals(0, index.size());
+    }
+
+    private static Product product(Long id, String name, String description) {
+        Product product = new Product();
+        product.setId(id);
+        product.setName(name);
+        product.setDescription(description);
+        return product;
+    }
+}